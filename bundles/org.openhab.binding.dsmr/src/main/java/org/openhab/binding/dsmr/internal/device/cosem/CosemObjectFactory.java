@@ -89,11 +89,9 @@ public class CosemObjectFactory {
      */
     public @Nullable CosemObject getCosemObject(String obisIdString, String cosemStringValues) {
         OBISIdentifier obisId;
-        OBISIdentifier reducedObisId;
 
         try {
             obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
         } catch (ParseException pe) {
             logger.debug("Received invalid OBIS identifier: {}", obisIdString);
             return null;
@@ -101,6 +99,19 @@ public class CosemObjectFactory {
 
         logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
 
+        return getCosemObject(obisId, cosemStringValues);
+    }
+
+    /**
+     * Return Cosem Object for the specified already parsed OBIS identifier or null if the values couldn't be parsed
+     * correctly or no corresponding Cosem Object was found
+     *
+     * @param obisId the OBIS message identifier
+     * @param cosemStringValues String containing Cosem values
+     * @return CosemObject or null if parsing failed
+     */
+    public @Nullable CosemObject getCosemObject(OBISIdentifier obisId, String cosemStringValues) {
+        OBISIdentifier reducedObisId = obisId.getReducedOBISIdentifier();
         CosemObject cosemObject = null;
 
         if (obisLookupTableFixed.containsKey(reducedObisId)) {
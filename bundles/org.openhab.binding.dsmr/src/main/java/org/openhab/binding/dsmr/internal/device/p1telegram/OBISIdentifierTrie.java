@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.p1telegram;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectType;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
+
+/**
+ * Trie resolving the raw bytes of OBIS identifiers in a P1 telegram to {@link OBISIdentifier}s.
+ *
+ * The trie is prebuilt with the identifiers of all {@link CosemObjectType}s that don't contain wild cards. Other
+ * identifiers are added the first time they are received, up to {@link #MAX_LEARNED_IDENTIFIERS}. Each identifier is
+ * parsed only once.
+ *
+ * Every identifier also remembers the raw bytes of its last value and the {@link CosemObject} created from them. This
+ * allows the parser to only create new {@link CosemObject}s for values that have changed since the last telegram.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class OBISIdentifierTrie {
+
+    /**
+     * Maximum number of identifiers added at runtime, to protect against garbage on the serial line
+     */
+    static final int MAX_LEARNED_IDENTIFIERS = 256;
+
+    /**
+     * Number of characters that can be part of an OBIS identifier: 0-9 - : . *
+     */
+    private static final int ALPHABET_SIZE = 14;
+
+    /**
+     * A node in the trie. Nodes at the end of an identifier hold the resolved identifier and its last value.
+     */
+    static class Node {
+        private Node @Nullable [] children;
+        private boolean terminal;
+        private boolean resolved;
+        private @Nullable OBISIdentifier obisIdentifier;
+        private String obisIdString = "";
+
+        private byte[] lastValue = new byte[0];
+        private int lastValueLength = -1;
+        private @Nullable CosemObject lastCosemObject;
+
+        /**
+         * @return the parsed identifier or null if the identifier is invalid
+         */
+        public @Nullable OBISIdentifier getObisIdentifier() {
+            if (!resolved) {
+                try {
+                    obisIdentifier = new OBISIdentifier(obisIdString);
+                } catch (ParseException e) {
+                    obisIdentifier = null;
+                }
+                resolved = true;
+            }
+            return obisIdentifier;
+        }
+
+        public String getObisIdString() {
+            return obisIdString;
+        }
+
+        /**
+         * @return true if the given value equals the value last stored with {@link #setLastValue}
+         */
+        public boolean isLastValue(byte[] value, int length) {
+            if (length != lastValueLength) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (value[i] != lastValue[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the {@link CosemObject} last stored with {@link #setLastValue}, null if the value was not valid
+         */
+        public @Nullable CosemObject getLastCosemObject() {
+            return lastCosemObject;
+        }
+
+        public void setLastValue(byte[] value, int length, @Nullable CosemObject cosemObject) {
+            if (lastValue.length < length) {
+                lastValue = new byte[length];
+            }
+            System.arraycopy(value, 0, lastValue, 0, length);
+            lastValueLength = length;
+            lastCosemObject = cosemObject;
+        }
+    }
+
+    private final Node root = new Node();
+    private int learnedIdentifiers;
+
+    /**
+     * Creates a new trie, prebuilt with the fixed identifiers of all {@link CosemObjectType}s
+     */
+    OBISIdentifierTrie() {
+        for (CosemObjectType type : CosemObjectType.values()) {
+            if (!type.obisId.reducedOBISIdentifierIsWildCard()) {
+                byte[] id = type.obisId.toString().getBytes(StandardCharsets.US_ASCII);
+                Node node = find(id, id.length, true);
+                if (node != null && !node.terminal) {
+                    initialize(node, id, id.length);
+                }
+            }
+        }
+        learnedIdentifiers = 0;
+    }
+
+    /**
+     * Looks up the identifier in the given raw bytes, adding it to the trie if it is not present yet.
+     *
+     * @param id raw bytes of the identifier
+     * @param length number of bytes of the identifier
+     * @return the node of the identifier, or null if the bytes can't be part of an OBIS identifier or no more
+     *         identifiers can be added
+     */
+    public @Nullable Node lookup(byte[] id, int length) {
+        Node node = find(id, length, learnedIdentifiers < MAX_LEARNED_IDENTIFIERS);
+        if (node == null) {
+            return null;
+        }
+        if (!node.terminal) {
+            if (learnedIdentifiers >= MAX_LEARNED_IDENTIFIERS) {
+                return null;
+            }
+            initialize(node, id, length);
+            learnedIdentifiers++;
+        }
+        return node;
+    }
+
+    private void initialize(Node node, byte[] id, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) id[i];
+        }
+        node.obisIdString = new String(chars);
+        node.terminal = true;
+    }
+
+    private @Nullable Node find(byte[] id, int length, boolean create) {
+        Node node = root;
+        for (int i = 0; i < length; i++) {
+            int index = indexOf(id[i]);
+            if (index < 0) {
+                return null;
+            }
+            Node[] children = node.children;
+            if (children == null) {
+                if (!create) {
+                    return null;
+                }
+                children = new Node[ALPHABET_SIZE];
+                node.children = children;
+            }
+            Node child = children[index];
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = new Node();
+                children[index] = child;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private static int indexOf(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        switch (b) {
+            case '-':
+                return 10;
+            case ':':
+                return 11;
+            case '.':
+                return 12;
+            case '*':
+                return 13;
+            default:
+                return -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OBISIdentifierTrie [learnedIdentifiers=" + learnedIdentifiers + "]";
+    }
+}
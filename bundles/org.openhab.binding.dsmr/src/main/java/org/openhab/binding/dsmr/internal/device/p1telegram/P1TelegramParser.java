@@ -15,13 +15,14 @@ package org.openhab.binding.dsmr.internal.device.p1telegram;
 import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectFactory;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +33,10 @@ import org.slf4j.LoggerFactory;
  *
  * Data can be parsed in chunks. If a full P1 telegram is received, listeners are notified
  *
+ * The data is processed byte by byte: the CRC16 is computed while reading, OBIS identifiers are resolved through an
+ * {@link OBISIdentifierTrie} and only values whose bytes changed since the previous telegram are parsed into new
+ * {@link CosemObject}s. Unchanged values reuse the {@link CosemObject} of the previous telegram.
+ *
  * @author M. Volaart - Initial contribution
  * @author Hilbrand Bouwkamp - Removed asynchronous call and some clean up
  */
@@ -59,9 +64,14 @@ public class P1TelegramParser implements TelegramParser {
     }
 
     /**
-     * Pattern for the CRC-code
+     * Number of hexadecimal characters of the CRC-code
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final int CRC_LENGTH = 4;
+
+    /**
+     * Initial size of the OBIS identifier and value buffers
+     */
+    private static final int INITIAL_BUFFER_SIZE = 64;
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -70,12 +80,14 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * current obisId buffer.
      */
-    private final StringBuilder obisId = new StringBuilder();
+    private byte[] obisId = new byte[INITIAL_BUFFER_SIZE];
+    private int obisIdLength;
 
     /**
      * Current cosem object values buffer.
      */
-    private final StringBuilder obisValue = new StringBuilder();
+    private byte[] obisValue = new byte[INITIAL_BUFFER_SIZE];
+    private int obisValueLength;
 
     /**
      * In lenient mode store raw data and log when a complete message is received.
@@ -83,9 +95,11 @@ public class P1TelegramParser implements TelegramParser {
     private final StringBuilder rawData = new StringBuilder();
 
     /**
-     * Current crc value read.
+     * Current crc value read, the number of characters read and whether all of them were hexadecimal digits.
      */
-    private final StringBuilder crcValue = new StringBuilder();
+    private int crcValue;
+    private int crcValueLength;
+    private boolean crcValueValid;
 
     /**
      * CRC calculation helper
@@ -112,6 +126,11 @@ public class P1TelegramParser implements TelegramParser {
      */
     private final CosemObjectFactory factory;
 
+    /**
+     * Known OBIS identifiers with their last values
+     */
+    private final OBISIdentifierTrie obisIdentifiers = new OBISIdentifierTrie();
+
     /**
      * Received Cosem Objects in the P1Telegram that is currently received
      */
@@ -139,6 +158,7 @@ public class P1TelegramParser implements TelegramParser {
         state = State.WAIT_FOR_START;
         crc = new CRC16(CRC16.Polynom.CRC16_IBM);
         telegramState = TelegramState.OK;
+        crcValueValid = true;
     }
 
     /**
@@ -160,7 +180,7 @@ public class P1TelegramParser implements TelegramParser {
             }
         }
         for (int i = 0; i < length; i++) {
-            char c = (char) data[i];
+            byte c = data[i];
 
             switch (state) {
                 case WAIT_FOR_START:
@@ -174,9 +194,9 @@ public class P1TelegramParser implements TelegramParser {
                     }
                     break;
                 case CRLF:
-                    if (Character.isWhitespace(c)) { // NOPMD EmptyIfStmt
+                    if (isWhitespace(c)) { // NOPMD EmptyIfStmt
                         // do nothing
-                    } else if (Character.isDigit(c)) {
+                    } else if (isDigit(c)) {
                         setState(State.DATA_OBIS_ID);
                     } else {
                         handleUnexpectedCharacter(c);
@@ -185,9 +205,9 @@ public class P1TelegramParser implements TelegramParser {
                     }
                     break;
                 case DATA_OBIS_ID:
-                    if (Character.isWhitespace(c)) { // NOPMD EmptyIfStmt
+                    if (isWhitespace(c)) { // NOPMD EmptyIfStmt
                         // ignore
-                    } else if (Character.isDigit(c) || c == ':' || c == '-' || c == '.' || c == '*') { // NOPMD
+                    } else if (isDigit(c) || c == ':' || c == '-' || c == '.' || c == '*') { // NOPMD
                         // do nothing
                     } else if (c == '(') {
                         setState(State.DATA_OBIS_VALUE);
@@ -217,9 +237,9 @@ public class P1TelegramParser implements TelegramParser {
                     }
                     break;
                 case DATA_OBIS_VALUE_END:
-                    if (Character.isWhitespace(c)) { // NOPMD EmptyIfStmt
+                    if (isWhitespace(c)) { // NOPMD EmptyIfStmt
                         // ignore
-                    } else if (Character.isDigit(c)) {
+                    } else if (isDigit(c)) {
                         setState(State.DATA_OBIS_ID);
                     } else if (c == '(') {
                         setState(State.DATA_OBIS_VALUE);
@@ -241,16 +261,17 @@ public class P1TelegramParser implements TelegramParser {
                      * P1 telegram is correctly finished
                      */
                     if (c == '\r' || c == '/') {
-                        logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
+                        logger.trace("telegramState {}, crcValue to check 0x{} ({} characters)", telegramState,
+                                Integer.toHexString(crcValue), crcValueLength);
                         // Only perform CRC check if telegram is still ok
-                        if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
+                        if (telegramState == TelegramState.OK && crcValueLength > 0) {
+                            if (crcValueValid && crcValueLength == CRC_LENGTH) {
+                                int crcP1Telegram = crcValue;
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
-                                if (logger.isDebugEnabled()) {
-                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
-                                            String.format("%04X", calculatedCRC));
+                                if (logger.isTraceEnabled()) {
+                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}",
+                                            String.format("%04X", crcP1Telegram), String.format("%04X", calculatedCRC));
                                 }
                                 if (crcP1Telegram != calculatedCRC) {
                                     logger.trace("CRC value does not match, p1 Telegram failed");
@@ -299,8 +320,8 @@ public class P1TelegramParser implements TelegramParser {
      *
      * @param c the unexpected character
      */
-    private void handleUnexpectedCharacter(char c) {
-        logger.debug("Unexpected character '{}' in state: {}. This P1 telegram is marked as failed", c, state);
+    private void handleUnexpectedCharacter(byte c) {
+        logger.debug("Unexpected character '{}' in state: {}. This P1 telegram is marked as failed", (char) c, state);
 
         telegramState = TelegramState.DATA_CORRUPTION;
     }
@@ -310,34 +331,40 @@ public class P1TelegramParser implements TelegramParser {
      *
      * @param c the character to process
      */
-    private void handleCharacter(char c) {
+    private void handleCharacter(byte c) {
         switch (state) {
             case WAIT_FOR_START:
                 // ignore the data
                 break;
             case HEADER:
-                crc.processByte((byte) c);
+                crc.processByte(c);
                 break;
             case CRLF:
-                crc.processByte((byte) c);
+                crc.processByte(c);
                 break;
             case DATA_OBIS_ID:
-                obisId.append(c);
-                crc.processByte((byte) c);
+                if (obisIdLength == obisId.length) {
+                    obisId = Arrays.copyOf(obisId, obisIdLength * 2);
+                }
+                obisId[obisIdLength++] = c;
+                crc.processByte(c);
                 break;
             case DATA_OBIS_VALUE:
-                obisValue.append(c);
-                crc.processByte((byte) c);
-                break;
             case DATA_OBIS_VALUE_END:
-                obisValue.append(c);
-                crc.processByte((byte) c);
+                if (obisValueLength == obisValue.length) {
+                    obisValue = Arrays.copyOf(obisValue, obisValueLength * 2);
+                }
+                obisValue[obisValueLength++] = c;
+                crc.processByte(c);
                 break;
             case CRC_VALUE:
                 if (c == '!') {
-                    crc.processByte((byte) c);
+                    crc.processByte(c);
                 } else {
-                    crcValue.append(c);
+                    int digit = hexDigit(c);
+                    crcValueValid &= digit >= 0;
+                    crcValue = (crcValue << 4 | (digit & 0xF)) & 0xFFFF;
+                    crcValueLength++;
                 }
                 // CRC data is not part of received data
                 break;
@@ -346,14 +373,42 @@ public class P1TelegramParser implements TelegramParser {
         }
     }
 
+    /**
+     * Same as {@link Character#isWhitespace(char)} for the character of the given byte
+     */
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || (c >= '\t' && c <= '\r') || (c >= 0x1C && c <= 0x1F);
+    }
+
+    /**
+     * Same as {@link Character#isDigit(char)} for the character of the given byte
+     */
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * @return the value of the hexadecimal digit, or -1 if the byte is not an upper case hexadecimal digit
+     */
+    private static int hexDigit(byte c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
     /**
      * Clears all internal state
      */
     private void clearInternalData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisIdLength = 0;
+        obisValueLength = 0;
         rawData.setLength(0);
-        crcValue.setLength(0);
+        crcValue = 0;
+        crcValueLength = 0;
+        crcValueValid = true;
         crc.initialize();
         cosemObjects.clear();
         unknownCosemObjects.clear();
@@ -365,23 +420,40 @@ public class P1TelegramParser implements TelegramParser {
      * - current OBIS value
      */
     private void clearObisData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisIdLength = 0;
+        obisValueLength = 0;
     }
 
     /**
      * Store the current CosemObject in the list of received cosem Objects
      */
     private void storeCurrentCosemObject() {
-        String obisIdString = obisId.toString();
-
-        if (!obisIdString.isEmpty()) {
-            final String obisValueString = obisValue.toString();
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValueString);
+        if (obisIdLength > 0) {
+            OBISIdentifierTrie.Node node = obisIdentifiers.lookup(obisId, obisIdLength);
+            CosemObject cosemObject;
+
+            if (node == null) {
+                // not a cacheable identifier, parse it as is
+                cosemObject = factory.getCosemObject(toString(obisId, obisIdLength),
+                        toString(obisValue, obisValueLength));
+            } else if (node.isLastValue(obisValue, obisValueLength)) {
+                cosemObject = node.getLastCosemObject();
+                logger.trace("Value of {} unchanged", node.getObisIdString());
+            } else {
+                OBISIdentifier obisIdentifier = node.getObisIdentifier();
+                if (obisIdentifier == null) {
+                    logger.debug("Received invalid OBIS identifier: {}", node.getObisIdString());
+                    cosemObject = null;
+                } else {
+                    cosemObject = factory.getCosemObject(obisIdentifier, toString(obisValue, obisValueLength));
+                }
+                node.setLastValue(obisValue, obisValueLength, cosemObject);
+            }
 
             if (cosemObject == null) {
                 if (lenientMode) {
-                    unknownCosemObjects.add(new SimpleEntry<String, String>(obisIdString, obisValueString));
+                    unknownCosemObjects.add(new SimpleEntry<String, String>(toString(obisId, obisIdLength),
+                            toString(obisValue, obisValueLength)));
                 }
             } else {
                 logger.trace("Adding {} to list of Cosem Objects", cosemObject);
@@ -391,6 +463,17 @@ public class P1TelegramParser implements TelegramParser {
         clearObisData();
     }
 
+    /**
+     * Converts the bytes to a String, mapping every byte to a single character
+     */
+    private static String toString(byte[] bytes, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) bytes[i];
+        }
+        return new String(chars);
+    }
+
     /**
      * @param newState the new state to set
      */
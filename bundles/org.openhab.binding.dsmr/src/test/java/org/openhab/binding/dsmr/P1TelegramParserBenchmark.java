@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.dsmr.internal.TelegramReaderUtil;
+import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram;
+import org.openhab.binding.dsmr.internal.device.p1telegram.P1TelegramParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Replays captured telegrams through the {@link P1TelegramParser}.
+ *
+ * <code>parseRepeated</code> feeds the same telegram to a single parser, as happens with a meter where only a few
+ * values change between telegrams, so unchanged values are taken from the previous telegram.
+ * <code>parseNew</code> uses a new parser for every telegram, so every value is parsed.
+ *
+ * Run with <code>main</code> from the IDE or through the JMH runner on the test classpath.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class P1TelegramParserBenchmark {
+
+    @Param({ "dsmr_40", "dsmr_50", "Iskra_AM550", "Landis_Gyr_E350", "smarty" })
+    public String telegramName;
+
+    private byte[] telegram;
+    private P1TelegramParser parser;
+    private P1Telegram lastTelegram;
+
+    @Setup
+    public void setUp() {
+        telegram = TelegramReaderUtil.readRawTelegram(telegramName);
+        parser = newParser();
+        parser.parse(telegram, telegram.length);
+    }
+
+    private P1TelegramParser newParser() {
+        P1TelegramParser p1TelegramParser = new P1TelegramParser(t -> lastTelegram = t);
+        p1TelegramParser.setLenientMode(true);
+        return p1TelegramParser;
+    }
+
+    @Benchmark
+    public P1Telegram parseRepeated() {
+        parser.parse(telegram, telegram.length);
+        return lastTelegram;
+    }
+
+    @Benchmark
+    public P1Telegram parseNew() {
+        newParser().parse(telegram, telegram.length);
+        return lastTelegram;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(P1TelegramParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.p1telegram;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+import org.junit.Test;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectType;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
+
+/**
+ * Test class for {@link OBISIdentifierTrie}.
+ *
+ * @author agent - Initial contribution
+ */
+public class OBISIdentifierTrieTest {
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static OBISIdentifierTrie.Node lookup(OBISIdentifierTrie trie, String id) {
+        byte[] data = bytes(id);
+        return trie.lookup(data, data.length);
+    }
+
+    @Test
+    public void testIdentifiersAreResolvedOnce() throws ParseException {
+        OBISIdentifierTrie trie = new OBISIdentifierTrie();
+        OBISIdentifierTrie.Node node = lookup(trie, "1-0:1.8.1");
+
+        assertNotNull(node);
+        assertEquals(new OBISIdentifier("1-0:1.8.1"), node.getObisIdentifier());
+        assertSame(node, lookup(trie, "1-0:1.8.1"));
+        assertSame(node.getObisIdentifier(), lookup(trie, "1-0:1.8.1").getObisIdentifier());
+        assertNotSame(node, lookup(trie, "1-0:1.8.2"));
+    }
+
+    @Test
+    public void testWildcardIdentifiersAreLearned() throws ParseException {
+        OBISIdentifierTrie trie = new OBISIdentifierTrie();
+        OBISIdentifierTrie.Node node = lookup(trie, "0-1:24.2.1");
+
+        assertNotNull(node);
+        assertEquals(new OBISIdentifier("0-1:24.2.1"), node.getObisIdentifier());
+    }
+
+    @Test
+    public void testInvalidIdentifiers() {
+        OBISIdentifierTrie trie = new OBISIdentifierTrie();
+
+        assertNull(lookup(trie, "1-0:1.8.1 "));
+        OBISIdentifierTrie.Node node = lookup(trie, "1-0:");
+        assertNotNull(node);
+        assertNull(node.getObisIdentifier());
+    }
+
+    @Test
+    public void testNumberOfLearnedIdentifiersIsLimited() {
+        OBISIdentifierTrie trie = new OBISIdentifierTrie();
+        for (int i = 0; i < OBISIdentifierTrie.MAX_LEARNED_IDENTIFIERS; i++) {
+            assertNotNull(lookup(trie, "9-9:9.9." + i));
+        }
+        assertNull(lookup(trie, "9-9:9.9.99999"));
+        // known identifiers are still found
+        assertNotNull(lookup(trie, "9-9:9.9.0"));
+        assertNotNull(lookup(trie, "1-0:1.8.1"));
+    }
+
+    @Test
+    public void testLastValue() throws ParseException {
+        OBISIdentifierTrie trie = new OBISIdentifierTrie();
+        OBISIdentifierTrie.Node node = lookup(trie, "1-0:1.8.1");
+        CosemObject cosemObject = new CosemObject(CosemObjectType.EMETER_DELIVERY_TARIFF1,
+                new OBISIdentifier("1-0:1.8.1"));
+        byte[] value = bytes("(123456.789*kWh)\r\n");
+
+        assertFalse(node.isLastValue(value, value.length));
+        node.setLastValue(value, value.length, cosemObject);
+        assertTrue(node.isLastValue(value, value.length));
+        assertSame(cosemObject, node.getLastCosemObject());
+        assertFalse(node.isLastValue(bytes("(123456.790*kWh)\r\n"), value.length));
+        assertFalse(node.isLastValue(value, value.length - 1));
+    }
+}
@@ -12,10 +12,11 @@
  */
 package org.openhab.binding.dsmr.internal.device.p1telegram;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -63,4 +64,25 @@ public class P1TelegramParserTest {
         assertEquals("Expected number of objects", numberOfCosemObjects,
                 telegram.getCosemObjects().stream().mapToInt(co -> co.getCosemValues().size()).sum());
     }
+
+    @Test
+    public void testRepeatedTelegramReusesUnchangedObjects() {
+        AtomicReference<P1Telegram> p1Telegram = new AtomicReference<>(null);
+        byte[] data = TelegramReaderUtil.readRawTelegram(telegramName);
+        P1TelegramParser parser = new P1TelegramParser(p1Telegram::set);
+        parser.setLenientMode(true);
+
+        parser.parse(data, data.length);
+        P1Telegram first = p1Telegram.get();
+        parser.parse(data, data.length);
+        P1Telegram second = p1Telegram.get();
+
+        assertNotSame(first, second);
+        assertEquals(TelegramState.OK, second.getTelegramState());
+        assertEquals(0, second.getUnknownCosemObjects().size());
+        assertEquals(first.getCosemObjects().size(), second.getCosemObjects().size());
+        for (int i = 0; i < first.getCosemObjects().size(); i++) {
+            assertSame(first.getCosemObjects().get(i), second.getCosemObjects().get(i));
+        }
+    }
 }
@@ -15,6 +15,7 @@ package org.openhab.binding.exec.internal;
 import static org.openhab.binding.exec.internal.ExecBindingConstants.THING_COMMAND;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -25,7 +26,12 @@ import org.eclipse.smarthome.core.thing.binding.BaseThingHandlerFactory;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandlerFactory;
 import org.openhab.binding.exec.internal.handler.ExecHandler;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The {@link ExecHandlerFactory} is responsible for creating things and thing
@@ -39,6 +45,37 @@ public class ExecHandlerFactory extends BaseThingHandlerFactory {
 
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections.singleton(THING_COMMAND);
 
+    /**
+     * Default maximum number of coprocesses running the same command line
+     */
+    private static final int DEFAULT_COPROCESS_POOL_SIZE = 2;
+    private static final String CONFIG_COPROCESS_POOL_SIZE = "coprocessPoolSize";
+
+    private final Logger logger = LoggerFactory.getLogger(ExecHandlerFactory.class);
+
+    private final CoprocessPool coprocessPool = new CoprocessPool(DEFAULT_COPROCESS_POOL_SIZE,
+            CoprocessPool::splitAtWhitespace);
+
+    @Activate
+    protected void activate(ComponentContext componentContext, @Nullable Map<String, Object> config) {
+        super.activate(componentContext);
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(@Nullable Map<String, Object> config) {
+        Object value = config == null ? null : config.get(CONFIG_COPROCESS_POOL_SIZE);
+        int poolSize = DEFAULT_COPROCESS_POOL_SIZE;
+        if (value != null) {
+            try {
+                poolSize = Math.max(1, Integer.parseInt(value.toString().trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for {}, using {}", value, CONFIG_COPROCESS_POOL_SIZE, poolSize);
+            }
+        }
+        coprocessPool.setMaxProcessesPerCommand(poolSize);
+    }
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         return SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID);
@@ -49,9 +86,15 @@ public class ExecHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (thingTypeUID.equals(THING_COMMAND)) {
-            return new ExecHandler(thing);
+            return new ExecHandler(thing, coprocessPool);
         }
 
         return null;
     }
+
+    @Override
+    protected void deactivate(ComponentContext componentContext) {
+        coprocessPool.shutdown();
+        super.deactivate(componentContext);
+    }
 }
@@ -23,6 +23,7 @@ import java.util.Calendar;
 import java.util.IllegalFormatException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -42,6 +43,7 @@ import org.eclipse.smarthome.core.transform.TransformationHelper;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
+import org.openhab.binding.exec.internal.CoprocessPool;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
 import org.slf4j.Logger;
@@ -66,6 +68,7 @@ public class ExecHandler extends BaseThingHandler {
     public static final String COMMAND = "command";
     public static final String TRANSFORM = "transform";
     public static final String AUTORUN = "autorun";
+    public static final String COPROCESS = "coprocess";
 
     // RegEx to extract a parse a function String <code>'(.*?)\((.*)\)'</code>
     private static final Pattern EXTRACT_FUNCTION_PATTERN = Pattern.compile("(.*?)\\((.*)\\)");
@@ -75,9 +78,12 @@ public class ExecHandler extends BaseThingHandler {
 
     private static Runtime rt = Runtime.getRuntime();
 
-    public ExecHandler(Thing thing) {
+    private final CoprocessPool coprocessPool;
+
+    public ExecHandler(Thing thing, CoprocessPool coprocessPool) {
         super(thing);
         this.bundleContext = FrameworkUtil.getBundle(ExecHandler.class).getBundleContext();
+        this.coprocessPool = coprocessPool;
     }
 
     @Override
@@ -141,7 +147,10 @@ public class ExecHandler extends BaseThingHandler {
                 timeOut = ((BigDecimal) getConfig().get(TIME_OUT)).intValue() * 1000;
             }
 
-            if (commandLine != null && !commandLine.isEmpty()) {
+            if (commandLine != null && !commandLine.isEmpty() && getConfig().get(COPROCESS) != null
+                    && ((Boolean) getConfig().get(COPROCESS)).booleanValue()) {
+                executeCoprocess(commandLine, timeOut);
+            } else if (commandLine != null && !commandLine.isEmpty()) {
                 updateState(RUN, OnOffType.ON);
 
                 // For some obscure reason, when using Apache Common Exec, or using a straight implementation of
@@ -246,6 +255,44 @@ public class ExecHandler extends BaseThingHandler {
 
     };
 
+    /**
+     * Send the last input as a line to the coprocess running the command line, and publish the line it answers with.
+     * The command line is not formatted, and there is no exit value.
+     */
+    private void executeCoprocess(String commandLine, int timeOut) {
+        updateState(RUN, OnOffType.ON);
+
+        String input = lastInput != null ? lastInput : "";
+        logger.trace("Sending '{}' to the coprocess '{}'", input, commandLine);
+
+        String response;
+        try {
+            response = coprocessPool.execute(commandLine, input, timeOut);
+            logger.debug("Exec [{}]: '{}'", "OUTPUT", response);
+        } catch (IOException | TimeoutException e) {
+            logger.error("An exception occurred while executing the coprocess '{}' : '{}'", commandLine,
+                    e.getMessage());
+            updateState(RUN, OnOffType.OFF);
+            updateState(OUTPUT, new StringType(e.getMessage()));
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            updateState(RUN, OnOffType.OFF);
+            return;
+        }
+
+        updateState(RUN, OnOffType.OFF);
+
+        String transformedResponse = response;
+        String transformation = (String) getConfig().get(TRANSFORM);
+        if (transformation != null && transformation.length() > 0) {
+            transformedResponse = transformResponse(transformedResponse, transformation);
+        }
+
+        updateState(OUTPUT, new StringType(transformedResponse));
+        updateState(LAST_EXECUTION, new DateTimeType(ZonedDateTime.now()));
+    }
+
     protected @Nullable String transformResponse(String response, String transformation) {
         String transformedResponse;
 
@@ -20,11 +20,16 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +40,7 @@ import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
 import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
+import org.openhab.binding.homematic.internal.communicator.client.RpcInterfaceMetrics;
 import org.openhab.binding.homematic.internal.communicator.client.TransferMode;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
 import org.openhab.binding.homematic.internal.communicator.client.XmlRpcClient;
@@ -90,6 +96,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String METADATA_LOADER_POOL_NAME = "homematicMetadata";
+    private static final int MAX_PARALLEL_METADATA_LOADERS = 4;
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<TransferMode, RpcClient<?>>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<TransferMode, RpcServer>();
@@ -106,7 +114,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<String, HmDevice>());
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<HmInterface, TransferMode>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<VirtualDatapointHandler>();
-    private boolean cancelLoadAllMetadata;
+    private volatile boolean cancelLoadAllMetadata;
+    private final DeviceMetadataCache metadataCache;
+    private final Object deviceLoadLock = new Object();
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
@@ -139,6 +149,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         this.config = config;
         this.gatewayAdapter = gatewayAdapter;
         this.httpClient = httpClient;
+        this.metadataCache = new DeviceMetadataCache(DeviceMetadataCache.getFolder(id));
     }
 
     @Override
@@ -237,11 +248,23 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
      */
     protected synchronized void stopClients() {
         for (RpcClient<?> rpcClient : rpcClients.values()) {
+            logMetrics(rpcClient);
             rpcClient.dispose();
         }
         rpcClients.clear();
     }
 
+    /**
+     * Logs the request metrics of all interfaces of the client.
+     */
+    private void logMetrics(RpcClient<?> rpcClient) {
+        if (logger.isDebugEnabled()) {
+            for (RpcInterfaceMetrics metrics : rpcClient.getInterfaceMetrics()) {
+                logger.debug("RPC metrics of gateway '{}', {}", id, metrics);
+            }
+        }
+    }
+
     /**
      * Starts the Homematic RPC server.
      */
@@ -365,67 +388,130 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         cancelLoadAllMetadata = true;
     }
 
+    @Override
+    public void clearDeviceMetadataCache() {
+        metadataCache.clear();
+    }
+
     @Override
     public void loadAllDeviceMetadata() throws IOException {
         cancelLoadAllMetadata = false;
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
-        // loading datapoints for all channels
-        Set<String> loadedDevices = new HashSet<String>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<String, Collection<HmDatapoint>>();
+        // loading datapoints for all channels, the devices of an interface are loaded one after the other, at most
+        // MAX_PARALLEL_METADATA_LOADERS interfaces at the same time
+        Map<HmInterface, List<HmDevice>> devicesByInterface = new LinkedHashMap<HmInterface, List<HmDevice>>();
         for (HmDevice device : deviceDescriptions) {
-            if (!cancelLoadAllMetadata) {
-                try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
-                    } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
-                                }
+            devicesByInterface.computeIfAbsent(device.getHmInterface(), hmInterface -> new ArrayList<HmDevice>())
+                    .add(device);
+        }
+        ConcurrentLinkedQueue<List<HmDevice>> pendingInterfaces = new ConcurrentLinkedQueue<List<HmDevice>>(
+                devicesByInterface.values());
+        Set<String> loadedDevices = ConcurrentHashMap.newKeySet();
+        int loaderCount = Math.max(1, Math.min(devicesByInterface.size(), MAX_PARALLEL_METADATA_LOADERS));
+        long startTime = System.currentTimeMillis();
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        try {
+            for (int i = 0; i < loaderCount; i++) {
+                futures.add(ThreadPoolManager.getPool(METADATA_LOADER_POOL_NAME).submit(() -> {
+                    List<HmDevice> interfaceDevices;
+                    while ((interfaceDevices = pendingInterfaces.poll()) != null) {
+                        for (HmDevice device : interfaceDevices) {
+                            if (cancelLoadAllMetadata) {
+                                return;
+                            }
+                            if (loadDeviceMetadata(device)) {
+                                loadedDevices.add(device.getAddress());
                             }
                         }
                     }
-                    prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
-                } catch (IOException ex) {
-                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
-                            ex.getMessage());
-                }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            cancelLoadAllMetadata = true;
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading the device metadata from gateway " + id);
+        } catch (ExecutionException ex) {
+            cancelLoadAllMetadata = true;
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
             }
         }
+        logger.debug("Loaded metadata of {} devices from gateway '{}' in {} ms", loadedDevices.size(), id,
+                System.currentTimeMillis() - startTime);
+
         if (!cancelLoadAllMetadata) {
             devices.keySet().retainAll(loadedDevices);
+            metadataCache.removeUnused(deviceDescriptions);
+        }
+        for (RpcClient<?> rpcClient : rpcClients.values()) {
+            logMetrics(rpcClient);
         }
         initialized = true;
     }
 
+    /**
+     * Loads the datapoint metadata of all channels of the device, returns true if the device has been loaded.
+     */
+    private boolean loadDeviceMetadata(HmDevice device) {
+        try {
+            logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+            if (device.isGatewayExtras()) {
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+            } else {
+                boolean cacheOutdated = false;
+                for (HmChannel channel : device.getChannels()) {
+                    logger.trace("  Loading channel {}", channel);
+                    // speed up metadata generation a little bit for equal channels in the gateway devices
+                    if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
+                            || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
+                        HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                        cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+                    } else {
+                        Collection<HmDatapoint> cachedDatapoints = metadataCache.getChannelDatapoints(device,
+                                channel.getNumber());
+                        if (cachedDatapoints != null) {
+                            // clone all datapoints
+                            cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                        } else {
+                            logger.trace("    Loading datapoints into channel {}", channel);
+                            addChannelDatapoints(channel, HmParamsetType.MASTER);
+                            addChannelDatapoints(channel, HmParamsetType.VALUES);
+
+                            // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                            // the data point set might change depending on the selected mode.
+                            if (!channel.isReconfigurable()) {
+                                cacheOutdated = true;
+                            }
+                        }
+                    }
+                }
+                if (cacheOutdated) {
+                    metadataCache.put(device);
+                }
+            }
+            synchronized (deviceLoadLock) {
+                prepareDevice(device);
+                gatewayAdapter.onDeviceLoaded(device);
+            }
+            return true;
+        } catch (IOException ex) {
+            logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
+                    ex.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
@@ -0,0 +1,368 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for the datapoint metadata (paramset descriptions) of the channels of a device type. The metadata is stored
+ * in one file per device type and firmware, so it survives restarts and is shared by all devices of the same type.
+ * Files of device types and firmwares no longer in use are removed with {@link #removeUnused(Collection)}.
+ *
+ * Reconfigurable channels are not cached, their datapoints depend on the selected channel function.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCache {
+    private final Logger logger = LoggerFactory.getLogger(DeviceMetadataCache.class);
+
+    private static final String CACHE_FOLDER = "cache" + File.separator + "org.openhab.binding.homematic";
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".metadata";
+    private static final char FIRMWARE_SEPARATOR = '@';
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_INTEGER = 1;
+    private static final byte VALUE_LONG = 2;
+    private static final byte VALUE_DOUBLE = 3;
+    private static final byte VALUE_FLOAT = 4;
+    private static final byte VALUE_BOOLEAN = 5;
+    private static final byte VALUE_STRING = 6;
+    private static final byte VALUE_BIG_DECIMAL = 7;
+    private static final byte VALUE_BIG_INTEGER = 8;
+
+    private final File folder;
+    // an empty map marks a device type without cached metadata
+    private final Map<String, Map<Integer, List<HmDatapoint>>> metadataByDeviceType = new ConcurrentHashMap<>();
+
+    public DeviceMetadataCache(File folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Returns the cache folder of the gateway with the given id.
+     */
+    public static File getFolder(String gatewayId) {
+        return new File(ConfigConstants.getUserDataFolder() + File.separator + CACHE_FOLDER, gatewayId);
+    }
+
+    /**
+     * Returns the cached datapoints of the channel with the given number, null if the channel is not cached. The
+     * returned datapoints must be cloned before they are added to a channel.
+     */
+    public Collection<HmDatapoint> getChannelDatapoints(HmDevice device, int channelNumber) {
+        String key = getKey(device);
+        Map<Integer, List<HmDatapoint>> metadata = metadataByDeviceType.get(key);
+        if (metadata == null) {
+            // read outside of the map, a concurrent clear must not wait for the file while holding a map bin
+            Map<Integer, List<HmDatapoint>> readMetadata = readFile(device);
+            metadata = metadataByDeviceType.putIfAbsent(key, readMetadata);
+            if (metadata == null) {
+                metadata = readMetadata;
+            }
+        }
+        return metadata.get(channelNumber);
+    }
+
+    /**
+     * Stores the datapoints of all non reconfigurable channels of the loaded device.
+     */
+    public void put(HmDevice device) {
+        Map<Integer, List<HmDatapoint>> metadata = new HashMap<>();
+        for (HmChannel channel : device.getChannels()) {
+            if (!channel.isReconfigurable()) {
+                List<HmDatapoint> datapoints = new ArrayList<>();
+                for (HmDatapoint dp : channel.getDatapoints()) {
+                    if (!dp.isVirtual()) {
+                        HmDatapoint clonedDp = dp.clone();
+                        clonedDp.setChannel(null);
+                        clonedDp.setValue(null);
+                        datapoints.add(clonedDp);
+                    }
+                }
+                metadata.put(channel.getNumber(), datapoints);
+            }
+        }
+        metadataByDeviceType.put(getKey(device), metadata);
+        writeFile(device, metadata);
+    }
+
+    /**
+     * Removes all cached metadata, including the files and the folder.
+     */
+    public void clear() {
+        metadataByDeviceType.clear();
+        synchronized (this) {
+            File[] files = folder.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    deleteFile(file);
+                }
+            }
+            deleteFile(folder);
+        }
+    }
+
+    /**
+     * Removes the cached metadata of all device types and firmwares not used by any of the given devices. Must only
+     * be called with the complete list of devices of the gateway.
+     */
+    public void removeUnused(Collection<HmDevice> devices) {
+        Set<String> usedKeys = new HashSet<>();
+        Set<String> usedFileNames = new HashSet<>();
+        for (HmDevice device : devices) {
+            usedKeys.add(getKey(device));
+            usedFileNames.add(getFile(device).getName());
+        }
+        metadataByDeviceType.keySet().retainAll(usedKeys);
+        synchronized (this) {
+            File[] unusedFiles = folder
+                    .listFiles((dir, name) -> name.endsWith(FILE_EXTENSION) && !usedFileNames.contains(name));
+            if (unusedFiles != null) {
+                for (File unusedFile : unusedFiles) {
+                    logger.debug("Removing unused metadata cache file '{}'", unusedFile);
+                    deleteFile(unusedFile);
+                }
+            }
+        }
+    }
+
+    private String getKey(HmDevice device) {
+        return device.getType() + FIRMWARE_SEPARATOR + device.getFirmware();
+    }
+
+    private File getFile(HmDevice device) {
+        return new File(folder,
+                sanitize(device.getType()) + FIRMWARE_SEPARATOR + sanitize(device.getFirmware()) + FILE_EXTENSION);
+    }
+
+    private static String sanitize(String name) {
+        return String.valueOf(name).replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Reads the metadata of the device type from the file, returns an empty map if there is no valid file.
+     */
+    private synchronized Map<Integer, List<HmDatapoint>> readFile(HmDevice device) {
+        File file = getFile(device);
+        if (!file.isFile()) {
+            return Collections.emptyMap();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != FORMAT_VERSION || !String.valueOf(device.getType()).equals(in.readUTF())
+                    || !String.valueOf(device.getFirmware()).equals(in.readUTF())) {
+                logger.debug("Discarding outdated metadata cache file '{}'", file);
+                deleteFile(file);
+                return Collections.emptyMap();
+            }
+            Map<Integer, List<HmDatapoint>> metadata = new HashMap<>();
+            int channelCount = in.readInt();
+            for (int i = 0; i < channelCount; i++) {
+                int channelNumber = in.readInt();
+                int datapointCount = in.readInt();
+                List<HmDatapoint> datapoints = new ArrayList<>();
+                for (int j = 0; j < datapointCount; j++) {
+                    datapoints.add(readDatapoint(in));
+                }
+                metadata.put(channelNumber, datapoints);
+            }
+            logger.trace("Read metadata of device type '{}' with firmware '{}' from cache", device.getType(),
+                    device.getFirmware());
+            return metadata;
+        } catch (IOException | IllegalArgumentException | ClassCastException ex) {
+            logger.debug("Discarding invalid metadata cache file '{}': {}", file, ex.getMessage());
+            deleteFile(file);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Writes the metadata of the device type to the file.
+     */
+    private synchronized void writeFile(HmDevice device, Map<Integer, List<HmDatapoint>> metadata) {
+        File file = getFile(device);
+        File tempFile = new File(folder, file.getName() + ".tmp");
+        try {
+            Files.createDirectories(folder.toPath());
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(String.valueOf(device.getType()));
+                out.writeUTF(String.valueOf(device.getFirmware()));
+                out.writeInt(metadata.size());
+                for (Map.Entry<Integer, List<HmDatapoint>> entry : metadata.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (HmDatapoint dp : entry.getValue()) {
+                        writeDatapoint(out, dp);
+                    }
+                }
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            logger.debug("Can't write metadata cache file '{}': {}", file, ex.getMessage());
+            deleteFile(tempFile);
+        }
+    }
+
+    private void deleteFile(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException ex) {
+            logger.debug("Can't delete metadata cache file '{}': {}", file, ex.getMessage());
+        }
+    }
+
+    private void writeDatapoint(DataOutputStream out, HmDatapoint dp) throws IOException {
+        if (dp.getName() == null || dp.getType() == null || dp.getParamsetType() == null) {
+            throw new IOException("Incomplete datapoint: " + dp);
+        }
+        out.writeUTF(dp.getName());
+        writeValue(out, dp.getDescription());
+        out.writeUTF(dp.getType().name());
+        out.writeUTF(dp.getParamsetType().name());
+        writeValue(out, dp.getMinValue());
+        writeValue(out, dp.getMaxValue());
+        writeValue(out, dp.getStep());
+        String[] options = dp.getOptions();
+        out.writeInt(options == null ? -1 : options.length);
+        if (options != null) {
+            for (String option : options) {
+                writeValue(out, option);
+            }
+        }
+        out.writeBoolean(dp.isReadOnly());
+        out.writeBoolean(dp.isReadable());
+        out.writeBoolean(dp.isTrigger());
+        writeValue(out, dp.getInfo());
+        writeValue(out, dp.getUnit());
+        writeValue(out, dp.getDefaultValue());
+    }
+
+    private HmDatapoint readDatapoint(DataInputStream in) throws IOException {
+        HmDatapoint dp = new HmDatapoint();
+        dp.setName(in.readUTF());
+        dp.setDescription((String) readValue(in));
+        dp.setType(HmValueType.valueOf(in.readUTF()));
+        dp.setParamsetType(HmParamsetType.valueOf(in.readUTF()));
+        dp.setMinValue((Number) readValue(in));
+        dp.setMaxValue((Number) readValue(in));
+        dp.setStep((Number) readValue(in));
+        int optionCount = in.readInt();
+        if (optionCount >= 0) {
+            String[] options = new String[optionCount];
+            for (int i = 0; i < optionCount; i++) {
+                options[i] = (String) readValue(in);
+            }
+            dp.setOptions(options);
+        }
+        dp.setReadOnly(in.readBoolean());
+        dp.setReadable(in.readBoolean());
+        dp.setTrigger(in.readBoolean());
+        dp.setInfo((String) readValue(in));
+        dp.setUnit((String) readValue(in));
+        dp.setDefaultValue(readValue(in));
+        return dp;
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof Integer) {
+            out.writeByte(VALUE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(VALUE_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof String) {
+            out.writeByte(VALUE_STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(VALUE_BIG_DECIMAL);
+            out.writeUTF(value.toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(VALUE_BIG_INTEGER);
+            out.writeUTF(value.toString());
+        } else {
+            throw new IOException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte valueType = in.readByte();
+        switch (valueType) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_INTEGER:
+                return in.readInt();
+            case VALUE_LONG:
+                return in.readLong();
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_FLOAT:
+                return in.readFloat();
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_STRING:
+                return in.readUTF();
+            case VALUE_BIG_DECIMAL:
+                return new BigDecimal(in.readUTF());
+            case VALUE_BIG_INTEGER:
+                return new BigInteger(in.readUTF());
+            default:
+                throw new IOException("Unknown value type: " + valueType);
+        }
+    }
+}
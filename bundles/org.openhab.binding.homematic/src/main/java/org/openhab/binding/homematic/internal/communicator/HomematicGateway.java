@@ -53,6 +53,11 @@ public interface HomematicGateway {
      */
     public void cancelLoadAllDeviceMetadata();
 
+    /**
+     * Removes the cached datapoint metadata, it is loaded from the gateway again with the next device discovery.
+     */
+    public void clearDeviceMetadataCache();
+
     /**
      * Loads all device, channel and datapoint metadata from the gateway.
      */
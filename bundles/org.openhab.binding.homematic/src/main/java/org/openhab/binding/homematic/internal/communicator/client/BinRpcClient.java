@@ -63,7 +63,7 @@ public class BinRpcClient extends RpcClient<byte[]> {
      * Sends a BIN-RPC message and parses the response to see if there was an error.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
@@ -75,10 +75,17 @@ public class BinRpcClient extends RpcClient<byte[]> {
      */
     private Object[] sendMessage(int port, RpcRequest<byte[]> request, int rpcRetryCounter) throws IOException {
         BinRpcMessage resp = null;
+        SocketInfo socketInfo = null;
+        boolean reusable = false;
         try {
-            Socket socket = socketHandler.getSocket(port);
+            long waitStarted = System.nanoTime();
+            socketInfo = socketHandler.getSocket(port);
+            getInterfaceMetrics(port).connectionWaited(System.nanoTime() - waitStarted);
+            Socket socket = socketInfo.getSocket();
             socket.getOutputStream().write(request.createMessage());
             resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            // the response has been read completely, the socket can be used for the next request
+            reusable = true;
             return new RpcResponseParser(request).parse(resp.getResponseData());
         } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
             // throw immediately, don't retry the message
@@ -90,10 +97,18 @@ public class BinRpcClient extends RpcClient<byte[]> {
                 rpcRetryCounter++;
                 logger.debug("BinRpcMessage socket failure, sending message again {}/{}", rpcRetryCounter,
                         MAX_RPC_RETRY);
+                // hand back the broken socket before retrying, the idle sockets of the port are probably broken too
+                if (socketInfo != null) {
+                    socketHandler.returnSocket(port, socketInfo, false);
+                    socketInfo = null;
+                }
                 socketHandler.removeSocket(port);
                 return sendMessage(port, request, rpcRetryCounter);
             }
         } finally {
+            if (socketInfo != null) {
+                socketHandler.returnSocket(port, socketInfo, reusable);
+            }
             if (logger.isTraceEnabled()) {
                 logger.trace("Client BinRpcResponse:\n{}", resp == null ? "null" : resp.toString());
             }
@@ -19,6 +19,10 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.homematic.internal.HomematicBindingConstants;
@@ -46,6 +50,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Client implementation for sending messages via BIN-RPC to a Homematic gateway.
+ * Requests may be sent concurrently, identical getParamset and getValue requests which are in progress at the same
+ * time are sent only once. Values written to the same device are sent one after the other, in the order they were
+ * set.
  *
  * @author Gerhard Riegler - Initial contribution
  */
@@ -55,6 +62,10 @@ public abstract class RpcClient<T> {
 
     protected HomematicConfig config;
 
+    private final Map<Integer, RpcInterfaceMetrics> metricsPerPort = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object[]>> runningRequests = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> writeLocks = new ConcurrentHashMap<>();
+
     public RpcClient(HomematicConfig config) {
         this.config = config;
     }
@@ -79,6 +90,81 @@ public abstract class RpcClient<T> {
      */
     protected abstract Object[] sendMessage(int port, RpcRequest<T> request) throws IOException;
 
+    /**
+     * Sends the RPC message to the gateway and records the request in the metrics of the interface.
+     */
+    private Object[] send(int port, RpcRequest<T> request) throws IOException {
+        RpcInterfaceMetrics metrics = getInterfaceMetrics(port);
+        long started = metrics.requestStarted();
+        boolean failed = true;
+        try {
+            Object[] result = sendMessage(port, request);
+            failed = false;
+            return result;
+        } finally {
+            metrics.requestFinished(started, failed);
+        }
+    }
+
+    /**
+     * Sends the RPC message to the gateway, unless an identical request is already in progress. In that case the
+     * response of the running request is returned. Only use this for requests without side effects.
+     */
+    private Object[] sendCoalesced(int port, RpcRequest<T> request, String requestKey) throws IOException {
+        String key = port + ":" + request.getMethodName() + ":" + requestKey;
+        CompletableFuture<Object[]> ownFuture = new CompletableFuture<>();
+        CompletableFuture<Object[]> runningFuture = runningRequests.putIfAbsent(key, ownFuture);
+        if (runningFuture != null) {
+            getInterfaceMetrics(port).requestCoalesced();
+            return awaitResponse(runningFuture);
+        }
+        try {
+            Object[] result = send(port, request);
+            ownFuture.complete(result);
+            return result;
+        } catch (IOException | RuntimeException ex) {
+            ownFuture.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            runningRequests.remove(key, ownFuture);
+        }
+    }
+
+    /**
+     * Waits for the response of a running request and rethrows its failure.
+     */
+    private Object[] awaitResponse(CompletableFuture<Object[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the response of a running request");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                // rethrow the same type, callers react on UnknownRpcFailureException and UnknownParameterSetException
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Returns the request metrics of the given port, creates them if required.
+     */
+    protected RpcInterfaceMetrics getInterfaceMetrics(int port) {
+        return metricsPerPort.computeIfAbsent(port, RpcInterfaceMetrics::new);
+    }
+
+    /**
+     * Returns the request metrics of all interfaces used by this client.
+     */
+    public Collection<RpcInterfaceMetrics> getInterfaceMetrics() {
+        return metricsPerPort.values();
+    }
+
     /**
      * Register a callback for the specified interface where the Homematic gateway can send its events.
      */
@@ -89,7 +175,7 @@ public abstract class RpcClient<T> {
         if (config.getGatewayInfo().isHomegear()) {
             request.addArg(new Integer(0x22));
         }
-        sendMessage(config.getRpcPort(hmInterface), request);
+        send(config.getRpcPort(hmInterface), request);
     }
 
     /**
@@ -98,7 +184,7 @@ public abstract class RpcClient<T> {
     public void release(HmInterface hmInterface) throws IOException {
         RpcRequest<T> request = createRpcRequest("init");
         request.addArg(getRpcCallbackUrl());
-        sendMessage(config.getRpcPort(hmInterface), request);
+        send(config.getRpcPort(hmInterface), request);
     }
 
     /**
@@ -107,7 +193,7 @@ public abstract class RpcClient<T> {
     public void ping(HmInterface hmInterface, String callerId) throws IOException {
         RpcRequest<T> request = createRpcRequest("ping");
         request.addArg(callerId);
-        sendMessage(config.getRpcPort(hmInterface), request);
+        send(config.getRpcPort(hmInterface), request);
     }
 
     /**
@@ -115,7 +201,7 @@ public abstract class RpcClient<T> {
      */
     public ListBidcosInterfacesParser listBidcosInterfaces(HmInterface hmInterface) throws IOException {
         RpcRequest<T> request = createRpcRequest("listBidcosInterfaces");
-        return new ListBidcosInterfacesParser().parse(sendMessage(config.getRpcPort(hmInterface), request));
+        return new ListBidcosInterfacesParser().parse(send(config.getRpcPort(hmInterface), request));
     }
 
     /**
@@ -124,7 +210,7 @@ public abstract class RpcClient<T> {
     private GetDeviceDescriptionParser getDeviceDescription(HmInterface hmInterface) throws IOException {
         RpcRequest<T> request = createRpcRequest("getDeviceDescription");
         request.addArg("BidCoS-RF");
-        return new GetDeviceDescriptionParser().parse(sendMessage(config.getRpcPort(hmInterface), request));
+        return new GetDeviceDescriptionParser().parse(send(config.getRpcPort(hmInterface), request));
     }
 
     /**
@@ -132,7 +218,7 @@ public abstract class RpcClient<T> {
      */
     public void getAllSystemVariables(HmChannel channel) throws IOException {
         RpcRequest<T> request = createRpcRequest("getAllSystemVariables");
-        new GetAllSystemVariablesParser(channel).parse(sendMessage(config.getRpcPort(channel), request));
+        new GetAllSystemVariablesParser(channel).parse(send(config.getRpcPort(channel), request));
     }
 
     /**
@@ -140,7 +226,7 @@ public abstract class RpcClient<T> {
      */
     public void loadDeviceNames(HmInterface hmInterface, Collection<HmDevice> devices) throws IOException {
         RpcRequest<T> request = createRpcRequest("getDeviceInfo");
-        new HomegearLoadDeviceNamesParser(devices).parse(sendMessage(config.getRpcPort(hmInterface), request));
+        new HomegearLoadDeviceNamesParser(devices).parse(send(config.getRpcPort(hmInterface), request));
     }
 
     /**
@@ -149,7 +235,7 @@ public abstract class RpcClient<T> {
     public void checkInterface(HmInterface hmInterface) throws IOException {
         RpcRequest<T> request = createRpcRequest("init");
         request.addArg("http://openhab.validation:1000");
-        sendMessage(config.getRpcPort(hmInterface), request);
+        send(config.getRpcPort(hmInterface), request);
     }
 
     /**
@@ -157,7 +243,7 @@ public abstract class RpcClient<T> {
      */
     public void getAllScripts(HmChannel channel) throws IOException {
         RpcRequest<T> request = createRpcRequest("getAllScripts");
-        new GetAllScriptsParser(channel).parse(sendMessage(config.getRpcPort(channel), request));
+        new GetAllScriptsParser(channel).parse(send(config.getRpcPort(channel), request));
     }
 
     /**
@@ -165,7 +251,7 @@ public abstract class RpcClient<T> {
      */
     public Collection<HmDevice> listDevices(HmInterface hmInterface) throws IOException {
         RpcRequest<T> request = createRpcRequest("listDevices");
-        return new ListDevicesParser(hmInterface, config).parse(sendMessage(config.getRpcPort(hmInterface), request));
+        return new ListDevicesParser(hmInterface, config).parse(send(config.getRpcPort(hmInterface), request));
     }
 
     /**
@@ -179,7 +265,7 @@ public abstract class RpcClient<T> {
         RpcRequest<T> request = createRpcRequest("getParamsetDescription");
         request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
         request.addArg(paramsetType.toString());
-        new GetParamsetDescriptionParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
+        new GetParamsetDescriptionParser(channel, paramsetType).parse(send(config.getRpcPort(channel), request));
     }
 
     /**
@@ -191,14 +277,16 @@ public abstract class RpcClient<T> {
             return;
         }
 
+        String channelAddress = getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel);
         RpcRequest<T> request = createRpcRequest("getParamset");
-        request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
+        request.addArg(channelAddress);
         request.addArg(paramsetType.toString());
         if (channel.getDevice().getHmInterface() == HmInterface.CUXD && paramsetType == HmParamsetType.VALUES) {
             setChannelDatapointValues(channel);
         } else {
             try {
-                new GetParamsetParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
+                new GetParamsetParser(channel, paramsetType).parse(
+                        sendCoalesced(config.getRpcPort(channel), request, channelAddress + ":" + paramsetType));
             } catch (UnknownRpcFailureException ex) {
                 if (paramsetType == HmParamsetType.VALUES) {
                     logger.debug(
@@ -315,23 +403,31 @@ public abstract class RpcClient<T> {
             value = ((Number) value).intValue();
         }
 
+        String deviceAddress = getRpcAddress(dp.getChannel().getDevice().getAddress());
         RpcRequest<T> request;
         if (HmParamsetType.VALUES == dp.getParamsetType()) {
             request = createRpcRequest("setValue");
-            request.addArg(getRpcAddress(dp.getChannel().getDevice().getAddress()) + getChannelSuffix(dp.getChannel()));
+            request.addArg(deviceAddress + getChannelSuffix(dp.getChannel()));
             request.addArg(dp.getName());
             request.addArg(value);
             configureRxMode(request, rxMode);
         } else {
             request = createRpcRequest("putParamset");
-            request.addArg(getRpcAddress(dp.getChannel().getDevice().getAddress()) + getChannelSuffix(dp.getChannel()));
+            request.addArg(deviceAddress + getChannelSuffix(dp.getChannel()));
             request.addArg(HmParamsetType.MASTER.toString());
             Map<String, Object> paramSet = new HashMap<>();
             paramSet.put(dp.getName(), value);
             request.addArg(paramSet);
             configureRxMode(request, rxMode);
         }
-        sendMessage(config.getRpcPort(dp.getChannel()), request);
+        // the fair lock lets concurrent writes to a device pass in the order they arrived, so the last value set wins
+        ReentrantLock writeLock = writeLocks.computeIfAbsent(deviceAddress, address -> new ReentrantLock(true));
+        writeLock.lock();
+        try {
+            send(config.getRpcPort(dp.getChannel()), request);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     protected void configureRxMode(RpcRequest<T> request, String rxMode) {
@@ -350,10 +446,13 @@ public abstract class RpcClient<T> {
      */
     public void getDatapointValue(HmDatapoint dp) throws IOException {
         if (dp.isReadable() && !dp.isVirtual() && dp.getParamsetType() == HmParamsetType.VALUES) {
+            String channelAddress = getRpcAddress(dp.getChannel().getDevice().getAddress())
+                    + getChannelSuffix(dp.getChannel());
             RpcRequest<T> request = createRpcRequest("getValue");
-            request.addArg(getRpcAddress(dp.getChannel().getDevice().getAddress()) + getChannelSuffix(dp.getChannel()));
+            request.addArg(channelAddress);
             request.addArg(dp.getName());
-            new GetValueParser(dp).parse(sendMessage(config.getRpcPort(dp.getChannel()), request));
+            new GetValueParser(dp).parse(
+                    sendCoalesced(config.getRpcPort(dp.getChannel()), request, channelAddress + ":" + dp.getName()));
         }
     }
 
@@ -364,7 +463,7 @@ public abstract class RpcClient<T> {
         RpcRequest<T> request = createRpcRequest("setSystemVariable");
         request.addArg(dp.getInfo());
         request.addArg(value);
-        sendMessage(config.getRpcPort(dp.getChannel()), request);
+        send(config.getRpcPort(dp.getChannel()), request);
     }
 
     /**
@@ -373,7 +472,7 @@ public abstract class RpcClient<T> {
     public void executeScript(HmDatapoint dp) throws IOException {
         RpcRequest<T> request = createRpcRequest("runScript");
         request.addArg(dp.getInfo());
-        sendMessage(config.getRpcPort(dp.getChannel()), request);
+        send(config.getRpcPort(dp.getChannel()), request);
     }
 
     /**
@@ -390,7 +489,7 @@ public abstract class RpcClient<T> {
         request.addArg(seconds);
         request.addArg(INSTALL_MODE_NORMAL);
         logger.debug("Submitting setInstallMode(on={}, time={}, mode={}) ", enable, seconds, INSTALL_MODE_NORMAL);
-        sendMessage(config.getRpcPort(hmInterface), request);
+        send(config.getRpcPort(hmInterface), request);
     }
 
     /**
@@ -403,7 +502,7 @@ public abstract class RpcClient<T> {
      */
     public int getInstallMode(HmInterface hmInterface) throws IOException {
         RpcRequest<T> request = createRpcRequest("getInstallMode");
-        Object[] result = sendMessage(config.getRpcPort(hmInterface), request);
+        Object[] result = send(config.getRpcPort(hmInterface), request);
         if (logger.isTraceEnabled()) {
             logger.trace(
                     "Checking InstallMode: getInstallMode() request returned {} (remaining seconds in InstallMode=true)",
@@ -426,7 +525,7 @@ public abstract class RpcClient<T> {
         RpcRequest<T> request = createRpcRequest("deleteDevice");
         request.addArg(device.getAddress());
         request.addArg(flags);
-        sendMessage(config.getRpcPort(device.getHmInterface()), request);
+        send(config.getRpcPort(device.getHmInterface()), request);
     }
 
     /**
@@ -444,7 +543,7 @@ public abstract class RpcClient<T> {
      */
     public List<HmRssiInfo> loadRssiInfo(HmInterface hmInterface) throws IOException {
         RpcRequest<T> request = createRpcRequest("rssiInfo");
-        return new RssiInfoParser(config).parse(sendMessage(config.getRpcPort(hmInterface), request));
+        return new RssiInfoParser(config).parse(send(config.getRpcPort(hmInterface), request));
     }
 
     /**
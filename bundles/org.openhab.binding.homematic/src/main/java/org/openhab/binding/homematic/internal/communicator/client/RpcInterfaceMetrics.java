@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request metrics of a single interface (port) of the Homematic gateway.
+ *
+ * @author agent - Initial contribution
+ */
+public class RpcInterfaceMetrics {
+    private final int port;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger maxPending = new AtomicInteger();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final AtomicLong totalConnectionWait = new AtomicLong();
+    private final AtomicLong maxConnectionWait = new AtomicLong();
+
+    public RpcInterfaceMetrics(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Marks the start of a request, returns the start time for {@link #requestFinished(long, boolean)}.
+     */
+    public long requestStarted() {
+        int currentlyPending = pending.incrementAndGet();
+        maxPending.accumulateAndGet(currentlyPending, Math::max);
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a request started at the given time.
+     */
+    public void requestFinished(long started, boolean failed) {
+        long latency = System.nanoTime() - started;
+        pending.decrementAndGet();
+        requests.incrementAndGet();
+        if (failed) {
+            failures.incrementAndGet();
+        }
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Counts a request which has been answered by an identical request already in progress.
+     */
+    public void requestCoalesced() {
+        coalesced.incrementAndGet();
+    }
+
+    /**
+     * Records the time a request had to wait for a free connection to the gateway.
+     */
+    public void connectionWaited(long nanos) {
+        totalConnectionWait.addAndGet(nanos);
+        maxConnectionWait.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Returns the gateway port of the interface.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Returns the number of requests sent to the gateway.
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of failed requests.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Returns the number of requests which have not been sent, because an identical request was in progress.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * Returns the number of requests currently in progress or waiting for a connection.
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Returns the highest number of requests in progress at the same time.
+     */
+    public int getMaxPending() {
+        return maxPending.get();
+    }
+
+    /**
+     * Returns the average latency of a request in milliseconds.
+     */
+    public long getAverageLatency() {
+        long count = requests.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatency.get() / count);
+    }
+
+    /**
+     * Returns the highest latency of a request in milliseconds.
+     */
+    public long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatency.get());
+    }
+
+    /**
+     * Returns the highest time in milliseconds a request had to wait for a free connection.
+     */
+    public long getMaxConnectionWait() {
+        return TimeUnit.NANOSECONDS.toMillis(maxConnectionWait.get());
+    }
+
+    /**
+     * Returns the total time in milliseconds requests had to wait for a free connection.
+     */
+    public long getTotalConnectionWait() {
+        return TimeUnit.NANOSECONDS.toMillis(totalConnectionWait.get());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "port %d: %d requests, %d failures, %d coalesced, %d pending (max %d), latency avg %d ms (max %d ms), connection wait total %d ms (max %d ms)",
+                port, getRequests(), getFailures(), getCoalesced(), getPending(), getMaxPending(), getAverageLatency(),
+                getMaxLatency(), getTotalConnectionWait(), getMaxConnectionWait());
+    }
+}
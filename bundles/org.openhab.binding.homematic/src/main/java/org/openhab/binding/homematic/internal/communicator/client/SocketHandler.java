@@ -15,22 +15,34 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Socket pool with a limited number of sockets per port. A borrowed socket is used exclusively by one request and must
+ * be handed back with {@link #returnSocket(int, SocketInfo, boolean)}.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
     private final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<Integer, SocketInfo>();
+    /**
+     * Maximum number of sockets per port, which is the maximum number of concurrent requests to an interface.
+     */
+    public static final int MAX_SOCKETS_PER_PORT = 4;
+
+    private final Map<Integer, SocketPool> poolsPerPort = new ConcurrentHashMap<>();
     private HomematicConfig config;
 
     public SocketHandler(HomematicConfig config) {
@@ -38,41 +50,28 @@ public class SocketHandler {
     }
 
     /**
-     * Returns a socket for the given port, (re)creates it if required.
+     * Borrows a socket for the given port, creates it if no idle socket is available. Waits for a free socket up to
+     * the configured timeout if the maximum number of sockets for the port is in use.
      */
-    public Socket getSocket(int port) throws IOException {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo == null) {
-            logger.trace("Creating new socket for port {}", port);
-            Socket socket = new Socket();
-            socket.setSoTimeout(config.getTimeout() * 1000);
-            socket.setReuseAddress(true);
-            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
-            socketsPerPort.put(port, socketInfo);
-        } else {
-            boolean isMaxAliveReached = System.currentTimeMillis()
-                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
-
-            if (isMaxAliveReached) {
-                logger.debug("Max alive time reached for socket on port {}", port);
-                removeSocket(port);
-                return getSocket(port);
-            }
-            logger.trace("Returning socket for port {}", port);
-        }
-        return socketInfo.getSocket();
+    public SocketInfo getSocket(int port) throws IOException {
+        return getPool(port).borrow();
     }
 
     /**
-     * Removes the socket for the given port from the cache.
+     * Hands back a socket borrowed with {@link #getSocket(int)}. The socket is closed if it is not reusable, e.g. after
+     * a communication error.
+     */
+    public void returnSocket(int port, SocketInfo socketInfo, boolean reusable) {
+        getPool(port).release(socketInfo, reusable);
+    }
+
+    /**
+     * Closes all idle sockets for the given port. Sockets currently in use are closed when they are handed back.
      */
     public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo != null) {
-            logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
-            closeSilent(socketInfo.getSocket());
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool != null) {
+            pool.clear();
         }
     }
 
@@ -80,14 +79,15 @@ public class SocketHandler {
      * Removes all cached sockets.
      */
     public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
-            }
+        for (SocketPool pool : poolsPerPort.values()) {
+            pool.clear();
         }
     }
 
+    private SocketPool getPool(int port) {
+        return poolsPerPort.computeIfAbsent(port, SocketPool::new);
+    }
+
     /**
      * Silently closes the given socket.
      */
@@ -98,4 +98,107 @@ public class SocketHandler {
             // ignore
         }
     }
+
+    /**
+     * The sockets of a single port.
+     */
+    private class SocketPool {
+        private final int port;
+        private final Semaphore permits = new Semaphore(MAX_SOCKETS_PER_PORT, true);
+        // guarded by this
+        private final Deque<SocketInfo> idleSockets = new ArrayDeque<>();
+        // guarded by this, sockets of older generations are not reused
+        private int generation;
+
+        private SocketPool(int port) {
+            this.port = port;
+        }
+
+        private SocketInfo borrow() throws IOException {
+            try {
+                if (!permits.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                    throw new IOException("Timeout while waiting for a free socket on port " + port);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a free socket on port " + port);
+            }
+            try {
+                SocketInfo socketInfo;
+                int currentGeneration;
+                synchronized (this) {
+                    socketInfo = idleSockets.pollFirst();
+                    currentGeneration = generation;
+                }
+                while (socketInfo != null && isMaxAliveReached(socketInfo)) {
+                    logger.debug("Max alive time reached for socket on port {}", port);
+                    closeSilent(socketInfo.getSocket());
+                    synchronized (this) {
+                        socketInfo = idleSockets.pollFirst();
+                    }
+                }
+                if (socketInfo == null) {
+                    socketInfo = new SocketInfo(createSocket(), currentGeneration);
+                } else {
+                    logger.trace("Returning socket for port {}", port);
+                }
+                return socketInfo;
+            } catch (IOException | RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        private void release(SocketInfo socketInfo, boolean reusable) {
+            try {
+                boolean keep = false;
+                if (reusable) {
+                    synchronized (this) {
+                        if (socketInfo.getGeneration() == generation) {
+                            // most recently used first, surplus sockets reach their max alive time and get closed
+                            idleSockets.addFirst(socketInfo);
+                            keep = true;
+                        }
+                    }
+                }
+                if (!keep) {
+                    logger.trace("Closing socket on port {}", port);
+                    closeSilent(socketInfo.getSocket());
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void clear() {
+            List<SocketInfo> socketsToClose;
+            synchronized (this) {
+                generation++;
+                socketsToClose = new ArrayList<>(idleSockets);
+                idleSockets.clear();
+            }
+            for (SocketInfo socketInfo : socketsToClose) {
+                logger.trace("Closing socket on port {}", port);
+                closeSilent(socketInfo.getSocket());
+            }
+        }
+
+        private boolean isMaxAliveReached(SocketInfo socketInfo) {
+            return System.currentTimeMillis() - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+        }
+
+        private Socket createSocket() throws IOException {
+            logger.trace("Creating new socket for port {}", port);
+            Socket socket = new Socket();
+            try {
+                socket.setSoTimeout(config.getTimeout() * 1000);
+                socket.setReuseAddress(true);
+                socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
+            } catch (IOException ex) {
+                closeSilent(socket);
+                throw ex;
+            }
+            return socket;
+        }
+    }
 }
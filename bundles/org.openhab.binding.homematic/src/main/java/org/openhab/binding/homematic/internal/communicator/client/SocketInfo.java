@@ -22,9 +22,15 @@ import java.net.Socket;
 public class SocketInfo {
     private Socket socket;
     private long created;
+    private int generation;
 
     public SocketInfo(Socket socket) {
+        this(socket, 0);
+    }
+
+    public SocketInfo(Socket socket, int generation) {
         this.socket = socket;
+        this.generation = generation;
         this.created = System.currentTimeMillis();
     }
 
@@ -41,4 +47,11 @@ public class SocketInfo {
     public long getCreated() {
         return created;
     }
+
+    /**
+     * Returns the generation of the socket pool the socket has been created in.
+     */
+    public int getGeneration() {
+        return generation;
+    }
 }
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Streaming decoder for BIN-RPC messages.
+ *
+ * Values are read one by one directly from a {@link ByteBuffer}, without copying the message. This allows to handle
+ * large messages, e.g. a <code>system.multicall</code> with hundreds of events, element by element instead of
+ * decoding the whole message at once.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcDecoder {
+    public static final int HEADER_LENGTH = 8;
+
+    /**
+     * Maximum total length of a message, the length in the header is not trusted beyond that
+     */
+    public static final int MAX_MESSAGE_LENGTH = 16 * 1024 * 1024;
+
+    public static final int TYPE_INTEGER = 1;
+    public static final int TYPE_BOOLEAN = 2;
+    public static final int TYPE_STRING = 3;
+    public static final int TYPE_DOUBLE = 4;
+    public static final int TYPE_DATE = 5;
+    public static final int TYPE_ARRAY = 0x100;
+    public static final int TYPE_STRUCT = 0x101;
+
+    /**
+     * Decodes a single value, the type has already been read.
+     */
+    private interface ValueDecoder {
+        Object decode(BinRpcDecoder decoder) throws IOException;
+    }
+
+    /**
+     * Decoders indexed by the type of the value, arrays and structs are at {@link #TYPE_DATE} + 1 and + 2.
+     */
+    private static final ValueDecoder[] DECODERS = new ValueDecoder[TYPE_DATE + 3];
+
+    static {
+        DECODERS[TYPE_INTEGER] = decoder -> Integer.valueOf(decoder.buffer.getInt());
+        DECODERS[TYPE_BOOLEAN] = decoder -> decoder.buffer.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
+        DECODERS[TYPE_STRING] = decoder -> decoder.readString();
+        DECODERS[TYPE_DOUBLE] = decoder -> {
+            int mantissa = decoder.buffer.getInt();
+            int exponent = decoder.buffer.getInt();
+            BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
+            return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
+        };
+        DECODERS[TYPE_DATE] = decoder -> new Date(decoder.buffer.getInt() * 1000L);
+        DECODERS[TYPE_DATE + 1] = decoder -> decoder.readArray(decoder.readCount());
+        DECODERS[TYPE_DATE + 2] = decoder -> decoder.readStruct(decoder.readCount());
+    }
+
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    private final boolean response;
+
+    /**
+     * Creates a decoder for the message starting at the current position of the buffer. The position of the buffer
+     * is advanced while decoding, its limit is set to the end of the message.
+     *
+     * @throws IOException if the buffer does not start with a BIN-RPC header or does not contain the whole message
+     */
+    public BinRpcDecoder(ByteBuffer buffer, Charset charset) throws IOException {
+        int length = getMessageLength(buffer);
+        if (buffer.remaining() < length) {
+            throw new EOFException("Only " + buffer.remaining() + " bytes received while reading message, expected "
+                    + length + " bytes");
+        }
+        this.buffer = buffer;
+        this.charset = charset;
+        this.response = buffer.get(buffer.position() + 3) != 0;
+        buffer.limit(buffer.position() + length);
+        buffer.position(buffer.position() + HEADER_LENGTH);
+    }
+
+    /**
+     * Returns the charset for the given encoding, or the default charset if the encoding is not supported.
+     */
+    public static Charset getCharset(String encoding) {
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            return Charset.defaultCharset();
+        }
+    }
+
+    /**
+     * Returns the total length of the message, including the header, starting at the current position of the
+     * buffer. The position of the buffer is not changed.
+     *
+     * @throws EOFException if the buffer does not contain the whole header
+     * @throws UnsupportedEncodingException if the buffer does not start with a BIN-RPC header
+     * @throws IOException if the length in the header is negative or exceeds {@link #MAX_MESSAGE_LENGTH}
+     */
+    public static int getMessageLength(ByteBuffer buffer) throws IOException {
+        int position = buffer.position();
+        if (buffer.limit() - position < HEADER_LENGTH) {
+            throw new EOFException("Only " + (buffer.limit() - position) + " bytes received reading header");
+        }
+        if (buffer.get(position) != 'B' || buffer.get(position + 1) != 'i' || buffer.get(position + 2) != 'n') {
+            throw new UnsupportedEncodingException("No BinX signature");
+        }
+        int datasize = buffer.getInt(position + 4);
+        if (datasize < 0 || datasize > MAX_MESSAGE_LENGTH - HEADER_LENGTH) {
+            throw new IOException("Invalid message length " + datasize);
+        }
+        return HEADER_LENGTH + datasize;
+    }
+
+    /**
+     * Returns true if the message is a response.
+     */
+    public boolean isResponse() {
+        return response;
+    }
+
+    /**
+     * Reads the method name of a request, followed by the number of arguments.
+     */
+    public String readMethodName() throws IOException {
+        String methodName = readString();
+        readInt();
+        return methodName;
+    }
+
+    /**
+     * Returns true if there are more values to read.
+     */
+    public boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+
+    /**
+     * Reads the next value.
+     */
+    public Object readValue() throws IOException {
+        int type = readInt();
+        int index = type;
+        if (type == TYPE_ARRAY || type == TYPE_STRUCT) {
+            index = TYPE_DATE + 1 + type - TYPE_ARRAY;
+        }
+        if (index < 0 || index >= DECODERS.length || DECODERS[index] == null) {
+            throw new IOException("Unknown data type " + type + " at offset " + (buffer.position() - 4));
+        }
+        try {
+            return DECODERS[index].decode(this);
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Message ends within value of type " + type);
+        }
+    }
+
+    /**
+     * Reads all remaining values.
+     */
+    public Object[] readValues() throws IOException {
+        List<Object> values = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            values.add(readValue());
+        }
+        return values.toArray();
+    }
+
+    /**
+     * Reads the type and the number of elements of an array, the elements can be read with {@link #readValue()}
+     * afterwards.
+     */
+    public int readArrayHeader() throws IOException {
+        int type = readInt();
+        if (type != TYPE_ARRAY) {
+            throw new IOException("Expected array but got data type " + type);
+        }
+        return readCount();
+    }
+
+    /**
+     * Reads the number of elements of an array or struct, every element takes at least four bytes.
+     */
+    private int readCount() throws IOException {
+        int count = readInt();
+        if (count < 0 || count > buffer.remaining() / 4) {
+            throw new IOException("Invalid number of elements " + count + " at offset " + (buffer.position() - 4));
+        }
+        return count;
+    }
+
+    private int readInt() throws EOFException {
+        if (buffer.remaining() < 4) {
+            throw new EOFException("Message ends within integer at offset " + buffer.position());
+        }
+        return buffer.getInt();
+    }
+
+    private String readString() throws IOException {
+        int length = readInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new EOFException("Invalid string length " + length + " at offset " + (buffer.position() - 4));
+        }
+        String string;
+        if (buffer.hasArray()) {
+            string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, charset);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            string = new String(bytes, charset);
+        }
+        return string;
+    }
+
+    private Object[] readArray(int numElements) throws IOException {
+        Object[] array = new Object[numElements];
+        for (int i = 0; i < numElements; i++) {
+            array[i] = readValue();
+        }
+        return array;
+    }
+
+    private Map<String, Object> readStruct(int numElements) throws IOException {
+        Map<String, Object> struct = new TreeMap<>();
+        for (int i = 0; i < numElements; i++) {
+            String name = readString();
+            struct.put(name, readValue());
+        }
+        return struct;
+    }
+}
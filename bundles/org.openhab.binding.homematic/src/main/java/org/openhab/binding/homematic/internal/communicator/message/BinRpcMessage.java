@@ -12,48 +12,124 @@
  */
 package org.openhab.binding.homematic.internal.communicator.message;
 
+import static org.openhab.binding.homematic.internal.communicator.message.BinRpcDecoder.*;
+
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.text.ParseException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-
-import org.apache.commons.lang.ArrayUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles BIN-RPC request and response messages to communicate with a Homematic gateway.
  *
+ * Messages are encoded into a growing {@link ByteBuffer}, the encoder of a value is looked up by its class in a
+ * dispatch table. Decoding is done by the {@link BinRpcDecoder} directly on the received bytes.
+ *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
-    private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
 
     public enum TYPE {
         REQUEST,
         RESPONSE
     }
 
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * Encodes a single value, including its type.
+     */
+    private interface ValueEncoder {
+        void encode(BinRpcMessage message, Object value);
+    }
+
+    /**
+     * Values of unsupported types are skipped.
+     */
+    private static final ValueEncoder UNSUPPORTED_ENCODER = (message, value) -> {
+    };
+
+    private static final ValueEncoder LIST_ENCODER = (message, value) -> {
+        Collection<?> list = (Collection<?>) value;
+        message.putInt(TYPE_ARRAY);
+        message.putInt(list.size());
+        for (Object object : list) {
+            message.addObject(object);
+        }
+    };
+
+    private static final ValueEncoder MAP_ENCODER = (message, value) -> {
+        Map<?, ?> map = (Map<?, ?>) value;
+        message.putInt(TYPE_STRUCT);
+        message.putInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String key = (String) entry.getKey();
+            if (key != null) {
+                message.putString(key);
+                message.addObject(entry.getValue());
+            }
+        }
+    };
+
+    /**
+     * Encoders by the class of the value, other lists and maps are added on their first use.
+     */
+    private static final Map<Class<?>, ValueEncoder> ENCODERS = new ConcurrentHashMap<>();
+
+    static {
+        ENCODERS.put(String.class, (message, value) -> {
+            message.putInt(TYPE_STRING);
+            message.putString((String) value);
+        });
+        ENCODERS.put(Boolean.class, (message, value) -> {
+            message.putInt(TYPE_BOOLEAN);
+            message.putByte(((Boolean) value).booleanValue() ? (byte) 1 : (byte) 0);
+        });
+        ENCODERS.put(Integer.class, (message, value) -> {
+            message.putInt(TYPE_INTEGER);
+            message.putInt(((Integer) value).intValue());
+        });
+        ENCODERS.put(Double.class, (message, value) -> {
+            message.putInt(TYPE_DOUBLE);
+            message.putDouble(((Double) value).doubleValue());
+        });
+        ENCODERS.put(Float.class, (message, value) -> {
+            message.putInt(TYPE_DOUBLE);
+            message.putDouble(new BigDecimal((Float) value).setScale(6, RoundingMode.HALF_DOWN).doubleValue());
+        });
+        ENCODERS.put(BigDecimal.class, (message, value) -> {
+            message.putInt(TYPE_DOUBLE);
+            message.putDouble(((BigDecimal) value).setScale(6, RoundingMode.HALF_DOWN).doubleValue());
+        });
+        ENCODERS.put(BigInteger.class, (message, value) -> {
+            message.putInt(TYPE_DOUBLE);
+            message.putDouble(((BigInteger) value).doubleValue());
+        });
+        ENCODERS.put(Date.class, (message, value) -> {
+            message.putInt(TYPE_DATE);
+            message.putInt((int) (((Date) value).getTime() / 1000));
+        });
+    }
+
     private Object[] messageData;
-    private byte binRpcData[];
-    private int offset;
+    private ByteBuffer binRpcData;
+    private int argsPosition;
 
     private String methodName;
     private TYPE type;
     private int args;
-    private String encoding;
+    private final Charset charset;
 
     public BinRpcMessage(String methodName, String encoding) {
         this(methodName, TYPE.REQUEST, encoding);
@@ -65,7 +141,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     public BinRpcMessage(String methodName, TYPE type, String encoding) {
         this.methodName = methodName;
         this.type = type;
-        this.encoding = encoding;
+        this.charset = getCharset(encoding);
         createHeader();
     }
 
@@ -73,88 +149,71 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given InputStream.
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
-        this.encoding = encoding;
-        byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading signature");
-        }
-        validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading message length");
-        }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
-        int currentLength;
-
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
-            offset += currentLength;
-        }
-        if (offset != datasize) {
-            throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
-                    + datasize + " bytes");
-        }
-        byte[] message = ArrayUtils.addAll(sig, payload);
-        decodeMessage(message, methodHeader);
-    }
-
-    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
-        if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
-            throw new UnsupportedEncodingException("No BinX signature");
-        }
+        this.charset = getCharset(encoding);
+        byte header[] = new byte[HEADER_LENGTH];
+        readFully(is, header, 0, 4, "signature");
+        readFully(is, header, 4, 4, "message length");
+        int length = BinRpcDecoder.getMessageLength(ByteBuffer.wrap(header));
+        byte message[] = new byte[length];
+        System.arraycopy(header, 0, message, 0, HEADER_LENGTH);
+        readFully(is, message, HEADER_LENGTH, length - HEADER_LENGTH, "message payload");
+        decodeMessage(ByteBuffer.wrap(message), methodHeader);
     }
 
     /**
      * Decodes a BIN-RPC message from the given byte array.
      */
     public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException, ParseException {
-        this.encoding = encoding;
-        if (message.length < 8) {
-            throw new EOFException("Only " + message.length + " bytes received");
-        }
-        validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+        this(ByteBuffer.wrap(message), methodHeader, encoding);
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
-        binRpcData = message;
+    /**
+     * Decodes a BIN-RPC message starting at the current position of the given buffer, without copying it. The
+     * position of the buffer is advanced to the end of the message.
+     */
+    public BinRpcMessage(ByteBuffer message, boolean methodHeader, String encoding) throws IOException {
+        this.charset = getCharset(encoding);
+        decodeMessage(message, methodHeader);
+    }
 
-        offset = 8;
+    private static void readFully(InputStream is, byte[] data, int offset, int length, String part)
+            throws IOException {
+        int read = 0;
+        int currentLength;
+        while (read < length && (currentLength = is.read(data, offset + read, length - read)) != -1) {
+            read += currentLength;
+        }
+        if (read != length) {
+            throw new EOFException(
+                    "Only " + read + " bytes received while reading " + part + ", expected " + length + " bytes");
+        }
+    }
 
+    private void decodeMessage(ByteBuffer message, boolean methodHeader) throws IOException {
+        binRpcData = message.slice();
+        BinRpcDecoder decoder = new BinRpcDecoder(binRpcData, charset);
         if (methodHeader) {
-            methodName = readString();
-            readInt();
+            methodName = decoder.readMethodName();
         }
-        generateResponseData();
+        messageData = decoder.readValues();
+        message.position(message.position() + binRpcData.limit());
     }
 
     public void setType(TYPE type) {
-        binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
-    }
-
-    private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
-        List<Object> values = new ArrayList<>();
-        while (offset < binRpcData.length) {
-            values.add(readRpcValue());
-        }
-        messageData = values.toArray();
-        values.clear();
+        binRpcData.put(3, type == TYPE.RESPONSE ? (byte) 1 : (byte) 0);
     }
 
     private void createHeader() {
-        binRpcData = new byte[256];
-        addString("Bin ");
+        binRpcData = ByteBuffer.allocate(INITIAL_CAPACITY);
+        binRpcData.put((byte) 'B').put((byte) 'i').put((byte) 'n').put((byte) 0);
         setType(type);
-        addInt(0); // placeholder content length
+        putInt(0); // placeholder content length
         if (methodName != null) {
-            addInt(methodName.length());
-            addString(methodName);
-            addInt(0); // placeholder arguments
+            putString(methodName);
+            argsPosition = binRpcData.position();
+            putInt(0); // placeholder arguments
         }
-        setInt(4, offset - 8);
+        binRpcData.putInt(4, binRpcData.position() - HEADER_LENGTH);
     }
 
     /**
@@ -163,10 +222,10 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public void addArg(Object argument) {
         addObject(argument);
-        setInt(4, offset - 8);
+        binRpcData.putInt(4, binRpcData.position() - HEADER_LENGTH);
 
         if (methodName != null) {
-            setInt(12 + methodName.length(), ++args);
+            binRpcData.putInt(argsPosition, ++args);
         }
     }
 
@@ -181,14 +240,17 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     @Override
     public byte[] createMessage() {
-        trimBinRpcData();
-        return binRpcData;
-    }
-
-    private void trimBinRpcData() {
-        byte[] trimmed = new byte[offset];
-        System.arraycopy(binRpcData, 0, trimmed, 0, offset);
-        binRpcData = trimmed;
+        int length = binRpcData.position();
+        if (!binRpcData.hasArray() || binRpcData.arrayOffset() != 0 || binRpcData.array().length != length) {
+            // trim once, the trimmed array is kept for further calls
+            ByteBuffer data = binRpcData.duplicate();
+            data.flip();
+            byte[] trimmed = new byte[length];
+            data.get(trimmed);
+            binRpcData = ByteBuffer.wrap(trimmed);
+            binRpcData.position(length);
+        }
+        return binRpcData.array();
     }
 
     @Override
@@ -196,86 +258,26 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         return messageData;
     }
 
-    // read rpc values
-    private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
-        offset += 4;
-        return (new BigInteger(bi)).intValue();
-    }
-
-    private String readString() throws UnsupportedEncodingException {
-        int len = readInt();
-        offset += len;
-        return new String(binRpcData, offset - len, len, encoding);
-    }
-
-    private Object readRpcValue() throws IOException {
-        int type = readInt();
-        switch (type) {
-            case 1:
-                return new Integer(readInt());
-            case 2:
-                return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
-            case 3:
-                return readString();
-            case 4:
-                int mantissa = readInt();
-                int exponent = readInt();
-                BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
-                return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
-            case 5:
-                return new Date(readInt() * 1000);
-            case 0x100:
-                // Array
-                int numElements = readInt();
-                Collection<Object> array = new ArrayList<>();
-                while (numElements-- > 0) {
-                    array.add(readRpcValue());
-                }
-                return array.toArray();
-            case 0x101:
-                // Struct
-                numElements = readInt();
-                Map<String, Object> struct = new TreeMap<>();
-                while (numElements-- > 0) {
-                    String name = readString();
-                    struct.put(name, readRpcValue());
-                }
-                return struct;
-
-            default:
-                for (int i = 0; i < binRpcData.length; i++) {
-                    logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
-                }
-                throw new IOException("Unknown data type " + type);
+    private void ensureCapacity(int bytes) {
+        if (binRpcData.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(binRpcData.capacity() * 2, binRpcData.position() + bytes));
+            binRpcData.flip();
+            grown.put(binRpcData);
+            binRpcData = grown;
         }
     }
 
-    private void setInt(int position, int value) {
-        int temp = offset;
-        offset = position;
-        addInt(value);
-        offset = temp;
-    }
-
-    private void addByte(byte b) {
-        if (offset == binRpcData.length) {
-            byte newdata[] = new byte[binRpcData.length * 2];
-            System.arraycopy(binRpcData, 0, newdata, 0, binRpcData.length);
-            binRpcData = newdata;
-        }
-        binRpcData[offset++] = b;
+    private void putByte(byte b) {
+        ensureCapacity(1);
+        binRpcData.put(b);
     }
 
-    private void addInt(int value) {
-        addByte((byte) (value >> 24));
-        addByte((byte) (value >> 16));
-        addByte((byte) (value >> 8));
-        addByte((byte) (value));
+    private void putInt(int value) {
+        ensureCapacity(4);
+        binRpcData.putInt(value);
     }
 
-    private void addDouble(double value) {
+    private void putDouble(double value) {
         double tmp = Math.abs(value);
         int exp = 0;
         if (tmp != 0 && tmp < 0.5) {
@@ -293,74 +295,37 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             tmp *= -1;
         }
         int mantissa = (int) Math.round(tmp * 0x40000000);
-        addInt(mantissa);
-        addInt(exp);
+        putInt(mantissa);
+        putInt(exp);
     }
 
-    private void addString(String string) {
-        byte sd[];
-        try {
-            sd = string.getBytes(encoding);
-        } catch (UnsupportedEncodingException use) {
-            sd = string.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
-        }
+    /**
+     * Adds the length of the encoded string, followed by the encoded string.
+     */
+    private void putString(String string) {
+        byte sd[] = string.getBytes(charset);
+        putInt(sd.length);
+        ensureCapacity(sd.length);
+        binRpcData.put(sd);
     }
 
-    private void addList(Collection<?> collection) {
-        for (Object object : collection) {
-            addObject(object);
-        }
+    private void addObject(Object object) {
+        getEncoder(object.getClass()).encode(this, object);
     }
 
-    private void addObject(Object object) {
-        if (object.getClass() == String.class) {
-            addInt(3);
-            String string = (String) object;
-            addInt(string.length());
-            addString(string);
-        } else if (object.getClass() == Boolean.class) {
-            addInt(2);
-            addByte(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
-        } else if (object.getClass() == Integer.class) {
-            addInt(1);
-            addInt(((Integer) object).intValue());
-        } else if (object.getClass() == Double.class) {
-            addInt(4);
-            addDouble(((Double) object).doubleValue());
-        } else if (object.getClass() == Float.class) {
-            addInt(4);
-            BigDecimal bd = new BigDecimal((Float) object);
-            addDouble(bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue());
-        } else if (object.getClass() == BigDecimal.class) {
-            addInt(4);
-            addDouble(((BigDecimal) object).setScale(6, RoundingMode.HALF_DOWN).doubleValue());
-        } else if (object.getClass() == BigInteger.class) {
-            addInt(4);
-            addDouble(((BigInteger) object).doubleValue());
-        } else if (object.getClass() == Date.class) {
-            addInt(5);
-            addInt((int) ((Date) object).getTime() / 1000);
-        } else if (object instanceof List<?>) {
-            Collection<?> list = (Collection<?>) object;
-            addInt(0x100);
-            addInt(list.size());
-            addList(list);
-        } else if (object instanceof Map<?, ?>) {
-            Map<?, ?> map = (Map<?, ?>) object;
-            addInt(0x101);
-            addInt(map.size());
-            for (Map.Entry<?, ?> entry : map.entrySet()) {
-                String key = (String) entry.getKey();
-                if (key != null) {
-                    addInt(key.length());
-                    addString(key);
-                    addList(Collections.singleton(entry.getValue()));
-                }
+    private static ValueEncoder getEncoder(Class<?> type) {
+        ValueEncoder encoder = ENCODERS.get(type);
+        if (encoder == null) {
+            if (List.class.isAssignableFrom(type)) {
+                encoder = LIST_ENCODER;
+            } else if (Map.class.isAssignableFrom(type)) {
+                encoder = MAP_ENCODER;
+            } else {
+                encoder = UNSUPPORTED_ENCODER;
             }
+            ENCODERS.put(type, encoder);
         }
+        return encoder;
     }
 
     public String toBinString() {
@@ -370,9 +335,13 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public String toString() {
         try {
-            trimBinRpcData();
-            generateResponseData();
-            return RpcUtils.dumpRpcMessage(methodName, messageData);
+            ByteBuffer data = binRpcData.duplicate();
+            data.flip();
+            BinRpcDecoder decoder = new BinRpcDecoder(data, charset);
+            if (methodName != null) {
+                decoder.readMethodName();
+            }
+            return RpcUtils.dumpRpcMessage(methodName, decoder.readValues());
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         }
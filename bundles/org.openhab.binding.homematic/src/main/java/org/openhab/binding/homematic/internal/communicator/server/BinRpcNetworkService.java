@@ -14,30 +14,60 @@ package org.openhab.binding.homematic.internal.communicator.server;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcDecoder;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Waits for a message from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
+ * Waits for messages from the Homematic gateway and starts the BinRpcResponseHandler to handle them.
+ *
+ * All connections are served by a single selector thread, which reads the messages into a buffer per connection and
+ * writes the responses. A complete message is handled in the RPC thread pool, without copying it. While a message is
+ * handled, nothing is read from its connection, as the gateway waits for the response anyway.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcNetworkService implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
+
     private static final byte BIN_EMPTY_STRING[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 0, 3, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_ARRAY[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 1, 0, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_EVENT_LIST[] = { 'B', 'i', 'n', 1, 0, 0, 0, 21, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0,
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
     private static final String RPC_POOL_NAME = "homematicRpc";
-    private ServerSocket serverSocket;
-    private boolean accept = true;
+
+    /**
+     * Initial size of the receive buffer of a connection, enough for single events
+     */
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    /**
+     * Receive buffers grown beyond this size for a large message are not kept for the next message
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean accept = true;
     private HomematicConfig config;
-    private RpcResponseHandler<byte[]> rpcResponseHandler;
+    private BinRpcResponseHandler binRpcResponseHandler;
+    private final Queue<Connection> handledConnections = new ConcurrentLinkedQueue<>();
 
     /**
      * Creates the socket for listening to events from the Homematic gateway.
@@ -45,11 +75,19 @@ public class BinRpcNetworkService implements Runnable {
     public BinRpcNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
         this.config = config;
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        selector = Selector.open();
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            closeChannels();
+            throw e;
+        }
 
-        this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
+        RpcResponseHandler<byte[]> rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
 
             @Override
             protected byte[] getEmptyStringResult() {
@@ -71,6 +109,7 @@ public class BinRpcNetworkService implements Runnable {
                 return new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, config.getEncoding());
             }
         };
+        this.binRpcResponseHandler = new BinRpcResponseHandler(rpcResponseHandler, config);
     }
 
     /**
@@ -78,27 +117,234 @@ public class BinRpcNetworkService implements Runnable {
      */
     @Override
     public void run() {
+        try {
+            runSelector();
+        } finally {
+            closeChannels();
+        }
+    }
+
+    private void runSelector() {
         while (accept) {
             try {
-                Socket cs = serverSocket.accept();
-                BinRpcResponseHandler rpcHandler = new BinRpcResponseHandler(cs, rpcResponseHandler, config);
-                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(rpcHandler);
+                selector.select();
+                Connection handled;
+                while ((handled = handledConnections.poll()) != null) {
+                    try {
+                        handled.resume();
+                    } catch (RuntimeException ex) {
+                        handled.fail(ex);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        try {
+                            acceptConnection();
+                        } catch (IOException | RuntimeException ex) {
+                            logger.debug("Can't accept BIN-RPC connection: {}", ex.getMessage());
+                        }
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                connection.read();
+                            } else if (key.isWritable()) {
+                                connection.write();
+                            }
+                        } catch (IOException | RuntimeException ex) {
+                            // a failure of one connection must not stop the selector thread serving all others
+                            connection.fail(ex);
+                        }
+                    }
+                }
+            } catch (ClosedSelectorException ex) {
+                break;
             } catch (IOException ex) {
                 // ignore
             }
         }
     }
 
+    private void acceptConnection() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel != null) {
+            try {
+                channel.configureBlocking(false);
+                Connection connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+    }
+
     /**
-     * Stops the listening.
+     * Stops the listening, the connections are closed by the selector thread.
      */
     public void shutdown() {
         accept = false;
+        selector.wakeup();
+    }
+
+    private void closeChannels() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        } catch (IOException | ClosedSelectorException ioe) {
+            // ignore
+        }
         try {
-            serverSocket.close();
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+            selector.close();
         } catch (IOException ioe) {
             // ignore
         }
     }
 
+    /**
+     * A connection from the Homematic gateway, all methods except {@link #handle(ByteBuffer)} are called by the
+     * selector thread only.
+     */
+    private class Connection {
+        private final SocketChannel channel;
+        private final long created = System.currentTimeMillis();
+        private SelectionKey key;
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        private int messageLength = -1;
+        private volatile ByteBuffer response;
+        private volatile boolean failed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void read() throws IOException {
+            if (channel.read(buffer) < 0) {
+                close();
+                return;
+            }
+            dispatchMessage();
+        }
+
+        /**
+         * Hands a completely received message to the RPC thread pool.
+         */
+        private void dispatchMessage() throws IOException {
+            if (messageLength < 0 && buffer.position() >= BinRpcDecoder.HEADER_LENGTH) {
+                ByteBuffer header = buffer.duplicate();
+                header.flip();
+                messageLength = BinRpcDecoder.getMessageLength(header);
+                if (messageLength > buffer.capacity()) {
+                    ByteBuffer grown = ByteBuffer.allocate(messageLength);
+                    buffer.flip();
+                    grown.put(buffer);
+                    buffer = grown;
+                }
+            }
+            if (messageLength >= 0 && buffer.position() >= messageLength) {
+                key.interestOps(0);
+                ByteBuffer message = buffer.duplicate();
+                message.flip();
+                try {
+                    ThreadPoolManager.getPool(RPC_POOL_NAME).execute(() -> handle(message));
+                } catch (RejectedExecutionException ex) {
+                    throw new IOException("Can't handle BIN-RPC message: " + ex.getMessage(), ex);
+                }
+            }
+        }
+
+        /**
+         * Handles a message in the RPC thread pool and passes the response back to the selector thread.
+         */
+        private void handle(ByteBuffer message) {
+            try {
+                byte[] returnValue = binRpcResponseHandler.handleMessage(message);
+                response = returnValue == null ? null : ByteBuffer.wrap(returnValue);
+            } catch (Exception e) {
+                logger.warn("{}", e.getMessage(), e);
+                failed = true;
+            }
+            handledConnections.add(this);
+            selector.wakeup();
+        }
+
+        /**
+         * Continues with the connection after a message has been handled.
+         */
+        private void resume() {
+            if (!key.isValid()) {
+                return;
+            }
+            if (failed) {
+                close();
+            } else if (response != null) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                nextMessage();
+            }
+        }
+
+        private void write() throws IOException {
+            channel.write(response);
+            if (!response.hasRemaining()) {
+                response = null;
+                nextMessage();
+            }
+        }
+
+        /**
+         * Drops the handled message from the buffer and waits for the next one, unless the connection has reached
+         * its maximum lifetime.
+         */
+        private void nextMessage() {
+            if (System.currentTimeMillis() - created > (config.getSocketMaxAlive() * 1000)) {
+                close();
+                return;
+            }
+            buffer.flip();
+            buffer.position(messageLength);
+            if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                ByteBuffer remaining = ByteBuffer.allocate(Math.max(INITIAL_BUFFER_SIZE, buffer.remaining()));
+                remaining.put(buffer);
+                buffer = remaining;
+            } else {
+                buffer.compact();
+            }
+            messageLength = -1;
+            try {
+                key.interestOps(SelectionKey.OP_READ);
+                dispatchMessage();
+            } catch (IOException ex) {
+                fail(ex);
+            }
+        }
+
+        private void fail(Exception ex) {
+            if (ex instanceof IOException) {
+                logger.debug("BIN-RPC connection failure: {}", ex.getMessage());
+            } else {
+                logger.warn("BIN-RPC connection failure: {}", ex.getMessage(), ex);
+            }
+            close();
+        }
+
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ioe) {
+                // ignore
+            }
+        }
+    }
 }
@@ -12,63 +12,57 @@
  */
 package org.openhab.binding.homematic.internal.communicator.server;
 
-import java.io.EOFException;
+import static org.openhab.binding.homematic.internal.misc.HomematicConstants.RPC_METHODNAME_SYSTEM_MULTICALL;
+
 import java.io.IOException;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcDecoder;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Reads a BIN-RPC message from the socket and handles the method call.
+ * Decodes a BIN-RPC message received from the Homematic gateway and handles the method call.
+ *
+ * The calls of a system.multicall are decoded and handled one by one, so the calls of a large multicall, e.g. the
+ * events sent by a CCU after a reconnect, are never decoded all at once.
  *
  * @author Gerhard Riegler - Initial contribution
  */
-public class BinRpcResponseHandler implements Runnable {
+public class BinRpcResponseHandler {
     private final Logger logger = LoggerFactory.getLogger(BinRpcResponseHandler.class);
 
-    private Socket socket;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
     private HomematicConfig config;
-    private long created;
+    private Charset charset;
 
-    public BinRpcResponseHandler(Socket socket, RpcResponseHandler<byte[]> rpcResponseHandler, HomematicConfig config) {
-        this.socket = socket;
+    public BinRpcResponseHandler(RpcResponseHandler<byte[]> rpcResponseHandler, HomematicConfig config) {
         this.rpcResponseHandler = rpcResponseHandler;
         this.config = config;
-        this.created = System.currentTimeMillis();
+        this.charset = BinRpcDecoder.getCharset(config.getEncoding());
     }
 
     /**
-     * Reads the event from the Homematic gateway and handles the method call.
+     * Decodes the message starting at the current position of the buffer and handles the method call.
+     *
+     * @return the response for the Homematic gateway, may be null
      */
-    @Override
-    public void run() {
-        try {
-            boolean isMaxAliveReached;
-            do {
-                BinRpcMessage message = new BinRpcMessage(socket.getInputStream(), true, config.getEncoding());
-                logger.trace("Event BinRpcMessage: {}", message);
-                byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
-                        message.getResponseData());
-                if (returnValue != null) {
-                    socket.getOutputStream().write(returnValue);
-                }
-                isMaxAliveReached = System.currentTimeMillis() - created > (config.getSocketMaxAlive() * 1000);
-            } while (!isMaxAliveReached);
-
-        } catch (EOFException eof) {
-            // ignore
-        } catch (Exception e) {
-            logger.warn("{}", e.getMessage(), e);
-        } finally {
-            try {
-                socket.close();
-            } catch (IOException ioe) {
-                // ignore
+    public byte[] handleMessage(ByteBuffer message) throws IOException {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Event BinRpcMessage: {}", new BinRpcMessage(message.duplicate(), true, config.getEncoding()));
+        }
+        BinRpcDecoder decoder = new BinRpcDecoder(message, charset);
+        String methodName = decoder.readMethodName();
+        if (RPC_METHODNAME_SYSTEM_MULTICALL.equals(methodName) && decoder.hasRemaining()) {
+            int calls = decoder.readArrayHeader();
+            for (int i = 0; i < calls; i++) {
+                rpcResponseHandler.handleMulticallEntry(decoder.readValue());
             }
+            return rpcResponseHandler.getMulticallResult();
         }
+        return rpcResponseHandler.handleMethodCall(methodName, decoder.readValues());
     }
 }
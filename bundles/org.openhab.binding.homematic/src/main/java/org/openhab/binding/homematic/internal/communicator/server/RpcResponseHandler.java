@@ -60,15 +60,10 @@ public abstract class RpcResponseHandler<T> {
             msg.addArg(getListMethods());
             return msg.createMessage();
         } else if (RPC_METHODNAME_SYSTEM_MULTICALL.equals(methodName)) {
-            for (Object o : (Object[]) responseData[0]) {
-                Map<?, ?> call = (Map<?, ?>) o;
-                if (call != null) {
-                    String method = ObjectUtils.toString(call.get("methodName"));
-                    Object[] data = (Object[]) call.get("params");
-                    handleMethodCall(method, data);
-                }
+            for (Object call : (Object[]) responseData[0]) {
+                handleMulticallEntry(call);
             }
-            return getEmptyEventListResult();
+            return getMulticallResult();
         } else if (RPC_METHODNAME_SET_CONFIG_READY.equals(methodName)) {
             return getEmptyEventListResult();
         } else {
@@ -77,6 +72,25 @@ public abstract class RpcResponseHandler<T> {
         }
     }
 
+    /**
+     * Handles a single call of a system.multicall, allows to handle the calls while the multicall is decoded.
+     */
+    public void handleMulticallEntry(Object entry) throws IOException {
+        Map<?, ?> call = (Map<?, ?>) entry;
+        if (call != null) {
+            String method = ObjectUtils.toString(call.get("methodName"));
+            Object[] data = (Object[]) call.get("params");
+            handleMethodCall(method, data);
+        }
+    }
+
+    /**
+     * Returns the result of a system.multicall, after all calls have been handled.
+     */
+    public T getMulticallResult() {
+        return getEmptyEventListResult();
+    }
+
     /**
      * Creates a BINRPC message with the supported method names.
      */
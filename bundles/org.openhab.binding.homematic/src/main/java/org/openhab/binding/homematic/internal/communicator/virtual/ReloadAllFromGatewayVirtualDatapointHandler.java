@@ -26,7 +26,8 @@ import org.openhab.binding.homematic.internal.model.HmDevice;
 import org.openhab.binding.homematic.internal.model.HmValueType;
 
 /**
- * A virtual Switch datapoint which reloads all device values from the gateway.
+ * A virtual Switch datapoint which reloads all device values from the gateway. The cached device metadata is
+ * removed as well, so it is loaded from the gateway again with the next device discovery.
  *
  * @author Gerhard Riegler - Initial contribution
  */
@@ -54,6 +55,7 @@ public class ReloadAllFromGatewayVirtualDatapointHandler extends AbstractVirtual
         dp.setValue(value);
         if (MiscUtils.isTrueValue(dp.getValue())) {
             try {
+                gateway.clearDeviceMetadataCache();
                 gateway.getGatewayAdapter().reloadAllDeviceValues();
             } finally {
                 gateway.disableDatapoint(dp, AbstractHomematicGateway.DEFAULT_DISABLE_DELAY);
@@ -37,6 +37,7 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandlerService;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.DeviceMetadataCache;
 import org.openhab.binding.homematic.internal.communicator.HomematicGateway;
 import org.openhab.binding.homematic.internal.communicator.HomematicGatewayAdapter;
 import org.openhab.binding.homematic.internal.communicator.HomematicGatewayFactory;
@@ -175,6 +176,16 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
         }
     }
 
+    @Override
+    public void handleRemoval() {
+        if (gateway != null) {
+            gateway.clearDeviceMetadataCache();
+        } else {
+            new DeviceMetadataCache(DeviceMetadataCache.getFolder(getThing().getUID().getId())).clear();
+        }
+        super.handleRemoval();
+    }
+
     private void disposeInternal() {
         logger.debug("Disposing bridge '{}'", getThing().getUID().getId());
         if (discoveryService != null) {
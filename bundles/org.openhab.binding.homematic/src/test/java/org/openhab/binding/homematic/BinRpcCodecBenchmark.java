@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.openhab.binding.homematic.internal.communicator.server.BinRpcResponseHandler;
+import org.openhab.binding.homematic.internal.communicator.server.RpcEventListener;
+import org.openhab.binding.homematic.internal.communicator.server.RpcResponseHandler;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openhab.binding.homematic.test.util.BinRpcTrafficHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Replays the multicalls sent by a CCU after a reconnect through the BIN-RPC codec.
+ *
+ * <code>decodeMessage</code> decodes a whole multicall into a {@link BinRpcMessage}, as the client does with
+ * responses. <code>handleMulticall</code> decodes and handles the calls one by one, as the callback server does.
+ * <code>encodeMulticall</code> encodes the events into a new message.
+ *
+ * Run with <code>main</code> from the IDE or through the JMH runner on the test classpath, add
+ * <code>-prof gc</code> to see the allocation rate.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinRpcCodecBenchmark {
+
+    private List<List<Object[]>> events;
+    private List<byte[]> messages;
+    private BinRpcResponseHandler responseHandler;
+    private int eventCount;
+
+    @Setup
+    public void setUp() throws IOException {
+        events = BinRpcTrafficHelper.readEventStorm();
+        messages = BinRpcTrafficHelper.createEventStormMessages();
+        RpcEventListener listener = new RpcEventListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                eventCount++;
+            }
+
+            @Override
+            public void newDevices(List<String> adresses) {
+            }
+
+            @Override
+            public void deleteDevices(List<String> addresses) {
+            }
+        };
+        HomematicConfig config = new HomematicConfig();
+        RpcResponseHandler<byte[]> rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
+            @Override
+            protected byte[] getEmptyStringResult() {
+                return new byte[0];
+            }
+
+            @Override
+            protected byte[] getEmptyArrayResult() {
+                return new byte[0];
+            }
+
+            @Override
+            protected byte[] getEmptyEventListResult() {
+                return new byte[0];
+            }
+
+            @Override
+            protected RpcRequest<byte[]> createRpcRequest() {
+                return new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, config.getEncoding());
+            }
+        };
+        responseHandler = new BinRpcResponseHandler(rpcResponseHandler, config);
+    }
+
+    @Benchmark
+    public int decodeMessage() throws IOException {
+        int calls = 0;
+        for (byte[] message : messages) {
+            BinRpcMessage decoded = new BinRpcMessage(ByteBuffer.wrap(message), true, BinRpcTrafficHelper.ENCODING);
+            calls += ((Object[]) decoded.getResponseData()[0]).length;
+        }
+        return calls;
+    }
+
+    @Benchmark
+    public int handleMulticall() throws IOException {
+        for (byte[] message : messages) {
+            responseHandler.handleMessage(ByteBuffer.wrap(message));
+        }
+        return eventCount;
+    }
+
+    @Benchmark
+    public int encodeMulticall() {
+        int length = 0;
+        for (List<Object[]> multicall : events) {
+            length += BinRpcTrafficHelper.createMulticall(multicall).length;
+        }
+        return length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BinRpcCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.misc.HomematicConstants;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+
+/**
+ * Tests for {@link DeviceMetadataCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCacheTest {
+
+    private static final String DEVICE_TYPE = "HM-LC-Dim1-Pl3";
+
+    private File folder;
+
+    @Before
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("homematic-metadata").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        new DeviceMetadataCache(folder).clear();
+    }
+
+    @Test
+    public void metadataIsReadFromFileAfterRestart() {
+        new DeviceMetadataCache(folder).put(createDevice("ABC0000001", "2.8"));
+
+        Collection<HmDatapoint> datapoints = new DeviceMetadataCache(folder)
+                .getChannelDatapoints(createDevice("ABC0000002", "2.8"), 1);
+
+        assertThat(datapoints.size(), is(3));
+        HmDatapoint level = findDatapoint(datapoints, "LEVEL");
+        assertThat(level.getType(), is(HmValueType.FLOAT));
+        assertThat(level.getParamsetType(), is(HmParamsetType.VALUES));
+        assertThat(level.getMinValue(), is((Number) 0.0));
+        assertThat(level.getMaxValue(), is((Number) 1.01));
+        assertThat(level.getUnit(), is("100%"));
+        assertThat(level.getDefaultValue(), is((Object) 0.0));
+        assertThat(level.getValue(), is(nullValue()));
+        assertThat(level.isReadOnly(), is(false));
+        assertThat(level.isReadable(), is(true));
+
+        HmDatapoint direction = findDatapoint(datapoints, "DIRECTION");
+        assertThat(direction.getType(), is(HmValueType.ENUM));
+        assertThat(direction.getOptions(), is(new String[] { "NONE", "UP", "DOWN", "UNDEFINED" }));
+        assertThat(direction.getMaxValue(), is((Number) 3));
+        assertThat(direction.getUnit(), is(nullValue()));
+
+        HmDatapoint rampTime = findDatapoint(datapoints, "RAMP_TIME");
+        assertThat(rampTime.getParamsetType(), is(HmParamsetType.MASTER));
+        assertThat(rampTime.getType(), is(HmValueType.INTEGER));
+        assertThat(rampTime.getDefaultValue(), is((Object) 5));
+    }
+
+    @Test
+    public void virtualDatapointsAndReconfigurableChannelsAreNotCached() {
+        HmDevice device = createDevice("ABC0000001", "2.8");
+        HmChannel reconfigurableChannel = new HmChannel(DEVICE_TYPE, 2);
+        device.addChannel(reconfigurableChannel);
+        reconfigurableChannel.addDatapoint(createDatapoint(HomematicConstants.DATAPOINT_NAME_CHANNEL_FUNCTION,
+                HmValueType.INTEGER, HmParamsetType.MASTER));
+        HmDatapoint virtualDatapoint = createDatapoint("RELOAD_FROM_GATEWAY", HmValueType.BOOL, HmParamsetType.VALUES);
+        virtualDatapoint.setVirtual(true);
+        device.getChannel(1).addDatapoint(virtualDatapoint);
+
+        new DeviceMetadataCache(folder).put(device);
+
+        DeviceMetadataCache cache = new DeviceMetadataCache(folder);
+        assertThat(cache.getChannelDatapoints(device, 1).size(), is(3));
+        assertThat(cache.getChannelDatapoints(device, 2), is(nullValue()));
+    }
+
+    @Test
+    public void metadataOfEachFirmwareIsKept() {
+        new DeviceMetadataCache(folder).put(createDevice("ABC0000001", "2.8"));
+        new DeviceMetadataCache(folder).put(createDevice("ABC0000002", "2.9"));
+
+        DeviceMetadataCache cache = new DeviceMetadataCache(folder);
+        assertThat(cache.getChannelDatapoints(createDevice("ABC0000003", "2.8"), 1), is(notNullValue()));
+        assertThat(cache.getChannelDatapoints(createDevice("ABC0000004", "2.9"), 1), is(notNullValue()));
+        assertThat(folder.list().length, is(2));
+    }
+
+    @Test
+    public void metadataOfUnusedFirmwareIsRemoved() {
+        HmDevice oldFirmwareDevice = createDevice("ABC0000001", "2.8");
+        HmDevice newFirmwareDevice = createDevice("ABC0000002", "2.9");
+        DeviceMetadataCache cache = new DeviceMetadataCache(folder);
+        cache.put(oldFirmwareDevice);
+        cache.put(newFirmwareDevice);
+
+        cache.removeUnused(Collections.singletonList(newFirmwareDevice));
+
+        assertThat(cache.getChannelDatapoints(oldFirmwareDevice, 1), is(nullValue()));
+        assertThat(cache.getChannelDatapoints(newFirmwareDevice, 1), is(notNullValue()));
+        assertThat(folder.list().length, is(1));
+    }
+
+    @Test
+    public void invalidFileIsDiscarded() throws IOException {
+        HmDevice device = createDevice("ABC0000001", "2.8");
+        new DeviceMetadataCache(folder).put(device);
+        File file = folder.listFiles()[0];
+        Files.write(file.toPath(), new byte[] { 0, 0, 0, 1, 0 });
+
+        assertThat(new DeviceMetadataCache(folder).getChannelDatapoints(device, 1), is(nullValue()));
+        assertThat(file.exists(), is(false));
+    }
+
+    @Test
+    public void clearRemovesMetadataAndFolder() {
+        HmDevice device = createDevice("ABC0000001", "2.8");
+        DeviceMetadataCache cache = new DeviceMetadataCache(folder);
+        cache.put(device);
+        assertThat(cache.getChannelDatapoints(device, 1), is(notNullValue()));
+
+        cache.clear();
+
+        assertThat(folder.exists(), is(false));
+        assertThat(cache.getChannelDatapoints(device, 1), is(nullValue()));
+    }
+
+    private HmDevice createDevice(String address, String firmware) {
+        HmDevice device = new HmDevice(address, null, DEVICE_TYPE, "CCU2", "", firmware);
+        HmChannel channel = new HmChannel(DEVICE_TYPE, 1);
+        device.addChannel(channel);
+
+        HmDatapoint level = createDatapoint("LEVEL", HmValueType.FLOAT, HmParamsetType.VALUES);
+        level.setMinValue(0.0);
+        level.setMaxValue(1.01);
+        level.setUnit("100%");
+        level.setDefaultValue(0.0);
+        level.setValue(0.5);
+        channel.addDatapoint(level);
+
+        HmDatapoint direction = createDatapoint("DIRECTION", HmValueType.ENUM, HmParamsetType.VALUES);
+        direction.setOptions(new String[] { "NONE", "UP", "DOWN", "UNDEFINED" });
+        direction.setMinValue(0);
+        direction.setMaxValue(3);
+        direction.setReadOnly(true);
+        channel.addDatapoint(direction);
+
+        HmDatapoint rampTime = createDatapoint("RAMP_TIME", HmValueType.INTEGER, HmParamsetType.MASTER);
+        rampTime.setDefaultValue(5);
+        channel.addDatapoint(rampTime);
+        return device;
+    }
+
+    private HmDatapoint createDatapoint(String name, HmValueType type, HmParamsetType paramsetType) {
+        HmDatapoint dp = new HmDatapoint(name, name, type, null, false, paramsetType);
+        dp.setReadable(true);
+        return dp;
+    }
+
+    private HmDatapoint findDatapoint(Collection<HmDatapoint> datapoints, String name) {
+        List<String> names = new ArrayList<>();
+        for (HmDatapoint dp : datapoints) {
+            if (dp.getName().equals(name)) {
+                return dp;
+            }
+            names.add(dp.getName());
+        }
+        throw new AssertionError(name + " not found in " + names);
+    }
+}
@@ -19,6 +19,15 @@ import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
 import static org.openhab.binding.homematic.test.util.RpcClientMockImpl.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.test.java.JavaTest;
 import org.junit.Before;
@@ -26,6 +35,7 @@ import org.junit.Test;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 import org.openhab.binding.homematic.internal.communicator.message.XmlRpcRequest;
 import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
 import org.openhab.binding.homematic.internal.model.HmParamsetType;
 import org.openhab.binding.homematic.test.util.RpcClientMockImpl;
 
@@ -95,6 +105,112 @@ public class RpcClientTest extends JavaTest {
         assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
     }
 
+    @Test
+    public void requestsAreRecordedInInterfaceMetrics() throws IOException {
+        HmChannel channel = createDimmerHmChannel();
+
+        rpcClient.setChannelDatapointValues(channel, HmParamsetType.MASTER);
+        rpcClient.addChannelDatapoints(channel, HmParamsetType.MASTER);
+
+        assertThat(rpcClient.getInterfaceMetrics().size(), is(1));
+        RpcInterfaceMetrics metrics = rpcClient.getInterfaceMetrics().iterator().next();
+        assertThat(metrics.getRequests(), is(2L));
+        assertThat(metrics.getFailures(), is(0L));
+        assertThat(metrics.getPending(), is(0));
+    }
+
+    @Test
+    public void identicalParamsetRequestsInProgressAreSentOnce() throws Exception {
+        CountDownLatch requestSent = new CountDownLatch(1);
+        CountDownLatch responseReceived = new CountDownLatch(1);
+        RpcClientMockImpl blockingRpcClient = new RpcClientMockImpl() {
+            @Override
+            protected Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
+                requestSent.countDown();
+                try {
+                    responseReceived.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.sendMessage(port, request);
+            }
+        };
+        HmChannel channel = createDimmerHmChannel();
+        Callable<Void> loadParamset = () -> {
+            blockingRpcClient.setChannelDatapointValues(channel, HmParamsetType.MASTER);
+            return null;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Void> first = executor.submit(loadParamset);
+            assertThat(requestSent.await(10, TimeUnit.SECONDS), is(true));
+            Future<Void> second = executor.submit(loadParamset);
+            waitForAssert(() -> assertThat(
+                    blockingRpcClient.getInterfaceMetrics().iterator().next().getCoalesced(), is(1L)));
+
+            responseReceived.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(blockingRpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(1));
+    }
+
+    @Test
+    public void writesToTheSameDeviceKeepTheirOrder() throws Exception {
+        CountDownLatch firstRequestSent = new CountDownLatch(1);
+        CountDownLatch firstResponseReceived = new CountDownLatch(1);
+        List<String> sentMessages = Collections.synchronizedList(new ArrayList<>());
+        RpcClientMockImpl blockingRpcClient = new RpcClientMockImpl() {
+            @Override
+            protected RpcRequest<String> createRpcRequest(String methodName) {
+                return new XmlRpcRequest(methodName);
+            }
+
+            @Override
+            protected Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
+                String message = request.createMessage();
+                if (message.contains("first")) {
+                    firstRequestSent.countDown();
+                    try {
+                        firstResponseReceived.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                }
+                sentMessages.add(message);
+                return super.sendMessage(port, request);
+            }
+        };
+        HmDatapoint dp = createDimmerHmDatapoint();
+
+        Thread first = new Thread(() -> setValue(blockingRpcClient, dp, "first"));
+        Thread second = new Thread(() -> setValue(blockingRpcClient, dp, "second"));
+        first.start();
+        assertThat(firstRequestSent.await(10, TimeUnit.SECONDS), is(true));
+        second.start();
+        waitForAssert(() -> assertThat(second.getState(), is(Thread.State.WAITING)));
+
+        firstResponseReceived.countDown();
+        first.join(10000);
+        second.join(10000);
+
+        assertThat(sentMessages.size(), is(2));
+        assertThat(sentMessages.get(0), containsString("first"));
+        assertThat(sentMessages.get(1), containsString("second"));
+    }
+
+    private static void setValue(RpcClientMockImpl rpcClient, HmDatapoint dp, Object value) {
+        try {
+            rpcClient.setDatapointValue(dp, value, null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Test
     public void burstRxModeIsConfiguredAsParameterOnRequest() throws IOException {
         RpcRequest<String> request = new XmlRpcRequest("setValue");
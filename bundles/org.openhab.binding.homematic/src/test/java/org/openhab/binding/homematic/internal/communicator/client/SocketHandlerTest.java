@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+
+/**
+ * Tests for {@link SocketHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SocketHandlerTest {
+
+    private ServerSocket serverSocket;
+    private final List<Socket> acceptedSockets = new ArrayList<>();
+    private SocketHandler socketHandler;
+    private int port;
+
+    @Before
+    public void setup() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        port = serverSocket.getLocalPort();
+        Thread acceptThread = new Thread(() -> {
+            try {
+                while (true) {
+                    Socket socket = serverSocket.accept();
+                    synchronized (acceptedSockets) {
+                        acceptedSockets.add(socket);
+                    }
+                }
+            } catch (IOException e) {
+                // server socket closed
+            }
+        });
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+
+        HomematicConfig config = new HomematicConfig();
+        config.setGatewayAddress(InetAddress.getLoopbackAddress().getHostAddress());
+        config.setTimeout(1);
+        socketHandler = new SocketHandler(config);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        socketHandler.flush();
+        serverSocket.close();
+        synchronized (acceptedSockets) {
+            for (Socket socket : acceptedSockets) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void returnedSocketIsReused() throws IOException {
+        SocketInfo first = socketHandler.getSocket(port);
+        socketHandler.returnSocket(port, first, true);
+
+        SocketInfo second = socketHandler.getSocket(port);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(second.getSocket().isClosed(), is(false));
+    }
+
+    @Test
+    public void brokenSocketIsClosedAndNotReused() throws IOException {
+        SocketInfo first = socketHandler.getSocket(port);
+        socketHandler.returnSocket(port, first, false);
+
+        SocketInfo second = socketHandler.getSocket(port);
+
+        assertThat(first.getSocket().isClosed(), is(true));
+        assertThat(second, is(not(sameInstance(first))));
+    }
+
+    @Test
+    public void concurrentRequestsUseSeparateSockets() throws IOException {
+        List<SocketInfo> borrowed = new ArrayList<>();
+        for (int i = 0; i < SocketHandler.MAX_SOCKETS_PER_PORT; i++) {
+            SocketInfo socketInfo = socketHandler.getSocket(port);
+            for (SocketInfo other : borrowed) {
+                assertThat(socketInfo.getSocket(), is(not(sameInstance(other.getSocket()))));
+            }
+            borrowed.add(socketInfo);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void waitingForAFreeSocketTimesOut() throws IOException {
+        for (int i = 0; i < SocketHandler.MAX_SOCKETS_PER_PORT; i++) {
+            socketHandler.getSocket(port);
+        }
+
+        socketHandler.getSocket(port);
+    }
+
+    @Test
+    public void socketInUseIsClosedOnReturnAfterRemove() throws IOException {
+        SocketInfo idle = socketHandler.getSocket(port);
+        SocketInfo inUse = socketHandler.getSocket(port);
+        socketHandler.returnSocket(port, idle, true);
+
+        socketHandler.removeSocket(port);
+        socketHandler.returnSocket(port, inUse, true);
+
+        assertThat(idle.getSocket().isClosed(), is(true));
+        assertThat(inUse.getSocket().isClosed(), is(true));
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+import org.openhab.binding.homematic.test.util.BinRpcTrafficHelper;
+
+/**
+ * Tests for {@link BinRpcMessage} and {@link BinRpcDecoder}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcMessageTest {
+    private static final String ENCODING = BinRpcTrafficHelper.ENCODING;
+
+    private static BinRpcMessage createEvent(Object value) {
+        BinRpcMessage message = new BinRpcMessage("event", ENCODING);
+        message.addArg("RF-ccu");
+        message.addArg("NEQ0001000:1");
+        message.addArg("STATE");
+        message.addArg(value);
+        return message;
+    }
+
+    @Test
+    public void valuesAreDecodedAsEncoded() throws Exception {
+        Map<String, Object> struct = new TreeMap<>();
+        struct.put("ADDRESS", "NEQ0001000:1");
+        struct.put("FLAGS", 1);
+        struct.put("CHILDREN", Arrays.asList("a", "b"));
+        BinRpcMessage message = new BinRpcMessage("test", ENCODING);
+        message.addArg("Temperatur Küche");
+        message.addArg(Boolean.TRUE);
+        message.addArg(-42);
+        message.addArg(21.5);
+        message.addArg(new BigDecimal("-0.125"));
+        message.addArg(new Date(1600000000000L));
+        message.addArg(struct);
+
+        BinRpcMessage decoded = new BinRpcMessage(message.createMessage(), true, ENCODING);
+
+        assertThat(decoded.getMethodName(), is("test"));
+        Object[] data = decoded.getResponseData();
+        assertThat(data.length, is(7));
+        assertThat(data[0], is("Temperatur Küche"));
+        assertThat(data[1], is(Boolean.TRUE));
+        assertThat(data[2], is(-42));
+        assertThat(data[3], is(21.5));
+        assertThat(data[4], is(-0.125));
+        assertThat(data[5], is(new Date(1600000000000L)));
+        Map<?, ?> decodedStruct = (Map<?, ?>) data[6];
+        assertThat(decodedStruct.get("ADDRESS"), is("NEQ0001000:1"));
+        assertThat(decodedStruct.get("FLAGS"), is(1));
+        assertThat(Arrays.asList((Object[]) decodedStruct.get("CHILDREN")), is(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void argumentCountAndLengthAreUpdated() throws Exception {
+        BinRpcMessage message = createEvent(Boolean.FALSE);
+        byte[] data = message.createMessage();
+
+        assertThat(message.getArgCount(), is(4));
+        assertThat(BinRpcDecoder.getMessageLength(ByteBuffer.wrap(data)), is(data.length));
+        assertThat(ByteBuffer.wrap(data).getInt(8 + 4 + "event".length()), is(4));
+    }
+
+    @Test
+    public void messagesAreDecodedFromStream() throws Exception {
+        byte[] data = createEvent(0.75).createMessage();
+
+        BinRpcMessage decoded = new BinRpcMessage(new ByteArrayInputStream(data), true, ENCODING);
+
+        assertThat(decoded.getMethodName(), is("event"));
+        assertThat(decoded.getResponseData()[3], is(0.75));
+    }
+
+    @Test
+    public void consecutiveMessagesAreDecodedFromBuffer() throws Exception {
+        byte[] first = createEvent(Boolean.TRUE).createMessage();
+        byte[] second = createEvent(Boolean.FALSE).createMessage();
+        ByteBuffer buffer = ByteBuffer.allocate(first.length + second.length);
+        buffer.put(first).put(second).flip();
+
+        BinRpcMessage firstDecoded = new BinRpcMessage(buffer, true, ENCODING);
+        assertThat(buffer.position(), is(first.length));
+        BinRpcMessage secondDecoded = new BinRpcMessage(buffer, true, ENCODING);
+
+        assertThat(firstDecoded.getResponseData()[3], is(Boolean.TRUE));
+        assertThat(secondDecoded.getResponseData()[3], is(Boolean.FALSE));
+        assertThat(buffer.hasRemaining(), is(false));
+    }
+
+    @Test
+    public void multicallIsDecodedIncrementally() throws Exception {
+        List<Object[]> events = BinRpcTrafficHelper.readEventStorm().get(0);
+        byte[] data = BinRpcTrafficHelper.createMulticall(events);
+
+        BinRpcDecoder decoder = new BinRpcDecoder(ByteBuffer.wrap(data),
+                BinRpcDecoder.getCharset(BinRpcTrafficHelper.ENCODING));
+        assertThat(decoder.readMethodName(), is("system.multicall"));
+        int calls = decoder.readArrayHeader();
+        assertThat(calls, is(events.size()));
+        for (int i = 0; i < calls; i++) {
+            Map<?, ?> call = (Map<?, ?>) decoder.readValue();
+            assertThat(call.get("methodName"), is("event"));
+            assertThat(Arrays.asList((Object[]) call.get("params")), is(Arrays.asList(events.get(i))));
+        }
+        assertThat(decoder.hasRemaining(), is(false));
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedMessageIsRejected() throws Exception {
+        byte[] data = createEvent("value").createMessage();
+        new BinRpcMessage(Arrays.copyOf(data, data.length - 2), true, ENCODING);
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownDataTypeIsRejected() throws Exception {
+        byte[] data = createEvent(7).createMessage();
+        // type of the last argument
+        ByteBuffer.wrap(data).putInt(data.length - 8, 0x42);
+        new BinRpcMessage(data, true, ENCODING);
+    }
+
+    @Test(expected = IOException.class)
+    public void missingSignatureIsRejected() throws Exception {
+        byte[] data = createEvent(7).createMessage();
+        data[0] = 'X';
+        new BinRpcMessage(data, true, ENCODING);
+    }
+
+    @Test(expected = IOException.class)
+    public void negativeLengthIsRejected() throws Exception {
+        byte[] data = createEvent(7).createMessage();
+        ByteBuffer.wrap(data).putInt(4, -1);
+        BinRpcDecoder.getMessageLength(ByteBuffer.wrap(data));
+    }
+
+    @Test(expected = IOException.class)
+    public void oversizedLengthIsRejected() throws Exception {
+        byte[] data = createEvent(7).createMessage();
+        ByteBuffer.wrap(data).putInt(4, BinRpcDecoder.MAX_MESSAGE_LENGTH);
+        BinRpcDecoder.getMessageLength(ByteBuffer.wrap(data));
+    }
+
+    @Test(expected = IOException.class)
+    public void overflowingLengthIsRejected() throws Exception {
+        byte[] data = createEvent(7).createMessage();
+        ByteBuffer.wrap(data).putInt(4, Integer.MAX_VALUE - 4);
+        new BinRpcMessage(new ByteArrayInputStream(data), true, ENCODING);
+    }
+
+    @Test
+    public void maximumLengthIsAccepted() throws Exception {
+        byte[] data = createEvent(7).createMessage();
+        ByteBuffer.wrap(data).putInt(4, BinRpcDecoder.MAX_MESSAGE_LENGTH - BinRpcDecoder.HEADER_LENGTH);
+        assertThat(BinRpcDecoder.getMessageLength(ByteBuffer.wrap(data)), is(BinRpcDecoder.MAX_MESSAGE_LENGTH));
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openhab.binding.homematic.test.util.BinRpcTrafficHelper;
+
+/**
+ * Tests for the {@link BinRpcNetworkService}, replaying the events sent by a CCU.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcNetworkServiceTest {
+
+    private static class EventCollector implements RpcEventListener {
+        private final List<HmDatapointInfo> events = Collections.synchronizedList(new ArrayList<>());
+        private CountDownLatch latch = new CountDownLatch(0);
+
+        @Override
+        public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+            events.add(dpInfo);
+            latch.countDown();
+        }
+
+        @Override
+        public void newDevices(List<String> adresses) {
+        }
+
+        @Override
+        public void deleteDevices(List<String> addresses) {
+        }
+    }
+
+    private EventCollector listener;
+    private BinRpcServer server;
+    private int port;
+
+    @Before
+    public void setup() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        HomematicConfig config = new HomematicConfig();
+        config.setBindAddress("127.0.0.1");
+        config.setBinCallbackPort(port);
+        listener = new EventCollector();
+        server = new BinRpcServer(listener, config);
+        server.start();
+    }
+
+    @After
+    public void teardown() {
+        server.shutdown();
+    }
+
+    private static BinRpcMessage readResponse(Socket socket) throws Exception {
+        return new BinRpcMessage(socket.getInputStream(), false, BinRpcTrafficHelper.ENCODING);
+    }
+
+    @Test
+    public void multicallsAreHandledOnOneConnection() throws Exception {
+        List<byte[]> messages = BinRpcTrafficHelper.createEventStormMessages();
+        int eventCount = 0;
+        for (List<Object[]> events : BinRpcTrafficHelper.readEventStorm()) {
+            eventCount += events.size();
+        }
+        listener.latch = new CountDownLatch(eventCount);
+
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setSoTimeout(5000);
+            for (byte[] message : messages) {
+                socket.getOutputStream().write(message);
+                BinRpcMessage response = readResponse(socket);
+                assertThat(response.getResponseData().length, is(1));
+                assertThat(((Object[]) response.getResponseData()[0])[0], is("event"));
+            }
+        }
+
+        assertThat(listener.latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(listener.events.size(), is(eventCount));
+        assertThat(listener.events.get(0).getAddress(), is("NEQ0001000"));
+    }
+
+    @Test
+    public void fragmentedMessageIsHandled() throws Exception {
+        BinRpcMessage event = new BinRpcMessage("event", BinRpcTrafficHelper.ENCODING);
+        event.addArg("RF-ccu");
+        event.addArg("NEQ0001000:1");
+        event.addArg("STATE");
+        event.addArg(Boolean.TRUE);
+        byte[] message = event.createMessage();
+        listener.latch = new CountDownLatch(1);
+
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setSoTimeout(5000);
+            socket.setTcpNoDelay(true);
+            OutputStream os = socket.getOutputStream();
+            os.write(message, 0, 5);
+            os.flush();
+            Thread.sleep(50);
+            os.write(message, 5, 10);
+            os.flush();
+            Thread.sleep(50);
+            os.write(message, 15, message.length - 15);
+
+            BinRpcMessage response = readResponse(socket);
+            assertThat(response.getResponseData()[0], is(""));
+        }
+
+        assertThat(listener.latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(listener.events.get(0).getName(), is("STATE"));
+    }
+
+    @Test
+    public void invalidMessageClosesOnlyItsConnection() throws Exception {
+        BinRpcMessage event = new BinRpcMessage("event", BinRpcTrafficHelper.ENCODING);
+        event.addArg("RF-ccu");
+        event.addArg("NEQ0001000:1");
+        event.addArg("STATE");
+        event.addArg(Boolean.TRUE);
+        byte[] message = event.createMessage();
+        byte[] oversized = message.clone();
+        ByteBuffer.wrap(oversized).putInt(4, Integer.MAX_VALUE);
+        listener.latch = new CountDownLatch(1);
+
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(oversized);
+            assertThat(socket.getInputStream().read(), is(-1));
+        }
+
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(message);
+            BinRpcMessage response = readResponse(socket);
+            assertThat(response.getResponseData()[0], is(""));
+        }
+
+        assertThat(listener.latch.await(5, TimeUnit.SECONDS), is(true));
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.test.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+
+/**
+ * Class that contains static helper methods to create BIN-RPC messages from the events sent by a CCU, stored in
+ * <code>binrpc/ccu-event-storm.txt</code>.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcTrafficHelper {
+    public static final String ENCODING = "ISO-8859-1";
+
+    private static final String EVENT_STORM = "/binrpc/ccu-event-storm.txt";
+
+    /**
+     * Returns the events of the CCU recording, grouped by multicall. Every event consists of the interface id, the
+     * address, the datapoint name and the value.
+     */
+    public static List<List<Object[]>> readEventStorm() throws IOException {
+        List<List<Object[]>> multicalls = new ArrayList<>();
+        List<Object[]> events = new ArrayList<>();
+        try (InputStream is = BinRpcTrafficHelper.class.getResourceAsStream(EVENT_STORM);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                if (line.isEmpty()) {
+                    multicalls.add(events);
+                    events = new ArrayList<>();
+                    continue;
+                }
+                String[] parts = line.split("\t", -1);
+                events.add(new Object[] { parts[0], parts[1], parts[2], toValue(parts[3], parts[4]) });
+            }
+        }
+        if (!events.isEmpty()) {
+            multicalls.add(events);
+        }
+        return multicalls;
+    }
+
+    private static Object toValue(String type, String value) {
+        switch (type) {
+            case "i":
+                return Integer.valueOf(value);
+            case "b":
+                return Boolean.valueOf(value);
+            case "d":
+                return Double.valueOf(value);
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Creates a system.multicall message with the given events.
+     */
+    public static byte[] createMulticall(List<Object[]> events) {
+        List<Map<String, Object>> calls = new ArrayList<>();
+        for (Object[] event : events) {
+            Map<String, Object> call = new HashMap<>();
+            call.put("methodName", "event");
+            call.put("params", Arrays.asList(event));
+            calls.add(call);
+        }
+        BinRpcMessage message = new BinRpcMessage("system.multicall", ENCODING);
+        message.addArg(calls);
+        return message.createMessage();
+    }
+
+    /**
+     * Creates the system.multicall messages of the CCU recording.
+     */
+    public static List<byte[]> createEventStormMessages() throws IOException {
+        List<byte[]> messages = new ArrayList<>();
+        for (List<Object[]> events : readEventStorm()) {
+            messages.add(createMulticall(events));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.types.Type;
+
+import tuwien.auto.calimero.process.ProcessEvent;
+
+/**
+ * Decodes the values of a single datapoint into openHAB types.
+ *
+ * Decoders are created through {@link KNXTypeMapper#createDecoder} once the datapoint type of a channel is known, so
+ * everything which only depends on the datapoint type is resolved before the first telegram is received.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+@FunctionalInterface
+public interface KNXTypeDecoder {
+
+    /**
+     * maps a datapoint value to an openHAB command or state
+     *
+     * @param data the datapoint value as an ASDU byte array (see <code>{@link ProcessEvent}.getASDU()</code>)
+     * @return a command or state of openHAB, or <code>null</code> if the data couldn't be decoded
+     */
+    @Nullable
+    Type decode(byte[] data);
+
+}
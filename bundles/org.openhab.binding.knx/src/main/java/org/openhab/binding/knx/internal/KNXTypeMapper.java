@@ -54,4 +54,15 @@ public interface KNXTypeMapper {
     @Nullable
     public Class<? extends Type> toTypeClass(@Nullable String dpt);
 
+    /**
+     * creates a decoder mapping the values of the given datapoint to openHAB commands or states, as
+     * {@link #toType(Datapoint, byte[])} does
+     *
+     * @param datapoint the source datapoint
+     * @return a decoder for the values of the datapoint
+     */
+    public default KNXTypeDecoder createDecoder(Datapoint datapoint) {
+        return data -> toType(datapoint, data);
+    }
+
 }
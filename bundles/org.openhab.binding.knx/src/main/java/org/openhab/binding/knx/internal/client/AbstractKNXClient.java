@@ -12,9 +12,6 @@
  */
 package org.openhab.binding.knx.internal.client;
 
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -37,6 +34,7 @@ import tuwien.auto.calimero.DetachEvent;
 import tuwien.auto.calimero.FrameEvent;
 import tuwien.auto.calimero.GroupAddress;
 import tuwien.auto.calimero.IndividualAddress;
+import tuwien.auto.calimero.KNXAckTimeoutException;
 import tuwien.auto.calimero.KNXException;
 import tuwien.auto.calimero.datapoint.CommandDP;
 import tuwien.auto.calimero.datapoint.Datapoint;
@@ -70,9 +68,9 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     private final ThingUID thingUID;
     private final int responseTimeout;
-    private final int readingPause;
     private final int autoReconnectPeriod;
     private final int readRetriesLimit;
+    private final ReadBudget readBudget;
     private final StatusUpdateCallback statusUpdateCallback;
     private final ScheduledExecutorService knxScheduler;
 
@@ -85,8 +83,13 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final GroupAddressDispatcher groupAddressDispatcher;
+    private final ReadDatapointQueue readDatapoints = new ReadDatapointQueue();
+    private final Object busJobLock = new Object();
+    /** guarded by busJobLock, incremented on every connect to stop the reads of the previous connection */
+    private long busJobGeneration;
+    /** guarded by busJobLock */
+    private boolean busJobActive;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -123,15 +126,26 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         }
     };
 
+    /**
+     * @param maxReadsPerSecond the maximum number of read requests per second. The number of reads is limited by
+     *            <code>readingPause</code> as well, and is lowered automatically when the bus is busy.
+     */
     public AbstractKNXClient(int autoReconnectPeriod, ThingUID thingUID, int responseTimeout, int readingPause,
-            int readRetriesLimit, ScheduledExecutorService knxScheduler, StatusUpdateCallback statusUpdateCallback) {
+            int readRetriesLimit, int maxReadsPerSecond, ScheduledExecutorService knxScheduler,
+            StatusUpdateCallback statusUpdateCallback) {
         this.autoReconnectPeriod = autoReconnectPeriod;
         this.thingUID = thingUID;
         this.responseTimeout = responseTimeout;
-        this.readingPause = readingPause;
         this.readRetriesLimit = readRetriesLimit;
+        double readsPerSecond = maxReadsPerSecond;
+        if (readingPause > 0) {
+            readsPerSecond = readsPerSecond > 0 ? Math.min(readsPerSecond, 1000.0 / readingPause)
+                    : 1000.0 / readingPause;
+        }
+        this.readBudget = new ReadBudget(readsPerSecond);
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
+        this.groupAddressDispatcher = new GroupAddressDispatcher(knxScheduler);
     }
 
     public void initialize() {
@@ -196,8 +210,11 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
             link.addLinkListener(this);
 
-            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
-                    TimeUnit.MILLISECONDS);
+            synchronized (busJobLock) {
+                readBudget.reset();
+                busJobActive = true;
+                scheduleNextRead(++busJobGeneration, 0);
+            }
 
             statusUpdateCallback.updateStatus(ThingStatus.ONLINE);
             connectJob = null;
@@ -224,7 +241,10 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
         readDatapoints.clear();
-        busJob = nullify(busJob, j -> j.cancel(true));
+        synchronized (busJobLock) {
+            busJobActive = false;
+            busJob = nullify(busJob, j -> j.cancel(true));
+        }
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
         managementClient = nullify(managementClient, mc -> mc.detach());
@@ -251,11 +271,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
-        }
+        groupAddressDispatcher.dispatch(destination, listener -> action.apply(listener, source, destination, asdu));
     }
 
     /**
@@ -270,8 +286,25 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return typeHelper.toDPTValue(type, dpt);
     }
 
+    private void scheduleNextRead(long generation, long delay) {
+        synchronized (busJobLock) {
+            if (busJobActive && generation == busJobGeneration) {
+                busJob = knxScheduler.schedule(() -> readNextQueuedDatapoint(generation), delay,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void readNextQueuedDatapoint(long generation) {
+        try {
+            readQueuedDatapoint();
+        } finally {
+            scheduleNextRead(generation, readBudget.getPause());
+        }
+    }
+
     @SuppressWarnings("null")
-    private void readNextQueuedDatapoint() {
+    private void readQueuedDatapoint() {
         if (!connectIfNotAutomatic()) {
             return;
         }
@@ -282,10 +315,20 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         ReadDatapoint datapoint = readDatapoints.poll();
         if (datapoint != null) {
             datapoint.incrementRetries();
+            long start = System.nanoTime();
             try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
+                logger.trace("Sending a Group Read Request telegram for {} ({})",
+                        datapoint.getDatapoint().getMainAddress(), datapoint.getPriority());
                 processCommunicator.read(datapoint.getDatapoint());
+                readBudget.onRead(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                logger.trace("Read budget: {}, queued: {}", readBudget, readDatapoints);
             } catch (KNXException e) {
+                if (e instanceof KNXAckTimeoutException) {
+                    // the gateway didn't confirm the request, other failures say nothing about the load of the bus
+                    readBudget.onCongestion();
+                    logger.debug("Read request for {} not confirmed, lowering the read budget: {}",
+                            datapoint.getDatapoint().getMainAddress(), readBudget);
+                }
                 if (datapoint.getRetries() < datapoint.getLimit()) {
                     readDatapoints.add(datapoint);
                     logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
@@ -366,23 +409,18 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
+        readDatapoints.add(new ReadDatapoint(datapoint, readRetriesLimit, priority));
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        return groupAddressDispatcher.register(listener);
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        return groupAddressDispatcher.unregister(listener);
     }
 
     @Override
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Dispatches telegrams to the {@link GroupAddressListener}s interested in their destination.
+ *
+ * The listeners are indexed by the group addresses they announce through
+ * {@link GroupAddressListener#getGroupAddresses()}, so the cost of a telegram only depends on the number of its
+ * actual subscribers. Listeners not announcing their addresses are asked through
+ * {@link GroupAddressListener#listensTo(GroupAddress)} for every telegram.
+ *
+ * Every listener has its own queue of pending notifications. A single task drains the queue, notifying the listener
+ * in the order the telegrams were received, so a burst of telegrams results in one task per listener instead of one
+ * task per telegram and listener.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class GroupAddressDispatcher {
+
+    /**
+     * Maximum number of notifications delivered by a single task, before giving other tasks a chance to run
+     */
+    static final int MAX_BATCH_SIZE = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(GroupAddressDispatcher.class);
+
+    private final Executor executor;
+
+    private final Object indexLock = new Object();
+    private final Map<GroupAddress, Set<GroupAddressListener>> listenersByAddress = new ConcurrentHashMap<>();
+    private final Set<GroupAddressListener> unindexedListeners = new CopyOnWriteArraySet<>();
+    /** guarded by indexLock */
+    private final Map<GroupAddressListener, Set<GroupAddress>> addressesByListener = new HashMap<>();
+    private final Map<GroupAddressListener, ListenerQueue> queues = new ConcurrentHashMap<>();
+
+    public GroupAddressDispatcher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Register the given listener, or update the index with its current group addresses if it is already registered.
+     *
+     * @param listener the listener
+     * @return {@code true} if it wasn't registered before
+     */
+    public boolean register(GroupAddressListener listener) {
+        synchronized (indexLock) {
+            boolean added = !addressesByListener.containsKey(listener) && !unindexedListeners.contains(listener);
+            removeFromIndex(listener);
+            Set<GroupAddress> addresses = listener.getGroupAddresses();
+            if (addresses == null) {
+                unindexedListeners.add(listener);
+                addressesByListener.put(listener, Collections.emptySet());
+            } else {
+                Set<GroupAddress> copy = new HashSet<>(addresses);
+                for (GroupAddress address : copy) {
+                    listenersByAddress.computeIfAbsent(address, a -> new CopyOnWriteArraySet<>()).add(listener);
+                }
+                addressesByListener.put(listener, copy);
+            }
+            queues.computeIfAbsent(listener, ListenerQueue::new);
+            return added;
+        }
+    }
+
+    /**
+     * Remove the given listener.
+     *
+     * @param listener the listener
+     * @return {@code true} if it was registered
+     */
+    public boolean unregister(GroupAddressListener listener) {
+        synchronized (indexLock) {
+            boolean removed = addressesByListener.containsKey(listener);
+            removeFromIndex(listener);
+            addressesByListener.remove(listener);
+            queues.remove(listener);
+            return removed;
+        }
+    }
+
+    private void removeFromIndex(GroupAddressListener listener) {
+        unindexedListeners.remove(listener);
+        Set<GroupAddress> addresses = addressesByListener.get(listener);
+        if (addresses == null) {
+            return;
+        }
+        for (GroupAddress address : addresses) {
+            Set<GroupAddressListener> listeners = listenersByAddress.get(address);
+            if (listeners != null) {
+                listeners.remove(listener);
+                if (listeners.isEmpty()) {
+                    listenersByAddress.remove(address);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue a notification for all listeners interested in the given destination.
+     *
+     * @param destination the destination of the telegram
+     * @param notification the notification to deliver to each listener
+     * @return the number of listeners notified
+     */
+    public int dispatch(GroupAddress destination, Consumer<GroupAddressListener> notification) {
+        int notified = 0;
+        Set<GroupAddressListener> listeners = listenersByAddress.get(destination);
+        if (listeners != null) {
+            for (GroupAddressListener listener : listeners) {
+                notified += enqueue(listener, notification);
+            }
+        }
+        for (GroupAddressListener listener : unindexedListeners) {
+            if (listener.listensTo(destination)) {
+                notified += enqueue(listener, notification);
+            }
+        }
+        return notified;
+    }
+
+    private int enqueue(GroupAddressListener listener, Consumer<GroupAddressListener> notification) {
+        ListenerQueue queue = queues.get(listener);
+        if (queue == null) {
+            // unregistered meanwhile
+            return 0;
+        }
+        queue.add(notification);
+        return 1;
+    }
+
+    /**
+     * Pending notifications of a single listener
+     */
+    private class ListenerQueue implements Runnable {
+        private final GroupAddressListener listener;
+        private final Queue<Consumer<GroupAddressListener>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private ListenerQueue(GroupAddressListener listener) {
+            this.listener = listener;
+        }
+
+        private void add(Consumer<GroupAddressListener> notification) {
+            pending.add(notification);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    pending.clear();
+                    logger.debug("Could not deliver KNX telegrams to {}: {}", listener, e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+                    @Nullable
+                    Consumer<GroupAddressListener> notification = pending.poll();
+                    if (notification == null) {
+                        break;
+                    }
+                    try {
+                        notification.accept(listener);
+                    } catch (RuntimeException e) {
+                        logger.warn("KNX telegram listener {} failed: {}", listener, e.getMessage(), e);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // notifications added while draining, or more than fit in one batch
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -63,6 +63,8 @@ public interface KNXClient {
     /**
      * Register the given listener to be informed on KNX bus traffic.
      *
+     * Registering an already registered listener updates the group addresses it listens to.
+     *
      * @param listener the listener
      * @return {@code true} if it wasn't registered before
      */
@@ -76,12 +78,25 @@ public interface KNXClient {
      */
     boolean unregisterGroupAddressListener(GroupAddressListener listener);
 
+    /**
+     * Schedule the given data point for asynchronous reading with {@link ReadPriority#PERIODIC} priority.
+     *
+     * @param datapoint the datapoint
+     */
+    default void readDatapoint(Datapoint datapoint) {
+        readDatapoint(datapoint, ReadPriority.PERIODIC);
+    }
+
     /**
      * Schedule the given data point for asynchronous reading.
      *
+     * Data points with a higher priority are read first. A data point which is already scheduled is not scheduled
+     * again, but its priority is raised if necessary.
+     *
      * @param datapoint the datapoint
+     * @param priority the priority of the read request
      */
-    void readDatapoint(Datapoint datapoint);
+    void readDatapoint(Datapoint datapoint, ReadPriority priority);
 
     /**
      * Write a command to the KNX bus.
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Limits the number of read requests sent to the KNX bus per second.
+ *
+ * The budget starts at the configured maximum and adapts to the observed latency of the read requests: as long as
+ * they are answered about as fast as the fastest read seen so far, the budget is increased by one read per second
+ * after every read, up to the maximum. When the smoothed latency exceeds {@link #CONGESTION_FACTOR} times the fastest
+ * read, or the gateway didn't confirm a request, the bus is considered busy and the budget is halved.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ReadBudget {
+
+    static final double MIN_READS_PER_SECOND = 1;
+    static final double MAX_READS_PER_SECOND = 1000;
+    static final int CONGESTION_FACTOR = 3;
+    /** latencies below this are never considered as congestion, in milliseconds */
+    static final long MIN_CONGESTION_LATENCY = 100;
+
+    private final double maxReadsPerSecond;
+
+    /** guarded by this */
+    private double readsPerSecond;
+    /** guarded by this */
+    private long fastestLatency = -1;
+    /** guarded by this */
+    private double smoothedLatency = -1;
+
+    /**
+     * @param maxReadsPerSecond the maximum number of reads per second. Values of zero or below mean no limit other
+     *            than {@link #MAX_READS_PER_SECOND}.
+     */
+    public ReadBudget(double maxReadsPerSecond) {
+        this.maxReadsPerSecond = maxReadsPerSecond > 0
+                ? Math.max(MIN_READS_PER_SECOND, Math.min(maxReadsPerSecond, MAX_READS_PER_SECOND))
+                : MAX_READS_PER_SECOND;
+        this.readsPerSecond = this.maxReadsPerSecond;
+    }
+
+    /**
+     * Record a read request which has been answered or confirmed.
+     *
+     * @param latency milliseconds from sending the request until it was answered
+     */
+    public synchronized void onRead(long latency) {
+        if (fastestLatency < 0 || latency < fastestLatency) {
+            fastestLatency = latency;
+        }
+        smoothedLatency = smoothedLatency < 0 ? latency : smoothedLatency + (latency - smoothedLatency) / 4;
+        if (smoothedLatency > Math.max(CONGESTION_FACTOR * fastestLatency, MIN_CONGESTION_LATENCY)) {
+            decrease();
+        } else {
+            readsPerSecond = Math.min(maxReadsPerSecond, readsPerSecond + 1);
+        }
+    }
+
+    /**
+     * Record a read request which the gateway didn't confirm.
+     */
+    public synchronized void onCongestion() {
+        decrease();
+    }
+
+    private void decrease() {
+        readsPerSecond = Math.max(MIN_READS_PER_SECOND, readsPerSecond / 2);
+    }
+
+    /**
+     * Restore the maximum budget, e.g. after reconnecting. The observed latencies are kept.
+     */
+    public synchronized void reset() {
+        readsPerSecond = maxReadsPerSecond;
+    }
+
+    /**
+     * @return milliseconds to pause after a read request
+     */
+    public synchronized long getPause() {
+        return Math.round(1000 / readsPerSecond);
+    }
+
+    public synchronized double getReadsPerSecond() {
+        return readsPerSecond;
+    }
+
+    public double getMaxReadsPerSecond() {
+        return maxReadsPerSecond;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ReadBudget [readsPerSecond=" + readsPerSecond + ", maxReadsPerSecond=" + maxReadsPerSecond
+                + ", fastestLatency=" + fastestLatency + ", smoothedLatency=" + smoothedLatency + "]";
+    }
+}
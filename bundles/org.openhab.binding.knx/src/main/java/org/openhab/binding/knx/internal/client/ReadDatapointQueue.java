@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Queue of datapoints to be read from the KNX bus.
+ *
+ * Datapoints are queued in first-in-first-out order within their {@link ReadPriority}, and higher priorities are
+ * always read first. A group address is queued at most once: queuing it again with a lower or the same priority has no
+ * effect, queuing it with a higher priority moves it to the higher priority.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ReadDatapointQueue {
+
+    /** indexed by the ordinal of the priority */
+    private final List<Set<ReadDatapoint>> queues = new ArrayList<>();
+    private final Map<GroupAddress, ReadPriority> queuedPriorities = new HashMap<>();
+
+    public ReadDatapointQueue() {
+        for (int i = 0; i < ReadPriority.values().length; i++) {
+            queues.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Queue the given datapoint with its priority.
+     *
+     * @param datapoint the datapoint
+     * @return {@code true} if the datapoint was queued, {@code false} if its group address was already queued with
+     *         the same or a higher priority
+     */
+    public synchronized boolean add(ReadDatapoint datapoint) {
+        GroupAddress address = datapoint.getDatapoint().getMainAddress();
+        ReadPriority priority = datapoint.getPriority();
+        ReadPriority queuedPriority = queuedPriorities.get(address);
+        if (queuedPriority != null) {
+            if (queuedPriority.compareTo(priority) <= 0) {
+                return false;
+            }
+            queues.get(queuedPriority.ordinal()).remove(datapoint);
+        }
+        queues.get(priority.ordinal()).add(datapoint);
+        queuedPriorities.put(address, priority);
+        return true;
+    }
+
+    /**
+     * Remove the next datapoint to be read.
+     *
+     * @return the datapoint with the highest priority which was queued first, or {@code null} if the queue is empty
+     */
+    public synchronized @Nullable ReadDatapoint poll() {
+        for (Set<ReadDatapoint> queue : queues) {
+            Iterator<ReadDatapoint> iterator = queue.iterator();
+            if (iterator.hasNext()) {
+                ReadDatapoint datapoint = iterator.next();
+                iterator.remove();
+                queuedPriorities.remove(datapoint.getDatapoint().getMainAddress());
+                return datapoint;
+            }
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        return queuedPriorities.size();
+    }
+
+    public synchronized int size(ReadPriority priority) {
+        return queues.get(priority.ordinal()).size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return queuedPriorities.isEmpty();
+    }
+
+    public synchronized void clear() {
+        for (Set<ReadDatapoint> queue : queues) {
+            queue.clear();
+        }
+        queuedPriorities.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder("ReadDatapointQueue [");
+        for (ReadPriority priority : ReadPriority.values()) {
+            builder.append(priority).append('=').append(queues.get(priority.ordinal()).size())
+                    .append(priority.ordinal() < ReadPriority.values().length - 1 ? ", " : "]");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+/**
+ * Priority classes of queued read requests, in descending order of priority.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public enum ReadPriority {
+
+    /** reads requested by the user, e.g. through a REFRESH command */
+    REFRESH,
+
+    /** periodic reads of channels with a read interval */
+    PERIODIC,
+
+    /** initial reads, when a thing is initialized or a channel is linked */
+    STARTUP;
+
+}
@@ -27,6 +27,7 @@ public class BridgeConfiguration {
     private BigDecimal readingPause;
     private BigDecimal readRetriesLimit;
     private BigDecimal responseTimeout;
+    private BigDecimal maxReadsPerSecond;
 
     public int getAutoReconnectPeriod() {
         return autoReconnectPeriod;
@@ -44,6 +45,10 @@ public class BridgeConfiguration {
         return responseTimeout;
     }
 
+    public int getMaxReadsPerSecond() {
+        return maxReadsPerSecond != null ? maxReadsPerSecond.intValue() : 0;
+    }
+
     public void setAutoReconnectPeriod(int period) {
         autoReconnectPeriod = period;
     }
@@ -37,6 +37,7 @@ import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.library.types.UpDownType;
 import org.eclipse.smarthome.core.types.Type;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.openhab.binding.knx.internal.KNXTypeDecoder;
 import org.openhab.binding.knx.internal.KNXTypeMapper;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
@@ -861,6 +862,146 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    /**
+     * Creates a decoder for the values of the given datapoint.
+     *
+     * The translator, the main and sub number and the openHAB type class are resolved once here instead of for every
+     * telegram. Booleans (1.x), unscaled unsigned bytes (5.x) and 4-byte floats (14.x) are decoded straight from the
+     * ASDU, other numeric types (5.x, 6.x, 7.x, 8.x, 9.x, 12.x and 13.x) reuse the translator and its numeric value.
+     * All other datapoint types are decoded through {@link #toType(Datapoint, byte[])}. In any case the decoded
+     * values are the same as the ones returned by {@link #toType(Datapoint, byte[])}.
+     *
+     * @param datapoint the source datapoint
+     * @return a decoder for the values of the datapoint
+     */
+    @Override
+    public KNXTypeDecoder createDecoder(Datapoint datapoint) {
+        KNXTypeDecoder fallback = data -> toType(datapoint, data);
+        DPTXlator translator;
+        try {
+            translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+        } catch (KNXException e) {
+            // toType will log the failure
+            return fallback;
+        }
+
+        String id = translator.getType().getID();
+        int mainNumber = getMainNumber(id);
+        int subNumber = getSubNumber(id);
+        Class<? extends Type> typeClass = toTypeClass(id);
+        if (mainNumber == -1 || subNumber == -1 || typeClass == null) {
+            return fallback;
+        }
+
+        boolean numeric = typeClass.equals(DecimalType.class) || typeClass.equals(PercentType.class);
+        switch (mainNumber) {
+            case 1:
+                return createBooleanDecoder(id, subNumber);
+            case 5:
+                if (typeClass.equals(DecimalType.class) && !DPTXlator8BitUnsigned.DPT_ANGLE.getID().equals(id)) {
+                    return data -> {
+                        if (data.length < 1) {
+                            logInvalidData(id);
+                            return null;
+                        }
+                        return new DecimalType((double) (data[0] & 0xff));
+                    };
+                }
+                return numeric ? new NumericDecoder(translator, typeClass) : fallback;
+            case 6:
+            case 7:
+            case 8:
+            case 9:
+            case 12:
+            case 13:
+                return numeric ? new NumericDecoder(translator, typeClass) : fallback;
+            case 14:
+                if (typeClass.equals(DecimalType.class)) {
+                    return data -> {
+                        if (data.length < 4) {
+                            logInvalidData(id);
+                            return null;
+                        }
+                        int bits = (data[0] & 0xff) << 24 | (data[1] & 0xff) << 16 | (data[2] & 0xff) << 8
+                                | (data[3] & 0xff);
+                        return new DecimalType((double) Float.intBitsToFloat(bits));
+                    };
+                }
+                return fallback;
+            default:
+                return fallback;
+        }
+    }
+
+    private KNXTypeDecoder createBooleanDecoder(String id, int subNumber) {
+        final Type trueType;
+        final Type falseType;
+        switch (subNumber) {
+            case 8:
+                trueType = UpDownType.DOWN;
+                falseType = UpDownType.UP;
+                break;
+            case 9:
+            case 19:
+                trueType = OpenClosedType.OPEN;
+                falseType = OpenClosedType.CLOSED;
+                break;
+            case 10:
+                trueType = StopMoveType.MOVE;
+                falseType = StopMoveType.STOP;
+                break;
+            case 22:
+                trueType = DecimalType.valueOf("1");
+                falseType = DecimalType.valueOf("0");
+                break;
+            default:
+                trueType = OnOffType.ON;
+                falseType = OnOffType.OFF;
+                break;
+        }
+        return data -> {
+            if (data.length < 1) {
+                logInvalidData(id);
+                return null;
+            }
+            return (data[0] & 0x01) != 0 ? trueType : falseType;
+        };
+    }
+
+    private void logInvalidData(String dptId) {
+        logger.info("Translator couldn't parse data for datapoint type '{}' (KNXIllegalArgumentException).", dptId);
+    }
+
+    /**
+     * Decodes numeric datapoint types through a translator which is created once and reused for all telegrams
+     */
+    private class NumericDecoder implements KNXTypeDecoder {
+        private final DPTXlator translator;
+        private final boolean percent;
+
+        private NumericDecoder(DPTXlator translator, Class<? extends Type> typeClass) {
+            this.translator = translator;
+            this.percent = typeClass.equals(PercentType.class);
+        }
+
+        @Override
+        public synchronized Type decode(byte[] data) {
+            String id = translator.getType().getID();
+            try {
+                translator.setData(data);
+                if (percent) {
+                    return new PercentType(BigDecimal.valueOf(Math.round(translator.getNumericValue())));
+                }
+                return new DecimalType(translator.getNumericValue());
+            } catch (KNXFormatException kfe) {
+                logger.info("Translator couldn't parse data for datapoint type '{}' (KNXFormatException).", id);
+            } catch (KNXIllegalArgumentException kiae) {
+                logInvalidData(id);
+            }
+            return null;
+        }
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
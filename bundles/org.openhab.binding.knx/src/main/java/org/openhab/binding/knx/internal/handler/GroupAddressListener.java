@@ -12,7 +12,10 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
 import tuwien.auto.calimero.GroupAddress;
@@ -34,4 +37,18 @@ public interface GroupAddressListener extends BusMessageListener {
      */
     public boolean listensTo(GroupAddress destination);
 
+    /**
+     * Returns all GroupAddresses the GroupAddressListener has an interest in.
+     *
+     * The KNX client uses these to look up the listeners of a telegram directly, instead of asking every listener.
+     * The addresses are taken over when the listener is registered, so listeners have to register again after their
+     * addresses have changed.
+     *
+     * @return the GroupAddresses, or {@code null} if they are not known up front. In that case
+     *         {@link #listensTo(GroupAddress)} is called for every telegram.
+     */
+    public default @Nullable Set<GroupAddress> getGroupAddresses() {
+        return null;
+    }
+
 }
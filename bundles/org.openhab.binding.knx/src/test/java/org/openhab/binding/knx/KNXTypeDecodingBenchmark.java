@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.types.Type;
+import org.openhab.binding.knx.internal.KNXTypeDecoder;
+import org.openhab.binding.knx.internal.dpt.KNXCoreTypeMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Compares decoding telegrams through a precomputed {@link KNXTypeDecoder} to {@link KNXCoreTypeMapper#toType}, which
+ * creates a translator for every telegram, for the most common datapoint types.
+ *
+ * Run with <code>main</code> from the IDE or through the JMH runner on the test classpath.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KNXTypeDecodingBenchmark {
+
+    @Param({ "1.001", "5.001", "5.010", "9.001", "14.056" })
+    public String dpt;
+
+    private KNXCoreTypeMapper mapper;
+    private Datapoint datapoint;
+    private KNXTypeDecoder decoder;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        mapper = new KNXCoreTypeMapper();
+        datapoint = new CommandDP(new GroupAddress(1, 2, 3), "benchmark", 0, dpt);
+        decoder = mapper.createDecoder(datapoint);
+        switch (dpt.substring(0, dpt.indexOf('.'))) {
+            case "1":
+                data = new byte[] { 0x01 };
+                break;
+            case "5":
+                data = new byte[] { (byte) 0x80 };
+                break;
+            case "9":
+                data = new byte[] { 0x0c, 0x33 };
+                break;
+            default:
+                data = new byte[] { 0x44, 0x7a, 0x00, 0x00 };
+                break;
+        }
+    }
+
+    @Benchmark
+    public Type decoder() {
+        return decoder.decode(data);
+    }
+
+    @Benchmark
+    public Type toType() {
+        return mapper.toType(datapoint, data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(KNXTypeDecodingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
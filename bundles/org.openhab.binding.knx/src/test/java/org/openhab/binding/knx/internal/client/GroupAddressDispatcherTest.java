@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.IndividualAddress;
+import tuwien.auto.calimero.KNXFormatException;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class GroupAddressDispatcherTest {
+
+    private static class TestListener implements GroupAddressListener {
+        private Set<GroupAddress> addresses;
+        private final boolean indexed;
+        private final List<String> received = new ArrayList<>();
+        private int listensToCalls;
+
+        TestListener(boolean indexed, GroupAddress... addresses) {
+            this.indexed = indexed;
+            this.addresses = new HashSet<>(Arrays.asList(addresses));
+        }
+
+        @Override
+        public boolean listensTo(GroupAddress destination) {
+            listensToCalls++;
+            return addresses.contains(destination);
+        }
+
+        @Override
+        public Set<GroupAddress> getGroupAddresses() {
+            return indexed ? addresses : null;
+        }
+
+        @Override
+        public void onGroupWrite(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+        }
+
+        @Override
+        public void onGroupRead(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+        }
+
+        @Override
+        public void onGroupReadResponse(AbstractKNXClient client, IndividualAddress source,
+                GroupAddress destination, byte[] asdu) {
+        }
+    }
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private GroupAddressDispatcher dispatcher;
+    private GroupAddress ga1;
+    private GroupAddress ga2;
+    private GroupAddress ga3;
+
+    @Before
+    public void setup() throws KNXFormatException {
+        dispatcher = new GroupAddressDispatcher(tasks::add);
+        ga1 = new GroupAddress("1/2/1");
+        ga2 = new GroupAddress("1/2/2");
+        ga3 = new GroupAddress("1/2/3");
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private void dispatch(GroupAddress destination, String telegram) {
+        dispatcher.dispatch(destination, listener -> ((TestListener) listener).received.add(telegram));
+    }
+
+    @Test
+    public void testOnlySubscribersAreNotified() {
+        TestListener first = new TestListener(true, ga1, ga2);
+        TestListener second = new TestListener(true, ga2);
+        assertTrue(dispatcher.register(first));
+        assertTrue(dispatcher.register(second));
+
+        dispatch(ga1, "a");
+        dispatch(ga2, "b");
+        dispatch(ga3, "c");
+        runTasks();
+
+        assertEquals(Arrays.asList("a", "b"), first.received);
+        assertEquals(Arrays.asList("b"), second.received);
+        assertEquals(0, first.listensToCalls);
+    }
+
+    @Test
+    public void testNotificationsAreBatchedPerListener() {
+        TestListener listener = new TestListener(true, ga1);
+        dispatcher.register(listener);
+
+        for (int i = 0; i < 10; i++) {
+            dispatch(ga1, String.valueOf(i));
+        }
+
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"), listener.received);
+    }
+
+    @Test
+    public void testLargeBurstIsSplitIntoSeveralBatches() {
+        TestListener listener = new TestListener(true, ga1);
+        dispatcher.register(listener);
+
+        for (int i = 0; i < GroupAddressDispatcher.MAX_BATCH_SIZE + 1; i++) {
+            dispatch(ga1, String.valueOf(i));
+        }
+        tasks.remove(0).run();
+
+        assertEquals(GroupAddressDispatcher.MAX_BATCH_SIZE, listener.received.size());
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(GroupAddressDispatcher.MAX_BATCH_SIZE + 1, listener.received.size());
+    }
+
+    @Test
+    public void testReRegisterUpdatesIndex() {
+        TestListener listener = new TestListener(true, ga1);
+        dispatcher.register(listener);
+        listener.addresses = new HashSet<>(Arrays.asList(ga2));
+        assertFalse(dispatcher.register(listener));
+
+        dispatch(ga1, "a");
+        dispatch(ga2, "b");
+        runTasks();
+
+        assertEquals(Arrays.asList("b"), listener.received);
+    }
+
+    @Test
+    public void testUnregisteredListenerIsNotNotified() {
+        TestListener listener = new TestListener(true, ga1);
+        dispatcher.register(listener);
+        assertTrue(dispatcher.unregister(listener));
+        assertFalse(dispatcher.unregister(listener));
+
+        assertEquals(0, dispatcher.dispatch(ga1, l -> fail()));
+        runTasks();
+    }
+
+    @Test
+    public void testUnindexedListenerIsAsked() {
+        TestListener listener = new TestListener(false, ga3);
+        dispatcher.register(listener);
+
+        dispatch(ga1, "a");
+        dispatch(ga3, "c");
+        runTasks();
+
+        assertEquals(Arrays.asList("c"), listener.received);
+        assertEquals(2, listener.listensToCalls);
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ReadBudgetTest {
+
+    private static final double DELTA = 0.001;
+
+    @Test
+    public void testStartsAtMaximum() {
+        ReadBudget budget = new ReadBudget(20);
+        assertEquals(20, budget.getReadsPerSecond(), DELTA);
+        assertEquals(50, budget.getPause());
+    }
+
+    @Test
+    public void testUnlimited() {
+        ReadBudget budget = new ReadBudget(0);
+        assertEquals(ReadBudget.MAX_READS_PER_SECOND, budget.getReadsPerSecond(), DELTA);
+        assertEquals(1, budget.getPause());
+    }
+
+    @Test
+    public void testCongestionHalvesAndFastReadsRecover() {
+        ReadBudget budget = new ReadBudget(20);
+        budget.onRead(10);
+        budget.onCongestion();
+        assertEquals(10, budget.getReadsPerSecond(), DELTA);
+        for (int i = 0; i < 10; i++) {
+            budget.onCongestion();
+        }
+        assertEquals(ReadBudget.MIN_READS_PER_SECOND, budget.getReadsPerSecond(), DELTA);
+        assertEquals(1000, budget.getPause());
+
+        budget.onRead(10);
+        assertEquals(2, budget.getReadsPerSecond(), DELTA);
+        for (int i = 0; i < 100; i++) {
+            budget.onRead(10);
+        }
+        assertEquals(20, budget.getReadsPerSecond(), DELTA);
+    }
+
+    @Test
+    public void testSlowReadsLowerTheBudget() {
+        ReadBudget budget = new ReadBudget(20);
+        budget.onRead(10);
+        budget.onRead(500);
+        assertEquals(10, budget.getReadsPerSecond(), DELTA);
+    }
+
+    @Test
+    public void testSlowReadsBelowMinimumCongestionLatencyAreIgnored() {
+        ReadBudget budget = new ReadBudget(20);
+        budget.onRead(5);
+        for (int i = 0; i < 10; i++) {
+            budget.onRead(ReadBudget.MIN_CONGESTION_LATENCY);
+        }
+        assertEquals(20, budget.getReadsPerSecond(), DELTA);
+    }
+
+    @Test
+    public void testReset() {
+        ReadBudget budget = new ReadBudget(20);
+        budget.onCongestion();
+        budget.reset();
+        assertEquals(20, budget.getReadsPerSecond(), DELTA);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ReadDatapointQueueTest {
+
+    private ReadDatapointQueue queue;
+
+    @Before
+    public void setup() {
+        queue = new ReadDatapointQueue();
+    }
+
+    private static ReadDatapoint read(int address, ReadPriority priority) {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(1, 1, address), "test", 0, "1.001"), 3, priority);
+    }
+
+    private int pollAddress() {
+        ReadDatapoint datapoint = queue.poll();
+        assertNotNull(datapoint);
+        return datapoint.getDatapoint().getMainAddress().getDevice();
+    }
+
+    @Test
+    public void testHigherPrioritiesFirstAndFifoWithinPriority() {
+        queue.add(read(1, ReadPriority.STARTUP));
+        queue.add(read(2, ReadPriority.PERIODIC));
+        queue.add(read(3, ReadPriority.STARTUP));
+        queue.add(read(4, ReadPriority.REFRESH));
+        queue.add(read(5, ReadPriority.PERIODIC));
+
+        assertEquals(4, pollAddress());
+        assertEquals(2, pollAddress());
+        assertEquals(5, pollAddress());
+        assertEquals(1, pollAddress());
+        assertEquals(3, pollAddress());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testDuplicatesAreIgnored() {
+        assertTrue(queue.add(read(1, ReadPriority.PERIODIC)));
+        assertFalse(queue.add(read(1, ReadPriority.PERIODIC)));
+        assertFalse(queue.add(read(1, ReadPriority.STARTUP)));
+        assertEquals(1, queue.size());
+        assertEquals(ReadPriority.PERIODIC, queue.poll().getPriority());
+        assertTrue(queue.add(read(1, ReadPriority.STARTUP)));
+    }
+
+    @Test
+    public void testPriorityIsRaised() {
+        queue.add(read(1, ReadPriority.STARTUP));
+        queue.add(read(2, ReadPriority.STARTUP));
+        assertTrue(queue.add(read(2, ReadPriority.REFRESH)));
+
+        assertEquals(1, queue.size(ReadPriority.STARTUP));
+        assertEquals(1, queue.size(ReadPriority.REFRESH));
+        assertEquals(2, pollAddress());
+        assertEquals(1, pollAddress());
+    }
+
+    @Test
+    public void testClear() {
+        queue.add(read(1, ReadPriority.STARTUP));
+        queue.add(read(2, ReadPriority.REFRESH));
+        queue.clear();
+
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertTrue(queue.add(read(1, ReadPriority.STARTUP)));
+    }
+}
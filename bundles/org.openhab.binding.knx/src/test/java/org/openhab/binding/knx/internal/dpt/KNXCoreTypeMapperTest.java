@@ -12,10 +12,21 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
 import org.junit.Test;
+import org.openhab.binding.knx.internal.KNXTypeDecoder;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
 
 /**
  *
@@ -30,4 +41,78 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    private static final String[] DECODED_DPTS = new String[] { "1.001", "1.002", "1.008", "1.009", "1.010", "1.019",
+            "1.022", "5.001", "5.003", "5.004", "5.005", "5.010", "6.001", "7.001", "8.001", "9.001", "9.004",
+            "9.007", "12.001", "13.001", "14.019", "14.056", "14.068" };
+
+    private static Datapoint datapoint(String dpt) {
+        return new CommandDP(new GroupAddress(1, 2, 3), "test", 0, dpt);
+    }
+
+    private static void assertDecodedLikeToType(KNXCoreTypeMapper mapper, String dpt, byte[] data) {
+        Datapoint datapoint = datapoint(dpt);
+        KNXTypeDecoder decoder = mapper.createDecoder(datapoint);
+        Object expected;
+        try {
+            expected = mapper.toType(datapoint, data);
+        } catch (IllegalArgumentException e) {
+            // e.g. percent values above 100
+            expected = e.getClass();
+        }
+        Object actual;
+        try {
+            actual = decoder.decode(data);
+        } catch (IllegalArgumentException e) {
+            actual = e.getClass();
+        }
+        assertEquals(dpt + " " + Arrays.toString(data), expected, actual);
+    }
+
+    @Test
+    public void testCreateDecoder_sameAsToType() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        Random random = new Random(42);
+        for (String dpt : DECODED_DPTS) {
+            for (int i = 0; i < 256; i++) {
+                byte[] data = new byte[] { (byte) i, (byte) random.nextInt(256), (byte) random.nextInt(256),
+                        (byte) random.nextInt(256) };
+                // avoid NaN and infinity with 4-byte floats
+                if (dpt.startsWith("14.") && (data[0] & 0x7f) == 0x7f && (data[1] & 0x80) != 0) {
+                    continue;
+                }
+                int length = dpt.startsWith("1.") || dpt.startsWith("5.") || dpt.startsWith("6.") ? 1
+                        : dpt.startsWith("7.") || dpt.startsWith("8.") || dpt.startsWith("9.") ? 2 : 4;
+                assertDecodedLikeToType(mapper, dpt, Arrays.copyOf(data, length));
+            }
+        }
+    }
+
+    @Test
+    public void testCreateDecoder_invalidData() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        for (String dpt : DECODED_DPTS) {
+            assertNull(mapper.createDecoder(datapoint(dpt)).decode(new byte[0]));
+        }
+        assertNull(mapper.createDecoder(datapoint("14.019")).decode(new byte[] { 0x01, 0x02 }));
+    }
+
+    @Test
+    public void testCreateDecoder_values() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(OnOffType.ON, mapper.createDecoder(datapoint("1.001")).decode(new byte[] { 0x01 }));
+        assertEquals(UpDownType.UP, mapper.createDecoder(datapoint("1.008")).decode(new byte[] { 0x00 }));
+        assertEquals(new PercentType(100), mapper.createDecoder(datapoint("5.001")).decode(new byte[] { (byte) 0xff }));
+        assertEquals(new DecimalType(200), mapper.createDecoder(datapoint("5.010")).decode(new byte[] { (byte) 200 }));
+        assertEquals(new DecimalType(1.0), mapper.createDecoder(datapoint("9.001")).decode(new byte[] { 0x00, 0x64 }));
+        assertEquals(new DecimalType(1.5),
+                mapper.createDecoder(datapoint("14.019")).decode(new byte[] { 0x3f, (byte) 0xc0, 0x00, 0x00 }));
+    }
+
+    @Test
+    public void testCreateDecoder_unsupportedDptFallsBackToToType() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertNull(mapper.createDecoder(datapoint("99.999")).decode(new byte[] { 0x01 }));
+        assertDecodedLikeToType(mapper, "18.001", new byte[] { (byte) 0x81 });
+    }
+
 }
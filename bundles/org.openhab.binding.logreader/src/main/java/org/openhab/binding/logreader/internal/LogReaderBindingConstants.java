@@ -41,4 +41,8 @@ public class LogReaderBindingConstants {
     public static final String CHANNEL_NEWWARNING = "newWarningEvent";
     public static final String CHANNEL_NEWERROR = "newErrorEvent";
     public static final String CHANNEL_NEWCUSTOM = "newCustomEvent";
+
+    // List of all read modes
+    public static final String READ_MODE_TAILER = "tailer";
+    public static final String READ_MODE_NIO = "nio";
 }
@@ -20,6 +20,7 @@ package org.openhab.binding.logreader.internal.config;
 public class LogReaderConfiguration {
     public String filePath;
     public int refreshRate;
+    public String readMode;
     public String warningPatterns;
     public String warningBlacklistingPatterns;
     public String errorPatterns;
@@ -29,7 +30,8 @@ public class LogReaderConfiguration {
 
     @Override
     public String toString() {
-        return "[" + "filePath=" + filePath + ", refreshRate=" + refreshRate + ", warningPatterns=" + warningPatterns
+        return "[" + "filePath=" + filePath + ", refreshRate=" + refreshRate + ", readMode=" + readMode
+                + ", warningPatterns=" + warningPatterns
                 + ", warningBlacklistingPatterns=" + warningBlacklistingPatterns + ", errorPatterns=" + errorPatterns
                 + ", errorBlacklistingPatterns=" + errorBlacklistingPatterns + ", customPatterns=" + customPatterns
                 + ", customBlacklistingPatterns=" + customBlacklistingPatterns + "]";
@@ -13,6 +13,9 @@
 package org.openhab.binding.logreader.internal.filereader;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.commons.io.input.Tailer;
@@ -27,35 +30,69 @@ import org.slf4j.LoggerFactory;
 /**
  * Apache Tailer based log file reader implementation.
  *
+ * Lines are collected while the tailer reads the file and delivered to the listeners in batches: when the end of the
+ * file is reached, when {@link #MAX_BATCH_SIZE} lines are collected and before any other event.
+ *
  * @author Pauli Anttila - Initial contribution
  */
 public class FileTailer extends AbstractLogFileReader implements LogFileReader {
 
+    /**
+     * Maximum number of lines delivered at once
+     */
+    static final int MAX_BATCH_SIZE = 500;
+
     private final Logger logger = LoggerFactory.getLogger(FileTailer.class);
 
     private Tailer tailer;
 
     TailerListener logListener = new TailerListenerAdapter() {
 
+        /**
+         * Lines not yet delivered, only accessed by the tailer thread
+         */
+        private List<String> lines = new ArrayList<>();
+
         @Override
         public void handle(@Nullable String line) {
-            sendLineToListeners(line);
+            if (line != null) {
+                lines.add(line);
+                if (lines.size() >= MAX_BATCH_SIZE) {
+                    flush();
+                }
+            }
+        }
+
+        @Override
+        public void endOfFileReached() {
+            flush();
         }
 
         @Override
         public void fileNotFound() {
+            flush();
             sendFileNotFoundToListeners();
         }
 
         @Override
         public void handle(@Nullable Exception e) {
+            flush();
             sendExceptionToListeners(e);
         }
 
         @Override
         public void fileRotated() {
+            flush();
             sendFileRotationToListeners();
         }
+
+        private void flush() {
+            if (!lines.isEmpty()) {
+                List<String> batch = lines;
+                lines = new ArrayList<>();
+                sendLinesToListeners(Collections.unmodifiableList(batch));
+            }
+        }
     };
 
     @Override
@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderException;
+import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * NIO based log file reader implementation.
+ *
+ * On every refresh, only the region appended to the file since the last refresh is read, using positional reads on a
+ * {@link FileChannel}. A rotation is detected when the file key (the inode on Unix systems) of the file changes, or
+ * when the file gets shorter than the current position. The remaining lines of a rotated file are read before the new
+ * file is opened.
+ *
+ * The position after the last complete line is stored in a state file, together with the file path and key. While
+ * reading, the state file is written at most every {@value #STATE_SAVE_INTERVAL} ms, and always when the reader is
+ * stopped or reading fails. After a restart, reading continues at that position if the file is still the same. If the
+ * file has been rotated meanwhile, the new file is read from its start. Without a stored position, reading starts at
+ * the end of the file.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class NioFileTailer extends AbstractLogFileReader implements LogFileReader {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long STATE_SAVE_INTERVAL = 10000;
+
+    private static final String STATE_PATH = "path";
+    private static final String STATE_FILE_KEY = "fileKey";
+    private static final String STATE_POSITION = "position";
+
+    private final Logger logger = LoggerFactory.getLogger(NioFileTailer.class);
+
+    private final Path stateFile;
+    private final Charset charset = Charset.defaultCharset();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private byte[] lineBuffer = new byte[256];
+
+    private @Nullable Path file;
+    private @Nullable ScheduledFuture<?> job;
+    private @Nullable FileChannel channel;
+    private @Nullable String fileKey;
+    private long position;
+    private long savedPosition = -1;
+    private long lastSaveTime;
+    private boolean fileNotFound;
+
+    /**
+     * @param stateFile file to store the position of the last processed line in
+     */
+    public NioFileTailer(File stateFile) {
+        this.stateFile = stateFile.toPath();
+    }
+
+    @Override
+    public synchronized void start(String filePath, long refreshRate, ScheduledExecutorService scheduler)
+            throws FileReaderException {
+        file = Paths.get(filePath);
+        channel = null;
+        fileNotFound = false;
+        try {
+            logger.debug("Start reading {} every {} ms", filePath, refreshRate);
+            job = scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshRate, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new FileReaderException(e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        logger.debug("Shutdown");
+
+        ScheduledFuture<?> localJob = job;
+        if (localJob != null) {
+            localJob.cancel(false);
+            job = null;
+        }
+        if (channel != null) {
+            saveState();
+        }
+        closeChannel();
+    }
+
+    private synchronized void refresh() {
+        Path localFile = file;
+        if (localFile == null || job == null) {
+            return;
+        }
+        try {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(localFile, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                if (!fileNotFound) {
+                    fileNotFound = true;
+                    sendFileNotFoundToListeners();
+                }
+                return;
+            }
+            fileNotFound = false;
+            Object key = attributes.fileKey();
+            String currentFileKey = key == null ? null : key.toString();
+
+            FileChannel localChannel = channel;
+            if (localChannel == null) {
+                localChannel = open(localFile, currentFileKey, attributes.size());
+            } else if (!Objects.equals(currentFileKey, fileKey) || attributes.size() < position) {
+                if (!Objects.equals(currentFileKey, fileKey)) {
+                    // finish the rotated file, it is still open
+                    readLines(localChannel, localChannel.size());
+                }
+                logger.debug("Rotation of {} detected", localFile);
+                sendFileRotationToListeners();
+                closeChannel();
+                localChannel = FileChannel.open(localFile, StandardOpenOption.READ);
+                channel = localChannel;
+                fileKey = currentFileKey;
+                position = 0;
+            }
+
+            if (attributes.size() > position) {
+                readLines(localChannel, attributes.size());
+            }
+            long sinceLastSave = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastSaveTime);
+            if (position != savedPosition && sinceLastSave >= STATE_SAVE_INTERVAL) {
+                saveState();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                // continue after the lines already processed when the file is opened again
+                saveState();
+            }
+            closeChannel();
+            sendExceptionToListeners(e);
+        }
+    }
+
+    private FileChannel open(Path localFile, @Nullable String currentFileKey, long size) throws IOException {
+        FileChannel localChannel = FileChannel.open(localFile, StandardOpenOption.READ);
+        channel = localChannel;
+        Properties state = loadState();
+        String statePosition = state.getProperty(STATE_POSITION);
+        if (statePosition == null || !localFile.toString().equals(state.getProperty(STATE_PATH))) {
+            // nothing known about the file, only new lines are of interest
+            position = size;
+        } else if (!Objects.equals(currentFileKey, state.getProperty(STATE_FILE_KEY))) {
+            // rotated meanwhile, all lines of the new file are new
+            position = 0;
+        } else {
+            try {
+                position = Long.parseLong(statePosition);
+            } catch (NumberFormatException e) {
+                position = size;
+            }
+            if (position < 0 || position > size) {
+                // truncated meanwhile
+                position = 0;
+            }
+        }
+        fileKey = currentFileKey;
+        lastSaveTime = System.nanoTime();
+        logger.debug("Reading {} from position {}", localFile, position);
+        return localChannel;
+    }
+
+    /**
+     * Reads all complete lines from the current position up to the given end of the file and sends them to the
+     * listeners. The position is moved to the end of the last complete line.
+     */
+    private void readLines(FileChannel localChannel, long end) throws IOException {
+        List<String> lines = new ArrayList<>();
+        long readPosition = position;
+        int lineLength = 0;
+        while (readPosition < end) {
+            readBuffer.clear();
+            if (end - readPosition < readBuffer.capacity()) {
+                readBuffer.limit((int) (end - readPosition));
+            }
+            int read = localChannel.read(readBuffer, readPosition);
+            if (read <= 0) {
+                break;
+            }
+            readBuffer.flip();
+            for (int i = 0; i < read; i++) {
+                byte b = readBuffer.get(i);
+                if (b == '\n') {
+                    int length = lineLength > 0 && lineBuffer[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                    lines.add(new String(lineBuffer, 0, length, charset));
+                    lineLength = 0;
+                    position = readPosition + i + 1;
+                    if (lines.size() >= FileTailer.MAX_BATCH_SIZE) {
+                        sendLinesToListeners(Collections.unmodifiableList(lines));
+                        lines = new ArrayList<>();
+                    }
+                } else {
+                    if (lineLength == lineBuffer.length) {
+                        lineBuffer = Arrays.copyOf(lineBuffer, lineLength * 2);
+                    }
+                    lineBuffer[lineLength++] = b;
+                }
+            }
+            readPosition += read;
+        }
+        if (!lines.isEmpty()) {
+            sendLinesToListeners(Collections.unmodifiableList(lines));
+        }
+    }
+
+    private void closeChannel() {
+        FileChannel localChannel = channel;
+        channel = null;
+        if (localChannel != null) {
+            try {
+                localChannel.close();
+            } catch (IOException e) {
+                logger.debug("Closing {} failed: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private Properties loadState() {
+        Properties state = new Properties();
+        if (Files.exists(stateFile)) {
+            try (InputStream in = Files.newInputStream(stateFile)) {
+                state.load(in);
+            } catch (IOException e) {
+                logger.debug("Reading {} failed: {}", stateFile, e.getMessage());
+            }
+        }
+        return state;
+    }
+
+    private void saveState() {
+        Properties state = new Properties();
+        state.setProperty(STATE_PATH, String.valueOf(file));
+        String localFileKey = fileKey;
+        if (localFileKey != null) {
+            state.setProperty(STATE_FILE_KEY, localFileKey);
+        }
+        state.setProperty(STATE_POSITION, Long.toString(position));
+        try {
+            Path parent = stateFile.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                state.store(out, null);
+            }
+            try {
+                Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            savedPosition = position;
+            lastSaveTime = System.nanoTime();
+        } catch (IOException e) {
+            logger.debug("Writing {} failed: {}", stateFile, e.getMessage());
+        }
+    }
+}
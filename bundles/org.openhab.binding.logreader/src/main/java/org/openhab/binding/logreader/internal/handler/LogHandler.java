@@ -14,9 +14,14 @@ package org.openhab.binding.logreader.internal.handler;
 
 import static org.openhab.binding.logreader.internal.LogReaderBindingConstants.*;
 
+import java.io.File;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.PatternSyntaxException;
 
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.StringType;
@@ -29,6 +34,8 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.logreader.internal.config.LogReaderConfiguration;
+import org.openhab.binding.logreader.internal.filereader.FileTailer;
+import org.openhab.binding.logreader.internal.filereader.NioFileTailer;
 import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
 import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
 import org.openhab.binding.logreader.internal.searchengine.SearchEngine;
@@ -53,9 +60,8 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
     private SearchEngine warningEngine;
     private SearchEngine customEngine;
 
-    public LogHandler(Thing thing, LogFileReader fileReader) {
+    public LogHandler(Thing thing) {
         super(thing);
-        this.fileReader = fileReader;
     }
 
     @Override
@@ -102,6 +108,8 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
 
         logger.debug("Start file reader");
 
+        fileReader = READ_MODE_NIO.equals(configuration.readMode) ? new NioFileTailer(getStateFile())
+                : new FileTailer();
         try {
             fileReader.registerListener(this);
             fileReader.start(configuration.filePath, configuration.refreshRate, scheduler);
@@ -119,6 +127,25 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
         shutdown();
     }
 
+    @Override
+    public void handleRemoval() {
+        // the reader stores its position when stopped, so stop it before the position is deleted
+        shutdown();
+        File stateFile = getStateFile();
+        if (stateFile.exists() && !stateFile.delete()) {
+            logger.debug("Could not delete {}", stateFile);
+        }
+        super.handleRemoval();
+    }
+
+    /**
+     * @return file the {@link NioFileTailer} stores the position of the last processed line in
+     */
+    private File getStateFile() {
+        return new File(ConfigConstants.getUserDataFolder() + File.separator + "logreader" + File.separator
+                + thing.getUID().getAsString().replace(':', '_') + ".position");
+    }
+
     private void updateChannel(ChannelUID channelUID, Command command, SearchEngine matcher) {
         if (command instanceof DecimalType) {
             matcher.setMatchCount(((DecimalType) command).longValue());
@@ -149,8 +176,10 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
 
     private void shutdown() {
         logger.debug("Stop file reader");
-        fileReader.unregisterListener(this);
-        fileReader.stop();
+        if (fileReader != null) {
+            fileReader.unregisterListener(this);
+            fileReader.stop();
+        }
     }
 
     @Override
@@ -171,24 +200,48 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
             return;
         }
 
+        handle(Collections.singletonList(line));
+    }
+
+    /**
+     * Every matching line triggers an event, the counters and last matching lines are updated once per batch.
+     */
+    @Override
+    public void handle(List<String> lines) {
         if (!(thing.getStatus() == ThingStatus.ONLINE)) {
             updateStatus(ThingStatus.ONLINE);
         }
 
-        if (errorEngine.isMatching(line)) {
-            updateChannelIfLinked(CHANNEL_ERRORS, new DecimalType(errorEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTERROR, new StringType(line));
-            triggerChannel(CHANNEL_NEWERROR, line);
+        String lastError = null;
+        String lastWarning = null;
+        String lastCustom = null;
+        for (String line : lines) {
+            if (line == null) {
+                continue;
+            }
+            if (errorEngine.isMatching(line)) {
+                lastError = line;
+                triggerChannel(CHANNEL_NEWERROR, line);
+            }
+            if (warningEngine.isMatching(line)) {
+                lastWarning = line;
+                triggerChannel(CHANNEL_NEWWARNING, line);
+            }
+            if (customEngine.isMatching(line)) {
+                lastCustom = line;
+                triggerChannel(CHANNEL_NEWCUSTOM, line);
+            }
         }
-        if (warningEngine.isMatching(line)) {
-            updateChannelIfLinked(CHANNEL_WARNINGS, new DecimalType(warningEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTWARNING, new StringType(line));
-            triggerChannel(CHANNEL_NEWWARNING, line);
-        }
-        if (customEngine.isMatching(line)) {
-            updateChannelIfLinked(CHANNEL_CUSTOMEVENTS, new DecimalType(customEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTCUSTOMEVENT, new StringType(line));
-            triggerChannel(CHANNEL_NEWCUSTOM, line);
+        updateMatchChannels(errorEngine, lastError, CHANNEL_ERRORS, CHANNEL_LASTERROR);
+        updateMatchChannels(warningEngine, lastWarning, CHANNEL_WARNINGS, CHANNEL_LASTWARNING);
+        updateMatchChannels(customEngine, lastCustom, CHANNEL_CUSTOMEVENTS, CHANNEL_LASTCUSTOMEVENT);
+    }
+
+    private void updateMatchChannels(SearchEngine engine, @Nullable String lastLine, String countChannelID,
+            String lastLineChannelID) {
+        if (lastLine != null) {
+            updateChannelIfLinked(countChannelID, new DecimalType(engine.getMatchCount()));
+            updateChannelIfLinked(lastLineChannelID, new StringType(lastLine));
         }
     }
 
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Matches a line against a set of regular expressions in a single pass.
+ *
+ * All expressions are combined into a single alternation, so the line is scanned once instead of once per expression.
+ * Expressions containing back references can't be combined, since the group numbers would change. In that case, the
+ * expressions are tried one after the other.
+ *
+ * Additionally, the literal text every expression starts with is extracted. If all expressions start with literal
+ * text, lines not containing any of those texts are rejected without running the regular expressions at all.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MultiPatternMatcher {
+
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String QUANTIFIERS = "?*+{";
+
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+
+    private final List<Pattern> patterns;
+    private final @Nullable Pattern combined;
+    private final String @Nullable [] prefixes;
+
+    /**
+     * Compiles the given regular expressions.
+     *
+     * @param regexes regular expressions
+     * @throws PatternSyntaxException if one of the expressions is invalid
+     */
+    public MultiPatternMatcher(List<String> regexes) throws PatternSyntaxException {
+        patterns = new ArrayList<>(regexes.size());
+        for (String regex : regexes) {
+            patterns.add(Pattern.compile(regex));
+        }
+        combined = combine(regexes);
+        prefixes = literalPrefixes(regexes);
+    }
+
+    /**
+     * Check if one of the regular expressions is found in the data.
+     *
+     * @param data data against search will be done.
+     * @return true if one of the regular expressions is found.
+     */
+    public boolean find(String data) {
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        String[] localPrefixes = prefixes;
+        if (localPrefixes != null && !containsAny(data, localPrefixes)) {
+            return false;
+        }
+        Pattern localCombined = combined;
+        if (localCombined != null) {
+            return localCombined.matcher(data).find();
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(data).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAny(String data, String[] literals) {
+        for (String literal : literals) {
+            if (data.contains(literal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the expressions as single alternation, or null if they can't be combined
+     */
+    private static @Nullable Pattern combine(List<String> regexes) {
+        if (regexes.size() < 2) {
+            return null;
+        }
+        StringBuilder alternation = new StringBuilder();
+        for (String regex : regexes) {
+            if (BACK_REFERENCE.matcher(regex).find()) {
+                return null;
+            }
+            if (alternation.length() > 0) {
+                alternation.append('|');
+            }
+            alternation.append("(?:").append(regex).append(')');
+        }
+        try {
+            return Pattern.compile(alternation.toString());
+        } catch (PatternSyntaxException e) {
+            // e.g. duplicate group names
+            return null;
+        }
+    }
+
+    /**
+     * @return the literal prefixes of all expressions, or null if at least one of the expressions doesn't start with
+     *         literal text
+     */
+    private static String @Nullable [] literalPrefixes(List<String> regexes) {
+        String[] result = new String[regexes.size()];
+        for (int i = 0; i < result.length; i++) {
+            String prefix = literalPrefix(regexes.get(i));
+            if (prefix.isEmpty()) {
+                return null;
+            }
+            result[i] = prefix;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the text every match of the regular expression starts with. Escaped punctuation is treated as literal
+     * text, the scan stops at the first other metacharacter. A character followed by a quantifier is not part of the
+     * prefix. Expressions with a top level alternation have no prefix, since only one of the alternatives has to match.
+     *
+     * @param regex regular expression
+     * @return the literal prefix, may be empty
+     */
+    static String literalPrefix(String regex) {
+        if (hasTopLevelAlternation(regex)) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        int i = regex.startsWith("^") ? 1 : 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int next;
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    // character class, anchor, back reference or quote
+                    break;
+                }
+                c = regex.charAt(i + 1);
+                next = i + 2;
+            } else if (METACHARACTERS.indexOf(c) >= 0) {
+                break;
+            } else {
+                next = i + 1;
+            }
+            if (next < regex.length() && QUANTIFIERS.indexOf(regex.charAt(next)) >= 0) {
+                // the character is optional or repeated, the prefix ends before it
+                break;
+            }
+            prefix.append(c);
+            i = next;
+        }
+        return prefix.toString();
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                // skip the escaped character
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
+
+/**
+ * Tests for {@link NioFileTailer}.
+ *
+ * @author agent - Initial contribution
+ */
+public class NioFileTailerTest {
+
+    private static final long REFRESH_RATE = 10;
+    private static final long TIMEOUT = 5000;
+
+    private Path folder;
+    private Path logFile;
+    private Path stateFile;
+    private ScheduledExecutorService scheduler;
+
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+    private final AtomicInteger rotations = new AtomicInteger();
+    private final FileReaderListener listener = new FileReaderListener() {
+        @Override
+        public void fileNotFound() {
+        }
+
+        @Override
+        public void fileRotated() {
+            rotations.incrementAndGet();
+        }
+
+        @Override
+        public void handle(String line) {
+            lines.add(line);
+        }
+
+        @Override
+        public void handle(Exception ex) {
+        }
+    };
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("logreader");
+        logFile = folder.resolve("openhab.log");
+        stateFile = folder.resolve("state").resolve("logreader.position");
+        // a single thread runs the scheduled tasks in order, see awaitRefresh()
+        scheduler = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        scheduler.shutdownNow();
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void readsOnlyLinesAppendedAfterStart() throws Exception {
+        append("old\n");
+        NioFileTailer tailer = start();
+
+        append("new 1\nnew 2\n");
+        waitFor(() -> lines.size() == 2);
+        tailer.stop();
+
+        assertThat(lines, is(Arrays.asList("new 1", "new 2")));
+        assertThat(rotations.get(), is(0));
+    }
+
+    @Test
+    public void incompleteLineIsReadWhenCompleted() throws Exception {
+        append("");
+        NioFileTailer tailer = start();
+
+        append("first ha");
+        awaitRefresh();
+        awaitRefresh();
+        assertTrue(lines.isEmpty());
+
+        append("lf\n");
+        waitFor(() -> lines.size() == 1);
+        tailer.stop();
+
+        assertThat(lines, is(Arrays.asList("first half")));
+    }
+
+    @Test
+    public void restoresOffsetAfterRestart() throws Exception {
+        append("before start\n");
+        NioFileTailer tailer = start();
+        append("read\n");
+        waitFor(() -> lines.size() == 1);
+        tailer.stop();
+        assertTrue(Files.exists(stateFile));
+
+        append("while stopped 1\nwhile stopped 2\n");
+        lines.clear();
+        tailer = start();
+        append("after restart\n");
+        waitFor(() -> lines.size() == 3);
+        tailer.stop();
+
+        assertThat(lines, is(Arrays.asList("while stopped 1", "while stopped 2", "after restart")));
+    }
+
+    @Test
+    public void readsRotatedFileToItsEnd() throws Exception {
+        append("old\n");
+        NioFileTailer tailer = start();
+
+        append("old tail\n");
+        Files.move(logFile, folder.resolve("openhab.log.1"));
+        append("new\n");
+        waitFor(() -> lines.size() == 2);
+        tailer.stop();
+
+        assertThat(lines, is(Arrays.asList("old tail", "new")));
+        assertThat(rotations.get(), is(1));
+    }
+
+    @Test
+    public void readsTruncatedFileFromItsStart() throws Exception {
+        append("a long line before the truncation\n");
+        NioFileTailer tailer = start();
+
+        Files.write(logFile, "short\n".getBytes(Charset.defaultCharset()), StandardOpenOption.TRUNCATE_EXISTING);
+        waitFor(() -> lines.size() == 1);
+        tailer.stop();
+
+        assertThat(lines, is(Arrays.asList("short")));
+        assertThat(rotations.get(), is(1));
+    }
+
+    @Test
+    public void readsRotatedFileFromItsStartAfterRestart() throws Exception {
+        append("old\n");
+        NioFileTailer tailer = start();
+        tailer.stop();
+
+        Files.move(logFile, folder.resolve("openhab.log.1"));
+        append("new 1\n");
+        tailer = start();
+        append("new 2\n");
+        waitFor(() -> lines.size() == 2);
+        tailer.stop();
+
+        assertThat(lines, is(Arrays.asList("new 1", "new 2")));
+    }
+
+    private NioFileTailer start() throws Exception {
+        NioFileTailer tailer = new NioFileTailer(stateFile.toFile());
+        tailer.registerListener(listener);
+        tailer.start(logFile.toString(), REFRESH_RATE, scheduler);
+        awaitRefresh();
+        return tailer;
+    }
+
+    /**
+     * Waits until the refresh tasks scheduled so far have run, the scheduler runs tasks due at the same time in the
+     * order they were scheduled.
+     */
+    private void awaitRefresh() throws Exception {
+        scheduler.submit(() -> {
+        }).get();
+    }
+
+    private void append(String text) throws IOException {
+        Files.write(logFile, text.getBytes(Charset.defaultCharset()), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+            Thread.sleep(REFRESH_RATE);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
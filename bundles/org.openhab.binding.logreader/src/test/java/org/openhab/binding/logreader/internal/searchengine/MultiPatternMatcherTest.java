@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link MultiPatternMatcher}.
+ *
+ * @author agent - Initial contribution
+ */
+public class MultiPatternMatcherTest {
+
+    @Test
+    public void literalPrefixStopsAtMetacharacters() {
+        assertThat(MultiPatternMatcher.literalPrefix("ERROR"), is("ERROR"));
+        assertThat(MultiPatternMatcher.literalPrefix("^ERROR.*failed"), is("ERROR"));
+        assertThat(MultiPatternMatcher.literalPrefix("ERROR [a-z]+"), is("ERROR "));
+        assertThat(MultiPatternMatcher.literalPrefix("(ERROR|WARN)"), is(""));
+        assertThat(MultiPatternMatcher.literalPrefix(".*ERROR"), is(""));
+        assertThat(MultiPatternMatcher.literalPrefix("\\d+ ERROR"), is(""));
+    }
+
+    @Test
+    public void literalPrefixTreatsEscapedPunctuationAsText() {
+        assertThat(MultiPatternMatcher.literalPrefix("\\[main\\] ERROR"), is("[main] ERROR"));
+        assertThat(MultiPatternMatcher.literalPrefix("a\\.b\\$c"), is("a.b$c"));
+    }
+
+    @Test
+    public void literalPrefixExcludesQuantifiedCharacters() {
+        assertThat(MultiPatternMatcher.literalPrefix("ERRORS?"), is("ERROR"));
+        assertThat(MultiPatternMatcher.literalPrefix("ab*c"), is("a"));
+        assertThat(MultiPatternMatcher.literalPrefix("ab{2}"), is("a"));
+        assertThat(MultiPatternMatcher.literalPrefix("a\\.+"), is("a"));
+    }
+
+    @Test
+    public void literalPrefixIsEmptyForTopLevelAlternation() {
+        assertThat(MultiPatternMatcher.literalPrefix("ERROR|WARN"), is(""));
+        assertThat(MultiPatternMatcher.literalPrefix("ERROR (a|b)"), is("ERROR "));
+        assertThat(MultiPatternMatcher.literalPrefix("ERROR [|]"), is("ERROR "));
+        assertThat(MultiPatternMatcher.literalPrefix("ERROR \\|"), is("ERROR |"));
+    }
+
+    @Test
+    public void alternationMatchesEveryAlternative() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(Arrays.asList("ERROR|WARN", "FATAL"));
+        assertThat(matcher.find("2019-01-01 WARN something"), is(true));
+        assertThat(matcher.find("2019-01-01 ERROR something"), is(true));
+        assertThat(matcher.find("2019-01-01 FATAL something"), is(true));
+        assertThat(matcher.find("2019-01-01 INFO something"), is(false));
+    }
+
+    @Test
+    public void metacharactersAreMatchedLiterallyWhenEscaped() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(Arrays.asList("\\[ERROR\\]", "a\\.b"));
+        assertThat(matcher.find("[ERROR] failure"), is(true));
+        assertThat(matcher.find("ERROR failure"), is(false));
+        assertThat(matcher.find("x a.b y"), is(true));
+        assertThat(matcher.find("x axb y"), is(false));
+    }
+
+    @Test
+    public void prefixSharedBySeveralPatterns() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(
+                Arrays.asList("ERROR \\[main\\]", "ERROR \\[worker-\\d+\\]", "ERROR$"));
+        assertThat(matcher.find("ERROR [main] failure"), is(true));
+        assertThat(matcher.find("ERROR [worker-12] failure"), is(true));
+        assertThat(matcher.find("something ERROR"), is(true));
+        assertThat(matcher.find("ERROR [other] failure"), is(false));
+        assertThat(matcher.find("WARN [main] failure"), is(false));
+    }
+
+    @Test
+    public void patternsWithBackReferencesAreMatchedOneByOne() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(Arrays.asList("(\\w+) \\1", "ERROR"));
+        assertThat(matcher.find("again again"), is(true));
+        assertThat(matcher.find("ERROR once"), is(true));
+        assertThat(matcher.find("once twice"), is(false));
+    }
+
+    @Test
+    public void emptyPatternListMatchesNothing() {
+        assertThat(new MultiPatternMatcher(Collections.emptyList()).find("ERROR"), is(false));
+    }
+}
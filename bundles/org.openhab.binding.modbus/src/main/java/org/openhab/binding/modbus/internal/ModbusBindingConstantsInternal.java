@@ -48,6 +48,18 @@ public class ModbusBindingConstantsInternal {
     public static final String CHANNEL_LAST_READ_ERROR = "lastReadError";
     public static final String CHANNEL_LAST_WRITE_SUCCESS = "lastWriteSuccess";
     public static final String CHANNEL_LAST_WRITE_ERROR = "lastWriteError";
+    public static final String CHANNEL_METRICS_OPERATIONS = "metricsOperations";
+    public static final String CHANNEL_METRICS_ERRORS = "metricsErrors";
+    public static final String CHANNEL_METRICS_QUEUE_DEPTH = "metricsQueueDepth";
+    public static final String CHANNEL_METRICS_CONNECTION_TIME = "metricsConnectionTime";
+    public static final String CHANNEL_METRICS_TRANSACTION_TIME = "metricsTransactionTime";
+    public static final String CHANNEL_METRICS_TRANSACTION_TIME_95 = "metricsTransactionTime95";
+    public static final String CHANNEL_METRICS_INTER_TRANSACTION_WAIT = "metricsInterTransactionWait";
+    public static final String CHANNEL_METRICS_CALLBACK_TIME = "metricsCallbackTime";
+
+    public static final String[] METRICS_CHANNELS = { CHANNEL_METRICS_OPERATIONS, CHANNEL_METRICS_ERRORS,
+            CHANNEL_METRICS_QUEUE_DEPTH, CHANNEL_METRICS_CONNECTION_TIME, CHANNEL_METRICS_TRANSACTION_TIME,
+            CHANNEL_METRICS_TRANSACTION_TIME_95, CHANNEL_METRICS_INTER_TRANSACTION_WAIT, CHANNEL_METRICS_CALLBACK_TIME };
 
     public static final String[] DATA_CHANNELS = { CHANNEL_SWITCH, CHANNEL_CONTACT, CHANNEL_DATETIME, CHANNEL_DIMMER,
             CHANNEL_NUMBER, CHANNEL_STRING, CHANNEL_ROLLERSHUTTER };
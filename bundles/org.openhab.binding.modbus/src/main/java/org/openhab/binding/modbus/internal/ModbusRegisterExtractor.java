@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Precompiled extraction of a single value from polled registers.
+ *
+ * The position of the value (readStart) and its type (readValueType) are resolved once, when the data thing is
+ * initialized. Extraction happens in two steps: {@link #extractRawBits(ModbusRegisterArray)} reads the bits of the
+ * value directly from the registers into a <code>long</code>, and {@link #decode(long)} converts the raw bits to a
+ * number. This allows callers to skip decoding, and everything after that, when the raw bits have not changed.
+ *
+ * The decoded values are identical to {@link ModbusBitUtilities#extractStateFromRegisters}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusRegisterExtractor {
+
+    private static final BigInteger TWO_TO_64 = BigInteger.ONE.shiftLeft(64);
+
+    private final ValueType valueType;
+    private final int firstRegister;
+    private final int registerCount;
+    private final int shift;
+    private final long mask;
+    private final boolean swapped;
+
+    /**
+     * Compile extractor for a value
+     *
+     * @param valueType type of the value
+     * @param readIndex register index of the value, relative to the start of the poll
+     * @param readSubIndex with types smaller than 16 bits, index of the item within the register. Ignored with larger
+     *            types.
+     * @throws IllegalArgumentException when the index is negative
+     */
+    public ModbusRegisterExtractor(ValueType valueType, int readIndex, int readSubIndex) {
+        if (readIndex < 0 || readSubIndex < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Index=%d.%d with type=%s is out-of-bounds", readIndex, readSubIndex, valueType));
+        }
+        int bits = valueType.getBits();
+        this.valueType = valueType;
+        if (bits >= 16) {
+            firstRegister = readIndex;
+            registerCount = bits / 16;
+            shift = 0;
+        } else {
+            int itemsPerRegister = 16 / bits;
+            firstRegister = readIndex + readSubIndex / itemsPerRegister;
+            registerCount = 1;
+            shift = (readSubIndex % itemsPerRegister) * bits;
+        }
+        mask = bits == 64 ? -1L : (1L << bits) - 1;
+        swapped = valueType == ValueType.INT32_SWAP || valueType == ValueType.UINT32_SWAP
+                || valueType == ValueType.FLOAT32_SWAP || valueType == ValueType.INT64_SWAP
+                || valueType == ValueType.UINT64_SWAP;
+    }
+
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    /**
+     * Read the bits of the value from the registers, without decoding them
+     *
+     * With swapped value types, the registers are already in the order of the value, that is, the raw bits of
+     * <code>int32</code> and <code>int32_swap</code> values are the same for the same number.
+     *
+     * @param registers polled registers
+     * @return bits of the value, aligned to the least significant bit
+     * @throws IllegalArgumentException when the value is out of bounds of the registers
+     */
+    public long extractRawBits(ModbusRegisterArray registers) {
+        if (firstRegister + registerCount > registers.size()) {
+            throw new IllegalArgumentException(
+                    String.format("Register index=%d with type=%s is out-of-bounds given registers of size %d",
+                            firstRegister, valueType, registers.size()));
+        }
+        long raw = 0;
+        for (int i = 0; i < registerCount; i++) {
+            int register = swapped ? firstRegister + registerCount - 1 - i : firstRegister + i;
+            raw = (raw << 16) | registers.getRegister(register).toUnsignedShort();
+        }
+        return (raw >>> shift) & mask;
+    }
+
+    /**
+     * Decode raw bits returned by {@link #extractRawBits(ModbusRegisterArray)}
+     *
+     * @param raw bits of the value
+     * @return number represented by the bits. Empty optional is returned with NaN and infinity floating point values
+     */
+    public Optional<DecimalType> decode(long raw) {
+        switch (valueType) {
+            case BIT:
+            case UINT8:
+            case UINT16:
+            case UINT32:
+            case UINT32_SWAP:
+                return Optional.of(new DecimalType(raw));
+            case INT8:
+                return Optional.of(new DecimalType((byte) raw));
+            case INT16:
+                return Optional.of(new DecimalType((short) raw));
+            case INT32:
+            case INT32_SWAP:
+                return Optional.of(new DecimalType((int) raw));
+            case INT64:
+            case INT64_SWAP:
+                return Optional.of(new DecimalType(raw));
+            case UINT64:
+            case UINT64_SWAP: {
+                BigInteger value = BigInteger.valueOf(raw);
+                return Optional.of(new DecimalType(new BigDecimal(raw < 0 ? value.add(TWO_TO_64) : value)));
+            }
+            case FLOAT32:
+            case FLOAT32_SWAP: {
+                float value = Float.intBitsToFloat((int) raw);
+                if (Float.isNaN(value) || Float.isInfinite(value)) {
+                    return Optional.empty();
+                }
+                return Optional.of(new DecimalType(value));
+            }
+            default:
+                throw new IllegalArgumentException(valueType.getConfigValue());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ModbusRegisterExtractor [valueType=" + valueType + ", firstRegister=" + firstRegister
+                + ", registerCount=" + registerCount + ", shift=" + shift + "]";
+    }
+}
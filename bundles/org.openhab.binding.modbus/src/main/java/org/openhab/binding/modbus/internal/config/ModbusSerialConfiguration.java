@@ -43,6 +43,7 @@ public class ModbusSerialConfiguration {
     private int timeBetweenTransactionsMillis;
     private int connectMaxTries;
     private int connectTimeoutMillis;
+    private boolean coalescePolls;
     private boolean enableDiscovery;
 
     public @Nullable String getPort() {
@@ -157,6 +158,14 @@ public class ModbusSerialConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public boolean isCoalescePolls() {
+        return coalescePolls;
+    }
+
+    public void setCoalescePolls(boolean coalescePolls) {
+        this.coalescePolls = coalescePolls;
+    }
+
     public boolean isDiscoveryEnabled() {
         return enableDiscovery;
     }
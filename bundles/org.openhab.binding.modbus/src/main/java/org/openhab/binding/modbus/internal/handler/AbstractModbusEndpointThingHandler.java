@@ -12,10 +12,15 @@
  */
 package org.openhab.binding.modbus.internal.handler;
 
+import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal.*;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.ThingStatus;
@@ -24,6 +29,8 @@ import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
@@ -52,6 +59,14 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     protected volatile EndpointPoolConfiguration poolConfiguration;
     private final Logger logger = LoggerFactory.getLogger(AbstractModbusEndpointThingHandler.class);
 
+    /**
+     * Interval of updating the metrics channels
+     */
+    private static final long METRICS_REFRESH_SECONDS = 10;
+    @Nullable
+    private volatile ScheduledFuture<?> metricsJob;
+    private volatile ModbusEndpointMetrics previousMetrics = ModbusEndpointMetrics.EMPTY;
+
     public AbstractModbusEndpointThingHandler(Bridge bridge, Supplier<ModbusManager> managerRef) {
         super(bridge);
         this.managerRef = managerRef;
@@ -80,6 +95,7 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
                 managerRef.get().addListener(this);
                 managerRef.get().setEndpointPoolConfiguration(endpoint, poolConfiguration);
                 updateStatus(ThingStatus.ONLINE);
+                startMetricsJob();
             } catch (ModbusConfigurationException e) {
                 logger.debug("Exception during initialization", e);
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, String.format(
@@ -92,9 +108,70 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
 
     @Override
     public void dispose() {
+        stopMetricsJob();
         managerRef.get().removeListener(this);
     }
 
+    private void startMetricsJob() {
+        stopMetricsJob();
+        previousMetrics = ModbusEndpointMetrics.EMPTY;
+        metricsJob = scheduler.scheduleWithFixedDelay(this::updateMetrics, 0, METRICS_REFRESH_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    private void stopMetricsJob() {
+        ScheduledFuture<?> metricsJob = this.metricsJob;
+        if (metricsJob != null) {
+            metricsJob.cancel(false);
+            this.metricsJob = null;
+        }
+    }
+
+    /**
+     * Update the metrics channels with the operations since the previous update
+     */
+    private void updateMetrics() {
+        E endpoint = this.endpoint;
+        if (endpoint == null) {
+            return;
+        }
+        ModbusEndpointMetrics metrics = managerRef.get().getEndpointMetrics(endpoint);
+        ModbusEndpointMetrics previous = previousMetrics;
+        previousMetrics = metrics;
+        boolean anyLinked = false;
+        for (String channelId : METRICS_CHANNELS) {
+            anyLinked |= isLinked(channelId);
+        }
+        if (!anyLinked) {
+            return;
+        }
+
+        ModbusLatencyHistogram transactionTime = metrics.getTransactionTime().since(previous.getTransactionTime());
+        updateMetric(CHANNEL_METRICS_OPERATIONS, metrics.getOperations() - previous.getOperations());
+        updateMetric(CHANNEL_METRICS_ERRORS, metrics.getErrors() - previous.getErrors());
+        updateMetric(CHANNEL_METRICS_QUEUE_DEPTH, metrics.getQueueDepth());
+        updateMetric(CHANNEL_METRICS_CONNECTION_TIME,
+                metrics.getConnectionTime().since(previous.getConnectionTime()).getMeanMillis());
+        updateMetric(CHANNEL_METRICS_TRANSACTION_TIME, transactionTime.getMeanMillis());
+        updateMetric(CHANNEL_METRICS_TRANSACTION_TIME_95, transactionTime.getPercentileMillis(95));
+        updateMetric(CHANNEL_METRICS_INTER_TRANSACTION_WAIT,
+                metrics.getInterTransactionWait().since(previous.getInterTransactionWait()).getMeanMillis());
+        updateMetric(CHANNEL_METRICS_CALLBACK_TIME,
+                metrics.getCallbackTime().since(previous.getCallbackTime()).getMeanMillis());
+    }
+
+    private void updateMetric(String channelId, double value) {
+        if (isLinked(channelId)) {
+            updateState(channelId, new DecimalType(value));
+        }
+    }
+
+    private void updateMetric(String channelId, long value) {
+        if (isLinked(channelId)) {
+            updateState(channelId, new DecimalType(value));
+        }
+    }
+
     @Override
     public @Nullable ModbusSlaveEndpoint asSlaveEndpoint() {
         return endpoint;
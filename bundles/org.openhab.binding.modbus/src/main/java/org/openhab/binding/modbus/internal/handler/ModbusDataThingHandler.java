@@ -58,6 +58,7 @@ import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.ModbusRegisterExtractor;
 import org.openhab.binding.modbus.internal.Transformation;
 import org.openhab.binding.modbus.internal.config.ModbusDataConfiguration;
 import org.openhab.io.transport.modbus.BasicModbusWriteCoilRequestBlueprint;
@@ -137,6 +138,9 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile Optional<Integer> readSubIndex = Optional.empty();
     private volatile @Nullable Integer writeStart;
     private volatile int pollStart;
+    private volatile @Nullable ModbusRegisterExtractor readExtractor;
+    private volatile long lastReadRawBits;
+    private volatile boolean lastReadRawBitsValid;
     private volatile int slaveId;
     private volatile long updateUnchangedValuesEveryMillis;
     private volatile @Nullable ModbusSlaveEndpoint slaveEndpoint;
@@ -405,6 +409,9 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         readSubIndex = Optional.empty();
         writeStart = null;
         pollStart = 0;
+        readExtractor = null;
+        lastReadRawBits = 0;
+        lastReadRawBitsValid = false;
         slaveId = 0;
         slaveEndpoint = null;
         manager = null;
@@ -510,6 +517,26 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         readTransformation = new Transformation(config.getReadTransform());
 
         validateReadIndex(pollTask);
+        readExtractor = createReadExtractor(pollTask);
+    }
+
+    /**
+     * Compile the extraction of the read value from polled registers
+     *
+     * @param pollTask poll task of the parent poller
+     * @return extractor, or null if this thing does not read registers
+     */
+    private @Nullable ModbusRegisterExtractor createReadExtractor(@Nullable PollTask pollTask) {
+        ValueType readValueType = this.readValueType;
+        if (!isReadEnabled || pollTask == null || readValueType == null || !readIndex.isPresent()) {
+            return null;
+        }
+        ModbusReadFunctionCode functionCode = pollTask.getRequest().getFunctionCode();
+        if (functionCode != ModbusReadFunctionCode.READ_INPUT_REGISTERS
+                && functionCode != ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS) {
+            return null;
+        }
+        return new ModbusRegisterExtractor(readValueType, readIndex.get() - pollStart, readSubIndex.orElse(0));
     }
 
     private void validateAndParseWriteParameters() throws ModbusConfigurationException {
@@ -655,38 +682,27 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         } else if (!isReadEnabled) {
             return;
         }
-        ValueType readValueType = this.readValueType;
-        if (readValueType == null) {
+        ModbusRegisterExtractor readExtractor = this.readExtractor;
+        if (readExtractor == null) {
             return;
         }
-        State numericState;
-
-        // extractIndex:
-        // e.g. with bit, extractIndex=4 means 5th bit (from right) ("10.4" -> 5th bit of register 10, "10.4" -> 5th bit
-        // of register 10)
-        // bit of second register)
-        // e.g. with 8bit integer, extractIndex=3 means high byte of second register
-        //
-        // with <16 bit types, this is the index of the N'th 1-bit/8-bit item. Each register has 16/2 items,
-        // respectively.
-        // with >=16 bit types, this is index of first register
-        int extractIndex;
-        if (readValueType.getBits() >= 16) {
-            // Invariant, checked in initialize
-            assert readSubIndex.orElse(0) == 0;
-            extractIndex = readIndex.get() - pollStart;
-        } else {
-            int subIndex = readSubIndex.orElse(0);
-            int itemsPerRegister = 16 / readValueType.getBits();
-            extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
+        long rawBits = readExtractor.extractRawBits(registers);
+        if (isUnchangedRawBits(rawBits)) {
+            Map<ChannelUID, State> values = processUnchangedValue();
+            logger.trace(
+                    "Thing {} raw value {} unchanged, channels not re-evaluated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}. Registers {} for request {}",
+                    thing.getUID(), Long.toHexString(rawBits), values, readValueType, readIndex,
+                    readSubIndex.orElse(0), registers, request);
+            return;
         }
-        numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
-                .map(state -> (State) state).orElse(UnDefType.UNDEF);
+
+        State numericState = readExtractor.decode(rawBits).map(state -> (State) state).orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        rememberRawBits(rawBits);
         logger.debug(
-                "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
-                thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
+                "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractor={} -> numeric value {} and boolValue={}. Registers {} for request {}",
+                thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), readExtractor, numericState,
                 boolValue, registers, request);
     }
 
@@ -698,13 +714,47 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             return;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
+        long rawBits = boolValue ? 1L : 0L;
+        if (isUnchangedRawBits(rawBits)) {
+            Map<ChannelUID, State> values = processUnchangedValue();
+            logger.trace("Thing {} bit {} unchanged, channels not re-evaluated: {}. Bits {} for request {}",
+                    thing.getUID(), boolValue, values, bits, request);
+            return;
+        }
         DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        rememberRawBits(rawBits);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
     }
 
+    private boolean isUnchangedRawBits(long rawBits) {
+        return lastReadRawBitsValid && lastReadRawBits == rawBits && !channelLastState.isEmpty();
+    }
+
+    private void rememberRawBits(long rawBits) {
+        lastReadRawBits = rawBits;
+        lastReadRawBitsValid = true;
+    }
+
+    private void forgetRawBits() {
+        lastReadRawBitsValid = false;
+    }
+
+    @Override
+    public synchronized void channelLinked(ChannelUID channelUID) {
+        // newly linked channel has no state from the previous evaluation
+        forgetRawBits();
+        super.channelLinked(channelUID);
+    }
+
+    @Override
+    public synchronized void channelUnlinked(ChannelUID channelUID) {
+        forgetRawBits();
+        super.channelUnlinked(channelUID);
+    }
+
     @Override
     public synchronized void onError(ModbusReadRequestBlueprint request, Exception error) {
         if (hasConfigurationError()) {
@@ -724,6 +774,7 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
                     getThing().getUID(), getThing().getLabel(), error.getClass().getName(), error.toString(),
                     error.getMessage(), error);
         }
+        forgetRawBits();
         Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>();
         ChannelUID lastReadErrorUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_ERROR);
         if (isLinked(lastReadErrorUID)) {
@@ -863,6 +914,24 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         return states;
     }
 
+    /**
+     * Update linked channels when the polled data has not changed since the previous poll
+     *
+     * The channel states of the previous poll are re-used as is, without decoding or transforming the data again.
+     * Like with changed data, unchanged states are only updated when updateUnchangedValuesEveryMillis has elapsed.
+     *
+     * @return channel data
+     */
+    private Map<ChannelUID, State> processUnchangedValue() {
+        Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>(channelLastState);
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            states.put(lastReadSuccessUID, new DateTimeType());
+        }
+        updateExpiredChannels(states);
+        return states;
+    }
+
     private void updateExpiredChannels(Map<ChannelUID, State> states) {
         synchronized (this) {
             updateStatusIfChanged(ThingStatus.ONLINE);
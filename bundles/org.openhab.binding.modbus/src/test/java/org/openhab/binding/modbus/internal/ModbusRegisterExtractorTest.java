@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Optional;
+import java.util.Random;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusRegisterExtractorTest {
+
+    private static final int[][] REGISTER_SAMPLES = new int[][] { { 0, 0, 0, 0, 0 },
+            { 0xffff, 0xffff, 0xffff, 0xffff, 0xffff }, { 0x8000, 0x0000, 0x0000, 0x0001, 0x7fff },
+            { 0x7f80, 0x0000, 0xff80, 0x0000, 0x7fc0 }, { 0x4049, 0x0fdb, 0xc049, 0x0fdb, 0x0102 },
+            { 0x1234, 0x5678, 0x9abc, 0xdef0, 0x00ff } };
+
+    private static void assertSameAsBitUtilities(ModbusRegisterArray registers, ValueType type) {
+        int registerCount = type.getBits() >= 16 ? type.getBits() / 16 : 1;
+        int itemsPerRegister = type.getBits() >= 16 ? 1 : 16 / type.getBits();
+        for (int readIndex = 0; readIndex + registerCount <= registers.size(); readIndex++) {
+            for (int subIndex = 0; subIndex < itemsPerRegister; subIndex++) {
+                int extractIndex = readIndex * itemsPerRegister + subIndex;
+                Optional<DecimalType> expected = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex,
+                        type);
+                ModbusRegisterExtractor extractor = new ModbusRegisterExtractor(type, readIndex, subIndex);
+                Optional<DecimalType> actual = extractor.decode(extractor.extractRawBits(registers));
+                assertThat(String.format("%s at %d.%d of %s", type, readIndex, subIndex, registers.toHexString()),
+                        actual, is(equalTo(expected)));
+            }
+        }
+    }
+
+    @Test
+    public void testAllValueTypesMatchBitUtilities() {
+        for (int[] sample : REGISTER_SAMPLES) {
+            ModbusRegisterArray registers = new BasicModbusRegisterArray(sample);
+            for (ValueType type : ValueType.values()) {
+                assertSameAsBitUtilities(registers, type);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomRegistersMatchBitUtilities() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int[] values = new int[5];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(0x10000);
+            }
+            ModbusRegisterArray registers = new BasicModbusRegisterArray(values);
+            for (ValueType type : ValueType.values()) {
+                assertSameAsBitUtilities(registers, type);
+            }
+        }
+    }
+
+    @Test
+    public void testRawBitsIgnoreOtherRegisters() {
+        ModbusRegisterExtractor extractor = new ModbusRegisterExtractor(ValueType.UINT8, 1, 1);
+        long first = extractor.extractRawBits(new BasicModbusRegisterArray(0x0000, 0xab00, 0x0000));
+        long second = extractor.extractRawBits(new BasicModbusRegisterArray(0xffff, 0xabff, 0xffff));
+        assertThat(first, is(equalTo(0xabL)));
+        assertThat(second, is(equalTo(first)));
+    }
+
+    @Test
+    public void testSwappedTypesHaveRawBitsInValueOrder() {
+        ModbusRegisterArray registers = new BasicModbusRegisterArray(0x5678, 0x1234);
+        assertThat(new ModbusRegisterExtractor(ValueType.INT32_SWAP, 0, 0).extractRawBits(registers),
+                is(equalTo(0x12345678L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfBounds() {
+        new ModbusRegisterExtractor(ValueType.INT32, 1, 0).extractRawBits(new BasicModbusRegisterArray(1, 2));
+    }
+}
@@ -17,10 +17,10 @@ import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -35,12 +35,17 @@ import org.openhab.binding.network.internal.toberemoved.cache.ExpiringCacheAsync
 import org.openhab.binding.network.internal.utils.NetworkUtils;
 import org.openhab.binding.network.internal.utils.NetworkUtils.ArpPingUtilEnum;
 import org.openhab.binding.network.internal.utils.NetworkUtils.IpPingMethodEnum;
+import org.openhab.binding.network.internal.utils.PresenceEngine;
+import org.openhab.binding.network.internal.utils.PresenceEngine.ProbeResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The {@link PresenceDetection} handles the connection to the Device
  *
+ * The individual checks are executed by the {@link PresenceEngine} shared by all things, which limits the number of
+ * concurrent checks and shares the results of identical checks between things for the device state cache time.
+ *
  * @author Marc Mettke - Initial contribution
  * @author David Gräff, 2017 - Rewritten
  * @author Jan N. Klug - refactored host name resolution
@@ -51,6 +56,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     public static final int DESTINATION_TTL = 300 * 1000; // in ms, 300 s
 
     NetworkUtils networkUtils = new NetworkUtils();
+    PresenceEngine engine = PresenceEngine.getInstance();
     private final Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
     /// Configuration variables
@@ -66,6 +72,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private long refreshIntervalInMS = 60000;
     private int timeoutInMS = 5000;
     private long lastSeenInMS;
+    private final int cacheDeviceStateTimeInMS;
 
     private @NonNullByDefault({}) String hostname;
     private @NonNullByDefault({}) ExpiringCache<@Nullable InetAddress> destination;
@@ -83,6 +90,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     public PresenceDetection(final PresenceDetectionListener updateListener, int cacheDeviceStateTimeInMS)
             throws IllegalArgumentException {
         this.updateListener = updateListener;
+        this.cacheDeviceStateTimeInMS = cacheDeviceStateTimeInMS;
         cache = new ExpiringCacheAsync<PresenceDetectionValue>(cacheDeviceStateTimeInMS, () -> {
             performPresenceDetection(false);
         });
@@ -271,14 +279,20 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         cache.getValue(callback);
     }
 
+    /**
+     * Return an executor for the checks of a single presence detection. The checks are executed on the thread pool of
+     * the shared {@link PresenceEngine}.
+     *
+     * @param threadCount The number of checks
+     */
     public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
+        return engine.newProbeGroup();
     }
 
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. The checks are executed by the shared {@link PresenceEngine}, as many
+     * at once as its concurrency limit allows.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -312,6 +326,13 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
         if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
             interfaceNames = networkUtils.getInterfaceNames();
+            // Only ARP ping on the interface the address is known on, if it is in the ARP cache
+            InetAddress destinationAddress = destination.getValue();
+            String arpCacheInterface = destinationAddress == null ? null
+                    : networkUtils.getArpCacheInterface(destinationAddress.getHostAddress());
+            if (arpCacheInterface != null && interfaceNames.contains(arpCacheInterface)) {
+                interfaceNames = Collections.singleton(arpCacheInterface);
+            }
             detectionChecks += interfaceNames.size();
         }
 
@@ -325,8 +346,8 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         for (Integer tcpPort : tcpPorts) {
             executorService.execute(() -> {
                 Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
+                // finishes the check when the connection attempt is done, without blocking the thread meanwhile
                 performServicePing(tcpPort);
-                checkIfFinished();
             });
         }
 
@@ -467,20 +488,33 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
     protected void performServicePing(int tcpPort) {
         logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPort);
-        try {
-            double pingTime = System.nanoTime();
-            InetAddress destinationAddress = destination.getValue();
-            if (destinationAddress != null
-                    && networkUtils.servicePing(destinationAddress.getHostAddress(), tcpPort, timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION, latency);
-                v.addReachableTcpService(tcpPort);
-                updateListener.partialDetectionResult(v);
-            }
-        } catch (IOException e) {
+        ExecutorService service = executorService;
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            finishServicePing(service, tcpPort, null, null);
+            return;
+        }
+        final String ip = destinationAddress.getHostAddress();
+        engine.probeAsync("tcp " + ip + ":" + tcpPort + " " + timeoutInMS, cacheDeviceStateTimeInMS,
+                () -> networkUtils.servicePing(ip, tcpPort, timeoutInMS))
+                .whenComplete((result, e) -> finishServicePing(service, tcpPort, result, e));
+    }
+
+    private synchronized void finishServicePing(@Nullable ExecutorService service, int tcpPort,
+            @Nullable ProbeResult result, @Nullable Throwable error) {
+        if (service == null || service != executorService) {
+            // the presence detection the connection attempt belongs to has finished meanwhile
+            return;
+        }
+        if (error != null) {
             // This should not happen and might be a user configuration issue, we log a warning message therefore.
-            logger.warn("Could not create a socket connection", e);
+            logger.warn("Could not create a socket connection", error);
+        } else if (result != null && result.isReachable()) {
+            PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION, result.getLatency());
+            v.addReachableTcpService(tcpPort);
+            updateListener.partialDetectionResult(v);
         }
+        checkIfFinished();
     }
 
     /**
@@ -502,11 +536,14 @@ public class PresenceDetection implements IPRequestReceivedCallback {
                 networkUtils.wakeUpIOS(destinationAddress);
                 Thread.sleep(50);
             }
-            double pingTime = System.nanoTime();
-            if (networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName,
-                    destinationAddress.getHostAddress(), timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING, latency);
+            final String ip = destinationAddress.getHostAddress();
+            final ArpPingUtilEnum method = arpPingMethod;
+            final String utilPath = arpPingUtilPath;
+            ProbeResult result = engine.probe("arp " + method + " " + interfaceName + " " + ip + " " + timeoutInMS,
+                    cacheDeviceStateTimeInMS,
+                    () -> networkUtils.nativeARPPing(method, utilPath, interfaceName, ip, timeoutInMS));
+            if (result.isReachable()) {
+                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING, result.getLatency());
                 updateListener.partialDetectionResult(v);
             }
         } catch (IOException e) {
@@ -525,32 +562,37 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     protected void performJavaPing() {
         try {
             logger.trace("Perform java ping presence detection for {}", hostname);
-            double pingTime = System.nanoTime();
             InetAddress destinationAddress = destination.getValue();
             if (destinationAddress == null) {
                 return;
             }
-            if (destinationAddress.isReachable(timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
+            ProbeResult result = engine.probe(
+                    "java " + destinationAddress.getHostAddress() + " " + timeoutInMS, cacheDeviceStateTimeInMS,
+                    () -> destinationAddress.isReachable(timeoutInMS));
+            if (result.isReachable()) {
+                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, result.getLatency());
                 updateListener.partialDetectionResult(v);
             }
         } catch (IOException e) {
             logger.trace("Failed to execute a java ping for ip {}", hostname, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Reset interrupt flag
         }
     }
 
     protected void performSystemPing() {
         try {
             logger.trace("Perform native ping presence detection for {}", hostname);
-            double pingTime = System.nanoTime();
             InetAddress destinationAddress = destination.getValue();
             if (destinationAddress == null) {
                 return;
             }
-            if (networkUtils.nativePing(pingMethod, destinationAddress.getHostAddress(), timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
+            final String ip = destinationAddress.getHostAddress();
+            final IpPingMethodEnum method = pingMethod;
+            ProbeResult result = engine.probe("icmp " + method + " " + ip + " " + timeoutInMS,
+                    cacheDeviceStateTimeInMS, () -> networkUtils.nativePing(method, ip, timeoutInMS));
+            if (result.isReachable()) {
+                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, result.getLatency());
                 updateListener.partialDetectionResult(v);
             }
         } catch (IOException e) {
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Probes a lazily generated sequence of addresses in waves.
+ *
+ * A wave takes the next {@link #waveSize} addresses and starts probing all of them. The next wave starts when all
+ * probes of the current wave are finished, or when the wave timed out, but not earlier than {@link #waveIntervalInMS}
+ * after the start of the current wave. This limits the number of concurrent probes as well as the probe rate. The
+ * sweep can be cancelled at any time, no further probes are started then.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class NetworkSweep {
+
+    /**
+     * Starts the probe of a single address
+     */
+    @FunctionalInterface
+    public interface Prober {
+        /**
+         * Start probing the given address.
+         *
+         * @param address The address to probe
+         * @param done Must be called when the probe is finished, if the probe has been started
+         * @return true if the probe has been started, false if there is nothing to probe
+         */
+        boolean probe(String address, Runnable done);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(NetworkSweep.class);
+
+    private final Iterator<String> addresses;
+    private final ScheduledExecutorService scheduler;
+    private final Prober prober;
+    private final Runnable onFinished;
+    private final int waveSize;
+    private final long waveIntervalInMS;
+    private final long waveTimeoutInMS;
+
+    /** guarded by this */
+    private int wave;
+    /** guarded by this */
+    private int inFlight;
+    /** guarded by this */
+    private long waveStartedAt;
+    /** guarded by this */
+    private boolean stopped;
+    /** guarded by this */
+    private @Nullable ScheduledFuture<?> pendingJob;
+    /** guarded by this */
+    private long probed;
+    /** guarded by this */
+    private long startedAt;
+    /** guarded by this */
+    private long stoppedAt;
+
+    /**
+     * @param addresses The addresses to probe
+     * @param scheduler Schedules the waves
+     * @param prober Starts the probe of an address
+     * @param onFinished Called when all addresses have been probed, not called if the sweep is cancelled
+     * @param waveSize Number of addresses probed at the same time
+     * @param waveIntervalInMS Minimum time between the start of two waves
+     * @param waveTimeoutInMS Time after which the next wave is started, even if probes are still unfinished
+     */
+    public NetworkSweep(Iterator<String> addresses, ScheduledExecutorService scheduler, Prober prober,
+            Runnable onFinished, int waveSize, long waveIntervalInMS, long waveTimeoutInMS) {
+        this.addresses = addresses;
+        this.scheduler = scheduler;
+        this.prober = prober;
+        this.onFinished = onFinished;
+        this.waveSize = Math.max(1, waveSize);
+        this.waveIntervalInMS = Math.max(0, waveIntervalInMS);
+        this.waveTimeoutInMS = waveTimeoutInMS;
+    }
+
+    /**
+     * Start the sweep. The first wave is started immediately.
+     */
+    public void start() {
+        synchronized (this) {
+            startedAt = System.nanoTime();
+        }
+        nextWave();
+    }
+
+    /**
+     * Stop the sweep. Probes already started are not cancelled.
+     */
+    public synchronized void cancel() {
+        if (!stopped) {
+            stop();
+            logger.debug("Network sweep cancelled after {} addresses", probed);
+        }
+    }
+
+    private void nextWave() {
+        List<String> waveAddresses = new ArrayList<>(waveSize);
+        final int currentWave;
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            while (waveAddresses.size() < waveSize && addresses.hasNext()) {
+                waveAddresses.add(addresses.next());
+            }
+            if (waveAddresses.isEmpty()) {
+                currentWave = 0;
+                stop();
+                logger.debug("Network sweep of {} addresses finished in {} ms ({} addresses per second)", probed,
+                        getDuration(), String.format("%.1f", getProbesPerSecond()));
+            } else {
+                currentWave = ++wave;
+                inFlight = waveAddresses.size();
+                waveStartedAt = System.nanoTime();
+                probed += waveAddresses.size();
+                pendingJob = scheduler.schedule(() -> waveDone(currentWave, true), waveTimeoutInMS,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+        if (waveAddresses.isEmpty()) {
+            onFinished.run();
+            return;
+        }
+
+        for (String address : waveAddresses) {
+            boolean started;
+            try {
+                started = prober.probe(address, () -> probeDone(currentWave));
+            } catch (RuntimeException e) {
+                logger.debug("Probing {} failed", address, e);
+                started = false;
+            }
+            if (!started) {
+                probeDone(currentWave);
+            }
+        }
+    }
+
+    private synchronized void probeDone(int probeWave) {
+        if (probeWave == wave && --inFlight == 0) {
+            waveDone(probeWave, false);
+        }
+    }
+
+    private synchronized void waveDone(int doneWave, boolean timedOut) {
+        if (stopped || doneWave != wave || pendingJob == null) {
+            return;
+        }
+        if (timedOut) {
+            logger.debug("Network sweep wave {} timed out with {} unfinished probes", doneWave, inFlight);
+        } else {
+            ScheduledFuture<?> job = pendingJob;
+            if (job != null) {
+                job.cancel(false);
+            }
+        }
+        // invalidates the wave
+        wave++;
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waveStartedAt);
+        pendingJob = scheduler.schedule(this::nextWave, Math.max(0, waveIntervalInMS - elapsed),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void stop() {
+        stopped = true;
+        stoppedAt = System.nanoTime();
+        ScheduledFuture<?> job = pendingJob;
+        if (job != null) {
+            job.cancel(false);
+            pendingJob = null;
+        }
+    }
+
+    /**
+     * @return the number of addresses probed so far
+     */
+    public synchronized long getProbed() {
+        return probed;
+    }
+
+    /**
+     * @return the duration of the sweep in milliseconds, up to now if it is still running
+     */
+    public synchronized long getDuration() {
+        long end = stopped ? stoppedAt : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startedAt);
+    }
+
+    /**
+     * @return the average number of addresses probed per second
+     */
+    public synchronized double getProbesPerSecond() {
+        long duration = getDuration();
+        return duration == 0 ? probed : probed * 1000.0 / duration;
+    }
+
+    public synchronized boolean isFinished() {
+        return stopped;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Reads the ARP cache of the Linux kernel from <code>/proc/net/arp</code>.
+ *
+ * The table is read at most once per {@link #MAX_AGE_IN_MS} and shared by all presence detections. It tells the
+ * interface an IPv4 address has been resolved on, so an ARP ping is only needed on that interface instead of all
+ * interfaces. On other operating systems the table is always empty.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ArpCache {
+    static final long MAX_AGE_IN_MS = 1000;
+
+    private static final Path ARP_TABLE = Paths.get("/proc/net/arp");
+
+    /**
+     * Flag of completed entries
+     */
+    private static final int ATF_COM = 0x02;
+    private static final String NO_HARDWARE_ADDRESS = "00:00:00:00:00:00";
+
+    private static final ArpCache INSTANCE = new ArpCache(ARP_TABLE);
+
+    private final Path arpTable;
+    /** guarded by this */
+    private Map<String, String> interfaces = Collections.emptyMap();
+    /** guarded by this */
+    private long readAt;
+
+    ArpCache(Path arpTable) {
+        this.arpTable = arpTable;
+    }
+
+    /**
+     * @return the ARP cache shared by the binding
+     */
+    public static ArpCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param ipAddress an IPv4 address
+     * @return the name of the interface the address is resolved on, or null if it is not in the ARP cache
+     */
+    public synchronized @Nullable String getInterface(String ipAddress) {
+        long now = System.currentTimeMillis();
+        if (now - readAt > MAX_AGE_IN_MS) {
+            readAt = now;
+            interfaces = read();
+        }
+        return interfaces.get(ipAddress);
+    }
+
+    private Map<String, String> read() {
+        if (!Files.isReadable(arpTable)) {
+            return Collections.emptyMap();
+        }
+        try {
+            return parse(Files.readAllLines(arpTable, StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Parses the lines of <code>/proc/net/arp</code>. Only completed entries are returned.
+     *
+     * @param lines the lines, including the header line
+     * @return the interface names by IPv4 address
+     */
+    static Map<String, String> parse(List<String> lines) {
+        Map<String, String> result = new HashMap<>();
+        // IP address HW type Flags HW address Mask Device
+        for (int i = 1; i < lines.size(); i++) {
+            String[] columns = lines.get(i).trim().split("\\s+");
+            if (columns.length < 6) {
+                continue;
+            }
+            int flags;
+            try {
+                flags = Integer.decode(columns[2]);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if ((flags & ATF_COM) != 0 && !NO_HARDWARE_ADDRESS.equals(columns[3])) {
+                result.put(columns[0], columns[5]);
+            }
+        }
+        return result;
+    }
+}
@@ -15,23 +15,19 @@ package org.openhab.binding.network.internal.utils;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.ConnectException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
-import java.net.NoRouteToHostException;
 import java.net.PortUnreachableException;
-import java.net.Socket;
-import java.net.SocketAddress;
 import java.net.SocketException;
-import java.net.SocketTimeoutException;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
@@ -108,16 +104,7 @@ public class NetworkUtils {
     public Set<String> getNetworkIPs(Set<CidrAddress> interfaceIPs, int maximumPerInterface) {
         LinkedHashSet<String> networkIPs = new LinkedHashSet<>();
 
-        short minCidrPrefixLength = 8; // historic Class A network, addresses = 16777214
-        if (maximumPerInterface != 0) {
-            // calculate minimum CIDR prefix length from maximumPerInterface
-            // (equals leading unset bits (Integer has 32 bits)
-            minCidrPrefixLength = (short) Integer.numberOfLeadingZeros(maximumPerInterface);
-            if (Integer.bitCount(maximumPerInterface) == 1) {
-                // if only the highest is set, decrease prefix by 1 to cover all addresses
-                minCidrPrefixLength--;
-            }
-        }
+        short minCidrPrefixLength = getMinCidrPrefixLength(maximumPerInterface);
         logger.trace("set minCidrPrefixLength to {}, maximumPerInterface is {}", minCidrPrefixLength,
                 maximumPerInterface);
 
@@ -144,24 +131,54 @@ public class NetworkUtils {
     }
 
     /**
-     * Try to establish a tcp connection to the given port. Returns false if a timeout occurred
-     * or the connection was denied.
+     * Lazily generates every IP which can be assigned on all available interfaces. In contrast to
+     * {@link #getNetworkIPs(int)}, the addresses are not collected in advance.
+     *
+     * @param maximumPerInterface The maximum of IP addresses per interface or 0 to get all.
+     * @return An iterator over every single IP which can be assigned on the Networks the computer is connected to
+     */
+    public SubnetAddressIterator iterateNetworkIPs(int maximumPerInterface) {
+        return new SubnetAddressIterator(getInterfaceIPs(), getMinCidrPrefixLength(maximumPerInterface),
+                maximumPerInterface);
+    }
+
+    static short getMinCidrPrefixLength(int maximumPerInterface) {
+        short minCidrPrefixLength = 8; // historic Class A network, addresses = 16777214
+        if (maximumPerInterface != 0) {
+            // calculate minimum CIDR prefix length from maximumPerInterface
+            // (equals leading unset bits (Integer has 32 bits)
+            minCidrPrefixLength = (short) Integer.numberOfLeadingZeros(maximumPerInterface);
+            if (Integer.bitCount(maximumPerInterface) == 1) {
+                // if only the highest is set, decrease prefix by 1 to cover all addresses
+                minCidrPrefixLength--;
+            }
+        }
+        return minCidrPrefixLength;
+    }
+
+    /**
+     * Try to establish a tcp connection to the given port. The connection attempt is performed by the shared
+     * {@link TcpConnector}, without blocking the calling thread.
      *
      * @param host The IP or hostname
      * @param port The tcp port. Must be not 0.
      * @param timeout Timeout in ms
-     * @param logger A slf4j logger instance to log IOException
-     * @return
-     * @throws IOException
+     * @return a future, completed with false if a timeout occurred or the connection was denied
+     * @throws IOException if the connection attempt could not be started
      */
-    public boolean servicePing(String host, int port, int timeout) throws IOException {
-        SocketAddress socketAddress = new InetSocketAddress(host, port);
-        try (Socket socket = new Socket()) {
-            socket.connect(socketAddress, timeout);
-            return true;
-        } catch (ConnectException | SocketTimeoutException | NoRouteToHostException ignored) {
-            return false;
-        }
+    public CompletableFuture<Boolean> servicePing(String host, int port, int timeout) throws IOException {
+        return TcpConnector.getInstance().connect(new InetSocketAddress(host, port), timeout);
+    }
+
+    /**
+     * Return the interface the given IPv4 address has been resolved on, according to the ARP cache of the operating
+     * system.
+     *
+     * @param ipV4address The ipV4 address
+     * @return The interface name or null if the address is not in the ARP cache
+     */
+    public @Nullable String getArpCacheInterface(String ipV4address) {
+        return ArpCache.getInstance().getInterface(ipV4address);
     }
 
     /**
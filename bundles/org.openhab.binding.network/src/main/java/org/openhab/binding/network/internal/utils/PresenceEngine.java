@@ -0,0 +1,262 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
+
+/**
+ * Executes the probes of all presence detections of the binding.
+ *
+ * All probes run on a single shared thread pool, which limits the number of concurrently running probes (and with that
+ * the number of concurrently running ping processes) for the whole binding. Every presence detection gets its own
+ * {@link ProbeGroup} on top of that pool, to be able to wait for and to cancel its probes.
+ *
+ * The results of probes are cached per host and probe type and shared between all presence detections: a probe for
+ * the same host, with the same parameters, is not performed again while a result is younger than the requested
+ * maximum age. Concurrent requests for the same probe wait for the probe already running.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceEngine {
+    public static final int DEFAULT_MAX_CONCURRENT_PROBES = 32;
+
+    /**
+     * Number of cached results, above which outdated results are removed
+     */
+    static final int MAX_CACHED_RESULTS = 1024;
+
+    private static @Nullable PresenceEngine instance;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ProbeEntry> results = new ConcurrentHashMap<>();
+
+    /**
+     * A single probe, e.g. a ping
+     */
+    @FunctionalInterface
+    public interface Probe {
+        /**
+         * @return true if the host responded
+         */
+        boolean run() throws IOException, InterruptedException;
+    }
+
+    /**
+     * A single probe that does not block a thread while waiting for the response, e.g. a TCP connection attempt
+     */
+    @FunctionalInterface
+    public interface AsyncProbe {
+        /**
+         * @return a future, completed with true if the host responded
+         */
+        CompletableFuture<Boolean> start() throws IOException;
+    }
+
+    /**
+     * The result of a {@link Probe}
+     */
+    public static class ProbeResult {
+        private final boolean reachable;
+        private final double latency;
+        private final long timestamp;
+
+        ProbeResult(boolean reachable, double latency, long timestamp) {
+            this.reachable = reachable;
+            this.latency = latency;
+            this.timestamp = timestamp;
+        }
+
+        public boolean isReachable() {
+            return reachable;
+        }
+
+        /**
+         * @return the time the host needed to respond in milliseconds
+         */
+        public double getLatency() {
+            return latency;
+        }
+    }
+
+    private static class ProbeEntry {
+        final CompletableFuture<ProbeResult> future = new CompletableFuture<>();
+
+        boolean isUsable(long maxAgeInMS, long now) {
+            if (!future.isDone()) {
+                return true;
+            }
+            if (future.isCompletedExceptionally()) {
+                return false;
+            }
+            ProbeResult result = future.getNow(null);
+            return result != null && now - result.timestamp <= maxAgeInMS;
+        }
+    }
+
+    /**
+     * @return the engine shared by all presence detections of the binding
+     */
+    public static synchronized PresenceEngine getInstance() {
+        PresenceEngine localInstance = instance;
+        if (localInstance == null) {
+            localInstance = new PresenceEngine(DEFAULT_MAX_CONCURRENT_PROBES);
+            instance = localInstance;
+        }
+        return localInstance;
+    }
+
+    /**
+     * Creates a new engine. Use {@link #getInstance()} to share the concurrency limit and the results.
+     *
+     * @param maxConcurrentProbes maximum number of probes running at the same time
+     */
+    public PresenceEngine(int maxConcurrentProbes) {
+        executor = new ThreadPoolExecutor(maxConcurrentProbes, maxConcurrentProbes, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("networkPresence", true));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Creates a new group of probes, which are executed on the shared thread pool.
+     *
+     * @return an executor service for the probes of a single presence detection
+     */
+    public ExecutorService newProbeGroup() {
+        return new ProbeGroup(executor);
+    }
+
+    /**
+     * Performs the given probe, or returns the result of the same probe if it is younger than the given age. If the
+     * same probe is running already, its result is awaited.
+     *
+     * @param key identifies the probe, i.e. the probe type, the host and all parameters of the probe
+     * @param maxAgeInMS maximum age of a result to reuse in milliseconds
+     * @param probe the probe to perform
+     * @return the result of the probe
+     * @throws IOException if the probe failed. Failures are not cached.
+     * @throws InterruptedException if interrupted while performing or waiting for the probe
+     */
+    public ProbeResult probe(String key, long maxAgeInMS, Probe probe) throws IOException, InterruptedException {
+        ProbeEntry created = new ProbeEntry();
+        ProbeEntry entry = getEntry(key, maxAgeInMS, created);
+        if (entry != created) {
+            return await(entry);
+        }
+
+        long start = System.nanoTime();
+        try {
+            ProbeResult result = toResult(probe.run(), start);
+            created.future.complete(result);
+            return result;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            results.remove(key, created);
+            created.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the given probe, or returns the result of the same probe if it is younger than the given age. If the same
+     * probe is running already, its result is returned. No thread is blocked while waiting for the result.
+     *
+     * @param key identifies the probe, i.e. the probe type, the host and all parameters of the probe
+     * @param maxAgeInMS maximum age of a result to reuse in milliseconds
+     * @param probe the probe to start
+     * @return a future, completed with the result of the probe, or exceptionally if the probe failed. Failures are not
+     *         cached.
+     */
+    public CompletableFuture<ProbeResult> probeAsync(String key, long maxAgeInMS, AsyncProbe probe) {
+        ProbeEntry created = new ProbeEntry();
+        ProbeEntry entry = getEntry(key, maxAgeInMS, created);
+        if (entry != created) {
+            return entry.future;
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> reachable;
+        try {
+            reachable = probe.start();
+        } catch (IOException | RuntimeException e) {
+            reachable = new CompletableFuture<>();
+            reachable.completeExceptionally(e);
+        }
+        reachable.whenComplete((result, e) -> {
+            if (e != null) {
+                results.remove(key, created);
+                created.future.completeExceptionally(e);
+            } else {
+                created.future.complete(toResult(result, start));
+            }
+        });
+        return created.future;
+    }
+
+    /**
+     * @return the usable entry of the probe, or the given new entry if there is none
+     */
+    private ProbeEntry getEntry(String key, long maxAgeInMS, ProbeEntry created) {
+        long now = System.currentTimeMillis();
+        ProbeEntry entry = results.compute(key,
+                (k, existing) -> existing != null && existing.isUsable(maxAgeInMS, now) ? existing : created);
+        if (entry == created && results.size() > MAX_CACHED_RESULTS) {
+            removeOutdated(maxAgeInMS, now);
+        }
+        return entry;
+    }
+
+    private ProbeResult toResult(boolean reachable, long start) {
+        double latency = Math.round((System.nanoTime() - start) / 1000000.0f);
+        return new ProbeResult(reachable, latency, System.currentTimeMillis());
+    }
+
+    private ProbeResult await(ProbeEntry entry) throws IOException, InterruptedException {
+        try {
+            return entry.future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Probe failed", cause);
+        }
+    }
+
+    private void removeOutdated(long maxAgeInMS, long now) {
+        for (Iterator<ProbeEntry> iterator = results.values().iterator(); iterator.hasNext();) {
+            if (!iterator.next().isUsable(maxAgeInMS, now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of probes waiting for a free thread
+     */
+    public int getQueuedProbes() {
+        return executor.getQueue().size();
+    }
+}
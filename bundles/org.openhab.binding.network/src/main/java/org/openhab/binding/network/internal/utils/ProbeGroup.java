@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} running its tasks on a shared executor.
+ *
+ * Shutting down a group only affects the tasks of the group: {@link #shutdownNow()} interrupts the running tasks of
+ * the group and drops its queued tasks, {@link #awaitTermination(long, TimeUnit)} waits for the tasks of the group.
+ * The shared executor is never shut down.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ProbeGroup extends AbstractExecutorService {
+    private final Executor executor;
+
+    /** guarded by this */
+    private final Set<Thread> running = new HashSet<>();
+    /** guarded by this */
+    private int pending;
+    /** guarded by this */
+    private boolean shutdown;
+    /** guarded by this */
+    private boolean cancelled;
+
+    public ProbeGroup(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        synchronized (this) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Probe group is shut down");
+            }
+            pending++;
+        }
+        try {
+            executor.execute(() -> run(command));
+        } catch (RejectedExecutionException e) {
+            finished(Thread.currentThread(), false);
+            throw e;
+        }
+    }
+
+    private void run(Runnable command) {
+        Thread thread = Thread.currentThread();
+        synchronized (this) {
+            if (cancelled) {
+                finished(thread, false);
+                return;
+            }
+            running.add(thread);
+        }
+        try {
+            command.run();
+        } finally {
+            finished(thread, true);
+        }
+    }
+
+    private synchronized void finished(Thread thread, boolean wasRunning) {
+        if (wasRunning) {
+            running.remove(thread);
+            // an interrupt by shutdownNow() must not affect the next task of the shared thread
+            Thread.interrupted();
+        }
+        pending--;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        shutdown = true;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+        shutdown = true;
+        cancelled = true;
+        for (Thread thread : running) {
+            thread.interrupt();
+        }
+        notifyAll();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+        return shutdown && pending == 0;
+    }
+
+    @Override
+    public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isTerminated()) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.net.Inet4Address;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.net.CidrAddress;
+
+/**
+ * Lazily generates the IPv4 host addresses of a set of subnets, without creating the list of all addresses first.
+ *
+ * The addresses of each subnet are returned in ascending order, excluding the network and broadcast addresses. Subnets
+ * assigned to more than one interface are returned only once.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SubnetAddressIterator implements Iterator<String> {
+    private final List<long[]> ranges = new ArrayList<>();
+    private int rangeIndex;
+    private long next;
+
+    /**
+     * @param interfaceIPs The IPs assigned to the network interfaces, with the prefix length of their subnet.
+     *            Addresses other than IPv4 addresses are ignored.
+     * @param minCidrPrefixLength subnets with a shorter prefix are truncated to this length
+     * @param maximumPerInterface The maximum of IP addresses per interface or 0 to get all.
+     */
+    public SubnetAddressIterator(Set<CidrAddress> interfaceIPs, int minCidrPrefixLength, int maximumPerInterface) {
+        Set<String> subnets = new HashSet<>();
+        for (CidrAddress cidrAddress : interfaceIPs) {
+            if (!(cidrAddress.getAddress() instanceof Inet4Address)) {
+                continue;
+            }
+            int prefix = Math.max(cidrAddress.getPrefix(), minCidrPrefixLength);
+            long address = toLong(cidrAddress.getAddress().getAddress());
+            long mask = prefix == 0 ? 0 : (0xFFFFFFFFL << (32 - prefix)) & 0xFFFFFFFFL;
+            long network = address & mask;
+            long broadcast = network | (~mask & 0xFFFFFFFFL);
+            if (broadcast - network <= 1 || !subnets.add(network + "/" + prefix)) {
+                continue;
+            }
+            long last = broadcast - 1;
+            if (maximumPerInterface != 0) {
+                last = Math.min(last, network + maximumPerInterface);
+            }
+            ranges.add(new long[] { network + 1, last });
+        }
+        next = ranges.isEmpty() ? 0 : ranges.get(0)[0];
+    }
+
+    /**
+     * @return the number of addresses returned by a new iterator
+     */
+    public long size() {
+        long size = 0;
+        for (long[] range : ranges) {
+            size += range[1] - range[0] + 1;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rangeIndex < ranges.size();
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long address = next;
+        long[] range = ranges.get(rangeIndex);
+        if (address >= range[1]) {
+            rangeIndex++;
+            if (rangeIndex < ranges.size()) {
+                next = ranges.get(rangeIndex)[0];
+            }
+        } else {
+            next = address + 1;
+        }
+        return toString(address);
+    }
+
+    private static long toLong(byte[] address) {
+        long result = 0;
+        for (byte b : address) {
+            result = (result << 8) | (b & 0xFF);
+        }
+        return result;
+    }
+
+    private static String toString(long address) {
+        return ((address >> 24) & 0xFF) + "." + ((address >> 16) & 0xFF) + "." + ((address >> 8) & 0xFF) + "."
+                + (address & 0xFF);
+    }
+}
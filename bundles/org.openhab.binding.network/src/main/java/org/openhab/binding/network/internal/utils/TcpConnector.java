@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Performs TCP connection attempts with non blocking channels. A single thread waits for all pending connection
+ * attempts with a {@link Selector}, instead of one blocked thread per attempt.
+ *
+ * The thread is started with the first connection attempt and ends after being idle for {@link #IDLE_TIMEOUT_IN_MS}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TcpConnector {
+    static final long IDLE_TIMEOUT_IN_MS = 60000;
+
+    private static final TcpConnector INSTANCE = new TcpConnector();
+
+    private final Logger logger = LoggerFactory.getLogger(TcpConnector.class);
+
+    private final Queue<PendingConnect> registrations = new ConcurrentLinkedQueue<>();
+    /** guarded by this */
+    private @Nullable Selector selector;
+
+    private static class PendingConnect {
+        final SocketChannel channel;
+        final CompletableFuture<Boolean> future;
+        final long deadline;
+
+        PendingConnect(SocketChannel channel, CompletableFuture<Boolean> future, long deadline) {
+            this.channel = channel;
+            this.future = future;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * @return the connector shared by the binding
+     */
+    public static TcpConnector getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Try to establish a tcp connection to the given address.
+     *
+     * @param address The address to connect to
+     * @param timeoutInMS Timeout in ms
+     * @return a future, completed with true if the connection was established and false if a timeout occurred or
+     *         the connection was denied. Other errors complete the future exceptionally.
+     * @throws IOException if the connection attempt could not be started
+     */
+    public CompletableFuture<Boolean> connect(InetSocketAddress address, int timeoutInMS) throws IOException {
+        if (address.isUnresolved()) {
+            throw new UnknownHostException(address.getHostString());
+        }
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            if (channel.connect(address)) {
+                close(channel);
+                future.complete(true);
+                return future;
+            }
+        } catch (ConnectException | NoRouteToHostException e) {
+            close(channel);
+            future.complete(false);
+            return future;
+        } catch (IOException | RuntimeException e) {
+            close(channel);
+            throw e;
+        }
+
+        registrations.add(new PendingConnect(channel, future, System.currentTimeMillis() + timeoutInMS));
+        synchronized (this) {
+            Selector localSelector = selector;
+            if (localSelector == null) {
+                localSelector = Selector.open();
+                selector = localSelector;
+                Selector threadSelector = localSelector;
+                Thread thread = new Thread(() -> run(threadSelector), "networkTcpConnector");
+                thread.setDaemon(true);
+                thread.start();
+            } else {
+                localSelector.wakeup();
+            }
+        }
+        return future;
+    }
+
+    private void run(Selector localSelector) {
+        long idleSince = System.currentTimeMillis();
+        try {
+            while (true) {
+                register(localSelector);
+                long now = System.currentTimeMillis();
+                long nextDeadline = expire(localSelector, now);
+                long timeout;
+                // cancelled keys stay in keys() until the next selection, only the valid keys are pending attempts
+                if (nextDeadline == Long.MAX_VALUE) {
+                    synchronized (this) {
+                        if (registrations.isEmpty() && now - idleSince >= IDLE_TIMEOUT_IN_MS) {
+                            selector = null;
+                            return;
+                        }
+                    }
+                    timeout = Math.max(1, idleSince + IDLE_TIMEOUT_IN_MS - now);
+                } else {
+                    idleSince = now;
+                    timeout = Math.max(1, nextDeadline - now);
+                }
+                localSelector.select(timeout);
+
+                Iterator<SelectionKey> iterator = localSelector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    finishConnect(key);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("TCP presence detection failed", e);
+            synchronized (this) {
+                selector = null;
+            }
+            for (SelectionKey key : localSelector.keys()) {
+                PendingConnect pending = (PendingConnect) key.attachment();
+                pending.future.completeExceptionally(e);
+                close(pending.channel);
+            }
+            PendingConnect pending;
+            while ((pending = registrations.poll()) != null) {
+                pending.future.completeExceptionally(e);
+                close(pending.channel);
+            }
+        } finally {
+            try {
+                localSelector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void register(Selector localSelector) throws IOException {
+        PendingConnect pending;
+        while ((pending = registrations.poll()) != null) {
+            pending.channel.register(localSelector, SelectionKey.OP_CONNECT, pending);
+        }
+    }
+
+    private void finishConnect(SelectionKey key) {
+        PendingConnect pending = (PendingConnect) key.attachment();
+        try {
+            if (pending.channel.finishConnect()) {
+                pending.future.complete(true);
+            } else {
+                return;
+            }
+        } catch (ConnectException | NoRouteToHostException e) {
+            pending.future.complete(false);
+        } catch (IOException e) {
+            pending.future.completeExceptionally(e);
+        }
+        key.cancel();
+        close(pending.channel);
+    }
+
+    /**
+     * Completes all connection attempts that have timed out
+     *
+     * @return the earliest deadline of the remaining attempts, {@link Long#MAX_VALUE} if there are none
+     */
+    private long expire(Selector localSelector, long now) {
+        long nextDeadline = Long.MAX_VALUE;
+        for (SelectionKey key : localSelector.keys()) {
+            if (!key.isValid()) {
+                continue;
+            }
+            PendingConnect pending = (PendingConnect) key.attachment();
+            if (pending.deadline <= now || pending.future.isDone()) {
+                pending.future.complete(false);
+                key.cancel();
+                close(pending.channel);
+            } else {
+                nextDeadline = Math.min(nextDeadline, pending.deadline);
+            }
+        }
+        return nextDeadline;
+    }
+
+    private void close(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.trace("Closing connection failed", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@see NetworkSweep}
+ *
+ * @author agent - Initial contribution
+ */
+public class NetworkSweepTest {
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static List<String> addresses(int count) {
+        List<String> addresses = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            addresses.add("192.168.1." + i);
+        }
+        return addresses;
+    }
+
+    @Test
+    public void allAddressesAreProbedInBoundedWaves() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<String> probed = new ArrayList<>();
+
+        NetworkSweep sweep = new NetworkSweep(addresses(50).iterator(), scheduler, (address, done) -> {
+            synchronized (probed) {
+                probed.add(address);
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            scheduler.schedule(() -> {
+                inFlight.decrementAndGet();
+                done.run();
+            }, 5, TimeUnit.MILLISECONDS);
+            return true;
+        }, finished::countDown, 8, 0, 10000);
+        sweep.start();
+
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertThat(probed, is(addresses(50)));
+        assertTrue(maxInFlight.get() <= 8);
+        assertThat(sweep.getProbed(), is(50L));
+        assertTrue(sweep.isFinished());
+    }
+
+    @Test
+    public void unfinishedWaveTimesOut() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        NetworkSweep sweep = new NetworkSweep(addresses(6).iterator(), scheduler, (address, done) -> true,
+                finished::countDown, 3, 0, 50);
+        sweep.start();
+
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertThat(sweep.getProbed(), is(6L));
+    }
+
+    @Test
+    public void cancelStopsProbing() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicInteger probed = new AtomicInteger();
+        NetworkSweep sweep = new NetworkSweep(addresses(100).iterator(), scheduler, (address, done) -> {
+            probed.incrementAndGet();
+            return false;
+        }, finished::countDown, 10, 10000, 10000);
+        sweep.start();
+        sweep.cancel();
+
+        assertFalse(finished.await(100, TimeUnit.MILLISECONDS));
+        assertThat(probed.get(), is(10));
+        assertTrue(sweep.isFinished());
+    }
+}
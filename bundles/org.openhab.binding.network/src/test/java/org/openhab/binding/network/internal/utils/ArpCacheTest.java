@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@see ArpCache}
+ *
+ * @author agent - Initial contribution
+ */
+public class ArpCacheTest {
+    @Test
+    public void parseArpTable() {
+        Map<String, String> interfaces = ArpCache.parse(Arrays.asList(
+                "IP address       HW type     Flags       HW address            Mask     Device",
+                "192.168.1.1      0x1         0x2         a0:b1:c2:d3:e4:f5     *        eth0",
+                "192.168.1.20     0x1         0x0         00:00:00:00:00:00     *        eth0",
+                "10.0.0.5         0x1         0x6         01:23:45:67:89:ab     *        wlan0",
+                "invalid line"));
+
+        assertThat(interfaces.size(), is(2));
+        assertThat(interfaces.get("192.168.1.1"), is("eth0"));
+        assertThat(interfaces.get("10.0.0.5"), is("wlan0"));
+        assertNull(interfaces.get("192.168.1.20"));
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openhab.binding.network.internal.utils.PresenceEngine.ProbeResult;
+
+/**
+ * Tests cases for {@see PresenceEngine}
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceEngineTest {
+    private final PresenceEngine engine = new PresenceEngine(4);
+
+    @Test
+    public void resultsAreCached() throws IOException, InterruptedException {
+        AtomicInteger count = new AtomicInteger();
+
+        ProbeResult first = engine.probe("icmp 127.0.0.1", 10000, () -> count.incrementAndGet() > 0);
+        ProbeResult second = engine.probe("icmp 127.0.0.1", 10000, () -> count.incrementAndGet() > 0);
+        assertTrue(first.isReachable());
+        assertSame(first, second);
+        assertThat(count.get(), is(1));
+
+        // other probes and outdated results are performed again
+        engine.probe("icmp 127.0.0.2", 10000, () -> count.incrementAndGet() > 0);
+        assertThat(count.get(), is(2));
+        engine.probe("icmp 127.0.0.1", -1, () -> count.incrementAndGet() > 0);
+        assertThat(count.get(), is(3));
+    }
+
+    @Test
+    public void failuresAreNotCached() throws InterruptedException {
+        try {
+            engine.probe("icmp 127.0.0.1", 10000, () -> {
+                throw new IOException("no ping");
+            });
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), is("no ping"));
+        }
+        try {
+            assertFalse(engine.probe("icmp 127.0.0.1", 10000, () -> false).isReachable());
+        } catch (IOException e) {
+            fail("Failure was cached");
+        }
+    }
+
+    @Test
+    public void concurrentProbesAreCoalesced() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService group = engine.newProbeGroup();
+
+        Future<ProbeResult> first = group.submit(() -> engine.probe("tcp 127.0.0.1:80", 10000, () -> {
+            count.incrementAndGet();
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<ProbeResult> second = group.submit(() -> engine.probe("tcp 127.0.0.1:80", 10000, () -> {
+            count.incrementAndGet();
+            return false;
+        }));
+        release.countDown();
+
+        assertTrue(first.get(5, TimeUnit.SECONDS).isReachable());
+        assertTrue(second.get(5, TimeUnit.SECONDS).isReachable());
+        assertThat(count.get(), is(1));
+    }
+
+    @Test
+    public void asyncProbesAreCoalescedWithoutBlocking() throws Exception {
+        CompletableFuture<Boolean> connect = new CompletableFuture<>();
+        AtomicInteger count = new AtomicInteger();
+
+        CompletableFuture<ProbeResult> first = engine.probeAsync("tcp 127.0.0.1:80", 10000, () -> {
+            count.incrementAndGet();
+            return connect;
+        });
+        CompletableFuture<ProbeResult> second = engine.probeAsync("tcp 127.0.0.1:80", 10000, () -> {
+            count.incrementAndGet();
+            return CompletableFuture.completedFuture(false);
+        });
+        assertFalse(first.isDone());
+
+        connect.complete(true);
+        assertTrue(first.get(5, TimeUnit.SECONDS).isReachable());
+        assertSame(first.get(), second.get(5, TimeUnit.SECONDS));
+        assertThat(count.get(), is(1));
+    }
+
+    @Test
+    public void asyncFailuresAreNotCached() throws Exception {
+        CompletableFuture<ProbeResult> failed = engine.probeAsync("tcp 127.0.0.1:80", 10000, () -> {
+            throw new IOException("no connection");
+        });
+        try {
+            failed.get(5, TimeUnit.SECONDS);
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage(), is("no connection"));
+        }
+
+        ProbeResult result = engine
+                .probeAsync("tcp 127.0.0.1:80", 10000, () -> CompletableFuture.completedFuture(false))
+                .get(5, TimeUnit.SECONDS);
+        assertFalse(result.isReachable());
+    }
+
+    @Test
+    public void probeGroupShutdownNowInterruptsOnlyItsTasks() throws Exception {
+        ExecutorService group = engine.newProbeGroup();
+        ExecutorService otherGroup = engine.newProbeGroup();
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger otherInterrupted = new AtomicInteger();
+
+        group.execute(() -> {
+            running.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        otherGroup.execute(() -> {
+            running.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                otherInterrupted.incrementAndGet();
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        group.shutdownNow();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(group.awaitTermination(5, TimeUnit.SECONDS));
+
+        otherGroup.shutdown();
+        assertTrue(otherGroup.awaitTermination(5, TimeUnit.SECONDS));
+        assertThat(otherInterrupted.get(), is(0));
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.smarthome.core.net.CidrAddress;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@see SubnetAddressIterator}
+ *
+ * @author agent - Initial contribution
+ */
+public class SubnetAddressIteratorTest {
+    private static CidrAddress cidr(String address, int prefix) throws UnknownHostException {
+        return new CidrAddress(InetAddress.getByName(address), (short) prefix);
+    }
+
+    private static void assertSameAsNetworkIPs(Set<CidrAddress> interfaceIPs, int maximumPerInterface) {
+        Set<String> expected = new NetworkUtils().getNetworkIPs(interfaceIPs, maximumPerInterface);
+        SubnetAddressIterator iterator = new SubnetAddressIterator(interfaceIPs,
+                NetworkUtils.getMinCidrPrefixLength(maximumPerInterface), maximumPerInterface);
+        long size = iterator.size();
+        List<String> actual = new ArrayList<>();
+        iterator.forEachRemaining(actual::add);
+
+        assertThat(actual, is(new ArrayList<>(expected)));
+        assertThat(size, is((long) expected.size()));
+    }
+
+    @Test
+    public void sameAddressesAsNetworkIPs() throws UnknownHostException {
+        assertSameAsNetworkIPs(new LinkedHashSet<>(Arrays.asList(cidr("192.168.1.17", 24))), 255);
+        assertSameAsNetworkIPs(new LinkedHashSet<>(Arrays.asList(cidr("192.168.1.17", 24))), 10);
+        assertSameAsNetworkIPs(new LinkedHashSet<>(Arrays.asList(cidr("10.0.0.5", 30), cidr("10.0.1.5", 32))), 255);
+        assertSameAsNetworkIPs(new LinkedHashSet<>(Arrays.asList(cidr("172.16.5.3", 16))), 255);
+        assertSameAsNetworkIPs(new LinkedHashSet<>(Arrays.asList(cidr("10.1.2.3", 20))), 0);
+    }
+
+    @Test
+    public void subnetOfSeveralInterfacesIsReturnedOnce() throws UnknownHostException {
+        SubnetAddressIterator iterator = new SubnetAddressIterator(
+                new LinkedHashSet<>(Arrays.asList(cidr("192.168.1.17", 24), cidr("192.168.1.18", 24))), 24, 255);
+        assertThat(iterator.size(), is(254L));
+        assertThat(iterator.next(), is("192.168.1.1"));
+    }
+
+    @Test
+    public void ipv6AddressesAreIgnored() throws UnknownHostException {
+        SubnetAddressIterator iterator = new SubnetAddressIterator(
+                new LinkedHashSet<>(Arrays.asList(cidr("fe80::1", 64))), 24, 255);
+        assertFalse(iterator.hasNext());
+        assertThat(iterator.size(), is(0L));
+    }
+}
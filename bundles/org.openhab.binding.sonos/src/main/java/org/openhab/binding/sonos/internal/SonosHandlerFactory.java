@@ -89,6 +89,12 @@ public class SonosHandlerFactory extends BaseThingHandlerFactory {
         callbackUrl = (String) properties.get("callbackUrl");
     }
 
+    @Override
+    protected void deactivate(ComponentContext componentContext) {
+        SonosXMLParser.clearCaches();
+        super.deactivate(componentContext);
+    }
+
     @Override
     public Thing createThing(ThingTypeUID thingTypeUID, Configuration configuration, ThingUID thingUID,
             ThingUID bridgeUID) {
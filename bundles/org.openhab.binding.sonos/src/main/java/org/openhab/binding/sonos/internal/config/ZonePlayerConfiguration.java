@@ -22,10 +22,12 @@ public class ZonePlayerConfiguration {
     public static final String REFRESH = "refresh";
     public static final String NOTIFICATION_TIMEOUT = "notificationTimeout";
     public static final String NOTIFICATION_VOLUME = "notificationVolume";
+    public static final String EVENT_DRIVEN = "eventDriven";
 
     public String udn;
     public Integer refresh;
     public Integer notificationTimeout;
     public Integer notificationVolume;
+    public Boolean eventDriven;
 
 }
@@ -26,9 +26,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -109,6 +111,28 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             "ZoneGroupTopology", "GroupManagement", "RenderingControl", "AudioIn", "HTControl", "ContentDirectory");
     private Map<String, Boolean> subscriptionState = new HashMap<String, Boolean>();
     protected static final int SUBSCRIPTION_DURATION = 1800;
+
+    /**
+     * Subscriptions carrying the state otherwise polled, they must be confirmed before polling is suspended
+     */
+    private static final Collection<String> EVENT_DRIVEN_SUBSCRIPTIONS = Arrays.asList("DeviceProperties",
+            "AVTransport", "ZoneGroupTopology", "RenderingControl");
+
+    /**
+     * Services whose subscription was confirmed by the UPnP service
+     */
+    private Set<String> confirmedSubscriptions = new HashSet<String>();
+
+    /**
+     * Whether polling is suspended while the subscriptions are healthy
+     */
+    private boolean eventDriven = true;
+
+    /**
+     * Time of the last full poll, even with healthy subscriptions a full poll is done once per subscription duration
+     */
+    private volatile long lastPollTime;
+
     private static final int SOCKET_TIMEOUT = 5000;
 
     /**
@@ -138,6 +162,12 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
     private final Map<String, String> stateMap = Collections.synchronizedMap(new HashMap<String, String>());
 
+    /**
+     * Variables of AVTransport events the media information is derived from
+     */
+    private static final Set<String> MEDIA_INFORMATION_VARIABLES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("AVTransportURI", "AVTransportURIMetaData", "CurrentTrackMetaData", "CurrentTrackURI")));
+
     private List<SonosMusicService> musicServices;
 
     private final Object upnpLock = new Object();
@@ -156,9 +186,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                 logger.debug("UPnP device {} not yet registered", getUDN());
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                         "@text/offline.upnp-device-not-registered [\"" + getUDN() + "\"]");
-                synchronized (upnpLock) {
-                    subscriptionState = new HashMap<String, Boolean>();
-                }
+                resetSubscriptionState();
                 return;
             }
 
@@ -169,11 +197,23 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                 return;
             }
 
+            // The remaining sleep time is not sent by events, it is polled in any case.
+            // It is a state of the zone group, the coordinator polls it and updates its members
+            if (!isGroupStateUpdatedByCoordinator()) {
+                updateSleepTimerDuration();
+            }
+
+            // The rest of the state is kept up to date by the GENA events, no need to poll it
+            if (hasHealthySubscriptions()) {
+                logger.trace("{}: Subscriptions are healthy, skipping poll of the evented state", getUDN());
+                return;
+            }
+            lastPollTime = System.currentTimeMillis();
+
             addSubscription();
 
             updateZoneInfo();
             updateLed();
-            updateSleepTimerDuration();
         } catch (Exception e) {
             logger.debug("Exception during poll: {}", e.getMessage(), e);
         }
@@ -219,7 +259,9 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             service.registerParticipant(this);
             onUpdate();
 
-            this.notificationTimeout = getConfigAs(ZonePlayerConfiguration.class).notificationTimeout;
+            ZonePlayerConfiguration config = getConfigAs(ZonePlayerConfiguration.class);
+            this.eventDriven = config.eventDriven == null || config.eventDriven.booleanValue();
+            this.notificationTimeout = config.notificationTimeout;
             if (this.notificationTimeout == null) {
                 this.notificationTimeout = DEFAULT_NOTIFICATION_TIMEOUT;
             }
@@ -388,7 +430,12 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             // pre-process some variables, eg XML processing
             if (service.equals("AVTransport") && variable.equals("LastChange")) {
                 Map<String, String> parsedValues = SonosXMLParser.getAVTransportFromXML(value);
+                boolean mediaInformationChanged = false;
                 for (String parsedValue : parsedValues.keySet()) {
+                    if (MEDIA_INFORMATION_VARIABLES.contains(parsedValue)
+                            && hasValueChanged(parsedValues.get(parsedValue), stateMap.get(parsedValue))) {
+                        mediaInformationChanged = true;
+                    }
                     // Update the transport state after the update of the media information
                     // to not break the notification mechanism
                     if (!parsedValue.equals("TransportState")) {
@@ -402,7 +449,11 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                         onValueReceived("CurrentURIMetaData", parsedValues.get(parsedValue), service);
                     }
                 }
-                updateMediaInformation();
+                // Most events only report the elapsed track time, the media information is only updated when it has
+                // changed
+                if (mediaInformationChanged) {
+                    updateMediaInformation();
+                }
                 if (parsedValues.get("TransportState") != null) {
                     onValueReceived("TransportState", parsedValues.get("TransportState"), "AVTransport");
                 }
@@ -524,6 +575,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                                     ? new DecimalType(
                                             sleepStrTimeToSeconds(stateMap.get("RemainingSleepTimerDuration")))
                                     : UnDefType.UNDEF);
+                    dispatchOnAllGroupMembers(variable, value, service);
                     break;
                 case "CurrentTuneInStationId":
                     updateChannel(TUNEINSTATIONID);
@@ -845,14 +897,94 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                 }
             }
             subscriptionState = new HashMap<String, Boolean>();
+            confirmedSubscriptions = new HashSet<String>();
+        }
+    }
+
+    private void resetSubscriptionState() {
+        synchronized (upnpLock) {
+            subscriptionState = new HashMap<String, Boolean>();
+            confirmedSubscriptions = new HashSet<String>();
         }
     }
 
     @Override
     public void onServiceSubscribed(String service, boolean succeeded) {
+        boolean lost = false;
         synchronized (upnpLock) {
             logger.debug("{}: Subscription to service {} {}", getUDN(), service, succeeded ? "succeeded" : "failed");
             subscriptionState.put(service, succeeded);
+            if (succeeded) {
+                confirmedSubscriptions.add(service);
+            } else {
+                lost = confirmedSubscriptions.remove(service);
+            }
+        }
+        // The renewal of a confirmed subscription failed, fall back to polling right away
+        if (lost && pollingJob != null && !pollingJob.isCancelled()) {
+            scheduler.execute(pollingRunnable);
+        }
+    }
+
+    /**
+     * Check whether the state of the player is kept up to date by the GENA events, so polling it can be suspended.
+     *
+     * @return true if polling of the evented state can be skipped
+     */
+    private boolean hasHealthySubscriptions() {
+        synchronized (upnpLock) {
+            return isPollingSuspendable(eventDriven, getThing().getStatus() == ThingStatus.ONLINE,
+                    System.currentTimeMillis() - lastPollTime, subscriptionState, confirmedSubscriptions);
+        }
+    }
+
+    /**
+     * Decide whether polling of the evented state can be suspended.
+     *
+     * The subscriptions are healthy when the subscriptions carrying the polled state have been confirmed and none
+     * of them failed since. The UPnP service renews the subscriptions and reports a failed renewal through
+     * {@link #onServiceSubscribed(String, boolean)}. Still, a full poll is done once per subscription duration, to
+     * verify the player and to catch events lost in the network.
+     *
+     * @param eventDriven whether polling may be suspended at all
+     * @param online whether the player is online
+     * @param millisSinceFullPoll time since the last full poll
+     * @param subscriptionState the result of the last subscription or renewal per service
+     * @param confirmedSubscriptions the services whose subscription was confirmed
+     * @return true if polling of the evented state can be skipped
+     */
+    static boolean isPollingSuspendable(boolean eventDriven, boolean online, long millisSinceFullPoll,
+            Map<String, Boolean> subscriptionState, Set<String> confirmedSubscriptions) {
+        if (!eventDriven || !online) {
+            return false;
+        }
+        if (millisSinceFullPoll >= TimeUnit.SECONDS.toMillis(SUBSCRIPTION_DURATION)) {
+            return false;
+        }
+        for (String subscription : EVENT_DRIVEN_SUBSCRIPTIONS) {
+            Boolean state = subscriptionState.get(subscription);
+            if (state == null || !state.booleanValue() || !confirmedSubscriptions.contains(subscription)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the state of the zone group is fetched by the coordinator and dispatched to this player, so
+     * it is fetched only once per zone group.
+     *
+     * @return true if this player is a group member whose coordinator is handled and online
+     */
+    private boolean isGroupStateUpdatedByCoordinator() {
+        if (isCoordinator()) {
+            return false;
+        }
+        try {
+            ZonePlayerHandler coordinator = getCoordinatorHandler();
+            return coordinator != null && ThingStatus.ONLINE.equals(coordinator.getThing().getStatus());
+        } catch (IllegalStateException e) {
+            return false;
         }
     }
 
@@ -875,9 +1007,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                 logger.debug("Sonos player {} is not available in local network", getUDN());
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                         "@text/offline.not-available-on-network [\"" + getUDN() + "\"]");
-                synchronized (upnpLock) {
-                    subscriptionState = new HashMap<String, Boolean>();
-                }
+                resetSubscriptionState();
             }
         } else if (!ThingStatus.ONLINE.equals(getThing().getStatus())) {
             logger.debug("Sonos player {} has been found in local network", getUDN());
@@ -2935,6 +3065,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             }
         } else {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.COMMUNICATION_ERROR);
+            resetSubscriptionState();
         }
     }
 
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal.handler;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the decision of the {@link ZonePlayerHandler} to suspend and resume polling.
+ *
+ * @author agent - Initial contribution
+ */
+public class ZonePlayerHandlerTest {
+
+    private static final List<String> EVENTED_SERVICES = Arrays.asList("DeviceProperties", "AVTransport",
+            "ZoneGroupTopology", "RenderingControl");
+
+    private final Map<String, Boolean> subscriptionState = new HashMap<>();
+    private final Set<String> confirmedSubscriptions = new HashSet<>();
+
+    @Before
+    public void setUp() {
+        for (String service : EVENTED_SERVICES) {
+            subscriptionState.put(service, true);
+            confirmedSubscriptions.add(service);
+        }
+    }
+
+    @Test
+    public void pollingIsSuspendedWithHealthySubscriptions() {
+        assertTrue(isPollingSuspendable(true, true, 0));
+    }
+
+    @Test
+    public void pollingIsNotSuspendedWhenDisabledOrOffline() {
+        assertFalse(isPollingSuspendable(false, true, 0));
+        assertFalse(isPollingSuspendable(true, false, 0));
+    }
+
+    @Test
+    public void pollingResumesWhenASubscriptionIsMissingOrFails() {
+        confirmedSubscriptions.remove("RenderingControl");
+        assertFalse(isPollingSuspendable(true, true, 0));
+
+        confirmedSubscriptions.add("RenderingControl");
+        subscriptionState.put("AVTransport", false);
+        assertFalse(isPollingSuspendable(true, true, 0));
+
+        subscriptionState.remove("AVTransport");
+        assertFalse(isPollingSuspendable(true, true, 0));
+    }
+
+    @Test
+    public void otherSubscriptionsDoNotAffectTheDecision() {
+        subscriptionState.put("AudioIn", false);
+        assertTrue(isPollingSuspendable(true, true, 0));
+    }
+
+    @Test
+    public void fullPollIsDoneOncePerSubscriptionDuration() {
+        long subscriptionDuration = TimeUnit.SECONDS.toMillis(ZonePlayerHandler.SUBSCRIPTION_DURATION);
+        assertTrue(isPollingSuspendable(true, true, subscriptionDuration - 1));
+        assertFalse(isPollingSuspendable(true, true, subscriptionDuration));
+    }
+
+    private boolean isPollingSuspendable(boolean eventDriven, boolean online, long millisSinceFullPoll) {
+        return ZonePlayerHandler.isPollingSuspendable(eventDriven, online, millisSinceFullPoll, subscriptionState,
+                confirmedSubscriptions);
+    }
+}
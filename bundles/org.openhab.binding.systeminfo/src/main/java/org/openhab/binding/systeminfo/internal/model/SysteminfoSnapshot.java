@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.systeminfo.internal.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Values of the system, sampled at most once during the lifetime of a snapshot.
+ *
+ * A snapshot is shared by all channels of all things refreshed at the same time. Each value is sampled on its first
+ * use, later uses get the same value. This way related channels (e.g. used and available memory) are consistent, and
+ * every native or proc file system query is done at most once per refresh.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SysteminfoSnapshot {
+
+    private final long createdAtNanos;
+    private final long maxAgeInNanos;
+
+    /** guarded by this */
+    private final Map<String, Object> values = new HashMap<>();
+    /** guarded by this */
+    private long sampleTimeInNanos;
+    /** guarded by this */
+    private int reads;
+
+    /**
+     * @param maxAgeInMS time after which the snapshot is expired
+     */
+    public SysteminfoSnapshot(long maxAgeInMS) {
+        this.createdAtNanos = System.nanoTime();
+        this.maxAgeInNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeInMS);
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - createdAtNanos >= maxAgeInNanos;
+    }
+
+    /**
+     * Get a value of the snapshot, sampling it on the first use
+     *
+     * @param key unique key of the value
+     * @param sampler samples the value. Must not return null.
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(String key, Supplier<T> sampler) {
+        reads++;
+        Object value = values.get(key);
+        if (value == null) {
+            long start = System.nanoTime();
+            value = sampler.get();
+            sampleTimeInNanos += System.nanoTime() - start;
+            values.put(key, value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * @return the number of values sampled
+     */
+    public synchronized int getSampledValues() {
+        return values.size();
+    }
+
+    /**
+     * @return the number of reads served by this snapshot
+     */
+    public synchronized int getReads() {
+        return reads;
+    }
+
+    /**
+     * @return the total time spent sampling values, in nanoseconds
+     */
+    public synchronized long getSampleTimeInNanos() {
+        return sampleTimeInNanos;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.systeminfo.internal.model;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link SysteminfoSnapshot} and its use by {@link OSHISysteminfo}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SysteminfoSnapshotTest {
+
+    @Test
+    public void valuesAreSampledOncePerSnapshot() {
+        SysteminfoSnapshot snapshot = new SysteminfoSnapshot(10000);
+        AtomicInteger samples = new AtomicInteger();
+
+        long[] first = snapshot.get("memory", () -> new long[] { samples.incrementAndGet(), 1 });
+        long[] second = snapshot.get("memory", () -> new long[] { samples.incrementAndGet(), 2 });
+        Integer other = snapshot.get("threadCount", samples::incrementAndGet);
+
+        assertSame(first, second);
+        assertThat(other, is(2));
+        assertThat(samples.get(), is(2));
+        assertThat(snapshot.getSampledValues(), is(2));
+        assertThat(snapshot.getReads(), is(3));
+        assertFalse(snapshot.isExpired());
+    }
+
+    @Test
+    public void snapshotExpiresAfterMaxAge() throws InterruptedException {
+        SysteminfoSnapshot snapshot = new SysteminfoSnapshot(20);
+        assertFalse(snapshot.isExpired());
+
+        Thread.sleep(40);
+        assertTrue(snapshot.isExpired());
+    }
+
+    @Test
+    public void snapshotIsSharedUntilExpiredAndThenRefreshed() throws InterruptedException {
+        OSHISysteminfo systeminfo = new OSHISysteminfo();
+
+        SysteminfoSnapshot first = systeminfo.getSnapshot();
+        first.get("memory", () -> new long[] { 1, 1 });
+        assertSame(first, systeminfo.getSnapshot());
+        first.get("memory", () -> new long[] { 2, 2 });
+        assertThat(systeminfo.getSnapshotCount(), is(0L));
+
+        Thread.sleep(OSHISysteminfo.SNAPSHOT_MAX_AGE_IN_MS + 50);
+        SysteminfoSnapshot second = systeminfo.getSnapshot();
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getReads(), is(0));
+        assertThat(systeminfo.getSnapshotCount(), is(1L));
+        assertThat(systeminfo.getAverageSnapshotReads(), is(2.0));
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Immutable snapshot of the metrics of a single endpoint, as collected by {@link ModbusManager}
+ *
+ * Latencies and counters are cumulative since the manager was activated. Use
+ * {@link ModbusLatencyHistogram#since(ModbusLatencyHistogram)} to get the latencies of a given time window.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusEndpointMetrics {
+
+    /**
+     * Metrics of an endpoint without any operations
+     */
+    public static final ModbusEndpointMetrics EMPTY = new ModbusEndpointMetrics(ModbusLatencyHistogram.EMPTY,
+            ModbusLatencyHistogram.EMPTY, ModbusLatencyHistogram.EMPTY, ModbusLatencyHistogram.EMPTY, 0, 0, 0, 0, 0, 0,
+            0, 0);
+
+    private final ModbusLatencyHistogram connectionTime;
+    private final ModbusLatencyHistogram transactionTime;
+    private final ModbusLatencyHistogram interTransactionWait;
+    private final ModbusLatencyHistogram callbackTime;
+    private final int queueDepth;
+    private final int largestQueueDepth;
+    private final long operations;
+    private final long failedOperations;
+    private final long connectionErrors;
+    private final long ioErrors;
+    private final long slaveErrors;
+    private final long unexpectedTransactionIdErrors;
+
+    public ModbusEndpointMetrics(ModbusLatencyHistogram connectionTime, ModbusLatencyHistogram transactionTime,
+            ModbusLatencyHistogram interTransactionWait, ModbusLatencyHistogram callbackTime, int queueDepth,
+            int largestQueueDepth, long operations, long failedOperations, long connectionErrors, long ioErrors,
+            long slaveErrors, long unexpectedTransactionIdErrors) {
+        this.connectionTime = connectionTime;
+        this.transactionTime = transactionTime;
+        this.interTransactionWait = interTransactionWait;
+        this.callbackTime = callbackTime;
+        this.queueDepth = queueDepth;
+        this.largestQueueDepth = largestQueueDepth;
+        this.operations = operations;
+        this.failedOperations = failedOperations;
+        this.connectionErrors = connectionErrors;
+        this.ioErrors = ioErrors;
+        this.slaveErrors = slaveErrors;
+        this.unexpectedTransactionIdErrors = unexpectedTransactionIdErrors;
+    }
+
+    /**
+     * @return time spent waiting for a connection to the endpoint, including establishing the connection
+     */
+    public ModbusLatencyHistogram getConnectionTime() {
+        return connectionTime;
+    }
+
+    /**
+     * @return time spent executing single transactions, i.e. sending the request and waiting for the response
+     */
+    public ModbusLatencyHistogram getTransactionTime() {
+        return transactionTime;
+    }
+
+    /**
+     * @return time spent waiting to respect the delay between transactions, including the delay between retries
+     */
+    public ModbusLatencyHistogram getInterTransactionWait() {
+        return interTransactionWait;
+    }
+
+    /**
+     * @return time spent in the callbacks of the operations
+     */
+    public ModbusLatencyHistogram getCallbackTime() {
+        return callbackTime;
+    }
+
+    /**
+     * @return number of operations currently waiting for a connection or executing
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return largest number of operations that have been waiting or executing at the same time
+     */
+    public int getLargestQueueDepth() {
+        return largestQueueDepth;
+    }
+
+    /**
+     * @return number of finished read and write operations, including retries only once
+     */
+    public long getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return number of operations that failed after all retries
+     */
+    public long getFailedOperations() {
+        return failedOperations;
+    }
+
+    /**
+     * @return number of times a connection could not be established
+     */
+    public long getConnectionErrors() {
+        return connectionErrors;
+    }
+
+    /**
+     * @return number of transactions failed with I/O errors
+     */
+    public long getIOErrors() {
+        return ioErrors;
+    }
+
+    /**
+     * @return number of transactions answered by the slave with an exception response
+     */
+    public long getSlaveErrors() {
+        return slaveErrors;
+    }
+
+    /**
+     * @return number of transactions where the transaction ID of the response did not match the request
+     */
+    public long getUnexpectedTransactionIdErrors() {
+        return unexpectedTransactionIdErrors;
+    }
+
+    /**
+     * @return total number of errors, including errors of tries that succeeded on retry
+     */
+    public long getErrors() {
+        return connectionErrors + ioErrors + slaveErrors + unexpectedTransactionIdErrors;
+    }
+
+    @Override
+    public String toString() {
+        return "ModbusEndpointMetrics [connectionTime=" + connectionTime + ", transactionTime=" + transactionTime
+                + ", interTransactionWait=" + interTransactionWait + ", callbackTime=" + callbackTime
+                + ", queueDepth=" + queueDepth + ", largestQueueDepth=" + largestQueueDepth + ", operations="
+                + operations + ", failedOperations=" + failedOperations + ", connectionErrors=" + connectionErrors
+                + ", ioErrors=" + ioErrors + ", slaveErrors=" + slaveErrors + ", unexpectedTransactionIdErrors="
+                + unexpectedTransactionIdErrors + "]";
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Immutable snapshot of a latency histogram.
+ *
+ * Latencies are counted in buckets with fixed upper bounds, see {@link #BUCKET_UPPER_BOUNDS_MILLIS}. The last bucket
+ * counts all latencies exceeding the largest bound.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusLatencyHistogram {
+
+    /**
+     * Inclusive upper bounds of the buckets, in milliseconds
+     */
+    public static final long[] BUCKET_UPPER_BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000,
+            10000 };
+
+    /**
+     * Histogram without any recorded latencies
+     */
+    public static final ModbusLatencyHistogram EMPTY = new ModbusLatencyHistogram(
+            new long[BUCKET_UPPER_BOUNDS_MILLIS.length + 1], 0);
+
+    private final long[] bucketCounts;
+    private final long count;
+    private final long sumMillis;
+
+    /**
+     * Construct histogram snapshot
+     *
+     * @param bucketCounts counts of the buckets, one more than {@link #BUCKET_UPPER_BOUNDS_MILLIS} has bounds
+     * @param sumMillis sum of all the recorded latencies
+     */
+    public ModbusLatencyHistogram(long[] bucketCounts, long sumMillis) {
+        if (bucketCounts.length != BUCKET_UPPER_BOUNDS_MILLIS.length + 1) {
+            throw new IllegalArgumentException("Unexpected number of buckets");
+        }
+        this.bucketCounts = bucketCounts.clone();
+        this.count = Arrays.stream(bucketCounts).sum();
+        this.sumMillis = sumMillis;
+    }
+
+    /**
+     * Find the bucket of a latency
+     *
+     * @param millis latency in milliseconds
+     * @return index of the bucket
+     */
+    public static int bucketOf(long millis) {
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MILLIS.length; i++) {
+            if (millis <= BUCKET_UPPER_BOUNDS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_UPPER_BOUNDS_MILLIS.length;
+    }
+
+    /**
+     * @return number of recorded latencies
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return sum of the recorded latencies in milliseconds
+     */
+    public long getSumMillis() {
+        return sumMillis;
+    }
+
+    /**
+     * @return mean latency in milliseconds, or zero if nothing has been recorded
+     */
+    public double getMeanMillis() {
+        return count == 0 ? 0 : (double) sumMillis / count;
+    }
+
+    /**
+     * @return copy of the bucket counts
+     */
+    public long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    /**
+     * Estimate a percentile of the latencies. The estimate is the upper bound of the bucket containing the percentile,
+     * i.e. the true value is at most the returned value. Percentiles in the last, unbounded, bucket are reported as
+     * the largest bound.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return percentile in milliseconds, or zero if nothing has been recorded
+     */
+    public long getPercentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MILLIS.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return BUCKET_UPPER_BOUNDS_MILLIS[i];
+            }
+        }
+        return BUCKET_UPPER_BOUNDS_MILLIS[BUCKET_UPPER_BOUNDS_MILLIS.length - 1];
+    }
+
+    /**
+     * Histogram of the latencies recorded after an earlier snapshot of the same histogram
+     *
+     * @param earlier earlier snapshot
+     * @return histogram of the latencies recorded in between
+     */
+    public ModbusLatencyHistogram since(ModbusLatencyHistogram earlier) {
+        long[] difference = new long[bucketCounts.length];
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] = Math.max(0, bucketCounts[i] - earlier.bucketCounts[i]);
+        }
+        return new ModbusLatencyHistogram(difference, Math.max(0, sumMillis - earlier.sumMillis));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModbusLatencyHistogram [count=%d, mean=%.1fms, p50=%dms, p95=%dms, p99=%dms]", count,
+                getMeanMillis(), getPercentileMillis(50), getPercentileMillis(95), getPercentileMillis(99));
+    }
+}
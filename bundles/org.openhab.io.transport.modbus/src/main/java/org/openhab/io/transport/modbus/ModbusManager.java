@@ -41,6 +41,11 @@ public interface ModbusManager {
      * Register regularly polled task. The method returns immediately, and the execution of the poll task will happen in
      * the background.
      *
+     * Tasks of the same endpoint with the same poll period are executed together. If enabled with
+     * {@link EndpointPoolConfiguration#setCoalescePolls(boolean)}, reads of the same slave and function code covering
+     * adjacent or overlapping ranges are coalesced into a single transaction, and the callbacks receive their own part
+     * of the data. If a coalesced read fails, the tasks are executed one by one instead.
+     *
      * @param task
      * @return
      */
@@ -83,6 +88,15 @@ public interface ModbusManager {
      */
     public @Nullable EndpointPoolConfiguration getEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint);
 
+    /**
+     * Get latency and error metrics of an endpoint
+     *
+     * @param endpoint endpoint to query
+     * @return snapshot of the metrics collected since the manager was activated. Endpoints without any operations
+     *         report {@link ModbusEndpointMetrics#EMPTY}.
+     */
+    public ModbusEndpointMetrics getEndpointMetrics(ModbusSlaveEndpoint endpoint);
+
     /**
      * Register listener for changes
      *
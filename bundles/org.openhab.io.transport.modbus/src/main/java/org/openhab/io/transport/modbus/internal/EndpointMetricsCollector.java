@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+
+/**
+ * Collects the metrics of a single endpoint. Thread safe and lock free, so that recording does not slow down the
+ * operations.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointMetricsCollector {
+
+    /**
+     * Lock free latency histogram
+     */
+    public static class LatencyRecorder {
+        private final AtomicLongArray buckets = new AtomicLongArray(
+                ModbusLatencyHistogram.BUCKET_UPPER_BOUNDS_MILLIS.length + 1);
+        private final AtomicLong sumMillis = new AtomicLong();
+
+        public void record(long millis) {
+            long value = Math.max(0, millis);
+            buckets.incrementAndGet(ModbusLatencyHistogram.bucketOf(value));
+            sumMillis.addAndGet(value);
+        }
+
+        public ModbusLatencyHistogram snapshot() {
+            long[] counts = new long[buckets.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+            }
+            return new ModbusLatencyHistogram(counts, sumMillis.get());
+        }
+    }
+
+    public final LatencyRecorder connectionTime = new LatencyRecorder();
+    public final LatencyRecorder transactionTime = new LatencyRecorder();
+    public final LatencyRecorder interTransactionWait = new LatencyRecorder();
+    public final LatencyRecorder callbackTime = new LatencyRecorder();
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger largestQueueDepth = new AtomicInteger();
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong failedOperations = new AtomicLong();
+    private final AtomicLong connectionErrors = new AtomicLong();
+    private final AtomicLong ioErrors = new AtomicLong();
+    private final AtomicLong slaveErrors = new AtomicLong();
+    private final AtomicLong unexpectedTransactionIdErrors = new AtomicLong();
+
+    /**
+     * Record start of an operation
+     */
+    public void operationStarted() {
+        largestQueueDepth.accumulateAndGet(queueDepth.incrementAndGet(), Math::max);
+    }
+
+    /**
+     * Record end of an operation
+     *
+     * @param failed whether the operation failed after all retries
+     */
+    public void operationFinished(boolean failed) {
+        queueDepth.decrementAndGet();
+        operations.incrementAndGet();
+        if (failed) {
+            failedOperations.incrementAndGet();
+        }
+    }
+
+    public void connectionError() {
+        connectionErrors.incrementAndGet();
+    }
+
+    public void ioError() {
+        ioErrors.incrementAndGet();
+    }
+
+    public void slaveError() {
+        slaveErrors.incrementAndGet();
+    }
+
+    public void unexpectedTransactionIdError() {
+        unexpectedTransactionIdErrors.incrementAndGet();
+    }
+
+    public ModbusEndpointMetrics snapshot() {
+        return new ModbusEndpointMetrics(connectionTime.snapshot(), transactionTime.snapshot(),
+                interTransactionWait.snapshot(), callbackTime.snapshot(), queueDepth.get(), largestQueueDepth.get(),
+                operations.get(), failedOperations.get(), connectionErrors.get(), ioErrors.get(), slaveErrors.get(),
+                unexpectedTransactionIdErrors.get());
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -37,11 +38,13 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusSlaveErrorResponseException;
 import org.openhab.io.transport.modbus.ModbusUnexpectedTransactionIdException;
 import org.openhab.io.transport.modbus.ModbusWriteCallback;
 import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
@@ -54,7 +57,10 @@ import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusPollPlanner.PlannedRead;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
+import org.openhab.io.transport.modbus.internal.pooling.ModbusTCPPipeline;
+import org.openhab.io.transport.modbus.internal.pooling.PipelinedTCPConnection;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -91,6 +97,31 @@ public class ModbusManagerImpl implements ModbusManager {
         private static final long serialVersionUID = 6939730579178506885L;
     }
 
+    /**
+     * Regularly polled tasks of an endpoint sharing the same poll period. The tasks are executed together, so that
+     * reads of adjacent or overlapping ranges can be coalesced into a single transaction. Only used for endpoints with
+     * {@link EndpointPoolConfiguration#isCoalescePolls()}, other poll tasks are scheduled one by one.
+     */
+    private static class PollGroup {
+        private final ModbusSlaveEndpoint endpoint;
+        private final long pollPeriodMillis;
+        private final Set<PollTask> tasks = new CopyOnWriteArraySet<>();
+        private @Nullable ScheduledFuture<?> future;
+        /**
+         * Set when the slave rejected a coalesced read with an exception response. Only accessed by the poller.
+         */
+        private boolean coalescingRejected;
+
+        public PollGroup(ModbusSlaveEndpoint endpoint, long pollPeriodMillis) {
+            this.endpoint = endpoint;
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        public boolean matches(ModbusSlaveEndpoint endpoint, long pollPeriodMillis) {
+            return this.endpoint.equals(endpoint) && this.pollPeriodMillis == pollPeriodMillis;
+        }
+    }
+
     @FunctionalInterface
     private interface ModbusOperation<T> {
 
@@ -134,6 +165,38 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Execute single transaction using the connection
+     *
+     * Pipelined connections are shared with other transactions in flight and execute the request themselves. Other
+     * connections are used with a regular jamod transaction.
+     *
+     * @param timer aggregate stop watch for performance profiling
+     * @param endpoint endpoint of the connection
+     * @param connection connection to use
+     * @param libRequest request to execute
+     * @return response to the request
+     * @throws ModbusException on IO errors and slave exception responses
+     */
+    private ModbusResponse executeTransaction(AggregateStopWatch timer, ModbusSlaveEndpoint endpoint,
+            ModbusSlaveConnection connection, ModbusRequest libRequest) throws ModbusException {
+        long start = System.currentTimeMillis();
+        try {
+            if (connection instanceof PipelinedTCPConnection) {
+                PipelinedTCPConnection pipelined = (PipelinedTCPConnection) connection;
+                AtomicReference<@Nullable ModbusResponse> response = new AtomicReference<>();
+                timer.transaction.timeRunnableWithModbusException(() -> response.set(pipelined.execute(libRequest)));
+                return Objects.requireNonNull(response.get());
+            }
+            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
+            transaction.setRequest(libRequest);
+            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
+            return transaction.getResponse();
+        } finally {
+            metricsOf(endpoint).transactionTime.record(System.currentTimeMillis() - start);
+        }
+    }
+
     /**
      * Implementation for the PollTask operation
      *
@@ -149,16 +212,13 @@ public class ModbusManagerImpl implements ModbusManager {
             ModbusReadCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with request request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
             logger.trace("Response for read request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, task, operationId);
@@ -184,17 +244,14 @@ public class ModbusManagerImpl implements ModbusManager {
             ModbusWriteCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with read request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
 
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
             logger.trace("Response for write request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
 
@@ -265,9 +322,19 @@ public class ModbusManagerImpl implements ModbusManager {
      */
     @Nullable
     private volatile KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool;
+    /**
+     * Pipelines of the TCP endpoints configured with more than one concurrent transaction. These endpoints bypass the
+     * connection pool.
+     */
+    private final Map<ModbusSlaveEndpoint, ModbusTCPPipeline> pipelines = new ConcurrentHashMap<>();
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Poll groups of the registered poll tasks. Guarded by this.
+     */
+    private final Map<PollTask, PollGroup> pollTaskGroups = new HashMap<>();
+    private final Map<ModbusSlaveEndpoint, EndpointMetricsCollector> endpointMetrics = new ConcurrentHashMap<>();
     /**
      * Executor for requests
      */
@@ -323,6 +390,8 @@ public class ModbusManagerImpl implements ModbusManager {
             }
 
         });
+        connectionFactory.setInterTransactionWaitListener(
+                (endpoint, waited) -> metricsOf(endpoint).interTransactionWait.record(waited));
         connectionPool = genericKeyedObjectPool;
         this.connectionFactory = connectionFactory;
     }
@@ -335,7 +404,12 @@ public class ModbusManagerImpl implements ModbusManager {
         }
         long start = System.currentTimeMillis();
         try {
-            connection = Optional.ofNullable(pool.borrowObject(endpoint));
+            ModbusTCPPipeline pipeline = pipelines.get(endpoint);
+            if (pipeline != null) {
+                connection = Optional.of(pipeline.borrow());
+            } else {
+                connection = Optional.ofNullable(pool.borrowObject(endpoint));
+            }
         } catch (Exception e) {
             logger.warn("Error getting a new connection for endpoint {}. Error was: {} {}", endpoint,
                     e.getClass().getName(), e.getMessage());
@@ -361,6 +435,10 @@ public class ModbusManagerImpl implements ModbusManager {
         }
         long start = System.currentTimeMillis();
         connection.ifPresent(con -> {
+            if (con instanceof PipelinedTCPConnection) {
+                ((PipelinedTCPConnection) con).release(true);
+                return;
+            }
             try {
                 pool.invalidateObject(endpoint, con);
             } catch (Exception e) {
@@ -379,6 +457,11 @@ public class ModbusManagerImpl implements ModbusManager {
         }
         long start = System.currentTimeMillis();
         connection.ifPresent(con -> {
+            if (con instanceof PipelinedTCPConnection) {
+                ((PipelinedTCPConnection) con).release(false);
+                logger.trace("released pipelined connection for endpoint {}", endpoint);
+                return;
+            }
             try {
                 pool.returnObject(endpoint, con);
                 logger.trace("returned connection to pool for endpoint {}", endpoint);
@@ -421,12 +504,15 @@ public class ModbusManagerImpl implements ModbusManager {
         Optional<ModbusSlaveConnection> connection = timer.connection.timeSupplier(() -> borrowConnection(endpoint));
         logger.trace("Executing task {} (oneOff={})! Connection received in {} ms [operation ID {}]", task, oneOffTask,
                 System.currentTimeMillis() - connectionBorrowStart, operationId);
+        EndpointMetricsCollector metrics = metricsOf(endpoint);
+        metrics.connectionTime.record(System.currentTimeMillis() - connectionBorrowStart);
         if (scheduledThreadPoolExecutor == null) {
             // manager deactivated
             timer.connection.timeRunnable(() -> invalidate(endpoint, connection));
             return Optional.empty();
         }
         if (!connection.isPresent()) {
+            metrics.connectionError();
             logger.warn("Could not connect to endpoint {} -- aborting request {} [operation ID {}]", endpoint, request,
                     operationId);
             if (callback != null) {
@@ -516,6 +602,9 @@ public class ModbusManagerImpl implements ModbusManager {
             throw new IllegalArgumentException("maxTries should be positive");
         }
 
+        EndpointMetricsCollector metrics = metricsOf(endpoint);
+        metrics.operationStarted();
+        boolean succeeded = false;
         Optional<ModbusSlaveConnection> connection = Optional.empty();
         try {
             logger.trace("Starting new operation with task {}. Trying to get connection [operation ID {}]", task,
@@ -566,6 +655,9 @@ public class ModbusManagerImpl implements ModbusManager {
                         "Ensuring that enough time passes before retrying again. Sleeping if necessary [operation ID {}]",
                         operationId);
                 long slept = ModbusSlaveConnectionFactoryImpl.waitAtleast(lastTryMillis, retryDelay);
+                if (lastTryMillis != null) {
+                    metrics.interTransactionWait.record(slept);
+                }
                 logger.trace("Sleep ended, slept {} [operation ID {}]", slept, operationId);
 
                 boolean willRetry = false;
@@ -574,8 +666,10 @@ public class ModbusManagerImpl implements ModbusManager {
                     willRetry = tryIndex < maxTries;
                     operation.accept(timer, task, connection.get());
                     lastError.set(null);
+                    succeeded = true;
                     break;
                 } catch (IOException e) {
+                    metrics.ioError();
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
@@ -593,6 +687,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     connection = Optional.empty();
                     continue;
                 } catch (ModbusIOException e) {
+                    metrics.ioError();
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
@@ -610,6 +705,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     connection = Optional.empty();
                     continue;
                 } catch (ModbusSlaveException e) {
+                    metrics.slaveError();
                     lastError.set(new ModbusSlaveErrorResponseExceptionImpl(e));
                     // Slave returned explicit error response, no reason to re-establish new connection
                     if (willRetry) {
@@ -623,6 +719,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     }
                     continue;
                 } catch (ModbusUnexpectedTransactionIdException e) {
+                    metrics.unexpectedTransactionIdError();
                     lastError.set(e);
                     // transaction error details already logged
                     if (willRetry) {
@@ -686,6 +783,10 @@ public class ModbusManagerImpl implements ModbusManager {
             timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
             timer.suspendAllRunning();
+            if (callback != null) {
+                metrics.callbackTime.record(timer.callback.getTotalTimeMillis());
+            }
+            metrics.operationFinished(!succeeded);
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
         }
     }
@@ -716,23 +817,106 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
-            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                executeOperation(task, false, pollOperation);
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
-            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
-
-            scheduledPollTasks.put(task, future);
+            EndpointPoolConfiguration configuration = getEndpointPoolConfiguration(task.getEndpoint());
+            if (configuration == null || !configuration.isCoalescePolls()) {
+                // independent pollers, a slow slave must not delay the other tasks
+                ScheduledFuture<?> future = executor.scheduleWithFixedDelay(
+                        () -> executePollTask(pollPeriodMillis, task), initialDelayMillis, pollPeriodMillis,
+                        TimeUnit.MILLISECONDS);
+                scheduledPollTasks.put(task, future);
+            } else {
+                PollGroup group = pollTaskGroups.values().stream()
+                        .filter(candidate -> candidate.matches(task.getEndpoint(), pollPeriodMillis)).findFirst()
+                        .orElse(null);
+                if (group == null) {
+                    PollGroup newGroup = new PollGroup(task.getEndpoint(), pollPeriodMillis);
+                    newGroup.future = executor.scheduleWithFixedDelay(() -> executePollGroup(newGroup),
+                            initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+                    group = newGroup;
+                } else {
+                    logger.debug(
+                            "Poll task {} joins the poll group of {} other tasks with the same endpoint and period, its initial delay of {}ms is ignored",
+                            task, group.tasks.size(), initialDelayMillis);
+                }
+                group.tasks.add(task);
+                pollTaskGroups.put(task, group);
+                scheduledPollTasks.put(task, Objects.requireNonNull(group.future));
+            }
             logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
                     initialDelayMillis);
         }
     }
 
+    /**
+     * Execute the tasks of a poll group, coalescing compatible reads
+     *
+     * @param group poll group to execute
+     */
+    private void executePollGroup(PollGroup group) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        EndpointPoolConfiguration configuration = connectionFactory == null ? null
+                : connectionFactory.getEndpointPoolConfiguration(group.endpoint);
+        if (configuration == null || !configuration.isCoalescePolls() || group.coalescingRejected) {
+            for (PollTask task : group.tasks) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                executePollTask(group.pollPeriodMillis, task);
+            }
+            return;
+        }
+        for (PlannedRead read : ModbusPollPlanner.plan(group.tasks)) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (!read.isCoalesced()) {
+                executePollTask(group.pollPeriodMillis, read.getTasks().get(0));
+                continue;
+            }
+            long started = System.currentTimeMillis();
+            logger.debug("Executing scheduled ({}ms) poll tasks {} coalesced into {}. Current millis: {}",
+                    group.pollPeriodMillis, read.getTasks(), read.getRequest(), started);
+            AtomicReference<@Nullable Exception> failure = new AtomicReference<>();
+            // the merged task itself is never registered, the callback skips unregistered tasks instead
+            executeOperation(read.toPollTask(group.endpoint, scheduledPollTasks::containsKey, failure::set), true,
+                    pollOperation);
+            long finished = System.currentTimeMillis();
+            logger.debug(
+                    "Execution of scheduled ({}ms) poll {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                    group.pollPeriodMillis, read, finished, started, finished - started);
+
+            Exception error = failure.get();
+            if (error != null) {
+                if (error instanceof ModbusSlaveErrorResponseException) {
+                    logger.warn(
+                            "Slave {} rejected coalesced read {}, reading the poll tasks with period {}ms one by one from now on: {}",
+                            group.endpoint, read.getRequest(), group.pollPeriodMillis, error.getMessage());
+                    group.coalescingRejected = true;
+                } else {
+                    logger.debug("Coalesced read {} failed, reading the poll tasks one by one: {}", read.getRequest(),
+                            error.getMessage());
+                }
+                // the connection of the merged read has been returned already, so the tasks can borrow it again
+                for (PollTask task : read.getTasks()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    executePollTask(group.pollPeriodMillis, task);
+                }
+            }
+        }
+    }
+
+    private void executePollTask(long pollPeriodMillis, PollTask task) {
+        long started = System.currentTimeMillis();
+        logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task, started);
+        executeOperation(task, false, pollOperation);
+        long finished = System.currentTimeMillis();
+        logger.debug(
+                "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                pollPeriodMillis, task, finished, started, finished - started);
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -756,7 +940,14 @@ public class ModbusManagerImpl implements ModbusManager {
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
+            // the poller is shared by all tasks of the poll group, cancel it only with the last one
+            PollGroup group = pollTaskGroups.remove(task);
+            if (group != null) {
+                group.tasks.remove(task);
+            }
+            if (group == null || group.tasks.isEmpty()) {
+                future.cancel(true);
+            }
 
             logger.info("Poll task {} canceled", task);
 
@@ -795,11 +986,36 @@ public class ModbusManagerImpl implements ModbusManager {
             @Nullable EndpointPoolConfiguration configuration) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
         connectionFactory.setEndpointPoolConfiguration(endpoint, configuration);
+        updatePipeline(endpoint, configuration);
         for (ModbusManagerListener listener : listeners) {
             listener.onEndpointPoolConfigurationSet(endpoint, configuration);
         }
     }
 
+    private void updatePipeline(ModbusSlaveEndpoint endpoint, @Nullable EndpointPoolConfiguration configuration) {
+        ModbusTCPPipeline pipeline = null;
+        if (endpoint instanceof ModbusTCPSlaveEndpoint && configuration != null
+                && configuration.getMaxPipelinedTransactions() > 1) {
+            pipeline = new ModbusTCPPipeline((ModbusTCPSlaveEndpoint) endpoint, configuration);
+            logger.debug("Pipelining up to {} transactions with endpoint {}",
+                    configuration.getMaxPipelinedTransactions(), endpoint);
+        }
+        ModbusTCPPipeline previous = pipeline == null ? pipelines.remove(endpoint) : pipelines.put(endpoint, pipeline);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    @Override
+    public ModbusEndpointMetrics getEndpointMetrics(ModbusSlaveEndpoint endpoint) {
+        EndpointMetricsCollector metrics = endpointMetrics.get(endpoint);
+        return metrics == null ? ModbusEndpointMetrics.EMPTY : metrics.snapshot();
+    }
+
+    private EndpointMetricsCollector metricsOf(ModbusSlaveEndpoint endpoint) {
+        return endpointMetrics.computeIfAbsent(endpoint, key -> new EndpointMetricsCollector());
+    }
+
     @Override
     public @Nullable EndpointPoolConfiguration getEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
@@ -855,6 +1071,9 @@ public class ModbusManagerImpl implements ModbusManager {
                 connectionPool.close();
                 this.connectionPool = connectionPool = null;
             }
+            pipelines.values().forEach(ModbusTCPPipeline::close);
+            pipelines.clear();
+            endpointMetrics.clear();
 
             if (monitorFuture != null) {
                 monitorFuture.cancel(true);
@@ -899,6 +1118,10 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
 
+            endpointMetrics.forEach((endpoint, metrics) -> {
+                pollMonitorLogger.trace("POLL MONITOR: endpoint {} metrics: {}", endpoint, metrics.snapshot());
+            });
+
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
     }
@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans the physical reads for a set of poll tasks.
+ *
+ * Poll tasks reading overlapping or adjacent ranges of the same slave, using the same function code, are merged into
+ * a single read, as long as the merged read stays within the limits of the MODBUS specification. Gaps between the
+ * ranges are never bridged since the slave might not have any data there.
+ *
+ * The data of a merged read is sliced and handed over to the callbacks of the original tasks, with the request of the
+ * original task. From the point of view of the callbacks, there is no difference to executing the tasks one by one.
+ * If the merged read fails, the error is not handed over to the callbacks. The caller is expected to execute the
+ * original tasks one by one instead.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollPlanner {
+
+    /**
+     * Maximum number of registers in a single read (function codes 3 and 4)
+     */
+    public static final int MAX_REGISTERS_PER_READ = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in a single read (function codes 1 and 2)
+     */
+    public static final int MAX_BITS_PER_READ = 2000;
+
+    /**
+     * Physical read covering one or more poll tasks
+     */
+    public static class PlannedRead {
+        private final BasicModbusReadRequestBlueprint request;
+        private final List<PollTask> tasks;
+
+        private PlannedRead(BasicModbusReadRequestBlueprint request, List<PollTask> tasks) {
+            this.request = request;
+            this.tasks = Collections.unmodifiableList(tasks);
+        }
+
+        /**
+         * @return request covering all the tasks
+         */
+        public BasicModbusReadRequestBlueprint getRequest() {
+            return request;
+        }
+
+        /**
+         * @return poll tasks served by this read, ordered by reference
+         */
+        public List<PollTask> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * @return whether this read serves more than one task
+         */
+        public boolean isCoalesced() {
+            return tasks.size() > 1;
+        }
+
+        /**
+         * Creates a poll task executing the merged read and dispatching the data to the original tasks
+         *
+         * @param endpoint endpoint of the tasks
+         * @param isRegistered tells whether the original task is still registered. Data is not dispatched to tasks
+         *            that have been unregistered meanwhile.
+         * @param onFailure called with the error when the merged read fails, instead of the callbacks of the tasks
+         * @return poll task for the merged read
+         */
+        public PollTask toPollTask(ModbusSlaveEndpoint endpoint, Predicate<PollTask> isRegistered,
+                Consumer<Exception> onFailure) {
+            return new BasicPollTaskImpl(endpoint, request, new CoalescedReadCallback(this, isRegistered, onFailure));
+        }
+
+        @Override
+        public String toString() {
+            return "PlannedRead [request=" + request + ", tasks=" + tasks.size() + "]";
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModbusPollPlanner.class);
+
+    private ModbusPollPlanner() {
+        // utility class
+    }
+
+    /**
+     * Plan the physical reads for the given tasks
+     *
+     * @param tasks poll tasks of a single endpoint
+     * @return reads covering all the tasks
+     */
+    public static List<PlannedRead> plan(Collection<PollTask> tasks) {
+        // group by everything except the range
+        Map<List<Object>, List<PollTask>> compatible = new LinkedHashMap<>();
+        for (PollTask task : tasks) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            compatible.computeIfAbsent(
+                    Arrays.asList(task.getEndpoint(), request.getUnitID(), request.getFunctionCode(),
+                            request.getProtocolID()),
+                    key -> new ArrayList<>()).add(task);
+        }
+
+        List<PlannedRead> reads = new ArrayList<>();
+        for (List<PollTask> group : compatible.values()) {
+            group.sort(Comparator.comparingInt((PollTask task) -> task.getRequest().getReference())
+                    .thenComparingInt(task -> task.getRequest().getDataLength()));
+            int maxLength = getMaxLength(group.get(0).getRequest().getFunctionCode());
+
+            List<PollTask> merged = new ArrayList<>();
+            int start = 0;
+            int end = 0;
+            for (PollTask task : group) {
+                ModbusReadRequestBlueprint request = task.getRequest();
+                int taskEnd = request.getReference() + request.getDataLength();
+                if (!merged.isEmpty() && request.getReference() <= end
+                        && Math.max(end, taskEnd) - start <= maxLength) {
+                    end = Math.max(end, taskEnd);
+                    merged.add(task);
+                    continue;
+                }
+                if (!merged.isEmpty()) {
+                    reads.add(createRead(merged, start, end));
+                }
+                merged = new ArrayList<>();
+                merged.add(task);
+                start = request.getReference();
+                end = taskEnd;
+            }
+            reads.add(createRead(merged, start, end));
+        }
+        return reads;
+    }
+
+    private static PlannedRead createRead(List<PollTask> tasks, int start, int end) {
+        ModbusReadRequestBlueprint first = tasks.get(0).getRequest();
+        if (tasks.size() == 1 && first instanceof BasicModbusReadRequestBlueprint) {
+            return new PlannedRead((BasicModbusReadRequestBlueprint) first, tasks);
+        }
+        int maxTries = tasks.stream().mapToInt(PollTask::getMaxTries).max().orElse(1);
+        return new PlannedRead(new BasicModbusReadRequestBlueprint(first.getUnitID(), first.getFunctionCode(), start,
+                end - start, maxTries), tasks);
+    }
+
+    private static int getMaxLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_READ;
+            default:
+                return MAX_REGISTERS_PER_READ;
+        }
+    }
+
+    /**
+     * Callback of a merged read, slicing the data for the callbacks of the original tasks
+     */
+    private static class CoalescedReadCallback implements ModbusReadCallback {
+
+        private final PlannedRead read;
+        private final Predicate<PollTask> isRegistered;
+        private final Consumer<Exception> onFailure;
+
+        public CoalescedReadCallback(PlannedRead read, Predicate<PollTask> isRegistered,
+                Consumer<Exception> onFailure) {
+            this.read = read;
+            this.isRegistered = isRegistered;
+            this.onFailure = onFailure;
+        }
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            for (PollTask task : read.getTasks()) {
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - request.getReference();
+                int length = Math.min(taskRequest.getDataLength(), registers.size() - offset);
+                ModbusRegister[] slice = new ModbusRegister[Math.max(0, length)];
+                for (int i = 0; i < slice.length; i++) {
+                    slice[i] = registers.getRegister(offset + i);
+                }
+                dispatch(task, callback -> callback.onRegisters(taskRequest, new BasicModbusRegisterArray(slice)));
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            for (PollTask task : read.getTasks()) {
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - request.getReference();
+                int length = Math.max(0, Math.min(taskRequest.getDataLength(), bits.size() - offset));
+                BasicBitArray slice = new BasicBitArray(length);
+                for (int i = 0; i < length; i++) {
+                    slice.setBit(i, bits.getBit(offset + i));
+                }
+                dispatch(task, callback -> callback.onBits(taskRequest, slice));
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            // the error might be caused by one of the tasks only, let the caller retry them one by one
+            onFailure.accept(error);
+        }
+
+        private void dispatch(PollTask task, Consumer<ModbusReadCallback> action) {
+            @Nullable
+            ModbusReadCallback callback = task.getCallback();
+            if (callback == null || !isRegistered.test(task)) {
+                return;
+            }
+            try {
+                action.accept(callback);
+            } catch (RuntimeException e) {
+                // one misbehaving callback must not prevent delivering the data to the others
+                LOGGER.warn("Callback of poll task {} failed: {}", task, e.getMessage(), e);
+            }
+        }
+    }
+}
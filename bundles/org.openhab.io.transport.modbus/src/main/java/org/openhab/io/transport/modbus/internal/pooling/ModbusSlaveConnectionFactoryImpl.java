@@ -17,6 +17,7 @@ import java.net.UnknownHostException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
 
 import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
 import org.apache.commons.pool2.PooledObject;
@@ -84,6 +85,8 @@ public class ModbusSlaveConnectionFactoryImpl
     private volatile Map<ModbusSlaveEndpoint, Long> lastConnectMillis = new ConcurrentHashMap<>();
     private volatile Map<ModbusSlaveEndpoint, Long> disconnectIfConnectedBefore = new ConcurrentHashMap<>();
     private volatile Function<ModbusSlaveEndpoint, @Nullable EndpointPoolConfiguration> defaultPoolConfigurationFactory = endpoint -> null;
+    private volatile ObjLongConsumer<ModbusSlaveEndpoint> interTransactionWaitListener = (endpoint, waited) -> {
+    };
 
     private @Nullable InetAddress getInetAddress(ModbusIPSlaveEndpoint key) {
         try {
@@ -171,6 +174,7 @@ public class ModbusSlaveConnectionFactoryImpl
 
             if (config != null) {
                 long waited = waitAtleast(lastPassivateMillis.get(endpoint), config.getInterTransactionDelayMillis());
+                interTransactionWaitListener.accept(endpoint, waited);
                 logger.trace(
                         "Waited {}ms (interTransactionDelayMillis {}ms) before giving returning connection {} for endpoint {}, to ensure delay between transactions.",
                         waited, config.getInterTransactionDelayMillis(), obj.getObject(), endpoint);
@@ -268,6 +272,15 @@ public class ModbusSlaveConnectionFactoryImpl
         this.defaultPoolConfigurationFactory = defaultPoolConfigurationFactory;
     }
 
+    /**
+     * Set listener receiving the time waited before handing out a connection, to respect the inter-transaction delay
+     *
+     * @param interTransactionWaitListener listener receiving the endpoint and the waited milliseconds
+     */
+    public void setInterTransactionWaitListener(ObjLongConsumer<ModbusSlaveEndpoint> interTransactionWaitListener) {
+        this.interTransactionWaitListener = interTransactionWaitListener;
+    }
+
     private void tryConnect(ModbusSlaveEndpoint endpoint, PooledObject<ModbusSlaveConnection> obj,
             ModbusSlaveConnection connection, @Nullable EndpointPoolConfiguration config) throws Exception {
         if (connection.isConnected()) {
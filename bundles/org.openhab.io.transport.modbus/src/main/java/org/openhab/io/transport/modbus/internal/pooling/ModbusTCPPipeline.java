@@ -0,0 +1,376 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal.pooling;
+
+import java.net.InetAddress;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.net.TCPMasterConnection;
+
+/**
+ * Shares a single TCP connection between several outstanding transactions ("pipelining").
+ *
+ * Up to {@link EndpointPoolConfiguration#getMaxPipelinedTransactions()} callers can borrow a
+ * {@link PipelinedTCPConnection} at the same time. Requests are written as soon as they are executed, and responses
+ * are matched to the requests by their transaction ID. There is no dedicated reader thread: a caller waiting for its
+ * response reads whatever response arrives next and hands it over to the matching caller.
+ *
+ * If the slave answers with an unknown transaction ID, the oldest outstanding transaction is failed, as slaves not
+ * echoing the transaction ID answer in the order of the requests. In that case, or if the slave repeatedly fails while
+ * several transactions are outstanding, the pipeline falls back to executing one transaction at a time, respecting
+ * the inter-transaction delay, like non-pipelined endpoints.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusTCPPipeline {
+
+    /**
+     * Number of failed transactions with several transactions outstanding, after which pipelining is disabled
+     */
+    private static final int MAX_PIPELINE_ERRORS = 3;
+
+    private static final int MAX_TRANSACTION_ID = 0xFFFF;
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusTCPPipeline.class);
+
+    private final ModbusTCPSlaveEndpoint endpoint;
+    private final EndpointPoolConfiguration configuration;
+
+    private final Object slotLock = new Object();
+    private final Object writeLock = new Object();
+    private final Object readLock = new Object();
+
+    /** outstanding transactions in the order they were written, guarded by itself */
+    private final Map<Integer, CompletableFuture<ModbusResponse>> outstanding = new LinkedHashMap<>();
+
+    /** guarded by slotLock */
+    private int slotsInUse;
+    /** guarded by slotLock */
+    private long lastTransactionMillis;
+    /** guarded by writeLock */
+    private int lastTransactionId;
+
+    private volatile boolean serialFallback;
+    private volatile int pipelineErrors;
+    private volatile boolean closed;
+
+    /** guarded by this */
+    private @Nullable TCPMasterConnection connection;
+    /** guarded by this */
+    private long lastConnectedMillis;
+
+    public ModbusTCPPipeline(ModbusTCPSlaveEndpoint endpoint, EndpointPoolConfiguration configuration) {
+        this.endpoint = endpoint;
+        this.configuration = configuration;
+    }
+
+    public ModbusTCPSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public EndpointPoolConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Tells whether the pipeline has fallen back to executing one transaction at a time
+     *
+     * @return whether transactions are executed serially
+     */
+    public boolean isSerialFallback() {
+        return serialFallback;
+    }
+
+    /**
+     * Borrow a connection for executing a transaction, blocking while the maximum number of transactions are
+     * outstanding.
+     *
+     * The connection is connected if possible. Use {@link PipelinedTCPConnection#isConnected()} to check whether the
+     * connection can be used. Every borrowed connection must be released with {@link #release}.
+     *
+     * @return connection sharing the TCP connection of this pipeline
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public PipelinedTCPConnection borrow() throws InterruptedException {
+        long previousTransactionMillis;
+        synchronized (slotLock) {
+            while (slotsInUse >= getMaxOutstanding()) {
+                slotLock.wait();
+            }
+            slotsInUse++;
+            previousTransactionMillis = lastTransactionMillis;
+        }
+        if (serialFallback) {
+            // wait outside of the lock, so that releasing other connections is not blocked meanwhile
+            try {
+                ModbusSlaveConnectionFactoryImpl.waitAtleast(previousTransactionMillis,
+                        configuration.getInterTransactionDelayMillis());
+            } catch (InterruptedException e) {
+                releaseSlot();
+                throw e;
+            }
+        }
+        PipelinedTCPConnection borrowed = new PipelinedTCPConnection(this);
+        try {
+            connect();
+        } catch (Exception e) {
+            logger.warn("Error connecting pipelined connection for endpoint {}: {}", endpoint, e.getMessage());
+        }
+        return borrowed;
+    }
+
+    /**
+     * Release a connection previously borrowed
+     *
+     * @param borrowed connection to release
+     * @param invalidate whether the connection has failed and the underlying TCP connection should be closed
+     */
+    void release(PipelinedTCPConnection borrowed, boolean invalidate) {
+        boolean idle = releaseSlot();
+        if (invalidate) {
+            resetConnection(null);
+        } else if (idle) {
+            disconnectIfExpired();
+        }
+    }
+
+    private boolean releaseSlot() {
+        synchronized (slotLock) {
+            slotsInUse--;
+            lastTransactionMillis = System.currentTimeMillis();
+            slotLock.notifyAll();
+            return slotsInUse == 0;
+        }
+    }
+
+    /**
+     * Close the pipeline, failing all outstanding transactions
+     */
+    public void close() {
+        closed = true;
+        resetConnection(new ModbusIOException("Pipeline closed"));
+    }
+
+    synchronized boolean connect() throws Exception {
+        if (closed) {
+            return false;
+        }
+        TCPMasterConnection connection = this.connection;
+        if (connection != null && connection.isConnected()) {
+            return true;
+        }
+        InetAddress address = InetAddress.getByName(endpoint.getAddress());
+        int maxTries = Math.max(1, configuration.getConnectMaxTries());
+        for (int tryIndex = 1;; tryIndex++) {
+            ModbusSlaveConnectionFactoryImpl.waitAtleast(lastConnectedMillis == 0 ? null : lastConnectedMillis,
+                    configuration.getInterConnectDelayMillis());
+            connection = new TCPMasterConnection(address, endpoint.getPort(), configuration.getConnectTimeoutMillis());
+            try {
+                connection.connect();
+                this.connection = connection;
+                lastConnectedMillis = System.currentTimeMillis();
+                logger.trace("Connected pipelined connection {} for endpoint {}", connection, endpoint);
+                return true;
+            } catch (Exception e) {
+                lastConnectedMillis = System.currentTimeMillis();
+                if (tryIndex >= maxTries) {
+                    throw e;
+                }
+                logger.debug("connect try {}/{} error: {}. Endpoint {}", tryIndex, maxTries, e.getMessage(),
+                        endpoint);
+            }
+        }
+    }
+
+    synchronized boolean isConnected() {
+        TCPMasterConnection connection = this.connection;
+        return !closed && connection != null && connection.isConnected();
+    }
+
+    /**
+     * Execute a transaction
+     *
+     * @param request request to send. Transaction ID of the request is overwritten.
+     * @return response matching the request
+     * @throws ModbusException on I/O errors or explicit error responses from the slave
+     */
+    ModbusResponse execute(ModbusRequest request) throws ModbusException {
+        TCPMasterConnection connection;
+        ModbusTransport transport;
+        CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+        int transactionId;
+        synchronized (writeLock) {
+            // register the transaction while the connection is known to be current, so that a concurrent reset
+            // either happens before (and is noticed here) or fails the transaction together with the others
+            synchronized (this) {
+                connection = this.connection;
+                transport = connection == null ? null : connection.getModbusTransport();
+                if (connection == null || transport == null || !connection.isConnected()) {
+                    throw new ModbusIOException("Pipelined connection is not connected");
+                }
+                lastTransactionId = lastTransactionId >= MAX_TRANSACTION_ID ? 1 : lastTransactionId + 1;
+                transactionId = lastTransactionId;
+                request.setTransactionID(transactionId);
+                synchronized (outstanding) {
+                    outstanding.put(transactionId, future);
+                }
+            }
+            try {
+                transport.writeMessage(request);
+            } catch (ModbusIOException e) {
+                // the request never reached the slave, do not leave it behind as the oldest outstanding transaction
+                synchronized (outstanding) {
+                    outstanding.remove(transactionId, future);
+                }
+                onError(connection, e);
+                throw e;
+            }
+        }
+
+        synchronized (readLock) {
+            while (!future.isDone()) {
+                try {
+                    dispatch(transport.readResponse());
+                } catch (ModbusIOException e) {
+                    onError(connection, e);
+                }
+            }
+        }
+
+        ModbusResponse response;
+        try {
+            response = future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ModbusException) {
+                throw (ModbusException) cause;
+            }
+            throw new ModbusIOException(String.valueOf(cause));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModbusIOException("Interrupted while waiting for response");
+        }
+        if (response instanceof ExceptionResponse) {
+            throw new ModbusSlaveException(((ExceptionResponse) response).getExceptionCode());
+        }
+        return response;
+    }
+
+    private void dispatch(ModbusResponse response) {
+        CompletableFuture<ModbusResponse> future;
+        @Nullable
+        CompletableFuture<ModbusResponse> oldest = null;
+        synchronized (outstanding) {
+            future = outstanding.remove(response.getTransactionID());
+            if (future == null) {
+                Iterator<CompletableFuture<ModbusResponse>> iterator = outstanding.values().iterator();
+                if (iterator.hasNext()) {
+                    oldest = iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        if (future == null) {
+            logger.warn(
+                    "Received response with unexpected transaction ID {} from endpoint {}. Disabling pipelining for the endpoint.",
+                    response.getTransactionID(), endpoint);
+            serialFallback = true;
+            // the response most likely belongs to the oldest request, fail only that one instead of waiting for it
+            // to time out and resetting the connection of all outstanding transactions
+            if (oldest != null) {
+                oldest.completeExceptionally(new ModbusIOException(
+                        "Unexpected transaction ID " + response.getTransactionID() + " in response"));
+            }
+            return;
+        }
+        pipelineErrors = 0;
+        future.complete(response);
+    }
+
+    private void onError(TCPMasterConnection failedConnection, ModbusIOException error) {
+        int outstandingCount;
+        synchronized (outstanding) {
+            outstandingCount = outstanding.size();
+        }
+        if (outstandingCount > 1 && !serialFallback && ++pipelineErrors >= MAX_PIPELINE_ERRORS) {
+            logger.warn("Transactions with endpoint {} failed repeatedly while pipelined. Disabling pipelining.",
+                    endpoint);
+            serialFallback = true;
+        }
+        synchronized (this) {
+            if (this.connection != failedConnection) {
+                // already reset by someone else, outstanding transactions belong to the new connection
+                return;
+            }
+        }
+        resetConnection(error);
+    }
+
+    private void resetConnection(@Nullable ModbusIOException error) {
+        TCPMasterConnection connection;
+        synchronized (this) {
+            connection = this.connection;
+            this.connection = null;
+        }
+        if (connection != null) {
+            logger.trace("Resetting pipelined connection {} for endpoint {}", connection, endpoint);
+            connection.resetConnection();
+        }
+        // any outstanding transactions cannot complete anymore
+        ModbusIOException failure = error == null ? new ModbusIOException("Connection reset") : error;
+        synchronized (outstanding) {
+            outstanding.values().forEach(future -> future.completeExceptionally(failure));
+            outstanding.clear();
+        }
+    }
+
+    private void disconnectIfExpired() {
+        int reconnectAfterMillis = configuration.getReconnectAfterMillis();
+        long connectionAge;
+        synchronized (this) {
+            connectionAge = System.currentTimeMillis() - lastConnectedMillis;
+        }
+        if (reconnectAfterMillis == 0 || (reconnectAfterMillis > 0 && connectionAge > reconnectAfterMillis)) {
+            synchronized (slotLock) {
+                if (slotsInUse > 0) {
+                    // somebody borrowed the connection meanwhile
+                    return;
+                }
+            }
+            resetConnection(null);
+        }
+    }
+
+    private int getMaxOutstanding() {
+        return serialFallback ? 1 : Math.max(1, configuration.getMaxPipelinedTransactions());
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal.pooling;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.net.ModbusSlaveConnection;
+
+/**
+ * Connection borrowed from a {@link ModbusTCPPipeline}. Several instances share the same physical TCP connection.
+ *
+ * Transactions must be executed using {@link #execute(ModbusRequest)}, jamod transactions would interfere with the
+ * other transactions in flight.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PipelinedTCPConnection implements ModbusSlaveConnection {
+
+    private final ModbusTCPPipeline pipeline;
+
+    private volatile boolean released;
+
+    PipelinedTCPConnection(ModbusTCPPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    public ModbusTCPPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Execute a transaction using the shared connection
+     *
+     * @param request request to send. Transaction ID of the request is overwritten.
+     * @return response matching the request
+     * @throws ModbusException on I/O errors or explicit error responses from the slave
+     */
+    public ModbusResponse execute(ModbusRequest request) throws ModbusException {
+        return pipeline.execute(request);
+    }
+
+    /**
+     * Give the connection back to the pipeline
+     *
+     * @param invalidate whether the shared connection should be closed due to an error
+     */
+    public void release(boolean invalidate) {
+        if (!released) {
+            released = true;
+            pipeline.release(this, invalidate);
+        }
+    }
+
+    @Override
+    public boolean connect() throws Exception {
+        return pipeline.connect();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return pipeline.isConnected();
+    }
+
+    @Override
+    public void resetConnection() {
+        release(true);
+    }
+
+    @Override
+    public String toString() {
+        return "PipelinedTCPConnection [endpoint=" + pipeline.getEndpoint() + "]";
+    }
+}
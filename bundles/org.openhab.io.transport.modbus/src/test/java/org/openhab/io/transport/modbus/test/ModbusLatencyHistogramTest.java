@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+import org.openhab.io.transport.modbus.internal.EndpointMetricsCollector.LatencyRecorder;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusLatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        ModbusLatencyHistogram histogram = new LatencyRecorder().snapshot();
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getMeanMillis(), is(equalTo(0.0)));
+        assertThat(histogram.getPercentileMillis(95), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testMeanAndPercentiles() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 90; i++) {
+            recorder.record(3);
+        }
+        for (int i = 0; i < 10; i++) {
+            recorder.record(150);
+        }
+        ModbusLatencyHistogram histogram = recorder.snapshot();
+        assertThat(histogram.getCount(), is(equalTo(100L)));
+        assertThat(histogram.getMeanMillis(), is(equalTo(17.7)));
+        assertThat(histogram.getPercentileMillis(50), is(equalTo(5L)));
+        assertThat(histogram.getPercentileMillis(90), is(equalTo(5L)));
+        assertThat(histogram.getPercentileMillis(95), is(equalTo(200L)));
+    }
+
+    @Test
+    public void testLatenciesAboveLargestBound() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(60000);
+        assertThat(recorder.snapshot().getPercentileMillis(99), is(equalTo(10000L)));
+    }
+
+    @Test
+    public void testSince() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(1);
+        ModbusLatencyHistogram earlier = recorder.snapshot();
+        recorder.record(1000);
+        recorder.record(1000);
+        ModbusLatencyHistogram window = recorder.snapshot().since(earlier);
+        assertThat(window.getCount(), is(equalTo(2L)));
+        assertThat(window.getMeanMillis(), is(equalTo(1000.0)));
+        assertThat(window.getPercentileMillis(50), is(equalTo(1000L)));
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusPollPlanner;
+import org.openhab.io.transport.modbus.internal.ModbusPollPlanner.PlannedRead;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusPollPlannerTest {
+
+    private static final ModbusSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("127.0.0.1", 502);
+
+    private static class RecordingCallback implements ModbusReadCallback {
+        private final List<Object> received = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            received.add(request);
+            received.add(registers);
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            received.add(request);
+            received.add(bits);
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            received.add(request);
+            received.add(error);
+        }
+    }
+
+    private static PollTask task(int unitId, ModbusReadFunctionCode functionCode, int start, int length,
+            ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(ENDPOINT,
+                new BasicModbusReadRequestBlueprint(unitId, functionCode, start, length, 1), callback);
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingRangesAreMerged() {
+        RecordingCallback callback = new RecordingCallback();
+        List<PlannedRead> reads = ModbusPollPlanner.plan(Arrays.asList(
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 5, callback),
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10, callback),
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 12, 8, callback)));
+
+        assertThat(reads.size(), is(equalTo(1)));
+        assertThat(reads.get(0).isCoalesced(), is(equalTo(true)));
+        assertThat(reads.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(reads.get(0).getRequest().getDataLength(), is(equalTo(20)));
+        assertThat(reads.get(0).getTasks().size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testGapsAndIncompatibleRequestsAreNotMerged() {
+        RecordingCallback callback = new RecordingCallback();
+        List<PlannedRead> reads = ModbusPollPlanner.plan(Arrays.asList(
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10, callback),
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 11, 10, callback),
+                task(2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 10, callback),
+                task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 10, 10, callback)));
+
+        assertThat(reads.size(), is(equalTo(4)));
+        for (PlannedRead read : reads) {
+            assertThat(read.isCoalesced(), is(equalTo(false)));
+        }
+    }
+
+    @Test
+    public void testMaximumLengthIsRespected() {
+        RecordingCallback callback = new RecordingCallback();
+        List<PlannedRead> reads = ModbusPollPlanner.plan(Arrays.asList(
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100, callback),
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 25, callback),
+                task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 125, 1, callback),
+                task(1, ModbusReadFunctionCode.READ_COILS, 0, 1000, callback),
+                task(1, ModbusReadFunctionCode.READ_COILS, 1000, 1000, callback)));
+
+        assertThat(reads.size(), is(equalTo(3)));
+        assertThat(reads.get(0).getRequest().getDataLength(), is(equalTo(ModbusPollPlanner.MAX_REGISTERS_PER_READ)));
+        assertThat(reads.get(1).getRequest().getReference(), is(equalTo(125)));
+        assertThat(reads.get(2).getRequest().getDataLength(), is(equalTo(ModbusPollPlanner.MAX_BITS_PER_READ)));
+    }
+
+    @Test
+    public void testRegistersAreSlicedForEachTask() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        PollTask firstTask = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 3, first);
+        PollTask secondTask = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 7, 2, second);
+        PlannedRead read = ModbusPollPlanner.plan(Arrays.asList(firstTask, secondTask)).get(0);
+        PollTask merged = read.toPollTask(ENDPOINT, task -> true, error -> {
+        });
+
+        merged.getCallback().onRegisters(merged.getRequest(), new BasicModbusRegisterArray(50, 60, 70, 80));
+
+        assertThat(first.received.get(0), is(equalTo(firstTask.getRequest())));
+        assertThat(((ModbusRegisterArray) first.received.get(1)).toHexString(),
+                is(equalTo(new BasicModbusRegisterArray(50, 60, 70).toHexString())));
+        assertThat(second.received.get(0), is(equalTo(secondTask.getRequest())));
+        assertThat(((ModbusRegisterArray) second.received.get(1)).toHexString(),
+                is(equalTo(new BasicModbusRegisterArray(70, 80).toHexString())));
+    }
+
+    @Test
+    public void testBitsAreSlicedAndUnregisteredTasksSkipped() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        PollTask firstTask = task(1, ModbusReadFunctionCode.READ_COILS, 0, 2, first);
+        PollTask secondTask = task(1, ModbusReadFunctionCode.READ_COILS, 2, 2, second);
+        PlannedRead read = ModbusPollPlanner.plan(Arrays.asList(firstTask, secondTask)).get(0);
+        PollTask merged = read.toPollTask(ENDPOINT, task -> task.equals(secondTask), error -> {
+        });
+
+        merged.getCallback().onBits(merged.getRequest(), new BasicBitArray(true, false, false, true));
+
+        assertThat(first.received.isEmpty(), is(equalTo(true)));
+        assertThat(((BitArray) second.received.get(1)).sizeAndValuesEquals(new BasicBitArray(false, true)),
+                is(equalTo(true)));
+    }
+
+    @Test
+    public void testErrorsAreHandedToTheFailureHandlerInsteadOfTheTasks() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        PollTask firstTask = task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 2, first);
+        PollTask secondTask = task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 1, 2, second);
+        PlannedRead read = ModbusPollPlanner.plan(Arrays.asList(firstTask, secondTask)).get(0);
+        List<Exception> failures = new ArrayList<>();
+        PollTask merged = read.toPollTask(ENDPOINT, task -> true, failures::add);
+        Exception error = new Exception("failure");
+
+        merged.getCallback().onError(merged.getRequest(), error);
+
+        assertThat(failures, is(equalTo(Arrays.asList(error))));
+        assertThat(first.received.isEmpty(), is(true));
+        assertThat(second.received.isEmpty(), is(true));
+    }
+}
@@ -16,6 +16,8 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 import static org.junit.Assume.assumeFalse;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -32,6 +34,7 @@ import org.openhab.io.transport.modbus.BasicPollTaskImpl;
 import org.openhab.io.transport.modbus.BasicWriteTask;
 import org.openhab.io.transport.modbus.BitArray;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
@@ -49,6 +52,7 @@ import org.openhab.io.transport.modbus.internal.BitArrayWrappingBitVector;
 import org.slf4j.LoggerFactory;
 
 import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
 import net.wimpi.modbus.msg.WriteCoilRequest;
 import net.wimpi.modbus.msg.WriteMultipleCoilsRequest;
 import net.wimpi.modbus.procimg.SimpleDigitalIn;
@@ -905,4 +909,249 @@ public class SmokeTest extends IntegrationTestSupport {
                 is(equalTo(Stream.of(task2).collect(Collectors.toSet()))));
 
     }
+
+    /**
+     * Several one-off reads executed concurrently over a pipelined connection
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testPipelinedOneOffReadsWithHolding() throws InterruptedException {
+        assumeFalse("pipelining is supported with TCP only", serverType != ServerType.TCP);
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setMaxPipelinedTransactions(4);
+        configuration.setReconnectAfterMillis(60000);
+        modbusManager.setEndpointPoolConfiguration(endpoint, configuration);
+
+        int reads = 10;
+        AtomicInteger unexpectedCount = new AtomicInteger();
+        AtomicInteger wrongDataCount = new AtomicInteger();
+        CountDownLatch callbackCalled = new CountDownLatch(reads);
+        for (int i = 0; i < reads; i++) {
+            int start = i;
+            BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                    ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, 5, 1), new ModbusReadCallback() {
+
+                        @Override
+                        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                            if (registers.getRegister(0).toUnsignedShort() != start * HOLDING_REGISTER_MULTIPLIER) {
+                                wrongDataCount.incrementAndGet();
+                            }
+                            callbackCalled.countDown();
+                        }
+
+                        @Override
+                        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                            unexpectedCount.incrementAndGet();
+                            callbackCalled.countDown();
+                        }
+
+                        @Override
+                        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                            unexpectedCount.incrementAndGet();
+                            callbackCalled.countDown();
+                        }
+                    });
+            modbusManager.submitOneTimePoll(task);
+        }
+        assertTrue(callbackCalled.await(10, TimeUnit.SECONDS));
+        assertThat(unexpectedCount.get(), is(equalTo(0)));
+        assertThat(wrongDataCount.get(), is(equalTo(0)));
+    }
+
+    /**
+     * Endpoint metrics count the operations and errors
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testEndpointMetrics() throws Exception {
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        assertThat(modbusManager.getEndpointMetrics(endpoint).getOperations(), is(equalTo(0L)));
+
+        // no data generated, slave responds with exception response
+        BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, 1), new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                    }
+                });
+        modbusManager.submitOneTimePoll(task).get(5, TimeUnit.SECONDS);
+
+        ModbusEndpointMetrics metrics = modbusManager.getEndpointMetrics(endpoint);
+        assertThat(metrics.getOperations(), is(equalTo(1L)));
+        assertThat(metrics.getFailedOperations(), is(equalTo(1L)));
+        assertThat(metrics.getSlaveErrors(), is(equalTo(1L)));
+        assertThat(metrics.getQueueDepth(), is(equalTo(0)));
+        assertThat(metrics.getConnectionTime().getCount(), is(equalTo(1L)));
+        assertThat(metrics.getTransactionTime().getCount(), is(equalTo(1L)));
+        assertThat(metrics.getCallbackTime().getCount(), is(equalTo(1L)));
+    }
+
+    /**
+     * Read callback counting the received registers and errors
+     */
+    private static class CountingReadCallback implements ModbusReadCallback {
+        private final AtomicInteger registersReceived = new AtomicInteger();
+        private final AtomicInteger slaveErrors = new AtomicInteger();
+        private final AtomicInteger unexpectedCount = new AtomicInteger();
+        private final CountDownLatch callbackCalled;
+        private final int expectedSize;
+        private final int expectedFirstValue;
+
+        public CountingReadCallback(int callbacks, int expectedSize, int expectedFirstValue) {
+            this.callbackCalled = new CountDownLatch(callbacks);
+            this.expectedSize = expectedSize;
+            this.expectedFirstValue = expectedFirstValue;
+        }
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            if (registers.size() == expectedSize
+                    && registers.getRegister(0).toUnsignedShort() == expectedFirstValue * HOLDING_REGISTER_MULTIPLIER) {
+                registersReceived.incrementAndGet();
+            } else {
+                unexpectedCount.incrementAndGet();
+            }
+            callbackCalled.countDown();
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            if (error instanceof ModbusSlaveErrorResponseException) {
+                slaveErrors.incrementAndGet();
+            } else {
+                unexpectedCount.incrementAndGet();
+            }
+            callbackCalled.countDown();
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            unexpectedCount.incrementAndGet();
+            callbackCalled.countDown();
+        }
+    }
+
+    private List<Integer> capturedReadLengths() {
+        ArrayList<ModbusRequest> requests = modbustRequestCaptor.getAllReturnValues();
+        synchronized (requests) {
+            return requests.stream().filter(request -> request instanceof ReadMultipleRegistersRequest)
+                    .map(request -> ((ReadMultipleRegistersRequest) request).getWordCount())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Regular polls of adjacent ranges are read with a single request when coalescing is enabled
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testCoalescedRegularPollsWithHolding() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setCoalescePolls(true);
+        modbusManager.setEndpointPoolConfiguration(endpoint, configuration);
+
+        CountingReadCallback first = new CountingReadCallback(3, 5, 0);
+        CountingReadCallback second = new CountingReadCallback(3, 5, 5);
+        BasicPollTaskImpl firstTask = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, 1), first);
+        BasicPollTaskImpl secondTask = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 5, 1), second);
+        // initial delay makes sure both tasks are registered before the first poll
+        modbusManager.registerRegularPoll(firstTask, 150, 300);
+        modbusManager.registerRegularPoll(secondTask, 150, 300);
+
+        assertTrue(first.callbackCalled.await(5, TimeUnit.SECONDS));
+        assertTrue(second.callbackCalled.await(5, TimeUnit.SECONDS));
+        modbusManager.unregisterRegularPoll(firstTask);
+        modbusManager.unregisterRegularPoll(secondTask);
+
+        assertThat(first.unexpectedCount.get(), is(equalTo(0)));
+        assertThat(second.unexpectedCount.get(), is(equalTo(0)));
+        List<Integer> readLengths = capturedReadLengths();
+        assertThat(readLengths.isEmpty(), is(false));
+        assertThat(readLengths.stream().allMatch(length -> length == 10), is(true));
+    }
+
+    /**
+     * Regular polls of adjacent ranges are read one by one when coalescing is not enabled
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testRegularPollsAreNotCoalescedByDefault() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+
+        CountingReadCallback first = new CountingReadCallback(3, 5, 0);
+        CountingReadCallback second = new CountingReadCallback(3, 5, 5);
+        BasicPollTaskImpl firstTask = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, 1), first);
+        BasicPollTaskImpl secondTask = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 5, 1), second);
+        modbusManager.registerRegularPoll(firstTask, 150, 300);
+        modbusManager.registerRegularPoll(secondTask, 150, 300);
+
+        assertTrue(first.callbackCalled.await(5, TimeUnit.SECONDS));
+        assertTrue(second.callbackCalled.await(5, TimeUnit.SECONDS));
+        modbusManager.unregisterRegularPoll(firstTask);
+        modbusManager.unregisterRegularPoll(secondTask);
+
+        assertThat(first.unexpectedCount.get(), is(equalTo(0)));
+        assertThat(second.unexpectedCount.get(), is(equalTo(0)));
+        assertThat(capturedReadLengths().stream().allMatch(length -> length == 5), is(true));
+    }
+
+    /**
+     * A coalesced read rejected by the slave is retried one task at a time, and coalescing is not tried again
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testCoalescedReadRejectedBySlaveIsRetriedOneByOne() throws InterruptedException {
+        // slave has registers 0-7 only, so the second task and the merged read fail
+        for (int i = 0; i < 8; i++) {
+            spi.addRegister(new SimpleRegister(i * HOLDING_REGISTER_MULTIPLIER));
+        }
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setCoalescePolls(true);
+        modbusManager.setEndpointPoolConfiguration(endpoint, configuration);
+
+        CountingReadCallback first = new CountingReadCallback(3, 5, 0);
+        CountingReadCallback second = new CountingReadCallback(3, 5, 5);
+        BasicPollTaskImpl firstTask = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, 1), first);
+        BasicPollTaskImpl secondTask = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 5, 1), second);
+        modbusManager.registerRegularPoll(firstTask, 150, 300);
+        modbusManager.registerRegularPoll(secondTask, 150, 300);
+
+        assertTrue(first.callbackCalled.await(5, TimeUnit.SECONDS));
+        assertTrue(second.callbackCalled.await(5, TimeUnit.SECONDS));
+        modbusManager.unregisterRegularPoll(firstTask);
+        modbusManager.unregisterRegularPoll(secondTask);
+
+        // the valid range still gets its data, the errors are reported to the task causing them only
+        assertThat(first.unexpectedCount.get(), is(equalTo(0)));
+        assertThat(first.slaveErrors.get(), is(equalTo(0)));
+        assertThat(second.unexpectedCount.get(), is(equalTo(0)));
+        assertThat(second.registersReceived.get(), is(equalTo(0)));
+        assertThat(capturedReadLengths().stream().filter(length -> length == 10).count(), is(equalTo(1L)));
+    }
 }
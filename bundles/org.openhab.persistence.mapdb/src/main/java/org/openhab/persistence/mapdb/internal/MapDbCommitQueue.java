@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the items to be stored right away and collects them to commit the database in batches, so a single commit
+ * covers many store operations ("group commit"). As the items are written before they are queued, they are visible to
+ * queries immediately, only their commit is delayed.
+ *
+ * A batch is committed as soon as it reaches the maximum batch size or the first item of the batch has waited for the
+ * maximum latency. The queue is bounded, if the worker cannot keep up, callers of {@link #add(MapDbItem)} commit a
+ * batch themselves instead of waiting for room.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbCommitQueue {
+
+    private static final long WORKER_POLL_INTERVAL = 1000;
+
+    /**
+     * Interval in milliseconds in which a worker collecting a batch checks whether it has been stopped
+     */
+    private static final long STOP_CHECK_INTERVAL = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbCommitQueue.class);
+
+    private final BlockingQueue<MapDbItem> queue;
+
+    private final long maxLatency;
+
+    private final int maxBatchSize;
+
+    private final Consumer<MapDbItem> itemWriter;
+
+    private final Consumer<List<MapDbItem>> batchWriter;
+
+    private final AtomicLong commits = new AtomicLong();
+
+    private final AtomicLong items = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong largestBatch = new AtomicLong();
+
+    private final AtomicLong largestQueueDepth = new AtomicLong();
+
+    private final Object writeLock = new Object();
+
+    /**
+     * Items are added under the read lock, stopping takes the write lock, so no item is added after the queue has
+     * been stopped.
+     */
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+
+    private boolean stopped;
+
+    private @Nullable CountDownLatch workerStopped;
+
+    /**
+     * Creates a commit queue.
+     *
+     * @param capacity the maximum number of items waiting to be written
+     * @param maxLatency the maximum time in milliseconds an item waits for further items to join its batch
+     * @param maxBatchSize the maximum number of items written with a single commit
+     * @param itemWriter writes an item without committing it, called by {@link #add(MapDbItem)}
+     * @param batchWriter commits a batch of written items, never called concurrently
+     */
+    public MapDbCommitQueue(int capacity, long maxLatency, int maxBatchSize, Consumer<MapDbItem> itemWriter,
+            Consumer<List<MapDbItem>> batchWriter) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxLatency = maxLatency;
+        this.maxBatchSize = maxBatchSize;
+        this.itemWriter = itemWriter;
+        this.batchWriter = batchWriter;
+    }
+
+    /**
+     * Starts the worker writing the batches.
+     *
+     * @param executor the executor to run the worker on
+     */
+    public synchronized void start(ExecutorService executor) {
+        if (workerStopped == null && !stopped) {
+            CountDownLatch stopped = new CountDownLatch(1);
+            workerStopped = stopped;
+            running = true;
+            executor.submit(() -> {
+                try {
+                    run();
+                } finally {
+                    stopped.countDown();
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops the worker and commits all items still waiting in the queue. Items added afterwards are rejected. When
+     * this method returns, the worker has finished, so the database can be closed.
+     */
+    public synchronized void stop() {
+        stateLock.writeLock().lock();
+        try {
+            stopped = true;
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        CountDownLatch workerStopped = this.workerStopped;
+        if (workerStopped != null) {
+            // the worker is not interrupted as this would close the file channels of the database
+            awaitWorker(workerStopped);
+            this.workerStopped = null;
+        }
+        List<MapDbItem> batch = new ArrayList<>();
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void awaitWorker(CountDownLatch workerStopped) {
+        boolean interrupted = false;
+        boolean warned = false;
+        try {
+            while (true) {
+                try {
+                    if (workerStopped.await(WORKER_POLL_INTERVAL + STOP_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                    if (!warned) {
+                        logger.warn("Waiting for the MapDB commit worker to finish its batch");
+                        warned = true;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes an item and adds it to be committed with the next batch.
+     *
+     * @param item the item
+     * @return <code>false</code> if the item has been rejected because the queue has been stopped
+     */
+    public boolean add(MapDbItem item) {
+        stateLock.readLock().lock();
+        try {
+            if (stopped) {
+                return false;
+            }
+            itemWriter.accept(item);
+            while (!queue.offer(item)) {
+                // the worker cannot keep up, commit a batch in this thread instead of blocking it
+                List<MapDbItem> batch = new ArrayList<>(maxBatchSize);
+                queue.drainTo(batch, maxBatchSize);
+                write(batch);
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        long depth = queue.size();
+        largestQueueDepth.accumulateAndGet(depth, Math::max);
+        return true;
+    }
+
+    private void run() {
+        List<MapDbItem> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                if (!pollInto(batch, TimeUnit.MILLISECONDS.toNanos(WORKER_POLL_INTERVAL))) {
+                    continue;
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLatency);
+                // a stopped worker writes its batch right away, stop() drains the rest of the queue
+                while (batch.size() < maxBatchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) == 0) {
+                        pollInto(batch, Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(STOP_CHECK_INTERVAL)));
+                    }
+                }
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // items taken from the queue but not yet committed must not get lost
+            write(batch);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean pollInto(List<MapDbItem> batch, long timeoutNanos) throws InterruptedException {
+        MapDbItem item = queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        if (item == null) {
+            return false;
+        }
+        batch.add(item);
+        return true;
+    }
+
+    private void write(List<MapDbItem> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            try {
+                batchWriter.accept(batch);
+                commits.incrementAndGet();
+                items.addAndGet(batch.size());
+                coalesced.addAndGet(batch.size() - batch.stream().map(MapDbItem::getName).distinct().count());
+                largestBatch.accumulateAndGet(batch.size(), Math::max);
+                logger.trace("Committed batch of {} items, {} items waiting", batch.size(), queue.size());
+            } catch (RuntimeException e) {
+                logger.warn("Failed to commit batch of {} items: {}", batch.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @return the number of commits done so far
+     */
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    /**
+     * @return the number of items written so far
+     */
+    public long getItemCount() {
+        return items.get();
+    }
+
+    /**
+     * @return the number of items that were superseded by a newer state of the same item within their batch
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return the average number of items written per commit
+     */
+    public double getAverageBatchSize() {
+        long commitCount = commits.get();
+        return commitCount == 0 ? 0 : (double) items.get() / commitCount;
+    }
+
+    /**
+     * @return the largest number of items written with a single commit
+     */
+    public long getLargestBatchSize() {
+        return largestBatch.get();
+    }
+
+    /**
+     * @return the number of items currently waiting to be written
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the largest number of items that have been waiting at the same time
+     */
+    public long getLargestQueueDepth() {
+        return largestQueueDepth.get();
+    }
+}
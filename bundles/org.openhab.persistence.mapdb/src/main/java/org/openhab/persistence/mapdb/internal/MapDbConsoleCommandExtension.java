@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for the MapDB persistence service.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class MapDbConsoleCommandExtension extends AbstractConsoleCommandExtension {
+    private static final String SUBCMD_STATS = "stats";
+
+    private @Nullable MapDbPersistenceService persistenceService;
+
+    public MapDbConsoleCommandExtension() {
+        super("mapdb", "Interact with the MapDB persistence service.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && SUBCMD_STATS.equals(args[0])) {
+            printStatistics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(buildCommandUsage(SUBCMD_STATS, "shows the commit statistics"));
+    }
+
+    @Reference
+    public void setPersistenceService(MapDbPersistenceService persistenceService) {
+        this.persistenceService = persistenceService;
+    }
+
+    public void unsetPersistenceService(MapDbPersistenceService persistenceService) {
+        this.persistenceService = null;
+    }
+
+    private void printStatistics(Console console) {
+        MapDbPersistenceService service = persistenceService;
+        MapDbCommitQueue commitQueue = service == null ? null : service.getCommitQueue();
+        if (commitQueue == null) {
+            console.println("MapDB persistence service is not active");
+            return;
+        }
+        console.println("Commits:             " + commitQueue.getCommitCount());
+        console.println("Stored states:       " + commitQueue.getItemCount());
+        console.println("Coalesced states:    " + commitQueue.getCoalescedCount());
+        console.println(String.format("Average batch size:  %.1f", commitQueue.getAverageBatchSize()));
+        console.println("Largest batch size:  " + commitQueue.getLargestBatchSize());
+        console.println("Queue depth:         " + commitQueue.getQueueDepth());
+        console.println("Largest queue depth: " + commitQueue.getLargestQueueDepth());
+    }
+}
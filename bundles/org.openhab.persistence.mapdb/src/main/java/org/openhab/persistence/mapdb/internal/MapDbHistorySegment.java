@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * Encodes and decodes the binary history segments of the MapDB persistence service.
+ *
+ * A segment holds all (timestamp, state) pairs of one item within one time bucket. Entries are simply appended, each
+ * one consisting of the variable length encoded offset in milliseconds from the segment start followed by the state
+ * as written by {@link MapDbStateCodec}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbHistorySegment {
+
+    private MapDbHistorySegment() {
+        // utility class
+    }
+
+    /**
+     * A single decoded history entry.
+     */
+    public static class Entry {
+        private final long timestamp;
+        private final State state;
+
+        public Entry(long timestamp, State state) {
+            this.timestamp = timestamp;
+            this.state = state;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public State getState() {
+            return state;
+        }
+    }
+
+    /**
+     * Appends an entry to an existing segment.
+     *
+     * @param segment the encoded segment or <code>null</code> if the segment does not exist yet
+     * @param segmentStart start of the segment in milliseconds since epoch
+     * @param timestamp timestamp of the new entry, must not be before <code>segmentStart</code>
+     * @param state the state to append
+     * @return the encoded segment including the new entry
+     */
+    public static byte[] append(byte @Nullable [] segment, long segmentStart, long timestamp, State state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(segment == null ? 32 : segment.length + 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (segment != null) {
+                out.write(segment);
+            }
+            MapDbStateCodec.writeVarLong(out, timestamp - segmentStart);
+            MapDbStateCodec.writeState(out, state);
+        } catch (IOException e) {
+            // cannot happen on a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes all entries of a segment, sorted by ascending timestamp.
+     *
+     * @param segment the encoded segment
+     * @param segmentStart start of the segment in milliseconds since epoch
+     * @return the decoded entries
+     * @throws IOException if the segment is corrupt
+     */
+    public static List<Entry> decode(byte[] segment, long segmentStart) throws IOException {
+        return decode(Collections.singletonList(segment), segmentStart);
+    }
+
+    /**
+     * Decodes all entries of a segment stored in several chunks, sorted by ascending timestamp.
+     *
+     * @param chunks the encoded chunks of the segment in the order they were written
+     * @param segmentStart start of the segment in milliseconds since epoch
+     * @return the decoded entries
+     * @throws IOException if a chunk is corrupt
+     */
+    public static List<Entry> decode(List<byte[]> chunks, long segmentStart) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        boolean sorted = true;
+        long last = Long.MIN_VALUE;
+        for (byte[] chunk : chunks) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(chunk))) {
+                while (in.available() > 0) {
+                    long timestamp = segmentStart + MapDbStateCodec.readVarLong(in);
+                    State state = MapDbStateCodec.readState(in);
+                    sorted &= timestamp >= last;
+                    last = timestamp;
+                    entries.add(new Entry(timestamp, state));
+                }
+            }
+        }
+        if (!sorted) {
+            // the system clock went backwards while storing, keep the segment readable in order anyway
+            entries.sort(Comparator.comparingLong(Entry::getTimestamp));
+        }
+        return entries;
+    }
+}
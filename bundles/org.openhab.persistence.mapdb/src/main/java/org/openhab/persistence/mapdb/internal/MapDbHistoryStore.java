@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the (timestamp, state) history of all items in time-bucketed segments.
+ *
+ * The segments are stored in a sorted map keyed by item name and segment start, so queries for a date range only
+ * need to seek to the first relevant segment of an item and stop as soon as the range or the requested page is
+ * exhausted. Each segment is split into chunks of at most {@link #MAX_CHUNK_SIZE} bytes, an append only rewrites the
+ * last chunk of its segment, so its cost does not grow with the number of entries in the segment.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbHistoryStore {
+
+    private static final char KEY_SEPARATOR = '#';
+
+    /**
+     * Size in bytes after which a new chunk of a segment is started
+     */
+    static final int MAX_CHUNK_SIZE = 4096;
+
+    private static final int MAX_CHUNK_INDEX = 0xffff;
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbHistoryStore.class);
+
+    private final NavigableMap<String, byte[]> segments;
+
+    private final long segmentDuration;
+
+    /**
+     * Creates a history store.
+     *
+     * @param segments the (persistent) map holding the segments
+     * @param segmentDuration the time span covered by a single segment in milliseconds
+     */
+    public MapDbHistoryStore(NavigableMap<String, byte[]> segments, long segmentDuration) {
+        if (segmentDuration <= 0) {
+            throw new IllegalArgumentException("Segment duration must be positive");
+        }
+        this.segments = segments;
+        this.segmentDuration = segmentDuration;
+    }
+
+    /**
+     * Adds a state to the history of an item. Appends are serialized, as they rewrite the last chunk of a segment.
+     *
+     * @param name the name (alias) of the item
+     * @param timestamp the time the state was stored
+     * @param state the state
+     */
+    public synchronized void append(String name, long timestamp, State state) {
+        long segmentStart = getSegmentStart(timestamp);
+        String segmentPrefix = createSegmentPrefix(name, segmentStart);
+        Entry<String, byte[]> lastChunk = segments.floorEntry(createKey(name, segmentStart, MAX_CHUNK_INDEX));
+        if (lastChunk == null || !lastChunk.getKey().startsWith(segmentPrefix)) {
+            segments.put(createKey(name, segmentStart, 0),
+                    MapDbHistorySegment.append(null, segmentStart, timestamp, state));
+            return;
+        }
+        int chunkIndex = parseChunkIndex(lastChunk.getKey());
+        if (lastChunk.getValue().length < MAX_CHUNK_SIZE || chunkIndex == MAX_CHUNK_INDEX) {
+            segments.put(lastChunk.getKey(),
+                    MapDbHistorySegment.append(lastChunk.getValue(), segmentStart, timestamp, state));
+        } else {
+            segments.put(createKey(name, segmentStart, chunkIndex + 1),
+                    MapDbHistorySegment.append(null, segmentStart, timestamp, state));
+        }
+    }
+
+    /**
+     * Returns the stored states of an item matching the given filter.
+     *
+     * @param filter the filter, the item name is mandatory
+     * @return the matching states in the order requested by the filter
+     */
+    public List<HistoricItem> query(FilterCriteria filter) {
+        String name = filter.getItemName();
+        List<HistoricItem> result = new ArrayList<>();
+        if (name == null || filter.getPageSize() <= 0) {
+            return result;
+        }
+
+        long begin = filter.getBeginDate() == null ? Long.MIN_VALUE : filter.getBeginDate().getTime();
+        long end = filter.getEndDate() == null ? Long.MAX_VALUE : filter.getEndDate().getTime();
+        if (begin > end) {
+            return result;
+        }
+
+        // the first segment may start before the requested range and still contain matching entries
+        String fromKey = filter.getBeginDate() == null ? name + KEY_SEPARATOR
+                : createKey(name, getSegmentStart(begin), 0);
+        String toKey = filter.getEndDate() == null ? name + (char) (KEY_SEPARATOR + 1)
+                : createKey(name, getSegmentStart(end), MAX_CHUNK_INDEX);
+        NavigableMap<String, byte[]> range = segments.subMap(fromKey, true, toKey, true);
+        boolean descending = filter.getOrdering() == Ordering.DESCENDING;
+        if (descending) {
+            range = range.descendingMap();
+        }
+
+        long skip = (long) filter.getPageNumber() * filter.getPageSize();
+        Iterator<Entry<String, byte[]>> chunks = range.entrySet().iterator();
+        Entry<String, byte[]> nextChunk = chunks.hasNext() ? chunks.next() : null;
+        while (nextChunk != null) {
+            // collect all chunks of the segment, the entries are sorted per segment
+            String segmentPrefix = nextChunk.getKey().substring(0, nextChunk.getKey().lastIndexOf(KEY_SEPARATOR) + 1);
+            List<byte[]> segmentChunks = new ArrayList<>();
+            while (nextChunk != null && nextChunk.getKey().startsWith(segmentPrefix)) {
+                if (descending) {
+                    segmentChunks.add(0, nextChunk.getValue());
+                } else {
+                    segmentChunks.add(nextChunk.getValue());
+                }
+                nextChunk = chunks.hasNext() ? chunks.next() : null;
+            }
+            List<MapDbHistorySegment.Entry> entries;
+            try {
+                entries = MapDbHistorySegment.decode(segmentChunks, parseSegmentStart(segmentPrefix));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Skipping corrupt history segment '{}': {}", segmentPrefix, e.getMessage());
+                continue;
+            }
+
+            ListIterator<MapDbHistorySegment.Entry> iterator = entries.listIterator(descending ? entries.size() : 0);
+            while (descending ? iterator.hasPrevious() : iterator.hasNext()) {
+                MapDbHistorySegment.Entry entry = descending ? iterator.previous() : iterator.next();
+                if (entry.getTimestamp() < begin || entry.getTimestamp() > end
+                        || !matches(entry.getState(), filter.getOperator(), filter.getState())) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                MapDbItem item = new MapDbItem();
+                item.setName(name);
+                item.setState(entry.getState());
+                item.setTimestamp(new Date(entry.getTimestamp()));
+                result.add(item);
+                if (result.size() >= filter.getPageSize()) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(State state, @Nullable Operator operator, @Nullable State filterState) {
+        if (filterState == null || operator == null) {
+            return true;
+        }
+        switch (operator) {
+            case EQ:
+                return state.equals(filterState);
+            case NEQ:
+                return !state.equals(filterState);
+            default:
+                BigDecimal value = toBigDecimal(state);
+                BigDecimal filterValue = toBigDecimal(filterState);
+                if (value == null || filterValue == null) {
+                    return false;
+                }
+                int comparison = value.compareTo(filterValue);
+                switch (operator) {
+                    case GT:
+                        return comparison > 0;
+                    case GTE:
+                        return comparison >= 0;
+                    case LT:
+                        return comparison < 0;
+                    case LTE:
+                        return comparison <= 0;
+                    default:
+                        return false;
+                }
+        }
+    }
+
+    private static @Nullable BigDecimal toBigDecimal(State state) {
+        if (state instanceof DecimalType) {
+            return ((DecimalType) state).toBigDecimal();
+        }
+        if (state instanceof QuantityType) {
+            return ((QuantityType<?>) state).toBigDecimal();
+        }
+        return null;
+    }
+
+    private long getSegmentStart(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, segmentDuration);
+    }
+
+    private static String createSegmentPrefix(String name, long segmentStart) {
+        // fixed width hex keeps the lexicographic order of the keys equal to the chronological order, the flipped
+        // sign bit sorts timestamps before 1970 in front of the later ones
+        return name + KEY_SEPARATOR + String.format("%016x", segmentStart ^ Long.MIN_VALUE) + KEY_SEPARATOR;
+    }
+
+    private static String createKey(String name, long segmentStart, int chunkIndex) {
+        return createSegmentPrefix(name, segmentStart) + String.format("%04x", chunkIndex);
+    }
+
+    private static long parseSegmentStart(String segmentPrefix) {
+        int end = segmentPrefix.length() - 1;
+        int start = segmentPrefix.lastIndexOf(KEY_SEPARATOR, end - 1) + 1;
+        return Long.parseUnsignedLong(segmentPrefix.substring(start, end), 16) ^ Long.MIN_VALUE;
+    }
+
+    private static int parseChunkIndex(String key) {
+        return Integer.parseInt(key.substring(key.lastIndexOf(KEY_SEPARATOR) + 1), 16);
+    }
+}
@@ -13,13 +13,17 @@
 package org.openhab.persistence.mapdb.internal;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,7 +41,9 @@ import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,7 +59,8 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        MapDbPersistenceService.class }, configurationPid = "org.openhab.mapdb")
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_NAME = "mapdb";
@@ -62,6 +69,24 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    private static final String CONFIG_HISTORY_ENABLED = "historyEnabled";
+
+    private static final String CONFIG_HISTORY_SEGMENT_MINUTES = "historySegmentMinutes";
+
+    private static final long DEFAULT_HISTORY_SEGMENT_MINUTES = 60;
+
+    private static final String CONFIG_COMMIT_MAX_LATENCY = "commitMaxLatency";
+
+    private static final String CONFIG_COMMIT_MAX_BATCH_SIZE = "commitMaxBatchSize";
+
+    private static final String CONFIG_COMMIT_QUEUE_SIZE = "commitQueueSize";
+
+    private static final long DEFAULT_COMMIT_MAX_LATENCY = 1000;
+
+    private static final long DEFAULT_COMMIT_MAX_BATCH_SIZE = 500;
+
+    private static final long DEFAULT_COMMIT_QUEUE_SIZE = 10000;
+
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     @NonNullByDefault({})
@@ -70,14 +95,23 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     /** holds the local instance of the MapDB database */
     @NonNullByDefault({})
     private DB db;
+    /** holds the latest state per item, encoded by {@link MapDbStateCodec} or as JSON by former versions */
     @NonNullByDefault({})
-    private Map<String, String> map;
+    private Map<String, Object> map;
+
+    /** holds the item history, only available if the history mode is enabled */
+    private @Nullable MapDbHistoryStore historyStore;
+
+    /** collects the items to store and writes them with a single commit per batch */
+    @NonNullByDefault({})
+    private MapDbCommitQueue commitQueue;
 
     private transient Gson mapper = new GsonBuilder()
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
-    public void activate() {
+    @Activate
+    public void activate(final Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
         threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
@@ -94,11 +128,31 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
         db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
         map = db.createTreeMap("itemStore").makeOrGet();
+        migrateJsonEntries();
+
+        if (Boolean.parseBoolean(String.valueOf(config.get(CONFIG_HISTORY_ENABLED)))) {
+            long segmentMinutes = parseLong(config.get(CONFIG_HISTORY_SEGMENT_MINUTES),
+                    DEFAULT_HISTORY_SEGMENT_MINUTES);
+            NavigableMap<String, byte[]> segments = db.createTreeMap("itemHistory").makeOrGet();
+            historyStore = new MapDbHistoryStore(segments, TimeUnit.MINUTES.toMillis(segmentMinutes));
+            logger.debug("MapDB history mode is enabled with segments of {} minutes", segmentMinutes);
+        }
+
+        commitQueue = new MapDbCommitQueue(
+                (int) parseLong(config.get(CONFIG_COMMIT_QUEUE_SIZE), DEFAULT_COMMIT_QUEUE_SIZE),
+                parseLong(config.get(CONFIG_COMMIT_MAX_LATENCY), DEFAULT_COMMIT_MAX_LATENCY),
+                (int) parseLong(config.get(CONFIG_COMMIT_MAX_BATCH_SIZE), DEFAULT_COMMIT_MAX_BATCH_SIZE),
+                this::writeItem, this::commitBatch);
+        commitQueue.start(threadPool);
         logger.debug("MapDB persistence service is now activated");
     }
 
+    @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        if (commitQueue != null) {
+            commitQueue.stop();
+        }
         if (db != null) {
             db.close();
         }
@@ -118,7 +172,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
         return map.values().stream()
-                .map(this::deserialize)
+                .map(this::deserializeInfo)
                 .flatMap(MapDbPersistenceService::streamOptional)
                 .collect(Collectors.<PersistenceItemInfo>toSet());
     }
@@ -145,31 +199,56 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(alias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
-        logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
+        if (commitQueue.add(mItem)) {
+            logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
+        } else {
+            logger.debug("MapDB persistence service is stopped, '{}' has not been stored", alias);
+        }
+    }
+
+    /**
+     * Returns the statistics of the group commits, used by the console command.
+     *
+     * @return the commit queue, <code>null</code> if the service is not activated
+     */
+    public @Nullable MapDbCommitQueue getCommitQueue() {
+        return commitQueue;
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        MapDbHistoryStore history = historyStore;
+        if (history != null) {
+            List<HistoricItem> items = history.query(filter);
+            // items stored before the history mode was enabled only have their latest state
+            if (!items.isEmpty() || filter.getBeginDate() != null || filter.getEndDate() != null) {
+                return items;
+            }
+        }
+
+        Object value = map.get(filter.getItemName());
+        if (value == null) {
             return Collections.emptyList();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        Optional<MapDbItem> item = deserialize(value);
         if (!item.isPresent()) {
             return Collections.emptyList();
         }
         return Collections.singletonList(item.get());
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
-    }
-
-    private Optional<MapDbItem> deserialize(String json) {
-        MapDbItem item = mapper.<MapDbItem>fromJson(json, MapDbItem.class);
+    private Optional<MapDbItem> deserialize(Object value) {
+        MapDbItem item;
+        if (value instanceof byte[]) {
+            try {
+                item = MapDbStateCodec.decodeItem((byte[]) value);
+            } catch (IOException e) {
+                logger.warn("Failed to deserialize item: {}", e.getMessage());
+                return Optional.empty();
+            }
+        } else {
+            item = mapper.<MapDbItem>fromJson(value.toString(), MapDbItem.class);
+        }
         if (item == null || !item.isValid()) {
             logger.warn("Deserialized invalid item: {}", item);
             return Optional.empty();
@@ -177,8 +256,61 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
-    private void commit() {
-        threadPool.submit(() -> db.commit());
+    private Optional<PersistenceItemInfo> deserializeInfo(Object value) {
+        if (value instanceof byte[]) {
+            try {
+                return Optional.of(MapDbStateCodec.decodeItemInfo((byte[]) value));
+            } catch (IOException e) {
+                logger.warn("Failed to deserialize item info: {}", e.getMessage());
+                return Optional.empty();
+            }
+        }
+        return deserialize(value).map(item -> item);
+    }
+
+    /**
+     * Converts the JSON entries written by former versions into the binary format.
+     */
+    private void migrateJsonEntries() {
+        int migrated = 0;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (entry.getValue() instanceof String) {
+                Optional<MapDbItem> item = deserialize(entry.getValue());
+                if (item.isPresent()) {
+                    map.put(entry.getKey(), MapDbStateCodec.encodeItem(item.get()));
+                    migrated++;
+                }
+            }
+        }
+        if (migrated > 0) {
+            db.commit();
+            logger.info("Migrated {} MapDB entries to the binary format", migrated);
+        }
+    }
+
+    private void writeItem(MapDbItem item) {
+        map.put(item.getName(), MapDbStateCodec.encodeItem(item));
+        MapDbHistoryStore history = historyStore;
+        if (history != null) {
+            history.append(item.getName(), item.getTimestamp().getTime(), item.getState());
+        }
+    }
+
+    private void commitBatch(List<MapDbItem> batch) {
+        db.commit();
+        logger.debug("Committed {} stored states in MapDB database", batch.size());
+    }
+
+    private static long parseLong(@Nullable Object value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long result = Long.parseLong(value.toString().trim());
+            return result > 0 ? result : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
     }
 
     private static <T> Stream<T> streamOptional(Optional<T> opt) {
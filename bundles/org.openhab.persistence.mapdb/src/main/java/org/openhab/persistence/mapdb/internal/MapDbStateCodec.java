@@ -0,0 +1,359 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+
+/**
+ * Compact binary encoding of {@link MapDbItem}s and {@link State}s.
+ *
+ * An encoded item starts with the format version, followed by its timestamp and name, so the item information can be
+ * read without decoding the state. States are written as a type tag followed by a type specific payload. Types without
+ * a dedicated tag are written as class name and full string, as the former JSON format did.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbStateCodec {
+
+    /** format version of encoded items */
+    public static final byte VERSION = 1;
+
+    private static final byte TAG_GENERIC = 0;
+    private static final byte TAG_DECIMAL = 1;
+    private static final byte TAG_PERCENT = 2;
+    private static final byte TAG_QUANTITY = 3;
+    private static final byte TAG_ON = 4;
+    private static final byte TAG_OFF = 5;
+    private static final byte TAG_OPEN = 6;
+    private static final byte TAG_CLOSED = 7;
+    private static final byte TAG_UP = 8;
+    private static final byte TAG_DOWN = 9;
+    private static final byte TAG_HSB = 10;
+    private static final byte TAG_POINT = 11;
+    private static final byte TAG_DATETIME = 12;
+    private static final byte TAG_STRING = 13;
+
+    private static final Map<String, Class<? extends State>> STATE_TYPES = new ConcurrentHashMap<>();
+
+    /** verified symbols of units, empty if a unit cannot be restored from its symbol */
+    private static final Map<Unit<?>, Optional<String>> UNIT_SYMBOLS = new ConcurrentHashMap<>();
+
+    private static final Map<String, Unit<?>> UNITS = new ConcurrentHashMap<>();
+
+    private MapDbStateCodec() {
+        // utility class
+    }
+
+    /**
+     * Encodes an item.
+     *
+     * @param item the item
+     * @return the encoded item
+     */
+    public static byte[] encodeItem(MapDbItem item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + item.getName().length());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeVarLong(out, item.getTimestamp().getTime());
+            writeString(out, item.getName());
+            writeState(out, item.getState());
+        } catch (IOException e) {
+            // cannot happen on a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an item including its state.
+     *
+     * @param data the encoded item
+     * @return the item
+     * @throws IOException if the data is corrupt or of an unknown version
+     */
+    public static MapDbItem decodeItem(byte[] data) throws IOException {
+        try (DataInputStream in = openItem(data)) {
+            MapDbItem item = new MapDbItem();
+            item.setTimestamp(new Date(readVarLong(in)));
+            item.setName(readString(in));
+            item.setState(readState(in));
+            return item;
+        }
+    }
+
+    /**
+     * Decodes the name and timestamp of an item, skipping its state.
+     *
+     * @param data the encoded item
+     * @return the item information
+     * @throws IOException if the data is corrupt or of an unknown version
+     */
+    public static MapDbItemInfo decodeItemInfo(byte[] data) throws IOException {
+        try (DataInputStream in = openItem(data)) {
+            Date timestamp = new Date(readVarLong(in));
+            return new MapDbItemInfo(readString(in), timestamp);
+        }
+    }
+
+    private static DataInputStream openItem(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported format version " + version);
+        }
+        return in;
+    }
+
+    /**
+     * Writes a state.
+     *
+     * @param out the output to write to
+     * @param state the state
+     * @throws IOException if writing to the output fails
+     */
+    public static void writeState(DataOutput out, State state) throws IOException {
+        Class<? extends State> type = state.getClass();
+        if (type == DecimalType.class) {
+            out.writeByte(TAG_DECIMAL);
+            writeDecimal(out, ((DecimalType) state).toBigDecimal());
+        } else if (type == PercentType.class) {
+            out.writeByte(TAG_PERCENT);
+            writeDecimal(out, ((PercentType) state).toBigDecimal());
+        } else if (type == QuantityType.class && getUnitSymbol(((QuantityType<?>) state).getUnit()).isPresent()) {
+            QuantityType<?> quantity = (QuantityType<?>) state;
+            out.writeByte(TAG_QUANTITY);
+            writeDecimal(out, quantity.toBigDecimal());
+            writeString(out, getUnitSymbol(quantity.getUnit()).get());
+        } else if (state == OnOffType.ON || state == OnOffType.OFF) {
+            out.writeByte(state == OnOffType.ON ? TAG_ON : TAG_OFF);
+        } else if (state == OpenClosedType.OPEN || state == OpenClosedType.CLOSED) {
+            out.writeByte(state == OpenClosedType.OPEN ? TAG_OPEN : TAG_CLOSED);
+        } else if (state == UpDownType.UP || state == UpDownType.DOWN) {
+            out.writeByte(state == UpDownType.UP ? TAG_UP : TAG_DOWN);
+        } else if (type == HSBType.class) {
+            HSBType hsb = (HSBType) state;
+            out.writeByte(TAG_HSB);
+            writeDecimal(out, hsb.getHue().toBigDecimal());
+            writeDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (type == PointType.class) {
+            PointType point = (PointType) state;
+            out.writeByte(TAG_POINT);
+            writeDecimal(out, point.getLatitude().toBigDecimal());
+            writeDecimal(out, point.getLongitude().toBigDecimal());
+            writeDecimal(out, point.getAltitude().toBigDecimal());
+        } else if (type == DateTimeType.class) {
+            ZonedDateTime dateTime = ((DateTimeType) state).getZonedDateTime();
+            out.writeByte(TAG_DATETIME);
+            writeVarLong(out, dateTime.toEpochSecond());
+            writeVarLong(out, dateTime.getNano());
+            writeString(out, dateTime.getZone().getId());
+        } else if (type == StringType.class) {
+            out.writeByte(TAG_STRING);
+            writeString(out, state.toFullString());
+        } else {
+            out.writeByte(TAG_GENERIC);
+            writeString(out, type.getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    /**
+     * Reads a state.
+     *
+     * @param in the input to read from
+     * @return the state
+     * @throws IOException if the data is corrupt
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static State readState(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_DECIMAL:
+                return new DecimalType(readDecimal(in));
+            case TAG_PERCENT:
+                return new PercentType(readDecimal(in));
+            case TAG_QUANTITY:
+                BigDecimal value = readDecimal(in);
+                return new QuantityType(value, getUnit(readString(in)));
+            case TAG_ON:
+                return OnOffType.ON;
+            case TAG_OFF:
+                return OnOffType.OFF;
+            case TAG_OPEN:
+                return OpenClosedType.OPEN;
+            case TAG_CLOSED:
+                return OpenClosedType.CLOSED;
+            case TAG_UP:
+                return UpDownType.UP;
+            case TAG_DOWN:
+                return UpDownType.DOWN;
+            case TAG_HSB:
+                return new HSBType(new DecimalType(readDecimal(in)), new PercentType(readDecimal(in)),
+                        new PercentType(readDecimal(in)));
+            case TAG_POINT:
+                return new PointType(new DecimalType(readDecimal(in)), new DecimalType(readDecimal(in)),
+                        new DecimalType(readDecimal(in)));
+            case TAG_DATETIME:
+                Instant instant = Instant.ofEpochSecond(readVarLong(in), readVarLong(in));
+                return new DateTimeType(ZonedDateTime.ofInstant(instant, ZoneId.of(readString(in))));
+            case TAG_STRING:
+                return new StringType(readString(in));
+            case TAG_GENERIC:
+                String typeName = readString(in);
+                String valueAsString = readString(in);
+                State state = TypeParser.parseState(Collections.singletonList(getStateType(typeName)),
+                        valueAsString);
+                if (state == null) {
+                    throw new IOException("Cannot parse state '" + valueAsString + "' of type " + typeName);
+                }
+                return state;
+            default:
+                throw new IOException("Unknown state type tag " + tag);
+        }
+    }
+
+    /**
+     * Writes a non-negative value using 7 bits per byte.
+     */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    /**
+     * Reads a value written by {@link #writeVarLong(DataOutput, long)}.
+     */
+    public static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length value");
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        // zig-zag encoding keeps small negative scales short
+        int scale = value.scale();
+        writeVarLong(out, ((scale << 1) ^ (scale >> 31)) & 0xFFFFFFFFL);
+        writeVarLong(out, unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int zigZagScale = (int) readVarLong(in);
+        int scale = (zigZagScale >>> 1) ^ -(zigZagScale & 1);
+        byte[] unscaled = new byte[(int) readVarLong(in)];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Optional<String> getUnitSymbol(Unit<?> unit) {
+        return UNIT_SYMBOLS.computeIfAbsent(unit, u -> {
+            String symbol = u.toString();
+            try {
+                // only use the symbol if the unit can be restored from it
+                Unit<?> parsed = new QuantityType<>("1 " + symbol).getUnit();
+                if (u.equals(parsed)) {
+                    UNITS.put(symbol, parsed);
+                    return Optional.of(symbol);
+                }
+            } catch (IllegalArgumentException e) {
+                // fall through
+            }
+            return Optional.empty();
+        });
+    }
+
+    private static Unit<?> getUnit(String symbol) throws IOException {
+        Unit<?> unit = UNITS.get(symbol);
+        if (unit == null) {
+            try {
+                unit = new QuantityType<>("1 " + symbol).getUnit();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown unit " + symbol, e);
+            }
+            UNITS.put(symbol, unit);
+        }
+        return unit;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends State> getStateType(String typeName) throws IOException {
+        Class<? extends State> type = STATE_TYPES.get(typeName);
+        if (type == null) {
+            try {
+                type = (Class<? extends State>) Class.forName(typeName);
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Unknown state type " + typeName, e);
+            }
+            STATE_TYPES.put(typeName, type);
+        }
+        return type;
+    }
+}
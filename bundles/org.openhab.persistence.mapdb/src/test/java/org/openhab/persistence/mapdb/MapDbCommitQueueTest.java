@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbCommitQueue;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbCommitQueueTest {
+    private static final long LONG_LATENCY = TimeUnit.MINUTES.toMillis(1);
+
+    private final List<MapDbItem> written = new CopyOnWriteArrayList<>();
+
+    private final List<List<MapDbItem>> batches = new ArrayList<>();
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void burstOfStoresToTheSameItemShouldBeCommittedOnce() {
+        MapDbCommitQueue queue = new MapDbCommitQueue(100, LONG_LATENCY, 50, written::add, this::writeBatch);
+        for (int i = 0; i < 10; i++) {
+            queue.add(item("Item", i));
+        }
+        assertThat(queue.getQueueDepth(), is(10));
+
+        queue.stop();
+
+        assertThat(batches.size(), is(1));
+        assertThat(states(batches.get(0)), is(equalTo(range(0, 9))));
+        assertThat(queue.getCommitCount(), is(1L));
+        assertThat(queue.getItemCount(), is(10L));
+        assertThat(queue.getCoalescedCount(), is(9L));
+        assertThat(queue.getLargestQueueDepth(), is(10L));
+        assertThat(queue.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void batchShouldBeWrittenWhenTheBatchSizeLimitIsReached() throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        MapDbCommitQueue queue = new MapDbCommitQueue(100, LONG_LATENCY, 5, written::add, batch -> {
+            writeBatch(batch);
+            committed.countDown();
+        });
+        queue.start(executor);
+        for (int i = 0; i < 5; i++) {
+            queue.add(item("Item" + i, i));
+        }
+
+        // the batch is full, so it must not wait for the maximum latency
+        assertThat(committed.await(10, TimeUnit.SECONDS), is(true));
+        synchronized (batches) {
+            assertThat(states(batches.get(0)), is(equalTo(range(0, 4))));
+        }
+        queue.stop();
+        assertThat(queue.getLargestBatchSize(), is(5L));
+        assertThat(queue.getCoalescedCount(), is(0L));
+    }
+
+    @Test
+    public void stopShouldDrainThePendingCommitsInBatches() {
+        MapDbCommitQueue queue = new MapDbCommitQueue(100, LONG_LATENCY, 5, written::add, this::writeBatch);
+        queue.start(executor);
+        for (int i = 0; i < 12; i++) {
+            queue.add(item("Item" + i, i));
+        }
+
+        long start = System.nanoTime();
+        queue.stop();
+
+        // stopping does not wait for the maximum latency of the batch being collected
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < LONG_LATENCY / 2, is(true));
+        List<DecimalType> committed = new ArrayList<>();
+        for (List<MapDbItem> batch : batches) {
+            assertThat(batch.size() <= 5, is(true));
+            committed.addAll(states(batch));
+        }
+        assertThat(committed, is(equalTo(range(0, 11))));
+        assertThat(queue.getItemCount(), is(12L));
+        assertThat(queue.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void itemsShouldBeWrittenBeforeTheirCommit() {
+        MapDbCommitQueue queue = new MapDbCommitQueue(100, LONG_LATENCY, 50, written::add, this::writeBatch);
+
+        assertThat(queue.add(item("Item", 1)), is(true));
+
+        assertThat(states(written), is(equalTo(range(1, 1))));
+        assertThat(batches.isEmpty(), is(true));
+        queue.stop();
+        assertThat(batches.size(), is(1));
+    }
+
+    @Test
+    public void fullQueueShouldBeCommittedByTheCaller() {
+        MapDbCommitQueue queue = new MapDbCommitQueue(2, LONG_LATENCY, 5, written::add, this::writeBatch);
+        for (int i = 0; i < 3; i++) {
+            queue.add(item("Item" + i, i));
+        }
+
+        assertThat(batches.size(), is(1));
+        assertThat(states(batches.get(0)), is(equalTo(range(0, 1))));
+        assertThat(queue.getQueueDepth(), is(1));
+        queue.stop();
+    }
+
+    @Test
+    public void itemsShouldBeRejectedAfterStop() {
+        MapDbCommitQueue queue = new MapDbCommitQueue(100, LONG_LATENCY, 5, written::add, this::writeBatch);
+        queue.start(executor);
+        queue.stop();
+
+        assertThat(queue.add(item("Item", 1)), is(false));
+
+        assertThat(written.isEmpty(), is(true));
+        assertThat(queue.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void stopShouldWaitForTheWorkerToFinishItsCommit() throws InterruptedException {
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        CountDownLatch commitReleased = new CountDownLatch(1);
+        MapDbCommitQueue queue = new MapDbCommitQueue(100, LONG_LATENCY, 1, written::add, batch -> {
+            commitStarted.countDown();
+            try {
+                commitReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writeBatch(batch);
+        });
+        queue.start(executor);
+        queue.add(item("Item", 1));
+        assertThat(commitStarted.await(10, TimeUnit.SECONDS), is(true));
+
+        Thread stopper = new Thread(queue::stop);
+        stopper.start();
+        // longer than the worker needs to notice the stop when it is idle
+        stopper.join(2000);
+        assertThat(stopper.isAlive(), is(true));
+
+        commitReleased.countDown();
+        stopper.join(10000);
+        assertThat(stopper.isAlive(), is(false));
+        assertThat(batches.size(), is(1));
+    }
+
+    private void writeBatch(List<MapDbItem> batch) {
+        synchronized (batches) {
+            // the queue reuses its batch list
+            batches.add(new ArrayList<>(batch));
+        }
+    }
+
+    private static MapDbItem item(String name, int value) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(new DecimalType(value));
+        item.setTimestamp(new Date());
+        return item;
+    }
+
+    private static List<DecimalType> states(List<MapDbItem> items) {
+        return items.stream().map(item -> (DecimalType) item.getState()).collect(Collectors.toList());
+    }
+
+    private static List<DecimalType> range(int from, int to) {
+        List<DecimalType> states = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            states.add(new DecimalType(i));
+        }
+        return states;
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbHistoryStore;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbHistoryStoreTest {
+    private static final long MINUTE = 60_000L;
+
+    private MapDbHistoryStore store;
+
+    @Before
+    public void setUp() {
+        store = new MapDbHistoryStore(new TreeMap<>(), 10 * MINUTE);
+        for (int i = 0; i < 100; i++) {
+            store.append("Item", i * MINUTE, new DecimalType(i));
+        }
+        store.append("Item2", 5 * MINUTE, new DecimalType(-1));
+    }
+
+    @Test
+    public void queryShouldReturnTheRequestedRangeInOrder() {
+        FilterCriteria filter = new FilterCriteria().setItemName("Item").setBeginDate(new Date(15 * MINUTE))
+                .setEndDate(new Date(24 * MINUTE)).setOrdering(Ordering.ASCENDING);
+        assertThat(values(store.query(filter)), is(equalTo(range(15, 24, 1))));
+
+        filter.setOrdering(Ordering.DESCENDING);
+        assertThat(values(store.query(filter)), is(equalTo(range(24, 15, -1))));
+    }
+
+    @Test
+    public void queryShouldSupportPaging() {
+        FilterCriteria filter = new FilterCriteria().setItemName("Item").setOrdering(Ordering.DESCENDING)
+                .setPageSize(7).setPageNumber(2);
+        assertThat(values(store.query(filter)), is(equalTo(range(85, 79, -1))));
+    }
+
+    @Test
+    public void queryShouldFilterByState() {
+        FilterCriteria filter = new FilterCriteria().setItemName("Item").setOrdering(Ordering.ASCENDING)
+                .setOperator(Operator.GTE).setState(new DecimalType(97));
+        assertThat(values(store.query(filter)), is(equalTo(range(97, 99, 1))));
+    }
+
+    @Test
+    public void queryShouldNotMixItems() {
+        FilterCriteria filter = new FilterCriteria().setItemName("Item2");
+        assertThat(values(store.query(filter)), is(equalTo(range(-1, -1, 1))));
+        assertThat(store.query(new FilterCriteria().setItemName("Unknown")).isEmpty(), is(true));
+    }
+
+    @Test
+    public void appendShouldOnlyRewriteTheLastChunkOfASegment() {
+        TreeMap<String, byte[]> segments = new TreeMap<>();
+        MapDbHistoryStore chunkedStore = new MapDbHistoryStore(segments, 1000 * MINUTE);
+        chunkedStore.append("Item", 0, new DecimalType(0));
+        int count = 1;
+        while (segments.size() < 3) {
+            chunkedStore.append("Item", count * MINUTE / 1000, new DecimalType(count));
+            count++;
+        }
+        // the first chunk is full and has not been written again since the second chunk was started
+        byte[] fullChunk = segments.firstEntry().getValue();
+        chunkedStore.append("Item", count * MINUTE / 1000, new DecimalType(count));
+        assertThat(segments.firstEntry().getValue(), is(sameInstance(fullChunk)));
+
+        FilterCriteria filter = new FilterCriteria().setItemName("Item").setOrdering(Ordering.ASCENDING)
+                .setPageSize(Integer.MAX_VALUE);
+        assertThat(values(chunkedStore.query(filter)), is(equalTo(range(0, count, 1))));
+        filter.setOrdering(Ordering.DESCENDING);
+        assertThat(values(chunkedStore.query(filter)), is(equalTo(range(count, 0, -1))));
+    }
+
+    @Test
+    public void timestampsBefore1970ShouldSortBeforeLaterOnes() {
+        MapDbHistoryStore negativeStore = new MapDbHistoryStore(new TreeMap<>(), 10 * MINUTE);
+        negativeStore.append("Item", 5 * MINUTE, new DecimalType(2));
+        negativeStore.append("Item", -25 * MINUTE, new DecimalType(0));
+        negativeStore.append("Item", -5 * MINUTE, new DecimalType(1));
+
+        FilterCriteria filter = new FilterCriteria().setItemName("Item").setOrdering(Ordering.ASCENDING);
+        assertThat(values(negativeStore.query(filter)), is(equalTo(range(0, 2, 1))));
+
+        filter.setBeginDate(new Date(-10 * MINUTE)).setEndDate(new Date(0));
+        assertThat(values(negativeStore.query(filter)), is(equalTo(range(1, 1, 1))));
+    }
+
+    private static List<State> values(List<HistoricItem> items) {
+        return items.stream().map(HistoricItem::getState).collect(Collectors.toList());
+    }
+
+    private static List<State> range(int from, int to, int step) {
+        List<State> states = new ArrayList<>();
+        for (int i = from; step > 0 ? i <= to : i >= to; i += step) {
+            states.add(new DecimalType(i));
+        }
+        return states;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PlayPauseType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemInfo;
+import org.openhab.persistence.mapdb.internal.MapDbStateCodec;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbStateCodecTest {
+
+    @Test
+    public void encodeDecodeRoundtripShouldRecreateTheState() throws IOException {
+        assertRoundtrip(new DecimalType("21.5"));
+        assertRoundtrip(new DecimalType("-1234567890123456789012345.0001"));
+        assertRoundtrip(PercentType.HUNDRED);
+        assertRoundtrip(new QuantityType<>("21.5 °C"));
+        assertRoundtrip(new QuantityType<>("-3 kWh"));
+        assertRoundtrip(OnOffType.ON);
+        assertRoundtrip(OpenClosedType.CLOSED);
+        assertRoundtrip(HSBType.GREEN);
+        assertRoundtrip(new PointType("52.5200,13.4050,34"));
+        assertRoundtrip(new DateTimeType("2019-03-14T15:09:26.535+01:00"));
+        assertRoundtrip(StringType.valueOf("test äöü"));
+        assertRoundtrip(PlayPauseType.PLAY);
+    }
+
+    @Test
+    public void decodeItemInfoShouldReadNameAndTimestamp() throws IOException {
+        MapDbItem item = createItem("TestItem", new DecimalType(1));
+        MapDbItemInfo info = MapDbStateCodec.decodeItemInfo(MapDbStateCodec.encodeItem(item));
+        assertThat(info.getName(), is(equalTo("TestItem")));
+        assertThat(info.getLatest(), is(equalTo(item.getTimestamp())));
+    }
+
+    @Test(expected = IOException.class)
+    public void decodeShouldRejectUnknownVersions() throws IOException {
+        byte[] data = MapDbStateCodec.encodeItem(createItem("TestItem", OnOffType.OFF));
+        data[0] = MapDbStateCodec.VERSION + 1;
+        MapDbStateCodec.decodeItem(data);
+    }
+
+    private void assertRoundtrip(State state) throws IOException {
+        MapDbItem item = MapDbStateCodec.decodeItem(MapDbStateCodec.encodeItem(createItem("TestItem", state)));
+        assertThat(item.getState(), is(equalTo(state)));
+        assertThat(item.getName(), is(equalTo("TestItem")));
+    }
+
+    private MapDbItem createItem(String name, State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(state);
+        item.setTimestamp(new Date(1552572566000L));
+        return item;
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbStateCodec;
+import org.openhab.persistence.mapdb.internal.StateTypeAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Compares the binary {@link MapDbStateCodec} with the former Gson based JSON storage format.
+ *
+ * Run with <code>main</code> from the IDE or through the JMH runner on the test classpath.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateCodecBenchmark {
+
+    @Param({ "decimal", "quantity", "onoff", "hsb", "string" })
+    public String stateType;
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeHierarchyAdapter(org.eclipse.smarthome.core.types.State.class, new StateTypeAdapter())
+            .create();
+
+    private MapDbItem item;
+    private String json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        item = new MapDbItem();
+        item.setName("Livingroom_Temperature");
+        item.setState(createState(stateType));
+        item.setTimestamp(new Date());
+        json = gson.toJson(item);
+        binary = MapDbStateCodec.encodeItem(item);
+    }
+
+    @Benchmark
+    public String encodeJson() {
+        return gson.toJson(item);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return MapDbStateCodec.encodeItem(item);
+    }
+
+    @Benchmark
+    public MapDbItem decodeJson() {
+        return gson.fromJson(json, MapDbItem.class);
+    }
+
+    @Benchmark
+    public MapDbItem decodeBinary() throws IOException {
+        return MapDbStateCodec.decodeItem(binary);
+    }
+
+    @Benchmark
+    public Object decodeBinaryInfo() throws IOException {
+        return MapDbStateCodec.decodeItemInfo(binary);
+    }
+
+    private static org.eclipse.smarthome.core.types.State createState(String type) {
+        switch (type) {
+            case "decimal":
+                return new DecimalType("21.53");
+            case "quantity":
+                return new QuantityType<>("21.53 °C");
+            case "onoff":
+                return OnOffType.ON;
+            case "hsb":
+                return HSBType.BLUE;
+            default:
+                return StringType.valueOf("The quick brown fox jumps over the lazy dog");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StateCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,500 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps external programs running as coprocesses, so an execution with a frequently changing input does not start a
+ * new process every time.
+ *
+ * The coprocess protocol is line based: every input is written as a single line to the standard input of the
+ * coprocess, and the next line written by the coprocess to its standard output is the result. Line breaks within the
+ * input are replaced by spaces. Output on the standard error stream is logged.
+ *
+ * At most {@link #getMaxProcessesPerCommand()} coprocesses are started per command line, and each coprocess handles
+ * one input at a time. Further executions wait for a free coprocess. A coprocess which fails or does not answer in
+ * time is killed and replaced on the next execution. Coprocesses not used for {@link #IDLE_TIMEOUT_IN_MS} are
+ * terminated by a periodic check, which only runs while coprocesses are kept.
+ *
+ * The exec binding contains a copy of this class, as the two add-ons do not depend on each other. Changes should be
+ * applied to both copies.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CoprocessPool {
+
+    static final long IDLE_TIMEOUT_IN_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long IDLE_CHECK_INTERVAL_IN_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final String THREAD_POOL_NAME = "coprocess";
+
+    private final Logger logger = LoggerFactory.getLogger(CoprocessPool.class);
+
+    private final Function<String, String[]> tokenizer;
+    private volatile int maxProcessesPerCommand;
+
+    /** guarded by this */
+    private final Map<String, CommandPool> pools = new HashMap<>();
+    /** guarded by this */
+    private boolean shutdown;
+    /** guarded by this */
+    private @Nullable ScheduledFuture<?> idleCheck;
+
+    /**
+     * @param maxProcessesPerCommand maximum number of coprocesses running the same command line
+     * @param tokenizer splits a command line into the program and its arguments, e.g.
+     *            {@link #splitAtWhitespace(String)}
+     */
+    public CoprocessPool(int maxProcessesPerCommand, Function<String, String[]> tokenizer) {
+        checkMaxProcessesPerCommand(maxProcessesPerCommand);
+        this.maxProcessesPerCommand = maxProcessesPerCommand;
+        this.tokenizer = tokenizer;
+    }
+
+    private static void checkMaxProcessesPerCommand(int maxProcessesPerCommand) {
+        if (maxProcessesPerCommand < 1) {
+            throw new IllegalArgumentException("maxProcessesPerCommand must be positive");
+        }
+    }
+
+    public int getMaxProcessesPerCommand() {
+        return maxProcessesPerCommand;
+    }
+
+    /**
+     * Change the maximum number of coprocesses running the same command line. Idle coprocesses are terminated, busy
+     * ones are terminated when their execution is finished.
+     *
+     * @param maxProcessesPerCommand maximum number of coprocesses running the same command line
+     */
+    public synchronized void setMaxProcessesPerCommand(int maxProcessesPerCommand) {
+        checkMaxProcessesPerCommand(maxProcessesPerCommand);
+        if (maxProcessesPerCommand != this.maxProcessesPerCommand) {
+            this.maxProcessesPerCommand = maxProcessesPerCommand;
+            for (CommandPool pool : pools.values()) {
+                pool.retire();
+            }
+            pools.clear();
+        }
+    }
+
+    /**
+     * Send an input to a coprocess running the given command line and wait for the result.
+     *
+     * @param commandLine the command line of the coprocess
+     * @param input the input
+     * @param timeoutInMS maximum time to wait for a free coprocess and for its result
+     * @return the line written by the coprocess
+     * @throws IOException if the coprocess cannot be started or terminated before returning a result
+     * @throws TimeoutException if there is no result in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public String execute(String commandLine, String input, long timeoutInMS)
+            throws IOException, TimeoutException, InterruptedException {
+        CommandPool pool = getPool(commandLine);
+        long start = System.nanoTime();
+        try {
+            String result = pool.execute(input, timeoutInMS);
+            pool.statistics.succeeded(System.nanoTime() - start);
+            return result;
+        } catch (TimeoutException e) {
+            pool.statistics.timedOut();
+            throw e;
+        } catch (IOException e) {
+            pool.statistics.failed();
+            throw e;
+        }
+    }
+
+    private synchronized CommandPool getPool(String commandLine) throws IOException {
+        if (shutdown) {
+            throw new IOException("Coprocess pool is shut down");
+        }
+        terminateIdleProcesses();
+        CommandPool pool = pools.get(commandLine);
+        if (pool == null) {
+            pool = new CommandPool(commandLine);
+            pools.put(commandLine, pool);
+        }
+        if (idleCheck == null) {
+            idleCheck = ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME).scheduleWithFixedDelay(
+                    this::checkIdleProcesses, IDLE_CHECK_INTERVAL_IN_MS, IDLE_CHECK_INTERVAL_IN_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+        return pool;
+    }
+
+    private synchronized void checkIdleProcesses() {
+        terminateIdleProcesses();
+        if (pools.isEmpty()) {
+            // restarted by the next execution
+            cancelIdleCheck();
+        }
+    }
+
+    /** Must be called with the lock held */
+    private void cancelIdleCheck() {
+        ScheduledFuture<?> idleCheck = this.idleCheck;
+        if (idleCheck != null) {
+            idleCheck.cancel(false);
+            this.idleCheck = null;
+        }
+    }
+
+    /** Must be called with the lock held */
+    private void terminateIdleProcesses() {
+        long idleSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_IN_MS);
+        Iterator<CommandPool> iterator = pools.values().iterator();
+        while (iterator.hasNext()) {
+            CommandPool pool = iterator.next();
+            pool.terminateIdle(idleSince);
+            if (pool.isUnused() && pool.lastUsed - idleSince < 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Terminate all coprocesses. Further executions fail.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        cancelIdleCheck();
+        for (CommandPool pool : pools.values()) {
+            logger.debug("Coprocess statistics for '{}': {}", pool.commandLine, pool.statistics);
+            pool.retire();
+        }
+        pools.clear();
+    }
+
+    /**
+     * @return the statistics of every command line executed by this pool
+     */
+    public synchronized Map<String, Statistics> getStatistics() {
+        Map<String, Statistics> statistics = new HashMap<>();
+        for (CommandPool pool : pools.values()) {
+            statistics.put(pool.commandLine, pool.statistics.copy());
+        }
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Split the command line into the program and its arguments, separated by whitespace, like
+     * {@link Runtime#exec(String)}
+     */
+    public static String[] splitAtWhitespace(String commandLine) {
+        return commandLine.trim().split("\\s+");
+    }
+
+    /**
+     * Split the command line into the program and its arguments like {@code ExecUtil}: separated by @@ if the command
+     * line contains @@, otherwise by whitespace
+     */
+    public static String[] splitAtDoubleAtOrWhitespace(String commandLine) {
+        if (commandLine.contains("@@")) {
+            return commandLine.split("@@");
+        }
+        return splitAtWhitespace(commandLine);
+    }
+
+    /**
+     * Execution statistics of a command line
+     */
+    public static class Statistics {
+        private long executions;
+        private long failures;
+        private long timeouts;
+        private long processesStarted;
+        private long totalLatencyInNanos;
+        private long maxLatencyInNanos;
+
+        private synchronized void succeeded(long latencyInNanos) {
+            executions++;
+            totalLatencyInNanos += latencyInNanos;
+            maxLatencyInNanos = Math.max(maxLatencyInNanos, latencyInNanos);
+        }
+
+        private synchronized void failed() {
+            executions++;
+            failures++;
+        }
+
+        private synchronized void timedOut() {
+            executions++;
+            timeouts++;
+        }
+
+        private synchronized void started() {
+            processesStarted++;
+        }
+
+        private synchronized Statistics copy() {
+            Statistics copy = new Statistics();
+            copy.executions = executions;
+            copy.failures = failures;
+            copy.timeouts = timeouts;
+            copy.processesStarted = processesStarted;
+            copy.totalLatencyInNanos = totalLatencyInNanos;
+            copy.maxLatencyInNanos = maxLatencyInNanos;
+            return copy;
+        }
+
+        public synchronized long getExecutions() {
+            return executions;
+        }
+
+        public synchronized long getFailures() {
+            return failures;
+        }
+
+        public synchronized long getTimeouts() {
+            return timeouts;
+        }
+
+        public synchronized long getProcessesStarted() {
+            return processesStarted;
+        }
+
+        /**
+         * @return the average latency of successful executions in milliseconds
+         */
+        public synchronized double getAverageLatencyInMS() {
+            long successful = executions - failures - timeouts;
+            return successful == 0 ? 0 : totalLatencyInNanos / 1000000.0 / successful;
+        }
+
+        public synchronized double getMaxLatencyInMS() {
+            return maxLatencyInNanos / 1000000.0;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "executions=" + executions + ", failures=" + failures + ", timeouts=" + timeouts
+                    + ", processesStarted=" + processesStarted + ", averageLatency="
+                    + String.format("%.1f", getAverageLatencyInMS()) + " ms, maxLatency="
+                    + String.format("%.1f", getMaxLatencyInMS()) + " ms";
+        }
+    }
+
+    /**
+     * Coprocesses running the same command line
+     */
+    private class CommandPool {
+        private final String commandLine;
+        private final int maxProcesses = maxProcessesPerCommand;
+        private final Semaphore permits = new Semaphore(maxProcesses, true);
+        private final Statistics statistics = new Statistics();
+        /** guarded by this */
+        private final Deque<Coprocess> idle = new ArrayDeque<>();
+        /** guarded by this */
+        private boolean retired;
+        private volatile long lastUsed = System.nanoTime();
+
+        private CommandPool(String commandLine) {
+            this.commandLine = commandLine;
+        }
+
+        private String execute(String input, long timeoutInMS)
+                throws IOException, TimeoutException, InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMS);
+            if (!permits.tryAcquire(timeoutInMS, TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException("No coprocess for '" + commandLine + "' available within " + timeoutInMS
+                        + " ms");
+            }
+            @Nullable
+            Coprocess coprocess = null;
+            boolean reusable = false;
+            try {
+                coprocess = takeIdle();
+                if (coprocess == null) {
+                    coprocess = new Coprocess(commandLine, tokenizer.apply(commandLine));
+                    statistics.started();
+                }
+                String result = coprocess.request(input, deadline);
+                reusable = true;
+                return result;
+            } finally {
+                if (coprocess != null) {
+                    if (reusable) {
+                        release(coprocess);
+                    } else {
+                        // failed or stuck, it might not react to a termination request
+                        coprocess.kill();
+                    }
+                }
+                permits.release();
+            }
+        }
+
+        private synchronized @Nullable Coprocess takeIdle() {
+            Coprocess coprocess;
+            while ((coprocess = idle.pollFirst()) != null) {
+                if (coprocess.isAlive()) {
+                    return coprocess;
+                }
+                coprocess.terminate();
+            }
+            return null;
+        }
+
+        private synchronized void release(Coprocess coprocess) {
+            lastUsed = System.nanoTime();
+            if (retired) {
+                coprocess.terminate();
+            } else {
+                idle.addFirst(coprocess);
+            }
+        }
+
+        private synchronized void terminateIdle(long idleSince) {
+            Iterator<Coprocess> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                Coprocess coprocess = iterator.next();
+                if (coprocess.lastUsed - idleSince < 0) {
+                    coprocess.terminate();
+                    iterator.remove();
+                }
+            }
+        }
+
+        /**
+         * Terminate the idle coprocesses now and the busy ones when they are released
+         */
+        private synchronized void retire() {
+            retired = true;
+            for (Coprocess coprocess : idle) {
+                coprocess.terminate();
+            }
+            idle.clear();
+        }
+
+        private synchronized boolean isUnused() {
+            return idle.isEmpty() && permits.availablePermits() == maxProcesses;
+        }
+    }
+
+    /**
+     * A single running coprocess
+     */
+    private class Coprocess {
+        private final String commandLine;
+        private final Process process;
+        private final BufferedWriter stdin;
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private volatile long lastUsed = System.nanoTime();
+
+        private Coprocess(String commandLine, String[] command) throws IOException {
+            this.commandLine = commandLine;
+            logger.debug("Starting coprocess '{}'", commandLine);
+            process = new ProcessBuilder(Arrays.asList(command)).start();
+            stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            startReader("stdout", new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)), true);
+            startReader("stderr", new BufferedReader(
+                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8)), false);
+        }
+
+        private void startReader(String name, BufferedReader reader, boolean results) {
+            Thread thread = new Thread(() -> {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (results) {
+                            lines.add(line);
+                        } else {
+                            logger.debug("Coprocess '{}' [ERROR]: '{}'", commandLine, line);
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.trace("Reading {} of coprocess '{}' stopped: {}", name, commandLine, e.getMessage());
+                }
+            }, "OH-coprocess-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private boolean isAlive() {
+            return process.isAlive();
+        }
+
+        private String request(String input, long deadline)
+                throws IOException, TimeoutException, InterruptedException {
+            // discard lines not belonging to a request
+            lines.clear();
+            stdin.write(input.replace('\r', ' ').replace('\n', ' '));
+            stdin.newLine();
+            stdin.flush();
+            long remaining;
+            String line;
+            do {
+                remaining = deadline - System.nanoTime();
+                line = lines.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)), TimeUnit.NANOSECONDS);
+                if (line != null) {
+                    lastUsed = System.nanoTime();
+                    return line;
+                }
+                if (!process.isAlive() && lines.isEmpty()) {
+                    throw new IOException(
+                            "Coprocess '" + commandLine + "' terminated with exit value " + process.exitValue());
+                }
+            } while (remaining > 0);
+            throw new TimeoutException("Coprocess '" + commandLine + "' did not answer in time");
+        }
+
+        private void terminate() {
+            logger.debug("Terminating coprocess '{}'", commandLine);
+            closeStdin();
+            process.destroy();
+        }
+
+        private void kill() {
+            logger.debug("Killing coprocess '{}'", commandLine);
+            closeStdin();
+            process.destroyForcibly();
+        }
+
+        private void closeStdin() {
+            try {
+                stdin.close();
+            } catch (IOException e) {
+                // the process is destroyed anyway
+            }
+        }
+    }
+}
@@ -12,12 +12,21 @@
  */
 package org.openhab.transform.exec.internal;
 
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,19 +34,99 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * input by command line.
  *
+ * Command lines starting with {@value #COPROCESS_PREFIX} are kept running as coprocesses by a {@link CoprocessPool}.
+ * The results of command lines starting with {@value #CACHED_PREFIX} are cached for {@code cacheTimeInMS}, this is
+ * meant for commands which always return the same result for the same input. Other results are never cached.
+ *
  * @author Pauli Anttila
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=EXEC" })
+@Component(immediate = true, configurationPid = "transform.exec", property = { "smarthome.transform=EXEC" })
 public class ExecTransformationService implements TransformationService {
 
+    static final String COPROCESS_PREFIX = "coprocess:";
+    static final String CACHED_PREFIX = "cached:";
+    static final int TIMEOUT_IN_MS = 5000;
+    static final int DEFAULT_COPROCESS_POOL_SIZE = 2;
+    static final int DEFAULT_CACHE_TIME_IN_MS = 60000;
+    static final int MAX_CACHED_RESULTS = 1024;
+
+    private static final String CONFIG_COPROCESS_POOL_SIZE = "coprocessPoolSize";
+    private static final String CONFIG_CACHE_TIME = "cacheTimeInMS";
+
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
 
+    private final CoprocessPool coprocessPool = new CoprocessPool(DEFAULT_COPROCESS_POOL_SIZE,
+            CoprocessPool::splitAtDoubleAtOrWhitespace);
+    private volatile long cacheTimeInMS = DEFAULT_CACHE_TIME_IN_MS;
+
+    /** guarded by itself */
+    private final Map<String, CachedResult> cache = new LinkedHashMap<String, CachedResult>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, CachedResult> eldest) {
+            return size() > MAX_CACHED_RESULTS;
+        }
+    };
+    /** guarded by cache */
+    private long cacheHits;
+
+    private static class CachedResult {
+        private final String result;
+        private final long expiresAt;
+
+        private CachedResult(String result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Activate
+    protected void activate(@Nullable Map<String, Object> config) {
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(@Nullable Map<String, Object> config) {
+        int poolSize = getConfigValue(config, CONFIG_COPROCESS_POOL_SIZE, DEFAULT_COPROCESS_POOL_SIZE);
+        cacheTimeInMS = getConfigValue(config, CONFIG_CACHE_TIME, DEFAULT_CACHE_TIME_IN_MS);
+        coprocessPool.setMaxProcessesPerCommand(Math.max(1, poolSize));
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        coprocessPool.shutdown();
+        synchronized (cache) {
+            logger.debug("Exec transformation result cache served {} hits", cacheHits);
+            cache.clear();
+        }
+    }
+
+    private int getConfigValue(@Nullable Map<String, Object> config, String key, int defaultValue) {
+        Object value = config == null ? null : config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for {}, using {}", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by the command line.
      *
      * @param commandLine the command to execute. Command line should contain %s string,
-     *                        which will be replaced by the input data.
+     *                        which will be replaced by the input data. Command lines starting with
+     *                        {@value #COPROCESS_PREFIX} are started once and get the input data as a line on
+     *                        their standard input. The results of command lines starting with
+     *                        {@value #CACHED_PREFIX} are cached.
      * @param source      the input to transform
      */
     @Override
@@ -48,13 +137,55 @@ public class ExecTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the commandline '{}'", source, commandLine);
 
+        boolean cacheable = commandLine.startsWith(CACHED_PREFIX);
+        String command = cacheable ? commandLine.substring(CACHED_PREFIX.length()).trim() : commandLine;
+        long cacheTime = cacheTimeInMS;
+        String cacheKey = command + '\0' + source;
+        if (cacheable && cacheTime > 0) {
+            synchronized (cache) {
+                CachedResult cached = cache.get(cacheKey);
+                if (cached != null && cached.expiresAt - System.nanoTime() > 0) {
+                    cacheHits++;
+                    logger.trace("using cached result of the commandline");
+                    return cached.result;
+                }
+            }
+        }
+
         long startTime = System.currentTimeMillis();
 
-        String formattedCommandLine = String.format(commandLine, source);
-        String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, 5000);
+        String result;
+        if (command.startsWith(COPROCESS_PREFIX)) {
+            String coprocessCommandLine = command.substring(COPROCESS_PREFIX.length()).trim();
+            try {
+                result = coprocessPool.execute(coprocessCommandLine, source, TIMEOUT_IN_MS);
+            } catch (IOException | TimeoutException e) {
+                throw new TransformationException(
+                        "coprocess '" + coprocessCommandLine + "' failed: " + e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransformationException("interrupted while waiting for coprocess", e);
+            }
+        } else {
+            String formattedCommandLine = String.format(command, source);
+            result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, TIMEOUT_IN_MS);
+        }
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
 
+        if (cacheable && cacheTime > 0 && result != null) {
+            synchronized (cache) {
+                cache.put(cacheKey,
+                        new CachedResult(result, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cacheTime)));
+            }
+        }
+
         return result;
     }
 
+    /**
+     * @return the execution statistics of all coprocess command lines
+     */
+    public Map<String, CoprocessPool.Statistics> getCoprocessStatistics() {
+        return coprocessPool.getStatistics();
+    }
 }
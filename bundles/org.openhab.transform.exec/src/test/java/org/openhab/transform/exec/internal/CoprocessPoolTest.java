@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CoprocessPool}. The coprocesses are shell scripts, so the tests only run on Unix like systems.
+ *
+ * @author agent - Initial contribution
+ */
+public class CoprocessPoolTest {
+
+    private static final long TIMEOUT_IN_MS = 5000;
+    private static final String UPPERCASE = "sh@@-c@@while read line; do echo \"$line\" | tr a-z A-Z; done";
+
+    private CoprocessPool pool;
+
+    @Before
+    public void setUp() {
+        Assume.assumeFalse(System.getProperty("os.name").startsWith("Windows"));
+        pool = new CoprocessPool(2, CoprocessPool::splitAtDoubleAtOrWhitespace);
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void commandLinesAreSplitAtDoubleAtOrWhitespace() {
+        assertThat(CoprocessPool.splitAtWhitespace(" cat  -u "), is(new String[] { "cat", "-u" }));
+        assertThat(CoprocessPool.splitAtDoubleAtOrWhitespace("cat -u"), is(new String[] { "cat", "-u" }));
+        assertThat(CoprocessPool.splitAtDoubleAtOrWhitespace("sh@@-c@@echo a b"),
+                is(new String[] { "sh", "-c", "echo a b" }));
+    }
+
+    @Test
+    public void coprocessIsStartedOnceAndReused() throws Exception {
+        assertThat(pool.execute(UPPERCASE, "first", TIMEOUT_IN_MS), is("FIRST"));
+        assertThat(pool.execute(UPPERCASE, "second\nline", TIMEOUT_IN_MS), is("SECOND LINE"));
+        assertThat(pool.execute(UPPERCASE, "third", TIMEOUT_IN_MS), is("THIRD"));
+
+        CoprocessPool.Statistics statistics = pool.getStatistics().get(UPPERCASE);
+        assertThat(statistics.getExecutions(), is(3L));
+        assertThat(statistics.getProcessesStarted(), is(1L));
+        assertThat(statistics.getFailures(), is(0L));
+    }
+
+    @Test
+    public void concurrentExecutionsAreLimitedPerCommand() throws Exception {
+        String slowEcho = "sh@@-c@@while read line; do sleep 0.1; echo \"$line\"; done";
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                String input = "input " + i;
+                results.add(executor.submit(() -> pool.execute(slowEcho, input, TIMEOUT_IN_MS)));
+            }
+            for (int i = 0; i < 6; i++) {
+                assertThat(results.get(i).get(), is("input " + i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CoprocessPool.Statistics statistics = pool.getStatistics().get(slowEcho);
+        assertThat(statistics.getExecutions(), is(6L));
+        assertTrue(statistics.getProcessesStarted() <= 2);
+    }
+
+    @Test
+    public void stuckCoprocessIsKilledAndReplaced() throws Exception {
+        Path pidFile = Files.createTempFile("coprocess", ".pid");
+        try {
+            // ignores SIGTERM and never answers
+            String stuck = "sh@@-c@@trap '' TERM; echo $$ > " + pidFile + "; while true; do sleep 1; done";
+            try {
+                pool.execute(stuck, "input", 500);
+                fail("TimeoutException expected");
+            } catch (TimeoutException e) {
+                // expected
+            }
+            String pid = new String(Files.readAllBytes(pidFile), StandardCharsets.US_ASCII).trim();
+            assertFalse(pid.isEmpty());
+            assertTrue(waitForTermination(pid));
+
+            try {
+                pool.execute(stuck, "input", 500);
+                fail("TimeoutException expected");
+            } catch (TimeoutException e) {
+                // expected
+            }
+            CoprocessPool.Statistics statistics = pool.getStatistics().get(stuck);
+            assertThat(statistics.getTimeouts(), is(2L));
+            assertThat(statistics.getProcessesStarted(), is(2L));
+        } finally {
+            Files.delete(pidFile);
+        }
+    }
+
+    @Test
+    public void terminatedCoprocessFailsTheExecution() throws Exception {
+        String exiting = "sh@@-c@@read line; exit 3";
+        try {
+            pool.execute(exiting, "input", TIMEOUT_IN_MS);
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), containsString("exit value 3"));
+        }
+
+        CoprocessPool.Statistics statistics = pool.getStatistics().get(exiting);
+        assertThat(statistics.getFailures(), is(1L));
+        assertThat(statistics.getTimeouts(), is(0L));
+    }
+
+    @Test
+    public void resizingReplacesIdleCoprocesses() throws Exception {
+        assertThat(pool.execute(UPPERCASE, "before", TIMEOUT_IN_MS), is("BEFORE"));
+
+        pool.setMaxProcessesPerCommand(1);
+        assertThat(pool.getMaxProcessesPerCommand(), is(1));
+        assertThat(pool.execute(UPPERCASE, "after", TIMEOUT_IN_MS), is("AFTER"));
+        assertThat(pool.getStatistics().get(UPPERCASE).getProcessesStarted(), is(1L));
+    }
+
+    @Test
+    public void executionsFailAfterShutdown() throws Exception {
+        assertThat(pool.execute(UPPERCASE, "running", TIMEOUT_IN_MS), is("RUNNING"));
+        pool.shutdown();
+
+        try {
+            pool.execute(UPPERCASE, "stopped", TIMEOUT_IN_MS);
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertThat(pool.getStatistics().isEmpty(), is(true));
+        }
+    }
+
+    /**
+     * @return true if the process with the given id terminates in time
+     */
+    private boolean waitForTermination(String pid) throws IOException, InterruptedException {
+        long end = System.currentTimeMillis() + TIMEOUT_IN_MS;
+        while (System.currentTimeMillis() < end) {
+            Process check = new ProcessBuilder("kill", "-0", pid).start();
+            if (check.waitFor(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS) && check.exitValue() != 0) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+}
@@ -12,7 +12,11 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -28,11 +32,17 @@ import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
+import com.jayway.jsonpath.ReadContext;
 
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by JSonPath Expressions.
  *
+ * <p>
+ * Compiled expressions and the most recently parsed JSON documents are cached, so that extracting several values from
+ * the same response parses the response only once. The cached documents are limited by number and by their estimated
+ * memory footprint.
+ *
  * @author Gaël L'hopital
  * @author Sebastian Janzen
  *
@@ -41,8 +51,40 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled JsonPath expressions kept in memory
+     */
+    static final int MAX_CACHED_PATHS = 256;
+
+    /**
+     * Maximum number of parsed documents kept in memory. Channels of the same thing typically transform the same
+     * response one right after another, so a few recent documents are enough.
+     */
+    static final int MAX_CACHED_DOCUMENTS = 8;
+
+    /**
+     * Maximum memory retained by the cached documents, in bytes
+     */
+    static final long MAX_CACHED_DOCUMENTS_BYTES = 1024 * 1024;
+
+    /**
+     * Estimated memory retained per character of a cached document: the source string kept as key, and the parsed
+     * tree of maps, lists, strings and boxed values, which is several times larger than the source
+     */
+    static final int ESTIMATED_BYTES_PER_CHAR = 8;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Map<String, JsonPath> compiledPaths = createLruMap(MAX_CACHED_PATHS);
+    /** documents by source, in access order. Guarded by itself. */
+    private final Map<String, ReadContext> parsedDocuments = new LinkedHashMap<>(16, 0.75f, true);
+    /** estimated bytes retained by the parsed documents. Guarded by parsedDocuments. */
+    private long parsedDocumentsBytes;
+    /** guarded by parsedDocuments */
+    private long documentHits;
+    /** guarded by parsedDocuments */
+    private long documentMisses;
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,15 +102,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
-            logger.debug("transformation resulted in '{}'", transformationResult);
-            if (transformationResult == null) {
-                return null;
-            } else if (transformationResult instanceof List) {
-                return flattenList((List<?>) transformationResult);
-            } else {
-                return transformationResult.toString();
-            }
+            return read(getDocument(source), getPath(jsonPathExpression));
         } catch (PathNotFoundException e) {
             throw new TransformationException("Invalid path '" + jsonPathExpression + "' in '" + source + "'");
         } catch (InvalidPathException | InvalidJsonException e) {
@@ -76,6 +110,105 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private @Nullable String read(ReadContext document, JsonPath path) {
+        Object transformationResult = document.read(path);
+        logger.debug("transformation resulted in '{}'", transformationResult);
+        if (transformationResult == null) {
+            return null;
+        } else if (transformationResult instanceof List) {
+            return flattenList((List<?>) transformationResult);
+        } else {
+            return transformationResult.toString();
+        }
+    }
+
+    private JsonPath getPath(String jsonPathExpression) {
+        synchronized (compiledPaths) {
+            JsonPath path = compiledPaths.get(jsonPathExpression);
+            if (path != null) {
+                return path;
+            }
+        }
+        // compiled paths are immutable and thread-safe
+        JsonPath path = JsonPath.compile(jsonPathExpression);
+        synchronized (compiledPaths) {
+            compiledPaths.put(jsonPathExpression, path);
+        }
+        return path;
+    }
+
+    private ReadContext getDocument(String source) {
+        synchronized (parsedDocuments) {
+            // String caches its hash code and equals() checks identity first, so repeated lookups with the very same
+            // response are cheap
+            ReadContext document = parsedDocuments.get(source);
+            if (document != null) {
+                documentHits++;
+                return document;
+            }
+            documentMisses++;
+        }
+        // parsed documents are only read, never modified, so they can be shared
+        ReadContext document = JsonPath.parse(source);
+        long bytes = estimateRetainedBytes(source);
+        if (bytes <= MAX_CACHED_DOCUMENTS_BYTES) {
+            synchronized (parsedDocuments) {
+                if (parsedDocuments.put(source, document) == null) {
+                    parsedDocumentsBytes += bytes;
+                }
+                Iterator<Entry<String, ReadContext>> eldest = parsedDocuments.entrySet().iterator();
+                while (parsedDocuments.size() > MAX_CACHED_DOCUMENTS
+                        || parsedDocumentsBytes > MAX_CACHED_DOCUMENTS_BYTES) {
+                    parsedDocumentsBytes -= estimateRetainedBytes(eldest.next().getKey());
+                    eldest.remove();
+                }
+            }
+        }
+        return document;
+    }
+
+    private static long estimateRetainedBytes(String source) {
+        return (long) source.length() * ESTIMATED_BYTES_PER_CHAR;
+    }
+
+    /**
+     * @return how often a transformation found its source already parsed
+     */
+    long getDocumentHits() {
+        synchronized (parsedDocuments) {
+            return documentHits;
+        }
+    }
+
+    /**
+     * @return how often a transformation had to parse its source
+     */
+    long getDocumentMisses() {
+        synchronized (parsedDocuments) {
+            return documentMisses;
+        }
+    }
+
+    /**
+     * @return the number of parsed documents currently cached
+     */
+    int getCachedDocumentCount() {
+        synchronized (parsedDocuments) {
+            return parsedDocuments.size();
+        }
+    }
+
+    private static <V> Map<String, V> createLruMap(int maxSize) {
+        return new LinkedHashMap<String, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -129,4 +129,37 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testSameSourceSeveralPaths() throws TransformationException {
+        // the second and third transformation use the cached document
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("bob", processor.transform("$[0].name", new String(jsonArray)));
+
+        assertEquals(1, processor.getDocumentMisses());
+        assertEquals(2, processor.getDocumentHits());
+    }
+
+    @Test
+    public void testLargeDocumentsAreNotCached() throws TransformationException {
+        StringBuilder json = new StringBuilder("[");
+        long length = JSonPathTransformationService.MAX_CACHED_DOCUMENTS_BYTES
+                / JSonPathTransformationService.ESTIMATED_BYTES_PER_CHAR;
+        while (json.length() < length) {
+            json.append("{ \"id\":1, \"name\":\"bob\" },");
+        }
+        json.append("{ \"id\":2, \"name\":\"alice\" }]");
+
+        assertEquals("alice", processor.transform("$[-1].name", json.toString()));
+        assertEquals(0, processor.getCachedDocumentCount());
+    }
+
+    @Test
+    public void testNumberOfCachedDocumentsIsBounded() throws TransformationException {
+        for (int i = 0; i < JSonPathTransformationService.MAX_CACHED_DOCUMENTS + 2; i++) {
+            assertEquals(String.valueOf(i), processor.transform("$.id", "{ \"id\":" + i + " }"));
+        }
+        assertEquals(JSonPathTransformationService.MAX_CACHED_DOCUMENTS, processor.getCachedDocumentCount());
+    }
 }
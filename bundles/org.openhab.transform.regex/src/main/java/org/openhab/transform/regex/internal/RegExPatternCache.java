@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * <p>
+ * Bounded LRU cache of compiled regular expressions, keyed by the expression string given to the
+ * {@link RegExTransformationService}.
+ *
+ * <p>
+ * An expression is either a substitution in the form <code>s/regex/substitution/options</code>, or a plain expression
+ * which has to match the whole (trimmed) source. Both forms are parsed and compiled once and then shared between all
+ * callers, since {@link Pattern} is immutable and thread-safe.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RegExPatternCache {
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+
+    /**
+     * A parsed and compiled expression
+     */
+    public static class CompiledExpression {
+        private final Pattern pattern;
+        private final @Nullable String substitution;
+        private final boolean global;
+
+        private CompiledExpression(Pattern pattern, @Nullable String substitution, boolean global) {
+            this.pattern = pattern;
+            this.substitution = substitution;
+            this.global = global;
+        }
+
+        /**
+         * @return the compiled pattern. With plain expressions the pattern is anchored with <code>^</code> and
+         *         <code>$</code>
+         */
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        /**
+         * @return the substitution, or <code>null</code> if this is not a substitution expression
+         */
+        public @Nullable String getSubstitution() {
+            return substitution;
+        }
+
+        /**
+         * @return whether all occurrences are substituted (option <code>g</code>)
+         */
+        public boolean isGlobal() {
+            return global;
+        }
+
+        public boolean isSubstitution() {
+            return substitution != null;
+        }
+    }
+
+    private final int maxSize;
+    private final Map<String, CompiledExpression> cache;
+
+    /** guarded by this */
+    private long hits;
+    /** guarded by this */
+    private long misses;
+    /** guarded by this */
+    private long evictions;
+
+    public RegExPatternCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize maximum number of expressions kept in the cache
+     */
+    public RegExPatternCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<String, CompiledExpression>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, CompiledExpression> eldest) {
+                if (size() > RegExPatternCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the compiled form of an expression, compiling it on the first use
+     *
+     * @param regExpression the expression as given to the transformation
+     * @return the compiled expression
+     * @throws PatternSyntaxException if the expression is not a valid regular expression. Invalid expressions are not
+     *             cached.
+     */
+    public CompiledExpression get(String regExpression) {
+        synchronized (this) {
+            CompiledExpression compiled = cache.get(regExpression);
+            if (compiled != null) {
+                hits++;
+                return compiled;
+            }
+            misses++;
+        }
+        // compile outside of the lock, compiling the same expression twice concurrently is harmless
+        CompiledExpression compiled = compile(regExpression);
+        synchronized (this) {
+            cache.put(regExpression, compiled);
+        }
+        return compiled;
+    }
+
+    private static CompiledExpression compile(String regExpression) {
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            return new CompiledExpression(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                    substMatcher.group(3).equals("g"));
+        }
+        return new CompiledExpression(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null, false);
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RegExPatternCache [size=" + cache.size() + ", maxSize=" + maxSize + ", hits=" + hits + ", misses="
+                + misses + ", evictions=" + evictions + "]";
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.regex.internal.RegExTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the per call cost of the REGEX transformation with cached expressions to compiling the expression on every
+ * call, as the transformation did before.
+ *
+ * Run with <code>main</code> from the IDE or through the JMH runner on the test classpath.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegExTransformationBenchmark {
+
+    private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+
+    @Param({ "match", "substitution" })
+    public String expressionType;
+
+    private RegExTransformationService service;
+    private String expression;
+    private String source;
+
+    @Setup
+    public void setUp() {
+        service = new RegExTransformationService();
+        if ("match".equals(expressionType)) {
+            expression = ".*temp=(\\d*\\.\\d*)'C.*";
+            source = "cpu0 temp=44.0'C load=0.35";
+        } else {
+            expression = "s/([A-Z]+)([0-9]+),*/var$1=$2 /g";
+            source = "X12,Y54,Z3";
+        }
+    }
+
+    @Benchmark
+    public String cached() throws TransformationException {
+        return service.transform(expression, source);
+    }
+
+    @Benchmark
+    public String uncached() {
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(expression);
+        if (substMatcher.matches()) {
+            if (substMatcher.group(3).equals("g")) {
+                return source.trim().replaceAll(substMatcher.group(1), substMatcher.group(2));
+            }
+            return source.trim().replaceFirst(substMatcher.group(1), substMatcher.group(2));
+        }
+        Matcher matcher = Pattern.compile("^" + expression + "$", Pattern.DOTALL).matcher(source.trim());
+        String result = "";
+        while (matcher.find()) {
+            result = matcher.group(1);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RegExTransformationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+import org.openhab.transform.regex.internal.RegExPatternCache.CompiledExpression;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class RegExPatternCacheTest {
+
+    @Test
+    public void testSubstitutionIsParsed() {
+        CompiledExpression compiled = new RegExPatternCache().get("s/^OP:(.*?),ARG:(.*)$/$1($2)/g");
+
+        assertTrue(compiled.isSubstitution());
+        assertTrue(compiled.isGlobal());
+        assertEquals("^OP:(.*?),ARG:(.*)$", compiled.getPattern().pattern());
+        assertEquals("$1($2)", compiled.getSubstitution());
+    }
+
+    @Test
+    public void testPlainExpressionIsAnchored() {
+        CompiledExpression compiled = new RegExPatternCache().get("temp=(.*?)'C");
+
+        assertFalse(compiled.isSubstitution());
+        assertEquals("^temp=(.*?)'C$", compiled.getPattern().pattern());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        RegExPatternCache cache = new RegExPatternCache(2);
+        CompiledExpression first = cache.get("a(.*)");
+        cache.get("b(.*)");
+        // touch the first one, so that the second one is the least recently used
+        assertSame(first, cache.get("a(.*)"));
+        cache.get("c(.*)");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertSame(first, cache.get("a(.*)"));
+        cache.get("b(.*)");
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testInvalidExpressionIsNotCached() {
+        RegExPatternCache cache = new RegExPatternCache();
+        try {
+            cache.get("(unclosed");
+            fail("expected PatternSyntaxException");
+        } catch (PatternSyntaxException e) {
+            // expected
+        }
+        assertEquals(0, cache.size());
+    }
+}
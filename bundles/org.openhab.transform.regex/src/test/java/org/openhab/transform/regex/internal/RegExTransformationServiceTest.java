@@ -79,4 +79,15 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_compiledOnce() throws TransformationException {
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "X12,Y54");
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "Z1");
+        processor.transform("(.*)", "foo");
+
+        // Asserts
+        assertEquals(2, processor.getPatternCache().getMisses());
+        assertEquals(1, processor.getPatternCache().getHits());
+    }
 }
@@ -41,4 +41,36 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByXPathRepeatedly() throws TransformationException {
+
+        // method under test
+        for (int i = 0; i < XPathTransformationService.MAX_CACHED_EXPRESSIONS + 2; i++) {
+            // distinct expressions, exceeding the cache of the context
+            assertEquals("8", processor.transform("substring(//current_conditions/temp_c/@data, 1, " + (i + 1) + ")",
+                    source));
+            assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        }
+
+        // Asserts
+        assertEquals("0", processor.transform("//forecast_conditions[4]/low/@data", source));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidXml() throws TransformationException {
+        processor.transform("//current_conditions/temp_c/@data", "<xml_api_reply>");
+    }
+
+    @Test
+    public void testContextsAreReusedAndReleasedOnDeactivate() throws TransformationException {
+        processor.transform("//current_conditions/temp_c/@data", source);
+        processor.transform("//current_conditions/temp_c/@data", source);
+        assertEquals(1, processor.getPooledContextCount());
+
+        processor.deactivate();
+
+        // Asserts
+        assertEquals(0, processor.getPooledContextCount());
+    }
+
 }
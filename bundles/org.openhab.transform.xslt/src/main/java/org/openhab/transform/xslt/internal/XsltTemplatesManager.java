@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Simple cache for compiled XSLT stylesheets.
+ *
+ * {@link Templates} are thread-safe and can be shared, creating a {@link javax.xml.transform.Transformer} from them is
+ * cheap compared to parsing the stylesheet. Modified or deleted stylesheets are removed from the cache by the
+ * {@link XsltTransformationWatcher}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = XsltTemplatesManager.class)
+public class XsltTemplatesManager {
+
+    private final Logger logger = LoggerFactory.getLogger(XsltTemplatesManager.class);
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+    private final Map<String, Templates> templatesMap = new ConcurrentHashMap<>();
+
+    /**
+     * Get compiled stylesheet {@link Templates} from cache. If it is not in the cache, then load it from storage and
+     * put the compiled version into the cache.
+     *
+     * @param filename name of the stylesheet file, relative to the transformation folder
+     * @return compiled stylesheet
+     * @throws TransformationException if the stylesheet cannot be loaded or compiled
+     */
+    protected Templates getTemplates(final String filename) throws TransformationException {
+        Templates templates = templatesMap.get(filename);
+        if (templates != null) {
+            logger.trace("Loading XSLT {} from cache.", filename);
+            return templates;
+        }
+        // TransformerFactory is not thread-safe
+        synchronized (transformerFactory) {
+            templates = templatesMap.get(filename);
+            if (templates != null) {
+                return templates;
+            }
+            final String path = XsltTransformationWatcher.TRANSFORM_FOLDER + File.separator + filename;
+            logger.debug("Loading XSLT {} from storage", path);
+            try {
+                templates = transformerFactory.newTemplates(new StreamSource(new File(path)));
+            } catch (TransformerConfigurationException e) {
+                throw new TransformationException("An error occurred while loading XSLT. " + e.getMessage(), e);
+            }
+            templatesMap.put(filename, templates);
+            return templates;
+        }
+    }
+
+    /**
+     * Remove compiled stylesheets from cache
+     *
+     * @param path path of the modified or deleted file, either absolute or relative to the transformation folder
+     */
+    protected void removeFromCache(Path path) {
+        templatesMap.keySet().removeIf(filename -> {
+            if (path.endsWith(Paths.get(filename))) {
+                logger.debug("Removing XSLT {} from cache.", filename);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Remove all compiled stylesheets from cache
+     */
+    protected void clearCache() {
+        logger.debug("Removing all XSLTs from cache.");
+        templatesMap.clear();
+    }
+}
@@ -12,7 +12,11 @@
  */
 package org.openhab.transform.xslt.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.nio.file.Paths;
+
+import javax.xml.transform.Templates;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
@@ -29,6 +33,7 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
     @Before
     public void init() {
         processor = new XsltTransformationService();
+        processor.setXsltTemplatesManager(new XsltTemplatesManager());
     }
 
     @Test
@@ -41,4 +46,26 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByXSLTTwice() throws TransformationException {
+
+        // method under test
+        processor.transform("http/google_weather.xsl", source);
+        String transformedResponse = processor.transform("http/google_weather.xsl", source);
+
+        // Asserts
+        assertEquals("8", transformedResponse);
+    }
+
+    @Test
+    public void testTemplatesAreCachedUntilModified() throws TransformationException {
+        XsltTemplatesManager manager = new XsltTemplatesManager();
+
+        Templates templates = manager.getTemplates("http/google_weather.xsl");
+        assertSame(templates, manager.getTemplates("http/google_weather.xsl"));
+
+        manager.removeFromCache(Paths.get("conf", "transform", "http", "google_weather.xsl"));
+        assertNotSame(templates, manager.getTemplates("http/google_weather.xsl"));
+    }
+
 }